@@ -159,6 +159,14 @@ public interface GraphComputer {
         public default boolean supportsDirectObjects() {
             return true;
         }
+
+        /**
+         * Supports loading only the subset of the graph described by {@link VertexProgram#getGraphFilter()}.
+         * This is typically true for graph computers that read the graph from an external source (e.g. files).
+         */
+        public default boolean supportsGraphFilter() {
+            return false;
+        }
     }
 
     public static class Exceptions {
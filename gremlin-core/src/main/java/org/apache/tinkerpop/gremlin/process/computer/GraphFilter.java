@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.computer;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A GraphFilter describes the subset of the graph that a {@link VertexProgram} will actually read: the vertex property
+ * keys it references and the edge labels it walks in each direction. A {@link GraphComputer} may use the filter to
+ * avoid loading (or to discard right after decoding) the parts of each star graph that will never be touched.
+ * A {@code null} set denotes "everything" while an empty set denotes "nothing".
+ * The filter only narrows what is read -- a computer is always free to load more than the filter allows.
+ */
+public final class GraphFilter implements Serializable, Cloneable {
+
+    public static final String GRAPH_FILTER = "gremlin.graphFilter";
+
+    private Set<String> propertyKeys;
+    private Set<String> outEdgeLabels;
+    private Set<String> inEdgeLabels;
+
+    private GraphFilter(final Set<String> propertyKeys, final Set<String> outEdgeLabels, final Set<String> inEdgeLabels) {
+        this.propertyKeys = propertyKeys;
+        this.outEdgeLabels = outEdgeLabels;
+        this.inEdgeLabels = inEdgeLabels;
+    }
+
+    /**
+     * A filter that allows every vertex property and every edge.
+     */
+    public static GraphFilter all() {
+        return new GraphFilter(null, null, null);
+    }
+
+    /**
+     * A filter that allows no vertex properties and no edges. Keys and labels are then added as they are discovered.
+     */
+    public static GraphFilter none() {
+        return new GraphFilter(new HashSet<>(), new HashSet<>(), new HashSet<>());
+    }
+
+    /**
+     * Allow the provided vertex property keys. If no keys are provided, then all property keys are allowed.
+     */
+    public GraphFilter addPropertyKeys(final String... propertyKeys) {
+        if (propertyKeys.length == 0)
+            this.propertyKeys = null;
+        else if (null != this.propertyKeys)
+            this.propertyKeys.addAll(Arrays.asList(propertyKeys));
+        return this;
+    }
+
+    /**
+     * Allow the provided edge labels in the provided direction. If no labels are provided, then all labels are allowed.
+     */
+    public GraphFilter addEdgeLabels(final Direction direction, final String... edgeLabels) {
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH))
+            this.outEdgeLabels = addLabels(this.outEdgeLabels, edgeLabels);
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH))
+            this.inEdgeLabels = addLabels(this.inEdgeLabels, edgeLabels);
+        return this;
+    }
+
+    /**
+     * Allow everything that the provided filter allows.
+     */
+    public GraphFilter merge(final GraphFilter other) {
+        this.propertyKeys = union(this.propertyKeys, other.propertyKeys);
+        this.outEdgeLabels = union(this.outEdgeLabels, other.outEdgeLabels);
+        this.inEdgeLabels = union(this.inEdgeLabels, other.inEdgeLabels);
+        return this;
+    }
+
+    /**
+     * Remove any restriction on vertex properties.
+     */
+    public GraphFilter allowAllPropertyKeys() {
+        this.propertyKeys = null;
+        return this;
+    }
+
+    /**
+     * Remove any restriction on edges.
+     */
+    public GraphFilter allowAllEdges() {
+        this.outEdgeLabels = null;
+        this.inEdgeLabels = null;
+        return this;
+    }
+
+    public boolean allowsAll() {
+        return this.allowsAllPropertyKeys() && this.allowsAllEdgeLabels(Direction.BOTH);
+    }
+
+    public boolean allowsAllPropertyKeys() {
+        return null == this.propertyKeys;
+    }
+
+    public boolean allowsPropertyKey(final String propertyKey) {
+        return null == this.propertyKeys || this.propertyKeys.contains(propertyKey);
+    }
+
+    public boolean allowsAllEdgeLabels(final Direction direction) {
+        switch (direction) {
+            case OUT:
+                return null == this.outEdgeLabels;
+            case IN:
+                return null == this.inEdgeLabels;
+            default:
+                return null == this.outEdgeLabels && null == this.inEdgeLabels;
+        }
+    }
+
+    /**
+     * Whether any edge at all is allowed in the provided direction (for {@link Direction#BOTH}, in either direction).
+     */
+    public boolean allowsEdges(final Direction direction) {
+        switch (direction) {
+            case OUT:
+                return null == this.outEdgeLabels || !this.outEdgeLabels.isEmpty();
+            case IN:
+                return null == this.inEdgeLabels || !this.inEdgeLabels.isEmpty();
+            default:
+                return this.allowsEdges(Direction.OUT) || this.allowsEdges(Direction.IN);
+        }
+    }
+
+    /**
+     * Whether an edge with the provided label is allowed in the provided direction (for {@link Direction#BOTH}, in either direction).
+     */
+    public boolean allowsEdgeLabel(final Direction direction, final String edgeLabel) {
+        switch (direction) {
+            case OUT:
+                return null == this.outEdgeLabels || this.outEdgeLabels.contains(edgeLabel);
+            case IN:
+                return null == this.inEdgeLabels || this.inEdgeLabels.contains(edgeLabel);
+            default:
+                return this.allowsEdgeLabel(Direction.OUT, edgeLabel) || this.allowsEdgeLabel(Direction.IN, edgeLabel);
+        }
+    }
+
+    public void storeState(final Configuration configuration) {
+        VertexProgramHelper.serialize(this, configuration, GRAPH_FILTER);
+    }
+
+    /**
+     * Load the filter stored in the configuration. If no filter is stored, then a filter that allows everything is returned.
+     */
+    public static GraphFilter loadState(final Configuration configuration) {
+        return configuration.containsKey(GRAPH_FILTER) ? VertexProgramHelper.deserialize(configuration, GRAPH_FILTER) : GraphFilter.all();
+    }
+
+    @Override
+    public GraphFilter clone() {
+        return new GraphFilter(copy(this.propertyKeys), copy(this.outEdgeLabels), copy(this.inEdgeLabels));
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof GraphFilter &&
+                Objects.equals(this.propertyKeys, ((GraphFilter) other).propertyKeys) &&
+                Objects.equals(this.outEdgeLabels, ((GraphFilter) other).outEdgeLabels) &&
+                Objects.equals(this.inEdgeLabels, ((GraphFilter) other).inEdgeLabels);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.propertyKeys, this.outEdgeLabels, this.inEdgeLabels);
+    }
+
+    @Override
+    public String toString() {
+        return "graphfilter[properties:" + toString(this.propertyKeys) + ",outE:" + toString(this.outEdgeLabels) + ",inE:" + toString(this.inEdgeLabels) + "]";
+    }
+
+    private static Set<String> addLabels(final Set<String> labels, final String... edgeLabels) {
+        if (null == labels || edgeLabels.length == 0)
+            return null;
+        labels.addAll(Arrays.asList(edgeLabels));
+        return labels;
+    }
+
+    private static Set<String> union(final Set<String> set, final Set<String> other) {
+        if (null == set || null == other)
+            return null;
+        set.addAll(other);
+        return set;
+    }
+
+    private static Set<String> copy(final Set<String> set) {
+        return null == set ? null : new HashSet<>(set);
+    }
+
+    private static String toString(final Set<String> set) {
+        return null == set ? "*" : set.toString();
+    }
+}
@@ -183,6 +183,17 @@ public interface VertexProgram<M> extends Cloneable {
         return Collections.emptySet();
     }
 
+    /**
+     * The {@link GraphFilter} denotes the vertex property keys and edge labels that the {@link VertexProgram} will read.
+     * A {@link GraphComputer} that supports graph filters may choose to not load the remainder of the graph.
+     * The default is a filter that allows the entire graph.
+     *
+     * @return the subset of the graph that the vertex program will access
+     */
+    public default GraphFilter getGraphFilter() {
+        return GraphFilter.all();
+    }
+
     /**
      * When multiple workers on a single machine need VertexProgram instances, it is possible to use clone.
      * This will provide a speedier way of generating instances, over the {@link VertexProgram#storeState} and {@link VertexProgram#loadState} model.
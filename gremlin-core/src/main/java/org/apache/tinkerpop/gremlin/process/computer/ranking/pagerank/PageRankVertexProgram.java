@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.Memory;
 import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
@@ -29,6 +30,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalObjectFuncti
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalScriptFunction;
 import org.apache.tinkerpop.gremlin.process.computer.util.AbstractVertexProgramBuilder;
 import org.apache.tinkerpop.gremlin.process.computer.util.ConfigurationTraversal;
+import org.apache.tinkerpop.gremlin.process.computer.util.GraphFilterHelper;
 import org.apache.tinkerpop.gremlin.process.computer.util.StaticVertexProgram;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
@@ -112,6 +114,13 @@ public class PageRankVertexProgram extends StaticVertexProgram<Double> {
         return COMPUTE_KEYS;
     }
 
+    @Override
+    public GraphFilter getGraphFilter() {
+        // the incident traversal is walked forwards to distribute rank and in reverse to count edges
+        return GraphFilterHelper.getGraphFilter(this.incidentMessageScope.getIncidentTraversal().get().asAdmin())
+                .merge(GraphFilterHelper.getGraphFilter(this.countMessageScope.getIncidentTraversal().get().asAdmin()));
+    }
+
     @Override
     public Optional<MessageCombiner<Double>> getMessageCombiner() {
         return (Optional) PageRankMessageCombiner.instance();
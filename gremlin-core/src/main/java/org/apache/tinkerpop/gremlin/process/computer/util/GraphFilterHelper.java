@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.computer.util;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ComputerResultStep;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.AbstractLambdaTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ConstantTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.IdentityTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.LoopTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TokenTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TrueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.ComparatorHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.BranchStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.ChooseStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.UnionStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.AndStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.CoinStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.CyclicPathStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.IsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.NotStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.OrStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SimplePathStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TailGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TimeLimitStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.WherePredicateStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.WhereTraversalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CoalesceStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.ConstantStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.DedupLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeOtherVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.HasNextStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LabelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapKeysStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapValuesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MaxGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MaxLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MeanGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MeanLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MinGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MinLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PathStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyElementStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyKeyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyValueStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.RangeLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SampleLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SelectOneStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SelectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TailLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TraversalFlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TraversalMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TreeStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.UnfoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.AggregateStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GroupCountSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GroupSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.InjectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StoreStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.TraversalSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.TreeSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ComputerAwareStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementValueComparator;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.PathIdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.TraversalComparator;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Derives a {@link GraphFilter} from a {@link Traversal} by walking its steps (and the steps of its children).
+ * The analysis is conservative: if a step is encountered whose access to the graph is unknown (e.g. a lambda step),
+ * then a filter that allows everything is returned.
+ */
+public final class GraphFilterHelper {
+
+    /**
+     * Steps that do not read any vertex properties or edges beyond what their children (if any) read.
+     */
+    private static final Set<Class<? extends Step>> PASSIVE_STEPS = new HashSet<>(Arrays.asList(
+            // branch
+            BranchStep.class, ChooseStep.class, LocalStep.class, RepeatStep.class, RepeatStep.RepeatEndStep.class, UnionStep.class, ComputerAwareStep.EndStep.class,
+            // filter
+            AndStep.class, OrStep.class, NotStep.class, CoinStep.class, CyclicPathStep.class, SimplePathStep.class, DedupGlobalStep.class, HasStep.class, IsStep.class,
+            RangeGlobalStep.class, SampleGlobalStep.class, TailGlobalStep.class, TimeLimitStep.class, TraversalFilterStep.class,
+            WherePredicateStep.class, WhereTraversalStep.class, WhereTraversalStep.WhereStartStep.class, WhereTraversalStep.WhereEndStep.class,
+            // map
+            CoalesceStep.class, ConstantStep.class, CountGlobalStep.class, CountLocalStep.class, DedupLocalStep.class, EdgeOtherVertexStep.class, EdgeVertexStep.class,
+            FoldStep.class, GroupCountStep.class, GroupStep.class, HasNextStep.class, IdStep.class, LabelStep.class, MapKeysStep.class, MapValuesStep.class,
+            MaxGlobalStep.class, MaxLocalStep.class, MeanGlobalStep.class, MeanLocalStep.class, MinGlobalStep.class, MinLocalStep.class, OrderGlobalStep.class,
+            OrderLocalStep.class, PathStep.class, PropertyElementStep.class, PropertyKeyStep.class, PropertyValueStep.class, RangeLocalStep.class,
+            SampleLocalStep.class, SelectOneStep.class, SelectStep.class, SumGlobalStep.class, SumLocalStep.class, TailLocalStep.class, TraversalFlatMapStep.class,
+            TraversalMapStep.class, TreeStep.class, UnfoldStep.class,
+            // side-effect
+            AggregateStep.class, GroupCountSideEffectStep.class, GroupSideEffectStep.class, IdentityStep.class, InjectStep.class, ProfileStep.class,
+            SideEffectCapStep.class, StartStep.class, StoreStep.class, TraversalSideEffectStep.class, TreeSideEffectStep.class,
+            // util
+            NoOpBarrierStep.class, PathIdentityStep.class, ComputerResultStep.class));
+
+    private GraphFilterHelper() {
+    }
+
+    public static GraphFilter getGraphFilter(final Traversal.Admin<?, ?> traversal) {
+        final GraphFilter graphFilter = GraphFilter.none();
+        return addTraversal(graphFilter, traversal) ? graphFilter : GraphFilter.all();
+    }
+
+    private static boolean addTraversal(final GraphFilter graphFilter, final Traversal.Admin<?, ?> traversal) {
+        if (traversal instanceof ElementValueTraversal) {
+            graphFilter.addPropertyKeys(((ElementValueTraversal) traversal).getPropertyKey());
+            return true;
+        } else if (traversal instanceof AbstractLambdaTraversal) {
+            return traversal instanceof TokenTraversal ||
+                    traversal instanceof IdentityTraversal ||
+                    traversal instanceof ConstantTraversal ||
+                    traversal instanceof TrueTraversal ||
+                    traversal instanceof LoopTraversal;
+        }
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (!addStep(graphFilter, step))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean addStep(final GraphFilter graphFilter, final Step<?, ?> step) {
+        if (step instanceof GraphStep) {
+            // edge starts are generated from the outgoing edges of each vertex
+            if (((GraphStep) step).returnsEdge())
+                graphFilter.addEdgeLabels(Direction.OUT);
+        } else if (step instanceof VertexStep) {
+            final VertexStep<?> vertexStep = (VertexStep) step;
+            graphFilter.addEdgeLabels(vertexStep.getDirection(), vertexStep.getEdgeLabels());
+            // an edge is always hosted (and thus, resolved) at its out-vertex
+            if (vertexStep.returnsEdge())
+                graphFilter.addEdgeLabels(Direction.OUT, vertexStep.getEdgeLabels());
+        } else if (step instanceof PropertiesStep) {
+            graphFilter.addPropertyKeys(((PropertiesStep) step).getPropertyKeys());
+        } else if (step instanceof PropertyMapStep) {
+            graphFilter.addPropertyKeys(((PropertyMapStep) step).getPropertyKeys());
+        } else if (!PASSIVE_STEPS.contains(step.getClass()))
+            return false;
+
+        if (step instanceof HasContainerHolder) {
+            for (final HasContainer hasContainer : ((HasContainerHolder) step).getHasContainers()) {
+                if (!Graph.Hidden.isHidden(hasContainer.getKey()))
+                    graphFilter.addPropertyKeys(hasContainer.getKey());
+            }
+        }
+        if (step instanceof ComparatorHolder) {
+            for (final Comparator<?> comparator : ((ComparatorHolder<?>) step).getComparators()) {
+                if (comparator instanceof ElementValueComparator)
+                    graphFilter.addPropertyKeys(((ElementValueComparator) comparator).getPropertyKey());
+                else if (!(comparator instanceof Order) && !(comparator instanceof TraversalComparator))
+                    return false;
+            }
+        }
+        if (step instanceof TraversalParent) {
+            for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                if (!addTraversal(graphFilter, child))
+                    return false;
+            }
+            for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                if (!addTraversal(graphFilter, child))
+                    return false;
+            }
+        }
+        return true;
+    }
+}
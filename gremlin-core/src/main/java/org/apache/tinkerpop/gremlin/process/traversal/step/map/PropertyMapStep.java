@@ -72,6 +72,10 @@ public class PropertyMapStep<E> extends MapStep<Element, Map<String, E>> {
         }
     }
 
+    public String[] getPropertyKeys() {
+        return this.propertyKeys;
+    }
+
     public PropertyType getReturnType() {
         return this.returnType;
     }
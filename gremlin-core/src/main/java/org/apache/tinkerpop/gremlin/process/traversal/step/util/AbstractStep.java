@@ -21,6 +21,7 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CancellationToken;
 import org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
@@ -115,6 +116,7 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     @Override
     public Traverser<E> next() {
+        CancellationToken.checkCancelled();
         if (null != this.nextEnd) {
             try {
                 return this.prepareTraversalForNextStep(this.nextEnd);
@@ -135,6 +137,7 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
         if (null != this.nextEnd)
             return true;
         else {
+            CancellationToken.checkCancelled();
             try {
                 while (true) {
                     this.nextEnd = this.processNextStart();
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A flag for cooperatively stopping the traversals that a thread is executing.  The token is bound to the thread
+ * that runs some unit of work (e.g. a request to Gremlin Server) and may be cancelled from any other thread, after
+ * which the steps of a traversal iterated by the bound thread throw a {@link TraversalInterruptedException} the next
+ * time a traverser is pulled through them.  Unlike interrupting the thread, cancelling a token does not disturb any
+ * I/O that the underlying graph might be in the middle of.
+ */
+public final class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> BOUND = new ThreadLocal<>();
+
+    /**
+     * The number of tokens that are both bound to a thread and cancelled.  While this is zero, which is nearly always
+     * the case, {@link #checkCancelled()} does not need to look at the {@code ThreadLocal} at all.
+     */
+    private static final AtomicInteger boundAndCancelled = new AtomicInteger(0);
+
+    private volatile boolean cancelled = false;
+    private boolean bound = false;
+
+    /**
+     * Cancels the token.  Calling this method more than once has no further effect.
+     */
+    public synchronized void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        if (bound) boundAndCancelled.incrementAndGet();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Binds the token to the current thread, replacing any token that was already bound to it.
+     */
+    public static void bind(final CancellationToken token) {
+        unbind();
+        synchronized (token) {
+            if (token.bound) throw new IllegalStateException("The token is already bound to a thread");
+            token.bound = true;
+            if (token.cancelled) boundAndCancelled.incrementAndGet();
+        }
+
+        BOUND.set(token);
+    }
+
+    /**
+     * Removes the token bound to the current thread, if there is one.
+     */
+    public static void unbind() {
+        final CancellationToken token = BOUND.get();
+        if (null == token) return;
+
+        BOUND.remove();
+        synchronized (token) {
+            token.bound = false;
+            if (token.cancelled) boundAndCancelled.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the token bound to the current thread or {@code null} if there isn't one.
+     */
+    public static CancellationToken current() {
+        return BOUND.get();
+    }
+
+    /**
+     * Throws a {@link TraversalInterruptedException} if the token bound to the current thread was cancelled.
+     */
+    public static void checkCancelled() {
+        if (boundAndCancelled.get() > 0) {
+            final CancellationToken token = BOUND.get();
+            if (token != null && token.cancelled) throw new TraversalInterruptedException();
+        }
+    }
+}
@@ -24,6 +24,7 @@ package org.apache.tinkerpop.gremlin.structure.util.star;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
@@ -274,6 +275,44 @@ public final class StarGraph implements Graph, Serializable {
             }
         }
 
+        /**
+         * Remove the vertex properties and edges that are not allowed by the provided {@link GraphFilter}.
+         */
+        public void applyGraphFilter(final GraphFilter graphFilter) {
+            if (null != this.vertexProperties && !graphFilter.allowsAllPropertyKeys()) {
+                final Iterator<Map.Entry<String, List<VertexProperty>>> iterator = this.vertexProperties.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    final Map.Entry<String, List<VertexProperty>> entry = iterator.next();
+                    if (!graphFilter.allowsPropertyKey(entry.getKey())) {
+                        if (null != metaProperties)
+                            entry.getValue().forEach(property -> metaProperties.remove(property.id()));
+                        iterator.remove();
+                    }
+                }
+            }
+            this.outEdges = filterEdges(this.outEdges, Direction.OUT, graphFilter);
+            this.inEdges = filterEdges(this.inEdges, Direction.IN, graphFilter);
+        }
+
+        private Map<String, List<Edge>> filterEdges(final Map<String, List<Edge>> edges, final Direction direction, final GraphFilter graphFilter) {
+            if (null == edges || graphFilter.allowsAllEdgeLabels(direction))
+                return edges;
+            final Iterator<Map.Entry<String, List<Edge>>> iterator = edges.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, List<Edge>> entry = iterator.next();
+                if (!graphFilter.allowsEdgeLabel(direction, entry.getKey())) {
+                    if (null != edgeProperties) {
+                        // a self-loop shares its properties with its twin in the other direction
+                        entry.getValue().stream()
+                                .filter(edge -> !((StarEdge) edge).otherId.equals(this.id))
+                                .forEach(edge -> edgeProperties.remove(edge.id()));
+                    }
+                    iterator.remove();
+                }
+            }
+            return edges.isEmpty() ? null : edges;
+        }
+
         @Override
         public Edge addEdge(final String label, final Vertex inVertex, final Object... keyValues) {
             return this.addOutEdge(label, inVertex, keyValues);
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.computer.util;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GraphFilterHelperTest {
+
+    private final GraphTraversalSource g = EmptyGraph.instance().traversal();
+
+    @Test
+    public void shouldOnlyAllowTheWalkedEdgesAndReferencedProperties() {
+        final GraphFilter graphFilter = GraphFilterHelper.getGraphFilter(g.V().out("knows").values("name").asAdmin());
+        assertFalse(graphFilter.allowsAll());
+        assertTrue(graphFilter.allowsPropertyKey("name"));
+        assertFalse(graphFilter.allowsPropertyKey("age"));
+        assertTrue(graphFilter.allowsEdgeLabel(Direction.OUT, "knows"));
+        assertFalse(graphFilter.allowsEdgeLabel(Direction.OUT, "created"));
+        assertFalse(graphFilter.allowsEdges(Direction.IN));
+    }
+
+    @Test
+    public void shouldAllowOutgoingEdgesWhenEdgesAreReturned() {
+        GraphFilter graphFilter = GraphFilterHelper.getGraphFilter(g.V().inE("created").values("weight").asAdmin());
+        assertTrue(graphFilter.allowsEdgeLabel(Direction.IN, "created"));
+        assertTrue(graphFilter.allowsEdgeLabel(Direction.OUT, "created"));
+        assertFalse(graphFilter.allowsEdgeLabel(Direction.BOTH, "knows"));
+        graphFilter = GraphFilterHelper.getGraphFilter(g.E().count().asAdmin());
+        assertTrue(graphFilter.allowsAllEdgeLabels(Direction.OUT));
+        assertFalse(graphFilter.allowsEdges(Direction.IN));
+        assertFalse(graphFilter.allowsPropertyKey("name"));
+    }
+
+    @Test
+    public void shouldIncludeKeysOfHasContainersAndModulators() {
+        final GraphFilter graphFilter = GraphFilterHelper.getGraphFilter(g.V().has("age", P.gt(30)).hasLabel("person")
+                .order().by("name", Order.incr).local(__.both().groupCount().by("lang")).id().asAdmin());
+        assertTrue(graphFilter.allowsPropertyKey("age"));
+        assertTrue(graphFilter.allowsPropertyKey("name"));
+        assertTrue(graphFilter.allowsPropertyKey("lang"));
+        assertFalse(graphFilter.allowsPropertyKey("~label"));
+        assertFalse(graphFilter.allowsPropertyKey("location"));
+        assertTrue(graphFilter.allowsAllEdgeLabels(Direction.BOTH));
+    }
+
+    @Test
+    public void shouldAllowAllPropertiesIfNoKeysAreProvided() {
+        final GraphFilter graphFilter = GraphFilterHelper.getGraphFilter(g.V().valueMap().asAdmin());
+        assertTrue(graphFilter.allowsAllPropertyKeys());
+        assertFalse(graphFilter.allowsEdges(Direction.BOTH));
+    }
+
+    @Test
+    public void shouldAllowEverythingIfALambdaIsUsed() {
+        assertTrue(GraphFilterHelper.getGraphFilter(g.V().out("knows").map(t -> t.get()).asAdmin()).allowsAll());
+        assertTrue(GraphFilterHelper.getGraphFilter(g.V().out("knows").filter(__.map(t -> t.get())).asAdmin()).allowsAll());
+        assertTrue(GraphFilterHelper.getGraphFilter(g.V().order().by((a, b) -> 0).asAdmin()).allowsAll());
+    }
+
+    @Test
+    public void shouldMergeAndStoreGraphFilters() {
+        final GraphFilter graphFilter = GraphFilter.none().addPropertyKeys("name").addEdgeLabels(Direction.OUT, "knows");
+        graphFilter.merge(GraphFilter.none().addEdgeLabels(Direction.IN, "created"));
+        assertTrue(graphFilter.allowsEdgeLabel(Direction.OUT, "knows"));
+        assertTrue(graphFilter.allowsEdgeLabel(Direction.IN, "created"));
+        assertFalse(graphFilter.allowsEdgeLabel(Direction.IN, "knows"));
+        graphFilter.merge(GraphFilter.none().addEdgeLabels(Direction.IN));
+        assertTrue(graphFilter.allowsAllEdgeLabels(Direction.IN));
+        assertFalse(graphFilter.allowsAllEdgeLabels(Direction.OUT));
+
+        final Configuration configuration = new BaseConfiguration();
+        assertEquals(GraphFilter.all(), GraphFilter.loadState(configuration));
+        graphFilter.storeState(configuration);
+        assertEquals(graphFilter, GraphFilter.loadState(configuration));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CancellationTokenTest {
+
+    @After
+    public void tearDown() {
+        CancellationToken.unbind();
+    }
+
+    @Test
+    public void shouldStopTraversalWhenBoundTokenIsCancelled() {
+        final CancellationToken token = new CancellationToken();
+        CancellationToken.bind(token);
+        assertSame(token, CancellationToken.current());
+
+        final GraphTraversal<Integer, Integer> traversal = __.inject(1, 2, 3);
+        assertEquals(1, traversal.next().intValue());
+
+        token.cancel();
+        assertTrue(token.isCancelled());
+        try {
+            traversal.next();
+            fail("The traversal should have been cancelled");
+        } catch (TraversalInterruptedException ignored) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldNotStopTraversalOnThreadWithoutCancelledToken() throws Exception {
+        final CancellationToken token = new CancellationToken();
+        CancellationToken.bind(token);
+        token.cancel();
+
+        // the cancelled token is only bound to the test thread
+        final Thread other = new Thread(() -> assertEquals(3, __.inject(1, 2, 3).toList().size()));
+        final boolean[] failed = {false};
+        other.setUncaughtExceptionHandler((t, e) -> failed[0] = true);
+        other.start();
+        other.join();
+        assertFalse(failed[0]);
+
+        CancellationToken.unbind();
+        assertNull(CancellationToken.current());
+        assertEquals(3, __.inject(1, 2, 3).toList().size());
+    }
+}
@@ -20,11 +20,15 @@ package org.apache.tinkerpop.gremlin.driver;
 
 import org.apache.tinkerpop.gremlin.driver.exception.ConnectionException;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.util.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -34,6 +38,8 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
@@ -91,6 +97,14 @@ public abstract class Client {
      */
     public abstract Client rebind(final String graphOrTraversalSource);
 
+    /**
+     * Create a new {@code Client} that sends the script evaluations made through it to the server in batches.  Only
+     * sessionless clients support batching.  See {@link BatchingClient}.
+     */
+    public Client batching() {
+        throw new UnsupportedOperationException(String.format("%s does not support batching", getClass().getSimpleName()));
+    }
+
     /**
      * Initializes the client which typically means that a connection is established to the server.  Depending on the
      * implementation and configuration this blocking call may take some time.  This method will be called
@@ -163,6 +177,135 @@ public abstract class Client {
         return submitAsync(buildMessage(request));
     }
 
+    /**
+     * Prepares a Gremlin script on the server, which compiles it once and keeps it compiled, and returns the handle
+     * by which it can then be evaluated with {@link #submitPrepared(String, Map)}.  Evaluating a prepared script
+     * sends only its handle and parameters to the server and spares the server from looking up the compiled form
+     * of the script by its text.  The same script always gets the same handle, so preparing it again is harmless.
+     * Only sessionless clients can prepare scripts and they prepare them on all hosts of the {@link Cluster}.
+     *
+     * @param gremlin the gremlin script to prepare
+     */
+    public String prepare(final String gremlin) {
+        try {
+            return prepareAsync(gremlin).get();
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * The asynchronous version of {@link #prepare(String)} where the returned future will complete with the handle
+     * of the script once it is prepared.
+     *
+     * @param gremlin the gremlin script to prepare
+     */
+    public CompletableFuture<String> prepareAsync(final String gremlin) {
+        throw new UnsupportedOperationException(String.format("%s does not support preparing scripts", getClass().getSimpleName()));
+    }
+
+    /**
+     * Drops a script prepared with {@link #prepare(String)} from the servers so that they no longer keep it compiled.
+     * The script will not be prepared again on hosts that reconnect.
+     *
+     * @param scriptHandle the handle of the prepared script to drop
+     */
+    public void unprepare(final String scriptHandle) {
+        try {
+            unprepareAsync(scriptHandle).get();
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * The asynchronous version of {@link #unprepare(String)} where the returned future will complete once the
+     * script is dropped from the servers.
+     *
+     * @param scriptHandle the handle of the prepared script to drop
+     */
+    public CompletableFuture<Void> unprepareAsync(final String scriptHandle) {
+        throw new UnsupportedOperationException(String.format("%s does not support unpreparing scripts", getClass().getSimpleName()));
+    }
+
+    /**
+     * Submits the handle of a script prepared with {@link #prepare(String)} and bound parameters to the server and
+     * returns a {@link ResultSet} once the write of the request is complete.
+     *
+     * @param scriptHandle the handle of the prepared script to execute
+     * @param parameters a map of parameters that will be bound to the script on execution
+     */
+    public ResultSet submitPrepared(final String scriptHandle, final Map<String, Object> parameters) {
+        try {
+            return submitPreparedAsync(scriptHandle, parameters).get();
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * The asynchronous version of {@link #submitPrepared(String, Map)} where the returned future will complete when
+     * the write of the request completes.
+     *
+     * @param scriptHandle the handle of the prepared script to execute
+     * @param parameters a map of parameters that will be bound to the script on execution
+     */
+    public CompletableFuture<ResultSet> submitPreparedAsync(final String scriptHandle, final Map<String, Object> parameters) {
+        final RequestMessage.Builder request = RequestMessage.build(Tokens.OPS_EVAL)
+                .add(Tokens.ARGS_SCRIPT_HANDLE, scriptHandle)
+                .add(Tokens.ARGS_BATCH_SIZE, cluster.connectionPoolSettings().resultIterationBatchSize);
+
+        Optional.ofNullable(parameters).ifPresent(params -> request.addArg(Tokens.ARGS_BINDINGS, parameters));
+
+        return submitAsync(buildMessage(request));
+    }
+
+    /**
+     * Submits a {@link Traversal} to the server for execution against the specified {@link Graph} or
+     * {@link TraversalSource} and returns a {@link ResultSet} once the write of the request is complete.  The
+     * traversal is sent in serialized form and iterated directly on the server, so it does not pass through
+     * the {@code ScriptEngine}.  The traversal should be constructed from a {@link TraversalSource} that is
+     * not bound to a graph instance (e.g. {@code EmptyGraph.instance().traversal()}) and must not have been
+     * iterated.
+     *
+     * @param traversal the traversal to execute
+     * @param graphOrTraversalSource the name of the global Gremlin Server variable to execute the traversal against
+     */
+    public ResultSet submit(final Traversal traversal, final String graphOrTraversalSource) {
+        try {
+            return submitAsync(traversal, graphOrTraversalSource).get();
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * The asynchronous version of {@link #submit(Traversal, String)} where the returned future will complete
+     * when the write of the request completes.
+     *
+     * @param traversal the traversal to execute
+     * @param graphOrTraversalSource the name of the global Gremlin Server variable to execute the traversal against
+     */
+    public CompletableFuture<ResultSet> submitAsync(final Traversal traversal, final String graphOrTraversalSource) {
+        if (traversal.asAdmin().isLocked())
+            throw new IllegalStateException("The traversal has already been iterated and cannot be submitted");
+
+        final byte[] serializedTraversal;
+        try {
+            serializedTraversal = Serializer.serializeObject(traversal);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("The traversal could not be serialized", ioe);
+        }
+
+        final RequestMessage.Builder request = RequestMessage.build(Tokens.OPS_TRAVERSE)
+                .processor("traversal")
+                .add(Tokens.ARGS_GREMLIN, serializedTraversal)
+                .add(Tokens.ARGS_TRAVERSAL_SOURCE, graphOrTraversalSource)
+                .add(Tokens.ARGS_BATCH_SIZE, cluster.connectionPoolSettings().resultIterationBatchSize);
+
+        return submitAsync(request.create());
+    }
+
     /**
      * A low-level method that allows the submission of a manually constructed {@link RequestMessage}.
      */
@@ -170,6 +313,9 @@ public abstract class Client {
         if (!initialized)
             init();
 
+        final Optional<ResultSet> cached = fromCache(msg);
+        if (cached.isPresent()) return CompletableFuture.completedFuture(cached.get());
+
         final CompletableFuture<ResultSet> future = new CompletableFuture<>();
         Connection connection = null;
         try {
@@ -191,6 +337,42 @@ public abstract class Client {
         }
     }
 
+    /**
+     * Gets a {@link ResultSet} of the cached results of the request if it opts in to caching with the
+     * {@link Tokens#ARGS_CACHE} argument and the {@link ResultCache} holds results for it.
+     */
+    Optional<ResultSet> fromCache(final RequestMessage msg) {
+        final ResultCache resultCache = cluster.getResultCache();
+        if (!resultCache.isCacheable(msg)) return Optional.empty();
+
+        final List<Result> results = resultCache.get(msg);
+        if (null == results) return Optional.empty();
+
+        final CompletableFuture<Void> readCompleted = CompletableFuture.completedFuture(null);
+        final ResultQueue queue = new ResultQueue(new LinkedBlockingQueue<>(results), readCompleted);
+        return Optional.of(new ResultSet(queue, cluster.executor(), readCompleted));
+    }
+
+    /**
+     * Sends a script to prepare on the given borrowed {@link Connection}, which the response returns to its pool,
+     * and completes with the handle of the script.
+     */
+    static CompletableFuture<String> prepareOn(final Connection connection, final String gremlin) {
+        final CompletableFuture<ResultSet> future = new CompletableFuture<>();
+        connection.write(RequestMessage.build(Tokens.OPS_PREPARE).add(Tokens.ARGS_GREMLIN, gremlin).create(), future);
+        return future.thenCompose(ResultSet::all).thenApply(results -> results.get(0).getString());
+    }
+
+    /**
+     * Sends a script handle to unprepare on the given borrowed {@link Connection}, which the response returns to its
+     * pool.
+     */
+    static CompletableFuture<Void> unprepareOn(final Connection connection, final String scriptHandle) {
+        final CompletableFuture<ResultSet> future = new CompletableFuture<>();
+        connection.write(RequestMessage.build(Tokens.OPS_UNPREPARE).add(Tokens.ARGS_SCRIPT_HANDLE, scriptHandle).create(), future);
+        return future.thenCompose(ResultSet::all).thenApply(results -> null);
+    }
+
     /**
      * Closes the client by making a synchronous call to {@link #closeAsync()}.
      */
@@ -278,6 +460,67 @@ public abstract class Client {
             return new ReboundClusteredClient(this, rebindings);
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public BatchingClient batching() {
+            return new BatchingClient(this);
+        }
+
+        /**
+         * Prepares the script on every available host so that it is ready to be evaluated by its handle on any of
+         * them.  Hosts that are unavailable prepare the scripts of the {@link Cluster} when they reconnect.
+         */
+        @Override
+        public CompletableFuture<String> prepareAsync(final String gremlin) {
+            if (!initialized)
+                init();
+
+            final List<CompletableFuture<String>> prepared = new ArrayList<>();
+            for (ConnectionPool pool : hostConnectionPools.values()) {
+                if (!pool.host.isAvailable()) continue;
+                try {
+                    prepared.add(prepareOn(pool.borrowConnection(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS), gremlin));
+                } catch (Exception ex) {
+                    logger.warn("Could not borrow a connection to prepare a script on {} - it will be prepared when the host reconnects", pool.host);
+                }
+            }
+
+            if (prepared.isEmpty())
+                throw new RuntimeException(new TimeoutException("Timed out waiting for an available host."));
+
+            return CompletableFuture.allOf(prepared.toArray(new CompletableFuture[prepared.size()])).thenApply(v -> {
+                final String scriptHandle = prepared.get(0).join();
+                cluster.prepared(scriptHandle, gremlin);
+                return scriptHandle;
+            });
+        }
+
+        /**
+         * Unprepares the script on every available host.  Hosts that are unavailable drop their prepared scripts
+         * anyway should they restart, and the script is no longer prepared on hosts that reconnect.
+         */
+        @Override
+        public CompletableFuture<Void> unprepareAsync(final String scriptHandle) {
+            if (!initialized)
+                init();
+
+            cluster.unprepared(scriptHandle);
+
+            final List<CompletableFuture<Void>> unprepared = new ArrayList<>();
+            for (ConnectionPool pool : hostConnectionPools.values()) {
+                if (!pool.host.isAvailable()) continue;
+                try {
+                    unprepared.add(unprepareOn(pool.borrowConnection(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS), scriptHandle));
+                } catch (Exception ex) {
+                    logger.warn("Could not borrow a connection to unprepare a script on {}", pool.host);
+                }
+            }
+
+            return CompletableFuture.allOf(unprepared.toArray(new CompletableFuture[unprepared.size()]));
+        }
+
         /**
          * Uses a {@link LoadBalancingStrategy} to choose the best {@link Host} and then selects the best connection
          * from that host's connection pool.
@@ -287,7 +530,15 @@ public abstract class Client {
             final Iterator<Host> possibleHosts = this.cluster.loadBalancingStrategy().select(msg);
             if (!possibleHosts.hasNext()) throw new TimeoutException("Timed out waiting for an available host.");
 
-            final Host bestHost = this.cluster.loadBalancingStrategy().select(msg).next();
+            // take the first host in the order given by the strategy that is not known to be down, falling back
+            // to the first host if they all are
+            final Host firstHost = possibleHosts.next();
+            Host bestHost = firstHost;
+            while (!bestHost.isAvailable() && possibleHosts.hasNext()) {
+                bestHost = possibleHosts.next();
+            }
+            if (!bestHost.isAvailable()) bestHost = firstHost;
+
             final ConnectionPool pool = hostConnectionPools.get(bestHost);
             return pool.borrowConnection(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS);
         }
@@ -380,6 +631,24 @@ public abstract class Client {
             return clusteredClient.chooseConnection(msg);
         }
 
+        /**
+         * Delegates to the underlying {@link org.apache.tinkerpop.gremlin.driver.Client.ClusteredClient}.
+         */
+        @Override
+        public CompletableFuture<String> prepareAsync(final String gremlin) {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return clusteredClient.prepareAsync(gremlin);
+        }
+
+        /**
+         * Delegates to the underlying {@link org.apache.tinkerpop.gremlin.driver.Client.ClusteredClient}.
+         */
+        @Override
+        public CompletableFuture<Void> unprepareAsync(final String scriptHandle) {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return clusteredClient.unprepareAsync(scriptHandle);
+        }
+
         /**
          * Prevents messages from being sent from this {@code Client}. Note that calling this method does not call
          * close on the {@code Client} that created it.
@@ -395,6 +664,179 @@ public abstract class Client {
             if (close.isDone()) throw new IllegalStateException("Client is closed");
             return new ReboundClusteredClient(clusteredClient, graphOrTraversalSource);
         }
+
+        /**
+         * Creates a {@code Client} that sends script evaluations made through it to the server in batches with
+         * the rebindings of this {@code Client}.
+         */
+        @Override
+        public BatchingClient batching() {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return new BatchingClient(this);
+        }
+    }
+
+    /**
+     * Wraps a sessionless {@code Client} so that script evaluations submitted at around the same time are sent to
+     * the server together in a single "batch" request.  The first request held by the {@code BatchingClient} waits
+     * for up to the {@link Cluster.Builder#batchWindow(int)} for others to join it, and a batch that reaches the
+     * {@link Cluster.Builder#maxBatchSize(int)} is sent immediately.  The server evaluates each script in the batch
+     * as if it had been sent on its own and answers it with its own responses, so each request still gets its own
+     * {@link ResultSet}.  Batching suits bursts of many small requests, where it saves the cost of writing,
+     * framing and scheduling each of them, at the price of the wait on the window for requests that arrive alone.
+     * Requests other than script evaluations are sent immediately by the wrapped {@code Client}.
+     */
+    public final static class BatchingClient extends Client {
+        private final Client client;
+        private final int batchWindow;
+        private final int maxBatchSize;
+        final CompletableFuture<Void> close = new CompletableFuture<>();
+
+        private List<RequestMessage> batch = new ArrayList<>();
+        private List<CompletableFuture<ResultSet>> futures = new ArrayList<>();
+        private ScheduledFuture<?> scheduledFlush = null;
+
+        BatchingClient(final Client client) {
+            super(client.cluster);
+            this.client = client;
+            this.batchWindow = cluster.connectionPoolSettings().batchWindow;
+            this.maxBatchSize = Math.max(1, cluster.connectionPoolSettings().maxBatchSize);
+        }
+
+        @Override
+        public synchronized Client init() {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            client.init();
+            initialized = true;
+            return this;
+        }
+
+        @Override
+        public RequestMessage buildMessage(final RequestMessage.Builder builder) {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return client.buildMessage(builder);
+        }
+
+        @Override
+        protected void initializeImplementation() {
+            // no init required
+        }
+
+        /**
+         * Delegates to the wrapped {@code Client}.
+         */
+        @Override
+        protected Connection chooseConnection(final RequestMessage msg) throws TimeoutException, ConnectionException {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return client.chooseConnection(msg);
+        }
+
+        /**
+         * Delegates to the wrapped {@code Client}.
+         */
+        @Override
+        public CompletableFuture<String> prepareAsync(final String gremlin) {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return client.prepareAsync(gremlin);
+        }
+
+        /**
+         * Delegates to the wrapped {@code Client}.
+         */
+        @Override
+        public CompletableFuture<Void> unprepareAsync(final String scriptHandle) {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return client.unprepareAsync(scriptHandle);
+        }
+
+        /**
+         * Holds a script evaluation for the next batch, returning a future that completes when the batch is
+         * written.  Other requests are sent immediately.
+         */
+        @Override
+        public CompletableFuture<ResultSet> submitAsync(final RequestMessage msg) {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            if (!msg.getOp().equals(Tokens.OPS_EVAL) || !msg.getProcessor().isEmpty())
+                return client.submitAsync(msg);
+
+            if (!initialized)
+                init();
+
+            final Optional<ResultSet> cached = fromCache(msg);
+            if (cached.isPresent()) return CompletableFuture.completedFuture(cached.get());
+
+            final CompletableFuture<ResultSet> future = new CompletableFuture<>();
+            final boolean full;
+            synchronized (this) {
+                batch.add(msg);
+                futures.add(future);
+                full = batch.size() >= maxBatchSize;
+                if (!full && batch.size() == 1)
+                    scheduledFlush = cluster.executor().schedule(this::flush, batchWindow, TimeUnit.MILLISECONDS);
+            }
+
+            if (full) flush();
+            return future;
+        }
+
+        /**
+         * Sends any requests that are waiting for the batch window to close.
+         */
+        public void flush() {
+            final List<RequestMessage> toSend;
+            final List<CompletableFuture<ResultSet>> toComplete;
+            synchronized (this) {
+                if (batch.isEmpty()) return;
+                toSend = batch;
+                toComplete = futures;
+                batch = new ArrayList<>();
+                futures = new ArrayList<>();
+                if (scheduledFlush != null) scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+
+            // a lone request gains nothing from being wrapped in a batch
+            final RequestMessage msg = toSend.size() == 1 ? toSend.get(0) : RequestMessage.build(Tokens.OPS_BATCH)
+                    .addArg(Tokens.ARGS_REQUESTS, toSend.stream().map(m -> {
+                        final Map<String, Object> request = new HashMap<>(m.getArgs());
+                        request.put(Tokens.ARGS_REQUEST_ID, m.getRequestId());
+                        return request;
+                    }).collect(Collectors.toList())).create();
+
+            try {
+                // the connection is returned to the pool once for each request in the batch as its response
+                // completes, so it is borrowed once for each as well
+                final Connection connection = chooseConnection(msg);
+                if (toSend.size() == 1)
+                    connection.write(msg, toComplete.get(0));
+                else {
+                    connection.borrowed.addAndGet(toSend.size() - 1);
+                    connection.writeBatch(msg, toSend, toComplete);
+                }
+            } catch (Exception ex) {
+                toComplete.forEach(f -> f.completeExceptionally(ex));
+            } finally {
+                if (logger.isDebugEnabled())
+                    logger.debug("Submitted batch of {} requests in {}", toSend.size(), msg);
+            }
+        }
+
+        /**
+         * Sends any requests that are waiting in a batch and then prevents messages from being sent from this
+         * {@code Client}. Note that calling this method does not call close on the {@code Client} that it wraps.
+         */
+        @Override
+        public CompletableFuture<Void> closeAsync() {
+            flush();
+            close.complete(null);
+            return close;
+        }
+
+        @Override
+        public Client rebind(final String graphOrTraversalSource) {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return new BatchingClient(client.rebind(graphOrTraversalSource));
+        }
     }
 
     /**
@@ -417,6 +859,11 @@ public abstract class Client {
             throw new UnsupportedOperationException("Sessioned client do no support rebinding");
         }
 
+        @Override
+        public CompletableFuture<ResultSet> submitAsync(final Traversal traversal, final String graphOrTraversalSource) {
+            throw new UnsupportedOperationException("Sessioned client does not support traversal submission");
+        }
+
         /**
          * Adds the {@link Tokens#ARGS_SESSION} value to every {@link RequestMessage}.
          */
@@ -445,7 +892,10 @@ public abstract class Client {
                     .stream().filter(Host::isAvailable).collect(Collectors.toList());
             Collections.shuffle(hosts);
             final Host host = hosts.get(0);
-            connectionPool = new ConnectionPool(host, cluster);
+
+            // a session uses a single connection so that its requests arrive at the server in the order in which
+            // they were submitted
+            connectionPool = new ConnectionPool(host, cluster, Optional.of(1), Optional.of(1));
         }
 
         /**
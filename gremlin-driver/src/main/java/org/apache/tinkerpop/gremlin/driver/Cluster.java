@@ -20,10 +20,12 @@ package org.apache.tinkerpop.gremlin.driver;
 
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelOption;
+import org.apache.tinkerpop.gremlin.driver.ser.MessageCompressor;
 import org.apache.tinkerpop.gremlin.driver.ser.Serializers;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
 import java.io.File;
@@ -36,12 +38,15 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -55,10 +60,10 @@ public final class Cluster {
     private Manager manager;
 
     private Cluster(final List<InetSocketAddress> contactPoints, final MessageSerializer serializer,
-                    final int nioPoolSize, final int workerPoolSize,
+                    final int nioPoolSize, final int workerPoolSize, final Transport transport,
                     final Settings.ConnectionPoolSettings connectionPoolSettings,
                     final LoadBalancingStrategy loadBalancingStrategy) {
-        this.manager = new Manager(contactPoints, serializer, nioPoolSize, workerPoolSize, connectionPoolSettings, loadBalancingStrategy);
+        this.manager = new Manager(contactPoints, serializer, nioPoolSize, workerPoolSize, transport, connectionPoolSettings, loadBalancingStrategy);
     }
 
     public synchronized void init() {
@@ -112,6 +117,16 @@ public final class Cluster {
                 .port(settings.port)
                 .nioPoolSize(settings.nioPoolSize)
                 .workerPoolSize(settings.workerPoolSize)
+                .transport(Transport.of(settings.transport))
+                .tcpNoDelay(settings.connectionPool.tcpNoDelay)
+                .keepAlive(settings.connectionPool.keepAlive)
+                .enableFlowControl(settings.connectionPool.enableFlowControl)
+                .batchWindow(settings.connectionPool.batchWindow)
+                .maxBatchSize(settings.connectionPool.maxBatchSize)
+                .resultCacheSize(settings.connectionPool.resultCacheSize)
+                .resultCacheTtl(settings.connectionPool.resultCacheTtl)
+                .sendBufferSize(settings.connectionPool.sendBufferSize)
+                .receiveBufferSize(settings.connectionPool.receiveBufferSize)
                 .maxInProcessPerConnection(settings.connectionPool.maxInProcessPerConnection)
                 .maxSimultaneousUsagePerConnection(settings.connectionPool.maxSimultaneousUsagePerConnection)
                 .minSimultaneousUsagePerConnection(settings.connectionPool.minSimultaneousUsagePerConnection)
@@ -196,10 +211,46 @@ public final class Cluster {
         return manager.connectionPoolSettings;
     }
 
+    /**
+     * Gets the {@link ResultCache} shared by the clients of this {@code Cluster}, which holds the results of
+     * requests that opt in to caching along with statistics on its use.
+     */
+    public ResultCache getResultCache() {
+        return manager.resultCache;
+    }
+
     LoadBalancingStrategy loadBalancingStrategy() {
         return manager.loadBalancingStrategy;
     }
 
+    /**
+     * Remembers a script prepared by a {@link Client} so that it can be prepared again on hosts that reconnect.
+     */
+    void prepared(final String scriptHandle, final String gremlin) {
+        manager.preparedScripts.put(scriptHandle, gremlin);
+    }
+
+    /**
+     * Forgets a script unprepared by a {@link Client} so that it is not prepared again on hosts that reconnect.
+     */
+    void unprepared(final String scriptHandle) {
+        manager.preparedScripts.remove(scriptHandle);
+    }
+
+    /**
+     * Gets the script prepared by a {@link Client} under the given handle or {@code null} if it is not known.
+     */
+    String preparedScript(final String scriptHandle) {
+        return manager.preparedScripts.get(scriptHandle);
+    }
+
+    /**
+     * Gets the scripts prepared by the clients of this {@code Cluster}.
+     */
+    Collection<String> preparedScripts() {
+        return manager.preparedScripts.values();
+    }
+
     Collection<Host> allHosts() {
         return manager.allHosts();
     }
@@ -210,6 +261,11 @@ public final class Cluster {
         private MessageSerializer serializer = Serializers.GRYO_V1D0.simpleInstance();
         private int nioPoolSize = Runtime.getRuntime().availableProcessors();
         private int workerPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private Transport transport = Transport.NIO;
+        private boolean tcpNoDelay = true;
+        private boolean keepAlive = true;
+        private int sendBufferSize = 0;
+        private int receiveBufferSize = 0;
         private int minConnectionPoolSize = ConnectionPool.MIN_POOL_SIZE;
         private int maxConnectionPoolSize = ConnectionPool.MAX_POOL_SIZE;
         private int minSimultaneousUsagePerConnection = ConnectionPool.MIN_SIMULTANEOUS_USAGE_PER_CONNECTION;
@@ -221,7 +277,12 @@ public final class Cluster {
         private int reconnectInitialDelay = Connection.RECONNECT_INITIAL_DELAY;
         private int reconnectInterval = Connection.RECONNECT_INTERVAL;
         private int resultIterationBatchSize = Connection.RESULT_ITERATION_BATCH_SIZE;
+        private int batchWindow = Connection.BATCH_WINDOW;
+        private int maxBatchSize = Connection.MAX_BATCH_SIZE;
+        private int resultCacheSize = Connection.RESULT_CACHE_SIZE;
+        private int resultCacheTtl = Connection.RESULT_CACHE_TTL;
         private boolean enableSsl = false;
+        private boolean enableFlowControl = true;
         private LoadBalancingStrategy loadBalancingStrategy = new LoadBalancingStrategy.RoundRobin();
 
         private Builder() {
@@ -251,6 +312,48 @@ public final class Cluster {
             return this;
         }
 
+        /**
+         * The network {@link Transport} to use.  Defaults to {@link Transport#NIO}.  If {@link Transport#EPOLL} is
+         * requested but the native libraries are not available on this platform then {@link Transport#NIO} is used.
+         */
+        public Builder transport(final Transport transport) {
+            this.transport = transport.resolve();
+            return this;
+        }
+
+        /**
+         * Sets {@code TCP_NODELAY} on connections.  Defaults to {@code true} as requests are small and latency
+         * sensitive.
+         */
+        public Builder tcpNoDelay(final boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+            return this;
+        }
+
+        /**
+         * Sets {@code SO_KEEPALIVE} on connections.  Defaults to {@code true}.
+         */
+        public Builder keepAlive(final boolean keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Sets {@code SO_SNDBUF} on connections.  A value of zero or less leaves the operating system default in place.
+         */
+        public Builder sendBufferSize(final int sendBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets {@code SO_RCVBUF} on connections.  A value of zero or less leaves the operating system default in place.
+         */
+        public Builder receiveBufferSize(final int receiveBufferSize) {
+            this.receiveBufferSize = receiveBufferSize;
+            return this;
+        }
+
         /**
          * Set the {@link MessageSerializer} to use given its MIME type.  Note that setting this value this way
          * will not allow specific configuration of the serializer itself.  If specific configuration is required
@@ -270,6 +373,21 @@ public final class Cluster {
             return this;
         }
 
+        /**
+         * Set the {@link MessageSerializer} to use via the {@link Serializers} enum where requests and responses
+         * larger than the {@code compressionThreshold} (in bytes) are compressed with the named {@code compression},
+         * {@link MessageCompressor#DEFLATE} or {@link MessageCompressor#SNAPPY}.  Gremlin Server must have a
+         * serializer of the same type configured with the same {@code compression}.
+         */
+        public Builder serializer(final Serializers mimeType, final String compression, final int compressionThreshold) {
+            final Map<String, Object> config = new HashMap<>();
+            config.put(MessageCompressor.TOKEN_COMPRESSION, compression);
+            config.put(MessageCompressor.TOKEN_COMPRESSION_THRESHOLD, compressionThreshold);
+            serializer = mimeType.simpleInstance();
+            serializer.configure(config, null);
+            return this;
+        }
+
         /**
          * Sets the {@link MessageSerializer} to use.
          */
@@ -287,6 +405,16 @@ public final class Cluster {
             return this;
         }
 
+        /**
+         * When enabled, the number of in-flight requests allowed on a {@link Connection} is taken from the credits
+         * that the server grants with its responses rather than from {@link #maxInProcessPerConnection}, which then
+         * only applies until the first credits arrive or when the server does not grant them.  Defaults to true.
+         */
+        public Builder enableFlowControl(final boolean enable) {
+            this.enableFlowControl = enable;
+            return this;
+        }
+
         /**
          * The minimum number of in-flight requests that can occur on a {@link Connection} before it is considered
          * for closing on return to the {@link ConnectionPool}.
@@ -359,6 +487,41 @@ public final class Cluster {
             return this;
         }
 
+        /**
+         * The number of milliseconds that a batching {@link Client} waits for more requests to send with the first
+         * one it holds.  See {@link Client.ClusteredClient#batching()}.
+         */
+        public Builder batchWindow(final int batchWindow) {
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        /**
+         * The maximum number of requests that a batching {@link Client} sends together, after which the batch is
+         * sent without waiting for the rest of the {@link #batchWindow(int)}.
+         */
+        public Builder maxBatchSize(final int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * The maximum number of request results held by the {@link ResultCache}.  The cache is disabled when set to
+         * zero, which is the default.
+         */
+        public Builder resultCacheSize(final int resultCacheSize) {
+            this.resultCacheSize = resultCacheSize;
+            return this;
+        }
+
+        /**
+         * The number of milliseconds that results are held by the {@link ResultCache}.
+         */
+        public Builder resultCacheTtl(final int resultCacheTtl) {
+            this.resultCacheTtl = resultCacheTtl;
+            return this;
+        }
+
         /**
          * The maximum amount of time to wait for a connection to be borrowed from the connection pool.
          */
@@ -435,28 +598,56 @@ public final class Cluster {
             connectionPoolSettings.reconnectInitialDelay = this.reconnectInitialDelay;
             connectionPoolSettings.reconnectInterval = this.reconnectInterval;
             connectionPoolSettings.resultIterationBatchSize = this.resultIterationBatchSize;
+            connectionPoolSettings.batchWindow = this.batchWindow;
+            connectionPoolSettings.maxBatchSize = this.maxBatchSize;
+            connectionPoolSettings.resultCacheSize = this.resultCacheSize;
+            connectionPoolSettings.resultCacheTtl = this.resultCacheTtl;
             connectionPoolSettings.enableSsl = this.enableSsl;
-            return new Cluster(getContactPoints(), serializer, this.nioPoolSize, this.workerPoolSize,
+            connectionPoolSettings.enableFlowControl = this.enableFlowControl;
+            connectionPoolSettings.tcpNoDelay = this.tcpNoDelay;
+            connectionPoolSettings.keepAlive = this.keepAlive;
+            connectionPoolSettings.sendBufferSize = this.sendBufferSize;
+            connectionPoolSettings.receiveBufferSize = this.receiveBufferSize;
+            return new Cluster(getContactPoints(), serializer, this.nioPoolSize, this.workerPoolSize, this.transport,
                     connectionPoolSettings, loadBalancingStrategy);
         }
     }
 
     static class Factory {
         private final EventLoopGroup group;
+        private final Transport transport;
+        private final Settings.ConnectionPoolSettings connectionPoolSettings;
 
-        public Factory(final int nioPoolSize) {
+        public Factory(final int nioPoolSize, final Transport transport, final Settings.ConnectionPoolSettings connectionPoolSettings) {
             final BasicThreadFactory threadFactory = new BasicThreadFactory.Builder().namingPattern("gremlin-driver-loop-%d").build();
-            group = new NioEventLoopGroup(nioPoolSize, threadFactory);
+            this.transport = transport;
+            this.connectionPoolSettings = connectionPoolSettings;
+            group = transport.createEventLoopGroup(nioPoolSize, threadFactory);
         }
 
         Bootstrap createBootstrap() {
-            final Bootstrap b = new Bootstrap().group(group);
+            final Bootstrap b = new Bootstrap().group(group).channel(transport.socketChannelClass());
             b.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+            b.option(ChannelOption.TCP_NODELAY, connectionPoolSettings.tcpNoDelay);
+            b.option(ChannelOption.SO_KEEPALIVE, connectionPoolSettings.keepAlive);
+            if (connectionPoolSettings.sendBufferSize > 0)
+                b.option(ChannelOption.SO_SNDBUF, connectionPoolSettings.sendBufferSize);
+            if (connectionPoolSettings.receiveBufferSize > 0)
+                b.option(ChannelOption.SO_RCVBUF, connectionPoolSettings.receiveBufferSize);
+            if (transport == Transport.EPOLL)
+                b.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
             return b;
         }
 
-        void shutdown() {
-            group.shutdownGracefully().awaitUninterruptibly();
+        /**
+         * Shuts down the event loops.  Loops that never had a connection have no tasks left to run, so they skip the
+         * quiet period, which would otherwise start their threads just to idle them for two seconds.
+         */
+        void shutdown(final boolean used) {
+            if (used)
+                group.shutdownGracefully().awaitUninterruptibly();
+            else
+                group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).awaitUninterruptibly();
         }
     }
 
@@ -470,19 +661,24 @@ public final class Cluster {
         private final LoadBalancingStrategy loadBalancingStrategy;
 
         private final ScheduledExecutorService executor;
+        private final ResultCache resultCache;
+        private final ConcurrentMap<String, String> preparedScripts = new ConcurrentHashMap<>();
 
         private final AtomicReference<CompletableFuture<Void>> closeFuture = new AtomicReference<>();
 
         private Manager(final List<InetSocketAddress> contactPoints, final MessageSerializer serializer,
-                        final int nioPoolSize, final int workerPoolSize, final Settings.ConnectionPoolSettings connectionPoolSettings,
+                        final int nioPoolSize, final int workerPoolSize, final Transport transport,
+                        final Settings.ConnectionPoolSettings connectionPoolSettings,
                         final LoadBalancingStrategy loadBalancingStrategy) {
             this.loadBalancingStrategy = loadBalancingStrategy;
             this.contactPoints = contactPoints;
             this.connectionPoolSettings = connectionPoolSettings;
-            this.factory = new Factory(nioPoolSize);
+            this.factory = new Factory(nioPoolSize, transport, connectionPoolSettings);
             this.serializer = serializer;
             this.executor = Executors.newScheduledThreadPool(workerPoolSize,
                     new BasicThreadFactory.Builder().namingPattern("gremlin-driver-worker-%d").build());
+            this.resultCache = new ResultCache(connectionPoolSettings.resultCacheSize,
+                    connectionPoolSettings.resultCacheTtl, TimeUnit.MILLISECONDS);
         }
 
         synchronized void init() {
@@ -491,6 +687,11 @@ public final class Cluster {
 
             initialized = true;
 
+            // expired results are otherwise only removed when they are next requested
+            if (resultCache.isEnabled())
+                executor.scheduleWithFixedDelay(resultCache::evictExpired, connectionPoolSettings.resultCacheTtl,
+                        connectionPoolSettings.resultCacheTtl, TimeUnit.MILLISECONDS);
+
             contactPoints.forEach(address -> {
                 final Host host = add(address);
                 if (host != null)
@@ -516,8 +717,9 @@ public final class Cluster {
             final CompletableFuture<Void> closeIt = new CompletableFuture<>();
             closeFuture.set(closeIt);
 
+            final boolean used = initialized;
             executor().submit(() -> {
-                factory.shutdown();
+                factory.shutdown(used);
                 closeIt.complete(null);
             });
 
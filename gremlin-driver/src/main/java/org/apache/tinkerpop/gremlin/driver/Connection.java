@@ -20,15 +20,19 @@ package org.apache.tinkerpop.gremlin.driver;
 
 import org.apache.tinkerpop.gremlin.driver.exception.ConnectionException;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPromise;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -58,6 +62,10 @@ final class Connection {
     public static final int RECONNECT_INITIAL_DELAY = 1000;
     public static final int RECONNECT_INTERVAL = 1000;
     public static final int RESULT_ITERATION_BATCH_SIZE = 64;
+    public static final int BATCH_WINDOW = 1;
+    public static final int MAX_BATCH_SIZE = 64;
+    public static final int RESULT_CACHE_SIZE = 0;
+    public static final int RESULT_CACHE_TTL = 60000;
 
     /**
      * When a {@code Connection} is borrowed from the pool, this number is incremented to indicate the number of
@@ -67,6 +75,19 @@ final class Connection {
     public final AtomicInteger borrowed = new AtomicInteger(0);
     private volatile boolean isDead = false;
     private final int maxInProcess;
+    private final boolean enableFlowControl;
+
+    /**
+     * The number of requests that the server last allowed to be in flight on this connection.  It starts at
+     * {@link #maxInProcess} and is only changed by credits from the server when flow control is enabled.
+     */
+    private volatile int credits;
+    private volatile boolean flowControlled = false;
+
+    /**
+     * The number of result subscribers that have asked to stop reading from the channel until they catch up.
+     */
+    private int readingPaused = 0;
 
     private final String connectionLabel;
 
@@ -77,6 +98,8 @@ final class Connection {
         this.cluster = cluster;
         this.pool = pool;
         this.maxInProcess = maxInProcess;
+        this.credits = maxInProcess;
+        this.enableFlowControl = cluster.connectionPoolSettings().enableFlowControl;
 
         connectionLabel = String.format("Connection{host=%s}", pool.host);
 
@@ -85,7 +108,7 @@ final class Connection {
         final Bootstrap b = this.cluster.getFactory().createBootstrap();
         final Channelizer channelizer = new Channelizer.WebSocketChannelizer();
         channelizer.init(this);
-        b.channel(NioSocketChannel.class).handler(channelizer);
+        b.handler(channelizer);
 
         try {
             channel = b.connect(uri.getHost(), uri.getPort()).sync().channel();
@@ -100,10 +123,41 @@ final class Connection {
 
     /**
      * A connection can only have so many things in process happening on it at once, where "in process" refers to
-     * the maximum number of in-process requests less the number of pending responses.
+     * the maximum number of in-process requests less the number of pending responses.  With flow control the
+     * maximum is the number of credits last granted by the server.
      */
     public int availableInProcess() {
-        return maxInProcess - pending.size();
+        return credits - pending.size();
+    }
+
+    /**
+     * Determines if the server has granted credits to this connection, in which case the server rather than
+     * the {@code maxInProcessPerConnection} setting limits the number of in-process requests.
+     */
+    public boolean isFlowControlled() {
+        return flowControlled;
+    }
+
+    /**
+     * Stops reading from the channel until every call to this method is matched by a call to
+     * {@link #resumeReading()}.  As the channel is shared by all requests on the connection, reading stops for
+     * all of them.
+     */
+    synchronized void pauseReading() {
+        if (readingPaused++ == 0) channel.config().setAutoRead(false);
+    }
+
+    synchronized void resumeReading() {
+        if (readingPaused > 0 && --readingPaused == 0) channel.config().setAutoRead(true);
+    }
+
+    /**
+     * Called as responses arrive with the credits that the server granted to the connection.
+     */
+    void grantCredits(final int credits) {
+        if (!enableFlowControl || credits < 1) return;
+        this.credits = credits;
+        flowControlled = true;
     }
 
     public boolean isDead() {
@@ -168,17 +222,7 @@ final class Connection {
                         thisConnection.returnToPool();
                         future.completeExceptionally(f.cause());
                     } else {
-                        final LinkedBlockingQueue<Result> resultLinkedBlockingQueue = new LinkedBlockingQueue<>();
-                        final CompletableFuture<Void> readCompleted = new CompletableFuture<>();
-                        readCompleted.thenAcceptAsync(v -> {
-                            thisConnection.returnToPool();
-                            if (isClosed() && pending.isEmpty())
-                                shutdown(closeFuture.get());
-                        }, cluster.executor());
-
-                        final ResultQueue handler = new ResultQueue(resultLinkedBlockingQueue, readCompleted);
-                        pending.put(requestMessage.getRequestId(), handler);
-                        future.complete(new ResultSet(handler, cluster.executor(), readCompleted));
+                        future.complete(awaitResponse(requestMessage));
                     }
                 });
         channel.writeAndFlush(requestMessage, promise);
@@ -186,6 +230,102 @@ final class Connection {
         return promise;
     }
 
+    /**
+     * Writes a "batch" request that carries the given requests in a single frame.  The server answers each of them
+     * under its own request identifier, so each gets its own {@link ResultSet} and, like a request written with
+     * {@link #write}, returns this connection to the pool once its response is complete.  The connection must
+     * therefore have been borrowed once for each of the requests.
+     */
+    public ChannelPromise writeBatch(final RequestMessage batchMessage, final List<RequestMessage> requestMessages,
+                                     final List<CompletableFuture<ResultSet>> futures) {
+        final Connection thisConnection = this;
+        final ChannelPromise promise = channel.newPromise()
+                .addListener(f -> {
+                    if (!f.isSuccess()) {
+                        if (logger.isDebugEnabled())
+                            logger.debug(String.format("Batch write on connection %s failed", thisConnection.getConnectionInfo()), f.cause());
+                        thisConnection.isDead = true;
+                        futures.forEach(future -> {
+                            thisConnection.returnToPool();
+                            future.completeExceptionally(f.cause());
+                        });
+                    } else {
+                        for (int ix = 0; ix < requestMessages.size(); ix++) {
+                            futures.get(ix).complete(awaitResponse(requestMessages.get(ix)));
+                        }
+                    }
+                });
+        channel.writeAndFlush(batchMessage, promise);
+
+        return promise;
+    }
+
+    private ResultSet awaitResponse(final RequestMessage requestMessage) {
+        // the host tracks its in-flight requests and latency for the LoadBalancingStrategy
+        final long sent = System.nanoTime();
+        if (pool != null) pool.host.requestSent();
+
+        final LinkedBlockingQueue<Result> resultLinkedBlockingQueue = new LinkedBlockingQueue<>();
+        final CompletableFuture<Void> readCompleted = new CompletableFuture<>();
+        readCompleted.thenAcceptAsync(v -> {
+            if (pool != null) pool.host.responseReceived(System.nanoTime() - sent);
+            returnToPool();
+            if (isClosed() && pending.isEmpty())
+                shutdown(closeFuture.get());
+        }, cluster.executor());
+
+        final ResultQueue handler = new ResultQueue(resultLinkedBlockingQueue, readCompleted, this,
+                cluster.connectionPoolSettings().resultIterationBatchSize);
+
+        final ResultCache resultCache = cluster.getResultCache();
+        if (resultCache.isCacheable(requestMessage)) {
+            final long generation = resultCache.generation();
+            handler.record(results -> resultCache.put(requestMessage, results, generation));
+        }
+
+        // the server may have evicted a prepared script to make room for others since it was prepared
+        final Optional<Object> scriptHandle = requestMessage.optionalArgs(Tokens.ARGS_SCRIPT_HANDLE);
+        if (scriptHandle.isPresent()) {
+            final String gremlin = cluster.preparedScript(scriptHandle.get().toString());
+            if (gremlin != null) handler.retry(response -> submitUnprepared(requestMessage, gremlin, response));
+        }
+
+        pending.put(requestMessage.getRequestId(), handler);
+        return new ResultSet(handler, cluster.executor(), readCompleted);
+    }
+
+    /**
+     * Sends a request for a prepared script that the server no longer has again under the same identifier, but with
+     * the text of the script in place of its handle, and prepares the script again for the requests that follow.
+     */
+    private boolean submitUnprepared(final RequestMessage requestMessage, final String gremlin, final ResponseMessage response) {
+        final Map<String, Object> attributes = response.getStatus().getAttributes();
+        if (response.getStatus().getCode() != ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS
+                || null == attributes || !attributes.containsKey(Tokens.STATUS_ATTRIBUTE_UNPREPARED))
+            return false;
+
+        logger.debug("Script with handle {} is no longer prepared on {} - sending its text instead", attributes.get(Tokens.STATUS_ATTRIBUTE_UNPREPARED), this);
+        final RequestMessage.Builder builder = RequestMessage.build(requestMessage.getOp())
+                .processor(requestMessage.getProcessor())
+                .overrideRequestId(requestMessage.getRequestId());
+        requestMessage.getArgs().entrySet().stream()
+                .filter(kv -> !kv.getKey().equals(Tokens.ARGS_SCRIPT_HANDLE))
+                .forEach(kv -> builder.addArg(kv.getKey(), kv.getValue()));
+        builder.addArg(Tokens.ARGS_GREMLIN, gremlin);
+
+        channel.writeAndFlush(builder.create()).addListener(f -> {
+            if (!f.isSuccess()) {
+                final ResultQueue queue = pending.remove(requestMessage.getRequestId());
+                if (queue != null) queue.markError(f.cause());
+            }
+        });
+
+        // the prepare returns the connection to the pool once it completes so it is borrowed for it
+        borrowed.incrementAndGet();
+        Client.prepareOn(this, gremlin);
+        return true;
+    }
+
     public void returnToPool() {
         try {
             if (pool != null) pool.returnConnection(this);
@@ -209,8 +349,8 @@ final class Connection {
     }
 
     public String getConnectionInfo() {
-        return String.format("Connection{host=%s, isDead=%s, borrowed=%s, pending=%s}",
-                pool.host, isDead, borrowed, pending.size());
+        return String.format("Connection{host=%s, isDead=%s, borrowed=%s, pending=%s, credits=%s}",
+                pool.host, isDead, borrowed, pending.size(), credits);
     }
 
     @Override
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -69,13 +70,21 @@ final class ConnectionPool {
     private final Condition hasAvailableConnection = waitLock.newCondition();
 
     public ConnectionPool(final Host host, final Cluster cluster) {
+        this(host, cluster, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Creates a pool that overrides the configured minimum and maximum number of connections.
+     */
+    public ConnectionPool(final Host host, final Cluster cluster, final Optional<Integer> overrideMinPoolSize,
+                          final Optional<Integer> overrideMaxPoolSize) {
         this.host = host;
         this.cluster = cluster;
         poolLabel = String.format("Connection Pool {host=%s}", host);
 
         final Settings.ConnectionPoolSettings settings = settings();
-        this.minPoolSize = settings.minSize;
-        this.maxPoolSize = settings.maxSize;
+        this.minPoolSize = overrideMinPoolSize.orElse(settings.minSize);
+        this.maxPoolSize = overrideMaxPoolSize.orElse(settings.maxSize);
         this.minSimultaneousUsagePerConnection = settings.minSimultaneousUsagePerConnection;
         this.maxSimultaneousUsagePerConnection = settings.maxSimultaneousUsagePerConnection;
         this.minInProcess = settings.minInProcessPerConnection;
@@ -189,7 +198,9 @@ final class ConnectionPool {
                     logger.debug("On {} pool size of {} > minPoolSize {} and borrowed of {} <= minSimultaneousUsagePerConnection {} so destroy {}",
                             host, poolSize, minPoolSize, borrowed, minSimultaneousUsagePerConnection, connection.getConnectionInfo());
                 destroyConnection(connection);
-            } else if (availableInProcess < minInProcess) {
+            } else if (!connection.isFlowControlled() && availableInProcess < minInProcess) {
+                // a connection that is flow controlled is not replaced as its available in-process requests
+                // reflect the load on the server rather than requests that never returned
                 if (logger.isDebugEnabled())
                     logger.debug("On {} availableInProcess {} < minInProcess {} so replace {}", host, availableInProcess, minInProcess, connection.getConnectionInfo());
                 replaceConnection(connection);
@@ -377,14 +388,31 @@ final class ConnectionPool {
     private boolean tryReconnect(final Host h) {
         logger.debug("Trying to re-establish connection on {}", host);
 
+        Connection connection = null;
         try {
-            connections.add(new Connection(host.getHostUri(), this, cluster, settings().maxInProcessPerConnection));
+            connection = new Connection(host.getHostUri(), this, cluster, settings().maxInProcessPerConnection);
+            connections.add(connection);
             this.open.set(connections.size());
 
+            // the host may have restarted and lost the scripts prepared on it so prepare them again before
+            // requests that refer to them by handle are sent its way
+            final List<CompletableFuture<String>> prepared = new ArrayList<>();
+            for (String gremlin : cluster.preparedScripts()) {
+                connection.borrowed.incrementAndGet();
+                prepared.add(Client.prepareOn(connection, gremlin));
+            }
+            CompletableFuture.allOf(prepared.toArray(new CompletableFuture[prepared.size()]))
+                    .get(settings().maxWaitForConnection, TimeUnit.MILLISECONDS);
+
             // host is reconnected and a connection is now available
             this.cluster.loadBalancingStrategy().onAvailable(host);
             return true;
         } catch (Exception ex) {
+            if (connection != null) {
+                logger.debug(String.format("Could not prepare scripts again on %s", host), ex);
+                definitelyDestroyConnection(connection);
+                this.open.set(connections.size());
+            }
             return false;
         }
     }
@@ -28,8 +28,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntConsumer;
 
 /**
  * Holder for internal handler classes used in constructing the channel pipeline.
@@ -45,30 +47,72 @@ final class Handler {
     static class GremlinResponseHandler extends SimpleChannelInboundHandler<ResponseMessage> {
         private static final Logger logger = LoggerFactory.getLogger(GremlinResponseHandler.class);
         private final ConcurrentMap<UUID, ResultQueue> pending;
+        private final IntConsumer creditListener;
+        private final Runnable invalidationListener;
 
         public GremlinResponseHandler(final ConcurrentMap<UUID, ResultQueue> pending) {
+            this(pending, credits -> {});
+        }
+
+        /**
+         * Creates the handler with a listener that is notified of the credits that the server grants with its
+         * responses.
+         */
+        public GremlinResponseHandler(final ConcurrentMap<UUID, ResultQueue> pending, final IntConsumer creditListener) {
+            this(pending, creditListener, () -> {});
+        }
+
+        /**
+         * Creates the handler with listeners that are notified of the credits that the server grants with its
+         * responses and of the cache invalidations that the server pushes.
+         */
+        public GremlinResponseHandler(final ConcurrentMap<UUID, ResultQueue> pending, final IntConsumer creditListener,
+                                      final Runnable invalidationListener) {
             this.pending = pending;
+            this.creditListener = creditListener;
+            this.invalidationListener = invalidationListener;
         }
 
         @Override
         protected void channelRead0(final ChannelHandlerContext channelHandlerContext, final ResponseMessage response) throws Exception {
             try {
+                // the server limits the requests that can be in flight on the connection with the credits it grants
+                final Map<String, Object> attributes = response.getStatus().getAttributes();
+                final Object credits = null == attributes ? null : attributes.get(Tokens.STATUS_ATTRIBUTE_CREDITS);
+                if (credits instanceof Number) creditListener.accept(((Number) credits).intValue());
+
+                // an invalidation is pushed by the server rather than sent in response to a request
+                if (attributes != null && attributes.containsKey(Tokens.STATUS_ATTRIBUTE_INVALIDATE)) {
+                    invalidationListener.run();
+                    return;
+                }
+
+                // a response that does not belong to a pending request (e.g. one already failed by the driver) is
+                // dropped rather than allowed to fail every other request on the connection
+                final ResultQueue queue = pending.get(response.getRequestId());
+                if (null == queue) {
+                    logger.warn("Received a response for request {} which is not pending - {}", response.getRequestId(), response.getStatus());
+                    return;
+                }
+
                 final ResponseStatusCode statusCode = response.getStatus().getCode();
                 if (statusCode == ResponseStatusCode.SUCCESS || statusCode == ResponseStatusCode.PARTIAL_CONTENT) {
                     final Object data = response.getResult().getData();
                     if (data instanceof List) {
                         // unrolls the collection into individual results to be handled by the queue.
                         final List<Object> listToUnroll = (List<Object>) data;
-                        final ResultQueue queue = pending.get(response.getRequestId());
                         listToUnroll.forEach(item -> queue.add(new Result(item)));
                     } else {
                         // since this is not a list it can just be added to the queue
-                        pending.get(response.getRequestId()).add(new Result(response.getResult().getData()));
+                        queue.add(new Result(response.getResult().getData()));
                     }
                 } else {
                     // this is a "success" but represents no results otherwise it is an error
-                    if (statusCode != ResponseStatusCode.NO_CONTENT)
-                        pending.get(response.getRequestId()).markError(new ResponseException(response.getStatus().getCode(), response.getStatus().getMessage()));
+                    if (statusCode != ResponseStatusCode.NO_CONTENT) {
+                        // a request that was sent again remains pending for the response to that
+                        if (queue.retried(response)) return;
+                        queue.markError(new ResponseException(response.getStatus().getCode(), response.getStatus().getMessage()));
+                    }
                 }
 
                 // as this is a non-PARTIAL_CONTENT code - the stream is done
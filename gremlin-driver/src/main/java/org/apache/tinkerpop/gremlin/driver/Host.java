@@ -26,6 +26,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -42,6 +43,15 @@ public final class Host {
     private final Cluster cluster;
     private final String hostLabel;
 
+    /**
+     * The weight given to the most recent response when updating the average latency.
+     */
+    static final double LATENCY_WEIGHT = 0.25;
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private volatile long latency = -1;
+    private volatile long latencySamples = 0;
+
     final AtomicReference<ScheduledFuture<?>> reconnectionAttempt = new AtomicReference<>(null);
 
     Host(final InetSocketAddress address, final Cluster cluster) {
@@ -63,6 +73,38 @@ public final class Host {
         return isAvailable;
     }
 
+    /**
+     * Gets the number of requests sent to this host that have not yet received their complete response.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the exponentially weighted moving average of the time in nanoseconds that it takes this host to
+     * completely respond to a request, or {@code -1} if no response has been received.
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    /**
+     * Gets the number of responses that have contributed to {@link #getLatency()}.
+     */
+    public long getLatencySamples() {
+        return latencySamples;
+    }
+
+    void requestSent() {
+        inFlight.incrementAndGet();
+    }
+
+    synchronized void responseReceived(final long nanos) {
+        inFlight.decrementAndGet();
+        latency = latency < 0 ? nanos : (long) (LATENCY_WEIGHT * nanos + (1 - LATENCY_WEIGHT) * latency);
+        latencySamples++;
+    }
+
     void makeAvailable() {
         isAvailable = true;
     }
@@ -19,13 +19,24 @@
 package org.apache.tinkerpop.gremlin.driver;
 
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Provides a method for selecting the host from a {@link Cluster}.
@@ -108,4 +119,271 @@ public interface LoadBalancingStrategy extends Host.Listener {
             onUnavailable(host);
         }
     }
+
+    /**
+     * A "power of two choices" strategy that picks two hosts at random and selects the one with the fewest
+     * requests in flight, using the lower {@link Host#getLatency()} to break ties.  This steers requests away
+     * from busy hosts without sending every request to the same least loaded host.  The remaining hosts follow
+     * the selected one in the order that they became available.
+     */
+    public static class LeastPending implements LoadBalancingStrategy {
+
+        private static final Comparator<Host> LEAST_PENDING = Comparator.comparingInt(Host::getInFlight)
+                .thenComparingLong(Host::getLatency);
+
+        private final CopyOnWriteArrayList<Host> availableHosts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void initialize(final Cluster cluster, final Collection<Host> hosts) {
+            this.availableHosts.addAll(hosts);
+        }
+
+        @Override
+        public Iterator<Host> select(final RequestMessage msg) {
+            final List<Host> hosts = new ArrayList<>(availableHosts);
+            if (hosts.size() > 1) {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                final int first = random.nextInt(hosts.size());
+                int second = random.nextInt(hosts.size() - 1);
+                if (second >= first) second++;
+
+                final int chosen = LEAST_PENDING.compare(hosts.get(first), hosts.get(second)) <= 0 ? first : second;
+                hosts.add(0, hosts.remove(chosen));
+            }
+
+            return hosts.iterator();
+        }
+
+        @Override
+        public void onAvailable(final Host host) {
+            this.availableHosts.addIfAbsent(host);
+        }
+
+        @Override
+        public void onUnavailable(final Host host) {
+            this.availableHosts.remove(host);
+        }
+
+        @Override
+        public void onNew(final Host host) {
+            onAvailable(host);
+        }
+
+        @Override
+        public void onRemove(final Host host) {
+            onUnavailable(host);
+        }
+    }
+
+    /**
+     * Wraps another strategy and moves hosts whose {@link Host#getLatency()} exceeds that of the fastest host by
+     * the {@code exclusionThreshold} to the end of the order it selects, which keeps requests away from a host
+     * that is pausing for garbage collection or is otherwise overloaded.  A host is avoided for the
+     * {@code retryPeriod} after which it takes requests again and is judged on the {@code minSamples} responses
+     * it receives from that point.  Hosts are only avoided, never removed, so that requests still go to them if
+     * all faster hosts fail.
+     */
+    public static class LatencyAware implements LoadBalancingStrategy {
+        private static final Logger logger = LoggerFactory.getLogger(LatencyAware.class);
+
+        private final LoadBalancingStrategy child;
+        private final double exclusionThreshold;
+        private final long retryPeriod;
+        private final long minSamples;
+
+        /**
+         * Hosts that have been avoided, with the time that they may be tried again and the number of latency
+         * samples they had at that point.
+         */
+        private final Map<Host, long[]> avoided = new ConcurrentHashMap<>();
+
+        public LatencyAware() {
+            this(new RoundRobin());
+        }
+
+        public LatencyAware(final LoadBalancingStrategy child) {
+            this(child, 2.0d, 10000, 16);
+        }
+
+        /**
+         * @param child the strategy that determines the order of hosts that are not avoided
+         * @param exclusionThreshold how many times slower than the fastest host a host must be to be avoided
+         * @param retryPeriod the time in milliseconds that a host is avoided
+         * @param minSamples the number of responses needed before a host can be avoided
+         */
+        public LatencyAware(final LoadBalancingStrategy child, final double exclusionThreshold,
+                            final long retryPeriod, final long minSamples) {
+            if (exclusionThreshold < 1.0d)
+                throw new IllegalArgumentException("The exclusionThreshold must be greater than or equal to one");
+
+            this.child = child;
+            this.exclusionThreshold = exclusionThreshold;
+            this.retryPeriod = TimeUnit.MILLISECONDS.toNanos(retryPeriod);
+            this.minSamples = minSamples;
+        }
+
+        @Override
+        public void initialize(final Cluster cluster, final Collection<Host> hosts) {
+            child.initialize(cluster, hosts);
+        }
+
+        @Override
+        public Iterator<Host> select(final RequestMessage msg) {
+            final long now = System.nanoTime();
+            final List<Host> hosts = new ArrayList<>();
+            child.select(msg).forEachRemaining(hosts::add);
+
+            final long fastest = hosts.stream()
+                    .filter(h -> !isAvoided(h, now) && hasEnoughSamples(h))
+                    .mapToLong(Host::getLatency).min().orElse(-1);
+
+            final List<Host> selected = new ArrayList<>(hosts.size());
+            final List<Host> slow = new ArrayList<>();
+            for (Host host : hosts) {
+                if (isAvoided(host, now))
+                    slow.add(host);
+                else if (fastest > 0 && hasEnoughSamples(host) && host.getLatency() > fastest * exclusionThreshold) {
+                    logger.debug("Avoiding {} as its latency of {}ns exceeds the fastest host latency of {}ns by more than {} times",
+                            host, host.getLatency(), fastest, exclusionThreshold);
+                    avoided.put(host, new long[] {now + retryPeriod, host.getLatencySamples()});
+                    slow.add(host);
+                } else
+                    selected.add(host);
+            }
+
+            selected.addAll(slow);
+            return selected.iterator();
+        }
+
+        private boolean isAvoided(final Host host, final long now) {
+            final long[] avoidance = avoided.get(host);
+            return avoidance != null && now - avoidance[0] < 0;
+        }
+
+        private boolean hasEnoughSamples(final Host host) {
+            final long[] avoidance = avoided.get(host);
+            final long since = null == avoidance ? 0 : avoidance[1];
+            return host.getLatencySamples() - since >= minSamples;
+        }
+
+        @Override
+        public void onAvailable(final Host host) {
+            child.onAvailable(host);
+        }
+
+        @Override
+        public void onUnavailable(final Host host) {
+            child.onUnavailable(host);
+        }
+
+        @Override
+        public void onNew(final Host host) {
+            child.onNew(host);
+        }
+
+        @Override
+        public void onRemove(final Host host) {
+            avoided.remove(host);
+            child.onRemove(host);
+        }
+    }
+
+    /**
+     * Wraps another strategy and sends requests that have a partition key to a preferred host for that key, so
+     * that requests for the same data go to the same server and benefit from its caches.  The preferred host is
+     * chosen by rendezvous hashing, so only the keys of a host move when it becomes unavailable, and the other
+     * hosts follow in the order given by the wrapped strategy.  By default, the key is taken from the
+     * {@link Tokens#ARGS_PARTITION_KEY} argument of the {@link RequestMessage} and requests without a key are left
+     * to the wrapped strategy.
+     */
+    public static class KeyAware implements LoadBalancingStrategy {
+
+        private final LoadBalancingStrategy child;
+        private final Function<RequestMessage, Optional<Object>> keyExtractor;
+        private final CopyOnWriteArrayList<Host> availableHosts = new CopyOnWriteArrayList<>();
+
+        public KeyAware() {
+            this(new RoundRobin());
+        }
+
+        public KeyAware(final LoadBalancingStrategy child) {
+            this(child, msg -> msg.optionalArgs(Tokens.ARGS_PARTITION_KEY));
+        }
+
+        /**
+         * @param child the strategy that orders hosts for requests without a key and for the hosts after the
+         *              preferred one
+         * @param keyExtractor gets the partition key from a request
+         */
+        public KeyAware(final LoadBalancingStrategy child, final Function<RequestMessage, Optional<Object>> keyExtractor) {
+            this.child = child;
+            this.keyExtractor = keyExtractor;
+        }
+
+        @Override
+        public void initialize(final Cluster cluster, final Collection<Host> hosts) {
+            this.availableHosts.addAll(hosts);
+            child.initialize(cluster, hosts);
+        }
+
+        @Override
+        public Iterator<Host> select(final RequestMessage msg) {
+            final Optional<Object> key = keyExtractor.apply(msg);
+            final List<Host> candidates = new ArrayList<>(availableHosts);
+            if (!key.isPresent() || candidates.isEmpty()) return child.select(msg);
+
+            final Host preferred = preferredHost(key.get(), candidates);
+            final List<Host> hosts = new ArrayList<>(candidates.size());
+            hosts.add(preferred);
+            child.select(msg).forEachRemaining(h -> {
+                if (!h.equals(preferred)) hosts.add(h);
+            });
+
+            return hosts.iterator();
+        }
+
+        /**
+         * Gets the host with the highest hash of the key combined with the host, which is stable as long as the
+         * host is available.
+         */
+        static Host preferredHost(final Object key, final List<Host> hosts) {
+            final int keyHash = key.hashCode();
+            return Collections.max(hosts, Comparator.comparingLong(h -> mix(keyHash, h.getHostUri().toString().hashCode())));
+        }
+
+        private static long mix(final int keyHash, final int hostHash) {
+            // the finalizer of murmur3 spreads the combined hashes evenly
+            long h = ((long) keyHash << 32) | (hostHash & 0xffffffffL);
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+
+        @Override
+        public void onAvailable(final Host host) {
+            this.availableHosts.addIfAbsent(host);
+            child.onAvailable(host);
+        }
+
+        @Override
+        public void onUnavailable(final Host host) {
+            this.availableHosts.remove(host);
+            child.onUnavailable(host);
+        }
+
+        @Override
+        public void onNew(final Host host) {
+            this.availableHosts.addIfAbsent(host);
+            child.onNew(host);
+        }
+
+        @Override
+        public void onRemove(final Host host) {
+            this.availableHosts.remove(host);
+            child.onRemove(host);
+        }
+    }
 }
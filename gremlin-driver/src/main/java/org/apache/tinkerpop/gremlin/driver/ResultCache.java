@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver;
+
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded cache of the results of script evaluations that is shared by the {@link Client} instances of a
+ * {@link Cluster}.  A request is only answered from the cache if it opts in with the {@link Tokens#ARGS_CACHE}
+ * argument, is a sessionless "eval" and its results were cached from an identical earlier request (the same script,
+ * language, bindings and rebindings) within the time-to-live.  When the cache is full the least recently used entry
+ * is evicted.  Gremlin Server tells the clients that cached results to clear their caches when it is asked to
+ * invalidate them, which it is typically after the graph has been changed.
+ * <p/>
+ * Cached {@link Result} objects are shared by every request that they answer and should not be modified.  The cache
+ * is best kept to small, read-only results that are requested often and change rarely, like reference data.
+ */
+public final class ResultCache {
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<List<Object>, Entry> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    /**
+     * Incremented on each invalidation so that results of requests sent before an invalidation are not cached
+     * after it.
+     */
+    private long generation = 0;
+
+    ResultCache(final int maxSize, final long ttl, final TimeUnit unit) {
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<List<Object>, Entry> eldest) {
+                final boolean evict = size() > ResultCache.this.maxSize;
+                if (evict) evictions++;
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Determines if the cache holds any entries at all, which it does not if it was configured with a size of zero.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Determines if the results of the request may be taken from or placed in the cache.
+     */
+    public boolean isCacheable(final RequestMessage msg) {
+        return isEnabled() && msg.getOp().equals(Tokens.OPS_EVAL)
+                && Boolean.TRUE.equals(msg.getArgs().get(Tokens.ARGS_CACHE))
+                && !msg.getArgs().containsKey(Tokens.ARGS_SESSION);
+    }
+
+    /**
+     * Gets the cached results for the request or {@code null} if there are none.
+     */
+    synchronized List<Result> get(final RequestMessage msg) {
+        final List<Object> key = key(msg);
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.expires - System.nanoTime() > 0) {
+            hits++;
+            return entry.results;
+        }
+
+        if (entry != null) {
+            entries.remove(key);
+            evictions++;
+        }
+
+        misses++;
+        return null;
+    }
+
+    /**
+     * Gets the generation of the cache to supply to {@link #put} once the results of a request sent now arrive.
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches the results of the request unless the cache was invalidated since the request was sent.
+     */
+    synchronized void put(final RequestMessage msg, final List<Result> results, final long sentInGeneration) {
+        if (sentInGeneration != generation) return;
+        entries.put(key(msg), new Entry(Collections.unmodifiableList(new ArrayList<>(results)), System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Removes all entries from the cache.  Called when Gremlin Server pushes an invalidation to the client.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+        invalidations++;
+    }
+
+    /**
+     * Removes the entries whose time-to-live has passed.
+     */
+    synchronized void evictExpired() {
+        final long now = System.nanoTime();
+        final Iterator<Entry> itty = entries.values().iterator();
+        while (itty.hasNext()) {
+            if (itty.next().expires - now <= 0) {
+                itty.remove();
+                evictions++;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries removed because the cache was full or their time-to-live had passed.
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getInvalidationCount() {
+        return invalidations;
+    }
+
+    /**
+     * Gets the ratio of requests answered from the cache to all requests that opted in to it.
+     */
+    public synchronized double getHitRatio() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ResultCache{size=%s, maxSize=%s, hits=%s, misses=%s, evictions=%s, invalidations=%s}",
+                entries.size(), maxSize, hits, misses, evictions, invalidations);
+    }
+
+    private static List<Object> key(final RequestMessage msg) {
+        // arguments that do not change the results are left out of the key
+        final Map<String, Object> args = new HashMap<>(msg.getArgs());
+        args.remove(Tokens.ARGS_BATCH_SIZE);
+        args.remove(Tokens.ARGS_CACHE);
+        args.remove(Tokens.ARGS_PARTITION_KEY);
+        return Arrays.asList(msg.getProcessor(), msg.getOp(), args);
+    }
+
+    private static final class Entry {
+        private final List<Result> results;
+        private final long expires;
+
+        private Entry(final List<Result> results, final long expires) {
+            this.results = results;
+            this.expires = expires;
+        }
+    }
+}
@@ -20,6 +20,8 @@ package org.apache.tinkerpop.gremlin.driver;
 
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.javatuples.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -27,9 +29,14 @@ import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * A queue of incoming {@link ResponseMessage} objects.  The queue is updated by the
@@ -38,6 +45,7 @@ import java.util.concurrent.atomic.AtomicReference;
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 final class ResultQueue {
+    private static final Logger logger = LoggerFactory.getLogger(ResultQueue.class);
 
     private final LinkedBlockingQueue<Result> resultLinkedBlockingQueue;
 
@@ -53,12 +61,80 @@ final class ResultQueue {
      */
     private final AtomicBoolean flushed = new AtomicBoolean(false);
 
+    /**
+     * The {@link Connection} the results are read from, which may be {@code null}, and the number of results
+     * buffered for a subscriber at which reading from it is paused and then resumed.
+     */
+    private final Connection connection;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private boolean readingPaused = false;
+
+    private volatile ResultSubscription subscription = null;
+
+    /**
+     * When set, every result is also recorded so that the complete results can be handed to the consumer when
+     * they have all arrived without error.
+     */
+    private List<Result> recorded = null;
+    private Consumer<List<Result>> onRecorded = null;
+
+    /**
+     * When set, the first error response is offered to it so that the request may be sent again.
+     */
+    private volatile Predicate<ResponseMessage> onError = null;
+
     public ResultQueue(final LinkedBlockingQueue<Result> resultLinkedBlockingQueue, final CompletableFuture<Void> readComplete) {
+        this(resultLinkedBlockingQueue, readComplete, null, Connection.RESULT_ITERATION_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a queue that pauses reading from the {@link Connection} while a subscriber has more than twice the
+     * {@code batchSize} results buffered that it has not requested.
+     */
+    public ResultQueue(final LinkedBlockingQueue<Result> resultLinkedBlockingQueue, final CompletableFuture<Void> readComplete,
+                       final Connection connection, final int batchSize) {
         this.resultLinkedBlockingQueue = resultLinkedBlockingQueue;
         this.readComplete = readComplete;
+        this.connection = connection;
+        this.highWaterMark = Math.max(2, batchSize * 2);
+        this.lowWaterMark = Math.max(1, batchSize);
+    }
+
+    /**
+     * Records the results so that the complete list is given to the {@code consumer} when they have all arrived,
+     * unless an error occurs.  Must be called before the first result is added.
+     */
+    void record(final Consumer<List<Result>> consumer) {
+        recorded = new ArrayList<>();
+        onRecorded = consumer;
+    }
+
+    /**
+     * Offers the first error response for the request to {@code retry}, which returns {@code true} if it sent the
+     * request again under the same identifier, in which case the queue takes the response to that instead.  Must
+     * be called before the first response arrives.
+     */
+    void retry(final Predicate<ResponseMessage> retry) {
+        onError = retry;
+    }
+
+    /**
+     * Determines if the request was sent again in response to the error, which is only tried once.
+     */
+    boolean retried(final ResponseMessage response) {
+        final Predicate<ResponseMessage> retry = onError;
+        onError = null;
+        return retry != null && retry.test(response);
     }
 
     public void add(final Result result) {
+        if (recorded != null) recorded.add(result);
+
+        // results for a subscriber that cancelled are of no use to anyone
+        final ResultSubscription s = subscription;
+        if (s != null && s.cancelled) return;
+
         this.resultLinkedBlockingQueue.offer(result);
 
         final Pair<CompletableFuture<List<Result>>, Integer> nextWaiting = waiting.peek();
@@ -66,6 +142,38 @@ final class ResultQueue {
             internalDrain(nextWaiting.getValue1(), nextWaiting.getValue0(), resultLinkedBlockingQueue);
             waiting.remove(nextWaiting);
         }
+
+        if (s != null) {
+            updateReading();
+            s.schedule();
+        }
+    }
+
+    /**
+     * Publishes the results to the {@code subscriber} on the {@code executor} as it requests them.  A queue can
+     * only be subscribed to once.
+     */
+    public synchronized void subscribe(final ResultSet.Subscriber subscriber, final Executor executor) {
+        if (subscription != null) {
+            subscriber.onSubscribe(new ResultSet.Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The results can only be subscribed to once"));
+            return;
+        }
+
+        final ResultSubscription s = new ResultSubscription(subscriber, executor);
+        subscription = s;
+        subscriber.onSubscribe(s);
+
+        // the results may already be complete, in which case they can be published without further reads
+        s.schedule();
     }
 
     public CompletableFuture<List<Result>> await(final int items) {
@@ -104,8 +212,11 @@ final class ResultQueue {
     }
 
     void markComplete() {
+        if (onRecorded != null) onRecorded.accept(recorded);
+
         this.readComplete.complete(null);
         this.flushWaiting();
+        if (subscription != null) subscription.schedule();
     }
 
     void markError(final Throwable throwable) {
@@ -114,6 +225,25 @@ final class ResultQueue {
         // unsure if this should really complete exceptionally rather than just complete.
         this.readComplete.complete(null);
         this.flushWaiting();
+        if (subscription != null) subscription.schedule();
+    }
+
+    /**
+     * Pauses reading from the {@link Connection} when the subscriber has fallen behind and resumes it once the
+     * subscriber has caught up, has cancelled or when the all of the results have arrived.
+     */
+    private synchronized void updateReading() {
+        if (null == connection) return;
+
+        final int buffered = resultLinkedBlockingQueue.size();
+        final boolean finished = subscription.cancelled || readComplete.isDone();
+        if (!readingPaused && !finished && buffered >= highWaterMark) {
+            readingPaused = true;
+            connection.pauseReading();
+        } else if (readingPaused && (finished || buffered <= lowWaterMark)) {
+            readingPaused = false;
+            connection.resumeReading();
+        }
     }
 
     private void flushWaiting() {
@@ -131,4 +261,77 @@ final class ResultQueue {
         resultLinkedBlockingQueue.drainTo(results, items);
         result.complete(results);
     }
+
+    /**
+     * Delivers results to the subscriber as it signals demand for them.  Delivery happens in a loop on the
+     * executor that only one thread runs at a time, so signals to the subscriber are never concurrent.
+     */
+    private final class ResultSubscription implements ResultSet.Subscription {
+        private final ResultSet.Subscriber subscriber;
+        private final Executor executor;
+        private final AtomicLong demand = new AtomicLong(0);
+        private final AtomicInteger scheduled = new AtomicInteger(0);
+        private volatile boolean cancelled = false;
+        private boolean terminated = false;
+
+        private ResultSubscription(final ResultSet.Subscriber subscriber, final Executor executor) {
+            this.subscriber = subscriber;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                error.compareAndSet(null, new IllegalArgumentException("The number of results requested must be greater than zero"));
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            resultLinkedBlockingQueue.clear();
+            updateReading();
+        }
+
+        private void schedule() {
+            if (scheduled.getAndIncrement() == 0) executor.execute(this::deliver);
+        }
+
+        private void deliver() {
+            int missed = 1;
+            do {
+                try {
+                    while (!cancelled && !terminated) {
+                        final Throwable t = error.get();
+                        if (t != null) {
+                            terminated = true;
+                            subscriber.onError(t);
+                        } else if (resultLinkedBlockingQueue.isEmpty()) {
+                            if (readComplete.isDone() && error.get() == null) {
+                                terminated = true;
+                                subscriber.onComplete();
+                            }
+                            break;
+                        } else if (demand.get() > 0) {
+                            demand.decrementAndGet();
+                            subscriber.onNext(resultLinkedBlockingQueue.poll());
+                        } else {
+                            break;
+                        }
+                    }
+                } catch (Exception ex) {
+                    // subscribers should not throw, but if one does then there is nothing more to send it
+                    logger.warn("Subscriber failed while receiving results - cancelling subscription", ex);
+                    cancel();
+                }
+
+                updateReading();
+                missed = scheduled.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
 }
@@ -104,6 +104,18 @@ public final class ResultSet implements Iterable<Result> {
         }, executor);
     }
 
+    /**
+     * Publishes the results to the {@link Subscriber} as it requests them, which allows results to be processed
+     * in constant memory no matter how many the server returns.  When the subscriber falls behind, the driver
+     * stops reading from the connection of the request, which in turn makes the server pause its writes.  As the
+     * connection is shared with other requests, their results are held up as well until the subscriber requests
+     * more results or cancels its subscription.  Signals to the subscriber are made from the driver's worker
+     * pool and a {@code ResultSet} can only be subscribed to once.
+     */
+    public void subscribe(final Subscriber subscriber) {
+        resultQueue.subscribe(subscriber, executor);
+    }
+
     /**
      * Stream items with a blocking iterator.
      */
@@ -145,4 +157,46 @@ public final class ResultSet implements Iterable<Result> {
             }
         };
     }
+
+    /**
+     * Receives the results of a {@code ResultSet} as they are requested through its {@link Subscription}.  The
+     * signals follow the same rules as a Reactive Streams {@code Subscriber}, so adapting one to the other is a
+     * matter of delegation.
+     */
+    public interface Subscriber {
+        /**
+         * Called once before any other signal with the {@link Subscription} used to request results.
+         */
+        public void onSubscribe(final Subscription subscription);
+
+        /**
+         * Called for each result up to the number requested.
+         */
+        public void onNext(final Result result);
+
+        /**
+         * Called if the request fails, after which there are no further signals.
+         */
+        public void onError(final Throwable t);
+
+        /**
+         * Called after the last result, after which there are no further signals.
+         */
+        public void onComplete();
+    }
+
+    /**
+     * Controls the flow of results to a {@link Subscriber}.
+     */
+    public interface Subscription {
+        /**
+         * Requests {@code n} more results, where {@code n} must be greater than zero.
+         */
+        public void request(final long n);
+
+        /**
+         * Stops the delivery of results and discards any that have not been delivered.
+         */
+        public void cancel();
+    }
 }
@@ -47,6 +47,12 @@ final class Settings {
 
     public int workerPoolSize = Runtime.getRuntime().availableProcessors() * 2;
 
+    /**
+     * The network transport to use - either {@code nio} or {@code epoll}.  The {@code epoll} transport falls back
+     * to {@code nio} if the native libraries cannot be loaded.
+     */
+    public String transport = Transport.NIO.name().toLowerCase();
+
     /**
      * Read configuration from a file into a new {@link Settings} object.
      *
@@ -68,6 +74,7 @@ final class Settings {
     static class ConnectionPoolSettings {
         public boolean enableSsl = false;
         public String trustCertChainFile = null;
+        public boolean enableFlowControl = true;
         public int minSize = ConnectionPool.MIN_POOL_SIZE;
         public int maxSize = ConnectionPool.MAX_POOL_SIZE;
         public int minSimultaneousUsagePerConnection = ConnectionPool.MIN_SIMULTANEOUS_USAGE_PER_CONNECTION;
@@ -79,7 +86,15 @@ final class Settings {
         public int reconnectInterval = Connection.RECONNECT_INTERVAL;
         public int reconnectInitialDelay = Connection.RECONNECT_INITIAL_DELAY;
         public int resultIterationBatchSize = Connection.RESULT_ITERATION_BATCH_SIZE;
+        public int batchWindow = Connection.BATCH_WINDOW;
+        public int maxBatchSize = Connection.MAX_BATCH_SIZE;
+        public int resultCacheSize = Connection.RESULT_CACHE_SIZE;
+        public int resultCacheTtl = Connection.RESULT_CACHE_TTL;
         public String sessionId = null;
+        public boolean tcpNoDelay = true;
+        public boolean keepAlive = true;
+        public int sendBufferSize = 0;
+        public int receiveBufferSize = 0;
 
         public Optional<String> optionalSessionId() {
             return Optional.ofNullable(sessionId);
@@ -29,28 +29,44 @@ import java.util.List;
 public final class Tokens {
     private Tokens() {}
 
+    public static final String OPS_BATCH = "batch";
+    public static final String OPS_CANCEL = "cancel";
     public static final String OPS_SHOW = "show";
     public static final String OPS_EVAL = "eval";
     public static final String OPS_IMPORT = "import";
     public static final String OPS_INVALID = "invalid";
+    public static final String OPS_INVALIDATE = "invalidate";
+    public static final String OPS_PREPARE = "prepare";
     public static final String OPS_RESET = "reset";
+    public static final String OPS_TRAVERSE = "traverse";
+    public static final String OPS_UNPREPARE = "unprepare";
     public static final String OPS_USE = "use";
     public static final String OPS_VERSION = "version";
 
     public static final String ARGS_BATCH_SIZE = "batchSize";
     public static final String ARGS_BINDINGS = "bindings";
+    public static final String ARGS_CACHE = "cache";
     public static final String ARGS_COORDINATES = "coordinates";
     public static final String ARGS_GREMLIN = "gremlin";
     public static final String ARGS_IMPORTS = "imports";
     public static final String ARGS_INFO_TYPE = "infoType";
     public static final String ARGS_LANGUAGE = "language";
+    public static final String ARGS_PARTITION_KEY = "partitionKey";
     public static final String ARGS_REBINDINGS = "rebindings";
+    public static final String ARGS_REQUEST_ID = "requestId";
+    public static final String ARGS_REQUESTS = "requests";
+    public static final String ARGS_SCRIPT_HANDLE = "scriptHandle";
     public static final String ARGS_SESSION = "session";
+    public static final String ARGS_TRAVERSAL_SOURCE = "traversalSource";
 
     public static final String ARGS_COORDINATES_GROUP = "group";
     public static final String ARGS_COORDINATES_ARTIFACT = "artifact";
     public static final String ARGS_COORDINATES_VERSION = "version";
 
+    public static final String STATUS_ATTRIBUTE_CREDITS = "credits";
+    public static final String STATUS_ATTRIBUTE_INVALIDATE = "invalidate";
+    public static final String STATUS_ATTRIBUTE_UNPREPARED = "unprepared";
+
     public static final String ARGS_INFO_TYPE_DEPDENENCIES = "dependencies";
     public static final String ARGS_INFO_TYPE_IMPORTS = "imports";
 
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The network transports available to the driver and to Gremlin Server.  {@link #EPOLL} uses the Linux native
+ * transport bundled with Netty, which has lower syscall overhead than {@link #NIO} and supports options like
+ * {@code SO_REUSEPORT}.
+ */
+public enum Transport {
+    NIO,
+    EPOLL;
+
+    private static final Logger logger = LoggerFactory.getLogger(Transport.class);
+
+    /**
+     * Determines if the native libraries required by the transport can be loaded on this platform.
+     */
+    public boolean isAvailable() {
+        return this == NIO || Epoll.isAvailable();
+    }
+
+    /**
+     * Gets this transport if it is available or otherwise falls back to {@link #NIO}.
+     */
+    public Transport resolve() {
+        if (isAvailable()) return this;
+
+        logger.warn("The {} transport is not available on this platform - falling back to {}", this, NIO,
+                Epoll.unavailabilityCause());
+        return NIO;
+    }
+
+    public EventLoopGroup createEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+        return this == EPOLL ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    public Class<? extends SocketChannel> socketChannelClass() {
+        return this == EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public Class<? extends ServerSocketChannel> serverSocketChannelClass() {
+        return this == EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    /**
+     * Parses a transport name case-insensitively, falling back to {@link #NIO} if the transport is not available.
+     */
+    public static Transport of(final String name) {
+        try {
+            return valueOf(name.trim().toUpperCase()).resolve();
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalArgumentException(String.format("The transport [%s] is not one of %s", name, Arrays.toString(values())));
+        }
+    }
+
+    /**
+     * Gets the transport that matches an existing {@code EventLoopGroup}.
+     */
+    public static Transport of(final EventLoopGroup group) {
+        return group instanceof EpollEventLoopGroup ? EPOLL : NIO;
+    }
+}
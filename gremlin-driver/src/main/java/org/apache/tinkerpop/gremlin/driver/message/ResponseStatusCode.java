@@ -77,6 +77,18 @@ public enum ResponseStatusCode {
      */
     SERVER_ERROR(500),
 
+    /**
+     * The request was cancelled before it completed, either by a request to cancel it or because the client that
+     * sent it disconnected.  Any results already sent for the request are incomplete.
+     */
+    SERVER_ERROR_CANCELLED(595),
+
+    /**
+     * The server is overloaded and did not process the request as it could not be admitted for execution in a
+     * timely manner.  The request may be retried, preferably after some delay or against another server.
+     */
+    SERVER_ERROR_BUSY(596),
+
     /**
      * The script submitted for processing evaluated in the {@code ScriptEngine} with errors and could not be
      * processed.  Check the script submitted for syntax errors or other problems and then resubmit.
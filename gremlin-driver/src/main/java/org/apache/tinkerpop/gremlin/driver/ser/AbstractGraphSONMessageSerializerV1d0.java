@@ -37,6 +37,7 @@ import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
 import groovy.json.JsonBuilder;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.util.ReferenceCountUtil;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONTokens;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONUtil;
@@ -44,8 +45,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -55,6 +59,8 @@ public abstract class AbstractGraphSONMessageSerializerV1d0 implements MessageSe
     private static final Logger logger = LoggerFactory.getLogger(AbstractGraphSONMessageSerializerV1d0.class);
 
     protected ObjectMapper mapper;
+    protected Optional<MessageCompressor> compressor = Optional.empty();
+    private byte[] compressedHeader;
 
     protected static final String TOKEN_USE_MAPPER_FROM_GRAPH = "useMapperFromGraph";
 
@@ -72,8 +78,23 @@ public abstract class AbstractGraphSONMessageSerializerV1d0 implements MessageSe
 
     abstract byte[] obtainHeader();
 
+    /**
+     * Gets the mime type that is advertised for the given one, which differs when messages are compressed.
+     */
+    String mimeType(final String mimeType) {
+        return compressor.isPresent() ? compressor.get().mimeType(mimeType) : mimeType;
+    }
+
     abstract GraphSONMapper.Builder configureBuilder(final GraphSONMapper.Builder builder);
 
+    /**
+     * Gets the configured Jackson {@code ObjectMapper} so that callers can stream results through the same
+     * serializers used for a full {@link ResponseMessage}.
+     */
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
     @Override
     public void configure(final Map<String, Object> config, final Map<String, Graph> graphs) {
         final GraphSONMapper.Builder initialBuilder;
@@ -98,17 +119,32 @@ public abstract class AbstractGraphSONMessageSerializerV1d0 implements MessageSe
         }
 
         mapper = configureBuilder(initialBuilder).create().createMapper();
+
+        compressor = MessageCompressor.fromConfig(config);
+        if (compressor.isPresent()) {
+            final byte[] mimeType = mimeTypesSupported()[0].getBytes(StandardCharsets.UTF_8);
+            compressedHeader = new byte[mimeType.length + 1];
+            compressedHeader[0] = (byte) mimeType.length;
+            System.arraycopy(mimeType, 0, compressedHeader, 1, mimeType.length);
+        }
     }
 
     @Override
     public ByteBuf serializeResponseAsBinary(final ResponseMessage responseMessage, final ByteBufAllocator allocator) throws SerializationException {
+        return serializeResponse(responseMessage, allocator, compressor);
+    }
+
+    ByteBuf serializeResponse(final ResponseMessage responseMessage, final ByteBufAllocator allocator,
+                              final Optional<MessageCompressor> compressor) throws SerializationException {
         ByteBuf encodedMessage = null;
         try {
-            final byte[] payload = mapper.writeValueAsBytes(responseMessage);
-            encodedMessage = allocator.buffer(payload.length);
-            encodedMessage.writeBytes(payload);
+            // stream the JSON directly into the buffer rather than building it up on the heap first
+            encodedMessage = allocator.buffer();
+            final int flagIndex = compressor.isPresent() ? compressor.get().writeFlag(encodedMessage) : -1;
+            final OutputStream bbos = new ByteBufOutputStream(encodedMessage);
+            mapper.writeValue(bbos, responseMessage);
 
-            return encodedMessage;
+            return compressor.isPresent() ? compressor.get().compress(encodedMessage, flagIndex, allocator) : encodedMessage;
         } catch (Exception ex) {
             if (encodedMessage != null) ReferenceCountUtil.release(encodedMessage);
 
@@ -121,14 +157,15 @@ public abstract class AbstractGraphSONMessageSerializerV1d0 implements MessageSe
     public ByteBuf serializeRequestAsBinary(final RequestMessage requestMessage, final ByteBufAllocator allocator) throws SerializationException {
         ByteBuf encodedMessage = null;
         try {
-            final byte[] header = obtainHeader();
+            final byte[] header = compressor.isPresent() ? compressedHeader : obtainHeader();
             final byte[] payload = mapper.writeValueAsBytes(requestMessage);
 
-            encodedMessage = allocator.buffer(header.length + payload.length);
+            encodedMessage = allocator.buffer(header.length + payload.length + 1);
             encodedMessage.writeBytes(header);
+            final int flagIndex = compressor.isPresent() ? compressor.get().writeFlag(encodedMessage) : -1;
             encodedMessage.writeBytes(payload);
 
-            return encodedMessage;
+            return compressor.isPresent() ? compressor.get().compress(encodedMessage, flagIndex, allocator) : encodedMessage;
         } catch (Exception ex) {
             if (encodedMessage != null) ReferenceCountUtil.release(encodedMessage);
 
@@ -140,9 +177,7 @@ public abstract class AbstractGraphSONMessageSerializerV1d0 implements MessageSe
     @Override
     public RequestMessage deserializeRequest(final ByteBuf msg) throws SerializationException {
         try {
-            final byte[] payload = new byte[msg.readableBytes()];
-            msg.readBytes(payload);
-            return mapper.readValue(payload, RequestMessage.class);
+            return mapper.readValue(readPayload(msg), RequestMessage.class);
         } catch (Exception ex) {
             logger.warn("Request [{}] could not be deserialized by {}.", msg, AbstractGraphSONMessageSerializerV1d0.class.getName());
             throw new SerializationException(ex);
@@ -152,9 +187,7 @@ public abstract class AbstractGraphSONMessageSerializerV1d0 implements MessageSe
     @Override
     public ResponseMessage deserializeResponse(final ByteBuf msg) throws SerializationException {
         try {
-            final byte[] payload = new byte[msg.readableBytes()];
-            msg.readBytes(payload);
-            final Map<String, Object> responseData = mapper.readValue(payload, mapTypeReference);
+            final Map<String, Object> responseData = mapper.readValue(readPayload(msg), mapTypeReference);
             final Map<String, Object> status = (Map<String, Object>) responseData.get(SerTokens.TOKEN_STATUS);
             final Map<String, Object> result = (Map<String, Object>) responseData.get(SerTokens.TOKEN_RESULT);
             return ResponseMessage.build(UUID.fromString(responseData.get(SerTokens.TOKEN_REQUEST).toString()))
@@ -170,6 +203,17 @@ public abstract class AbstractGraphSONMessageSerializerV1d0 implements MessageSe
         }
     }
 
+    private byte[] readPayload(final ByteBuf msg) throws IOException {
+        final ByteBuf uncompressed = compressor.isPresent() ? compressor.get().decompress(msg) : msg;
+        try {
+            final byte[] payload = new byte[uncompressed.readableBytes()];
+            uncompressed.readBytes(payload);
+            return payload;
+        } finally {
+            if (uncompressed != msg) ReferenceCountUtil.release(uncompressed);
+        }
+    }
+
     public final static class GremlinServerModule extends SimpleModule {
         public GremlinServerModule() {
             super("graphson-gremlin-server");
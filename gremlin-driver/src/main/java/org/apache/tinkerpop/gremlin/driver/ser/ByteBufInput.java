@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver.ser;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.tinkerpop.shaded.kryo.KryoException;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+
+/**
+ * A Kryo {@link Input} that reads from a {@link ByteBuf} without first copying the whole of it into a byte array.
+ * A heap buffer is read in place from its backing array.  Other buffers, such as direct or composite ones, are read
+ * a chunk at a time into a small buffer that is reused for every {@link ByteBuf} given to this {@code Input}.
+ */
+final class ByteBufInput extends Input {
+    static final int CHUNK_SIZE = 4096;
+
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private ByteBuf source = null;
+
+    /**
+     * Prepares the input to read the readable bytes of the {@link ByteBuf}, all of which are consumed by the time
+     * this method returns when they can be read in place, and otherwise as they are read through this
+     * {@code Input}.
+     */
+    void setByteBuf(final ByteBuf buf) {
+        if (buf.hasArray()) {
+            source = null;
+            final int readable = buf.readableBytes();
+            setBuffer(buf.array(), buf.arrayOffset() + buf.readerIndex(), readable);
+            buf.skipBytes(readable);
+        } else {
+            source = buf;
+            setBuffer(chunk, 0, 0);
+        }
+    }
+
+    /**
+     * Releases the reference to the last {@link ByteBuf} so that it is not held by the thread that reused this
+     * {@code Input}.
+     */
+    void clear() {
+        source = null;
+        setBuffer(chunk, 0, 0);
+    }
+
+    @Override
+    protected int fill(final byte[] buffer, final int offset, final int count) throws KryoException {
+        if (null == source || !source.isReadable()) return -1;
+
+        final int toRead = Math.min(count, source.readableBytes());
+        source.readBytes(buffer, offset, toRead);
+        return toRead;
+    }
+}
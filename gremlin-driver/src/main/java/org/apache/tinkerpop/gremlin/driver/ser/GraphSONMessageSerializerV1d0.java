@@ -23,11 +23,14 @@ import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -58,7 +61,7 @@ public final class GraphSONMessageSerializerV1d0 extends AbstractGraphSONMessage
 
     @Override
     public String[] mimeTypesSupported() {
-        return new String[]{MIME_TYPE};
+        return new String[]{mimeType(MIME_TYPE)};
     }
 
     @Override
@@ -92,6 +95,12 @@ public final class GraphSONMessageSerializerV1d0 extends AbstractGraphSONMessage
         }
     }
 
+    @Override
+    public ByteBuf serializeResponseAsUtf8(final ResponseMessage responseMessage, final ByteBufAllocator allocator) throws SerializationException {
+        // the UTF-8 encoded JSON is the binary form of a GraphSON response without any compression
+        return serializeResponse(responseMessage, allocator, Optional.empty());
+    }
+
     @Override
     public String serializeResponseAsString(final ResponseMessage responseMessage) throws SerializationException {
         try {
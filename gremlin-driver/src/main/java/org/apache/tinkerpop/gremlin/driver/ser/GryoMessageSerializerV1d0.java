@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.driver.ser;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.util.ReferenceCountUtil;
 import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
@@ -30,11 +31,9 @@ import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoIo;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.shaded.kryo.Kryo;
 import org.apache.tinkerpop.shaded.kryo.Serializer;
-import org.apache.tinkerpop.shaded.kryo.io.Input;
 import org.apache.tinkerpop.shaded.kryo.io.Output;
 import org.javatuples.Pair;
 
-import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -59,6 +58,14 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
         }
     };
 
+    // reads messages straight from the network buffers rather than from a copy of them
+    private static final ThreadLocal<ByteBufInput> inputThreadLocal = new ThreadLocal<ByteBufInput>() {
+        @Override
+        protected ByteBufInput initialValue() {
+            return new ByteBufInput();
+        }
+    };
+
     private static final Charset UTF8 = Charset.forName("UTF-8");
 
     private static final String MIME_TYPE = SerTokens.MIME_GRYO_V1D0;
@@ -69,6 +76,7 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
     private static final String TOKEN_USE_MAPPER_FROM_GRAPH = "useMapperFromGraph";
 
     private boolean serializeToString;
+    private Optional<MessageCompressor> compressor = Optional.empty();
 
     /**
      * Creates an instance with a standard {@link org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper} instance. Note that this instance
@@ -147,22 +155,29 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
         });
 
         this.serializeToString = Boolean.parseBoolean(config.getOrDefault(TOKEN_SERIALIZE_RESULT_TO_STRING, "false").toString());
+        this.compressor = MessageCompressor.fromConfig(config);
 
         this.gryoMapper = builder.create();
     }
 
     @Override
     public String[] mimeTypesSupported() {
-        return new String[]{this.serializeToString ? MIME_TYPE_STRINGD : MIME_TYPE};
+        return new String[]{mimeType()};
+    }
+
+    private String mimeType() {
+        final String mimeType = this.serializeToString ? MIME_TYPE_STRINGD : MIME_TYPE;
+        return compressor.isPresent() ? compressor.get().mimeType(mimeType) : mimeType;
     }
 
     @Override
     public ResponseMessage deserializeResponse(final ByteBuf msg) throws SerializationException {
         try {
             final Kryo kryo = kryoThreadLocal.get();
-            final byte[] payload = new byte[msg.readableBytes()];
-            msg.readBytes(payload);
-            try (final Input input = new Input(payload)) {
+            final ByteBuf payload = compressor.isPresent() ? compressor.get().decompress(msg) : msg;
+            final ByteBufInput input = inputThreadLocal.get();
+            input.setByteBuf(payload);
+            try {
                 final UUID requestId = kryo.readObjectOrNull(input, UUID.class);
                 final int status = input.readShort();
                 final String statusMsg = input.readString();
@@ -177,6 +192,9 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
                         .result(result)
                         .responseMetaData(metaAttributes)
                         .create();
+            } finally {
+                input.clear();
+                if (payload != msg) ReferenceCountUtil.release(payload);
             }
         } catch (Exception ex) {
             logger.warn("Response [{}] could not be deserialized by {}.", msg, GryoMessageSerializerV1d0.class.getName());
@@ -189,8 +207,13 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
         ByteBuf encodedMessage = null;
         try {
             final Kryo kryo = kryoThreadLocal.get();
-            try (final OutputStream baos = new ByteArrayOutputStream()) {
-                final Output output = new Output(baos);
+
+            // write straight into the (typically pooled) buffer from the allocator rather than through an
+            // intermediate byte array that would then need to be copied
+            encodedMessage = allocator.buffer();
+            final int flagIndex = compressor.isPresent() ? compressor.get().writeFlag(encodedMessage) : -1;
+            try (final OutputStream bbos = new ByteBufOutputStream(encodedMessage)) {
+                final Output output = new Output(bbos);
 
                 // request id - if present
                 kryo.writeObjectOrNull(output, responseMessage.getRequestId() != null ? responseMessage.getRequestId() : null, UUID.class);
@@ -203,16 +226,10 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
                 // result
                 kryo.writeClassAndObject(output, serializeToString ? serializeResultToString(responseMessage) : responseMessage.getResult().getData());
                 kryo.writeClassAndObject(output, responseMessage.getResult().getMeta());
-
-                final long size = output.total();
-                if (size > Integer.MAX_VALUE)
-                    throw new SerializationException(String.format("Message size of %s exceeds allocatable space", size));
-
-                encodedMessage = allocator.buffer((int) output.total());
-                encodedMessage.writeBytes(output.toBytes());
+                output.flush();
             }
 
-            return encodedMessage;
+            return compressor.isPresent() ? compressor.get().compress(encodedMessage, flagIndex, allocator) : encodedMessage;
         } catch (Exception ex) {
             if (encodedMessage != null) ReferenceCountUtil.release(encodedMessage);
 
@@ -225,9 +242,10 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
     public RequestMessage deserializeRequest(final ByteBuf msg) throws SerializationException {
         try {
             final Kryo kryo = kryoThreadLocal.get();
-            final byte[] payload = new byte[msg.readableBytes()];
-            msg.readBytes(payload);
-            try (final Input input = new Input(payload)) {
+            final ByteBuf payload = compressor.isPresent() ? compressor.get().decompress(msg) : msg;
+            final ByteBufInput input = inputThreadLocal.get();
+            input.setByteBuf(payload);
+            try {
                 // by the time the message gets here, the mime length/type have been already read, so this part just
                 // needs to process the payload.
                 final UUID id = kryo.readObject(input, UUID.class);
@@ -241,6 +259,9 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
                 final Map<String, Object> args = kryo.readObject(input, HashMap.class);
                 args.forEach(builder::addArg);
                 return builder.create();
+            } finally {
+                input.clear();
+                if (payload != msg) ReferenceCountUtil.release(payload);
             }
         } catch (Exception ex) {
             logger.warn("Request [{}] could not be deserialized by {}.", msg, GryoMessageSerializerV1d0.class.getName());
@@ -253,26 +274,26 @@ public final class GryoMessageSerializerV1d0 implements MessageSerializer {
         ByteBuf encodedMessage = null;
         try {
             final Kryo kryo = kryoThreadLocal.get();
-            try (final OutputStream baos = new ByteArrayOutputStream()) {
-                final Output output = new Output(baos);
-                final String mimeType = serializeToString ? MIME_TYPE_STRINGD : MIME_TYPE;
-                output.writeByte(mimeType.length());
-                output.write(mimeType.getBytes(UTF8));
 
+            // as with responses, write straight into the buffer so that requests larger than the Output buffer
+            // (e.g. a serialized traversal) are written in full
+            encodedMessage = allocator.buffer();
+            final String mimeType = mimeType();
+            encodedMessage.writeByte(mimeType.length());
+            encodedMessage.writeBytes(mimeType.getBytes(UTF8));
+
+            // the mime type is never compressed so that the server can find the serializer to read the rest with
+            final int flagIndex = compressor.isPresent() ? compressor.get().writeFlag(encodedMessage) : -1;
+            try (final OutputStream bbos = new ByteBufOutputStream(encodedMessage)) {
+                final Output output = new Output(bbos);
                 kryo.writeObject(output, requestMessage.getRequestId());
                 output.writeString(requestMessage.getProcessor());
                 output.writeString(requestMessage.getOp());
                 kryo.writeObject(output, requestMessage.getArgs());
-
-                final long size = output.total();
-                if (size > Integer.MAX_VALUE)
-                    throw new SerializationException(String.format("Message size of %s exceeds allocatable space", size));
-
-                encodedMessage = allocator.buffer((int) size);
-                encodedMessage.writeBytes(output.toBytes());
+                output.flush();
             }
 
-            return encodedMessage;
+            return compressor.isPresent() ? compressor.get().compress(encodedMessage, flagIndex, allocator) : encodedMessage;
         } catch (Exception ex) {
             if (encodedMessage != null) ReferenceCountUtil.release(encodedMessage);
 
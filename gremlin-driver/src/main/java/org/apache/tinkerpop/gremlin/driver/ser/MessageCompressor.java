@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver.ser;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.SnappyFramedDecoder;
+import io.netty.handler.codec.compression.SnappyFramedEncoder;
+import io.netty.util.ReferenceCountUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresses the binary form of serialized messages when they are larger than a threshold.  A serializer that is
+ * configured with a {@code compression} advertises a mime type with the compression as a suffix (e.g.
+ * {@code application/vnd.gremlin-v1.0+gryo-deflate}) so that only a client and server that both use it exchange
+ * compressed messages.  Each message then starts with a flag byte that says whether the rest of it is compressed,
+ * followed, when it is, by the length of the uncompressed message.
+ * <p/>
+ * {@code deflate} compresses better while {@code snappy}, which uses the pure Java framed Snappy codec of Netty,
+ * is several times faster at a lower ratio.  Only binary messages are compressed, so GraphSON sent by a client as
+ * text websocket frames is never compressed.
+ */
+public final class MessageCompressor {
+    public static final String TOKEN_COMPRESSION = "compression";
+    public static final String TOKEN_COMPRESSION_THRESHOLD = "compressionThreshold";
+    public static final String TOKEN_COMPRESSION_MAX_LENGTH = "compressionMaxLength";
+
+    public static final String DEFLATE = "deflate";
+    public static final String SNAPPY = "snappy";
+
+    private static final List<String> COMPRESSIONS = Arrays.asList(DEFLATE, SNAPPY);
+
+    /**
+     * Messages up to this many bytes are not compressed by default as compressing them saves little.
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    /**
+     * Compressed messages that claim to be larger than this many bytes once uncompressed are rejected by default.
+     */
+    public static final int DEFAULT_COMPRESSION_MAX_LENGTH = 64 * 1024 * 1024;
+
+    private static final byte UNCOMPRESSED = 0;
+    private static final byte COMPRESSED = 1;
+
+    private static final ThreadLocal<Deflater> deflaterThreadLocal = new ThreadLocal<Deflater>() {
+        @Override
+        protected Deflater initialValue() {
+            return new Deflater(Deflater.BEST_SPEED);
+        }
+    };
+
+    private static final ThreadLocal<Inflater> inflaterThreadLocal = new ThreadLocal<Inflater>() {
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater();
+        }
+    };
+
+    private final String compression;
+    private final int threshold;
+    private final int maxLength;
+
+    private MessageCompressor(final String compression, final int threshold, final int maxLength) {
+        this.compression = compression;
+        this.threshold = threshold;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Creates a compressor from the {@code compression}, {@code compressionThreshold} and
+     * {@code compressionMaxLength} settings of a serializer configuration, where there is none if
+     * {@code compression} is not set.
+     */
+    public static Optional<MessageCompressor> fromConfig(final Map<String, Object> config) {
+        final Object compression = config.get(TOKEN_COMPRESSION);
+        if (null == compression) return Optional.empty();
+
+        if (!COMPRESSIONS.contains(compression.toString()))
+            throw new IllegalStateException(String.format("Invalid configuration value of [%s] for [%s] setting - only %s are supported",
+                    compression, TOKEN_COMPRESSION, COMPRESSIONS));
+
+        final int threshold = intSetting(config, TOKEN_COMPRESSION_THRESHOLD, DEFAULT_COMPRESSION_THRESHOLD);
+        final int maxLength = intSetting(config, TOKEN_COMPRESSION_MAX_LENGTH, DEFAULT_COMPRESSION_MAX_LENGTH);
+        if (maxLength <= 0)
+            throw new IllegalStateException(String.format("Invalid configuration value of [%s] for [%s] setting - it must be greater than zero",
+                    maxLength, TOKEN_COMPRESSION_MAX_LENGTH));
+
+        return Optional.of(new MessageCompressor(compression.toString(), threshold, maxLength));
+    }
+
+    private static int intSetting(final Map<String, Object> config, final String key, final int defaultValue) {
+        try {
+            return Integer.parseInt(config.getOrDefault(key, defaultValue).toString());
+        } catch (Exception ex) {
+            throw new IllegalStateException(String.format("Invalid configuration value of [%s] for [%s] setting",
+                    config.get(key), key), ex);
+        }
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Gets the mime type that a serializer advertises for its messages when they are compressed.
+     */
+    public String mimeType(final String mimeType) {
+        return mimeType + "-" + compression;
+    }
+
+    /**
+     * Writes the flag that starts a message, which is the index that is later given to
+     * {@link #compress(ByteBuf, int, ByteBufAllocator)} once the rest of the message has been written after it.
+     */
+    public int writeFlag(final ByteBuf buf) {
+        final int flagIndex = buf.writerIndex();
+        buf.writeByte(UNCOMPRESSED);
+        return flagIndex;
+    }
+
+    /**
+     * Compresses what follows the flag at {@code flagIndex} if it is larger than the threshold, in which case the
+     * message is released and a new buffer returned in its place.  Anything before the flag, such as the mime type
+     * of a request, is left as it is.
+     */
+    public ByteBuf compress(final ByteBuf msg, final int flagIndex, final ByteBufAllocator allocator) throws IOException {
+        final int length = msg.writerIndex() - flagIndex - 1;
+        if (length <= threshold) return msg;
+
+        final ByteBuf compressed = allocator.buffer();
+        try {
+            compressed.writeBytes(msg, msg.readerIndex(), flagIndex - msg.readerIndex());
+            compressed.writeByte(COMPRESSED);
+            compressed.writeInt(length);
+
+            if (SNAPPY.equals(compression))
+                snappy(new SnappyFramedEncoder(), true, msg.slice(flagIndex + 1, length), compressed, Integer.MAX_VALUE);
+            else
+                deflate(msg, flagIndex + 1, length, compressed);
+        } catch (IOException | RuntimeException ex) {
+            ReferenceCountUtil.release(compressed);
+            throw ex;
+        }
+
+        ReferenceCountUtil.release(msg);
+        return compressed;
+    }
+
+    /**
+     * Reads the flag at the start of a message and returns the rest of it.  That is the message itself if it was
+     * not compressed and otherwise a new buffer holding the uncompressed message which the caller must release.
+     * The uncompressed length comes from the message itself, so it is checked against the maximum length before
+     * anything is allocated for it.
+     */
+    public ByteBuf decompress(final ByteBuf msg) throws IOException {
+        if (msg.readByte() == UNCOMPRESSED) return msg;
+
+        final int length = msg.readInt();
+        if (length < 0 || length > maxLength)
+            throw new IOException(String.format("Compressed message claims an uncompressed length of %s bytes which is not between 0 and the maximum of %s",
+                    length, maxLength));
+
+        final ByteBuf decompressed = msg.alloc().buffer(length);
+        try {
+            if (SNAPPY.equals(compression))
+                snappy(new SnappyFramedDecoder(), false, msg.slice(), decompressed, length);
+            else
+                inflate(msg, decompressed, length);
+
+            if (decompressed.readableBytes() < length)
+                throw new IOException(String.format("Compressed message ended after %s of its %s bytes",
+                        decompressed.readableBytes(), length));
+        } catch (IOException | RuntimeException ex) {
+            ReferenceCountUtil.release(decompressed);
+            throw ex;
+        }
+
+        return decompressed;
+    }
+
+    private static void deflate(final ByteBuf msg, final int index, final int length, final ByteBuf compressed) throws IOException {
+        final Deflater deflater = deflaterThreadLocal.get();
+        deflater.reset();
+        try (final DeflaterOutputStream out = new DeflaterOutputStream(new ByteBufOutputStream(compressed), deflater)) {
+            msg.getBytes(index, out, length);
+        }
+    }
+
+    private static void inflate(final ByteBuf msg, final ByteBuf decompressed, final int length) throws IOException {
+        final Inflater inflater = inflaterThreadLocal.get();
+        inflater.reset();
+        final InputStream in = new InflaterInputStream(new ByteBufInputStream(msg), inflater);
+        while (decompressed.readableBytes() < length) {
+            if (decompressed.writeBytes(in, length - decompressed.readableBytes()) < 0) return;
+        }
+    }
+
+    /**
+     * Runs the bytes through one of the framed Snappy codecs of Netty, which are only usable as handlers, and
+     * copies what comes out to the target, failing once more than {@code maxLength} bytes have come out.
+     */
+    private static void snappy(final ChannelHandler codec, final boolean outbound, final ByteBuf in, final ByteBuf target,
+                               final int maxLength) throws IOException {
+        final EmbeddedChannel channel = new EmbeddedChannel(codec);
+        try {
+            if (outbound)
+                channel.writeOutbound(in.retain());
+            else
+                channel.writeInbound(in.retain());
+
+            Object out;
+            while ((out = outbound ? channel.readOutbound() : channel.readInbound()) != null) {
+                final ByteBuf buf = (ByteBuf) out;
+                try {
+                    if (target.readableBytes() + buf.readableBytes() > maxLength)
+                        throw new IOException(String.format("Compressed message is larger than its stated %s bytes", maxLength));
+                    target.writeBytes(buf);
+                } finally {
+                    buf.release();
+                }
+            }
+        } finally {
+            channel.finish();
+            Object left;
+            while ((left = channel.readOutbound()) != null) ReferenceCountUtil.release(left);
+            while ((left = channel.readInbound()) != null) ReferenceCountUtil.release(left);
+        }
+    }
+}
@@ -21,6 +21,10 @@ package org.apache.tinkerpop.gremlin.driver.ser;
 import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.ReferenceCountUtil;
 
 /**
  * An extension to the MessageSerializer interface that allows a format to be compatible with text-based
@@ -33,6 +37,27 @@ import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 public interface MessageTextSerializer extends MessageSerializer {
     public String serializeResponseAsString(final ResponseMessage responseMessage) throws SerializationException;
 
+    /**
+     * Serialize a {@link ResponseMessage} to its text form encoded as UTF-8 in a Netty {@code ByteBuf}.  By default
+     * this encodes the result of {@link #serializeResponseAsString(ResponseMessage)}, but implementations that can
+     * write their text directly to the buffer should do so to avoid building the entire message as a
+     * {@code String}.
+     *
+     * @param responseMessage The response message to serialize to bytes.
+     * @param allocator       The Netty allocator for the {@code ByteBuf} to return back.
+     */
+    public default ByteBuf serializeResponseAsUtf8(final ResponseMessage responseMessage, final ByteBufAllocator allocator) throws SerializationException {
+        final String serialized = serializeResponseAsString(responseMessage);
+        final ByteBuf encodedMessage = allocator.buffer(serialized.length());
+        try {
+            ByteBufUtil.writeUtf8(encodedMessage, serialized);
+            return encodedMessage;
+        } catch (Exception ex) {
+            ReferenceCountUtil.release(encodedMessage);
+            throw new SerializationException(ex);
+        }
+    }
+
     public String serializeRequestAsString(final RequestMessage requestMessage) throws SerializationException;
 
     public RequestMessage deserializeRequest(final String msg) throws SerializationException;
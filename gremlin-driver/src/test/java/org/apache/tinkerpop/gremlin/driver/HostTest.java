@@ -38,4 +38,23 @@ public class HostTest {
         assertEquals("ws://localhost:8182/gremlin", webSocketUri.toString());
     }
 
+    @Test
+    public void shouldTrackInFlightRequestsAndLatency() {
+        final Host host = new Host(new InetSocketAddress("localhost", 8182), Cluster.open());
+        assertEquals(-1, host.getLatency());
+
+        host.requestSent();
+        host.requestSent();
+        assertEquals(2, host.getInFlight());
+
+        host.responseReceived(1000);
+        assertEquals(1, host.getInFlight());
+        assertEquals(1000, host.getLatency());
+
+        host.responseReceived(2000);
+        assertEquals(0, host.getInFlight());
+        assertEquals(1250, host.getLatency());
+        assertEquals(2, host.getLatencySamples());
+    }
+
 }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver;
+
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LoadBalancingStrategyTest {
+    private final RequestMessage msg = RequestMessage.build(Tokens.OPS_EVAL).addArg(Tokens.ARGS_GREMLIN, "1+1").create();
+
+    private Cluster cluster;
+    private Host fast;
+    private Host slow;
+
+    @Before
+    public void setUp() {
+        cluster = Cluster.open();
+        fast = new Host(new InetSocketAddress("localhost", 8182), cluster);
+        slow = new Host(new InetSocketAddress("localhost", 8183), cluster);
+    }
+
+    @After
+    public void tearDown() {
+        cluster.close();
+    }
+
+    @Test
+    public void shouldSelectHostWithLeastPendingRequests() {
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.LeastPending();
+        strategy.initialize(cluster, Arrays.asList(fast, slow));
+
+        for (int ix = 0; ix < 5; ix++) {
+            slow.requestSent();
+        }
+
+        for (int ix = 0; ix < 100; ix++) {
+            final List<Host> hosts = toList(strategy.select(msg));
+            assertEquals(Arrays.asList(fast, slow), hosts);
+        }
+    }
+
+    @Test
+    public void shouldAvoidHostWithHighLatencyUntilRetryPeriodPasses() throws Exception {
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.LatencyAware(new LoadBalancingStrategy.RoundRobin(), 2.0d, 100, 4);
+        strategy.initialize(cluster, Arrays.asList(fast, slow));
+
+        recordLatency(fast, 4, TimeUnit.MILLISECONDS.toNanos(1));
+        recordLatency(slow, 4, TimeUnit.MILLISECONDS.toNanos(10));
+
+        for (int ix = 0; ix < 10; ix++) {
+            assertEquals(Arrays.asList(fast, slow), toList(strategy.select(msg)));
+        }
+
+        Thread.sleep(150);
+
+        // the slow host is tried again and is not judged until it has new latency samples
+        boolean slowSelectedFirst = false;
+        for (int ix = 0; ix < 2; ix++) {
+            final List<Host> hosts = toList(strategy.select(msg));
+            assertEquals(2, hosts.size());
+            slowSelectedFirst = slowSelectedFirst || hosts.get(0).equals(slow);
+        }
+        assertTrue(slowSelectedFirst);
+    }
+
+    @Test
+    public void shouldPreferSameHostForSameKey() {
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.KeyAware();
+        strategy.initialize(cluster, Arrays.asList(fast, slow));
+
+        final RequestMessage keyed = RequestMessage.build(Tokens.OPS_EVAL).addArg(Tokens.ARGS_GREMLIN, "1+1")
+                .addArg(Tokens.ARGS_PARTITION_KEY, "marko").create();
+        final Host preferred = strategy.select(keyed).next();
+        for (int ix = 0; ix < 10; ix++) {
+            final List<Host> hosts = toList(strategy.select(keyed));
+            assertEquals(preferred, hosts.get(0));
+            assertEquals(2, hosts.size());
+        }
+
+        // requests without a key are spread by the wrapped strategy
+        final Host first = strategy.select(msg).next();
+        assertNotEquals(first, strategy.select(msg).next());
+
+        // the key moves when its host is unavailable
+        strategy.onUnavailable(preferred);
+        assertNotEquals(preferred, strategy.select(keyed).next());
+    }
+
+    @Test
+    public void shouldSpreadKeysAcrossHosts() {
+        final List<Host> hosts = Arrays.asList(fast, slow);
+        int onFast = 0;
+        for (int ix = 0; ix < 1000; ix++) {
+            if (LoadBalancingStrategy.KeyAware.preferredHost("key-" + ix, hosts).equals(fast)) onFast++;
+        }
+
+        assertTrue(onFast > 400 && onFast < 600);
+    }
+
+    private static void recordLatency(final Host host, final int samples, final long nanos) {
+        for (int ix = 0; ix < samples; ix++) {
+            host.requestSent();
+            host.responseReceived(nanos);
+        }
+    }
+
+    private static List<Host> toList(final Iterator<Host> itty) {
+        final List<Host> hosts = new ArrayList<>();
+        itty.forEachRemaining(hosts::add);
+        return hosts;
+    }
+}
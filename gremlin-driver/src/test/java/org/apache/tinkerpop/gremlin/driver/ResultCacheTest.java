@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver;
+
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResultCacheTest {
+    private final List<Result> results = Arrays.asList(new Result(1), new Result(2));
+
+    @Test
+    public void shouldOnlyCacheRequestsThatOptIn() {
+        final ResultCache cache = new ResultCache(10, 1, TimeUnit.MINUTES);
+        assertTrue(cache.isCacheable(eval("g.V()", 1)));
+        assertFalse(cache.isCacheable(RequestMessage.build(Tokens.OPS_EVAL).addArg(Tokens.ARGS_GREMLIN, "g.V()").create()));
+        assertFalse(cache.isCacheable(RequestMessage.build(Tokens.OPS_EVAL).addArg(Tokens.ARGS_GREMLIN, "g.V()")
+                .addArg(Tokens.ARGS_CACHE, true).addArg(Tokens.ARGS_SESSION, "abc").create()));
+        assertFalse(new ResultCache(0, 1, TimeUnit.MINUTES).isCacheable(eval("g.V()", 1)));
+    }
+
+    @Test
+    public void shouldCacheByScriptAndBindings() {
+        final ResultCache cache = new ResultCache(10, 1, TimeUnit.MINUTES);
+        cache.put(eval("g.V(x)", 1), results, cache.generation());
+
+        assertEquals(results, cache.get(eval("g.V(x)", 1)));
+        assertNull(cache.get(eval("g.V(x)", 2)));
+        assertNull(cache.get(eval("g.E(x)", 1)));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1d / 3d, cache.getHitRatio(), 0.0001d);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        final ResultCache cache = new ResultCache(2, 1, TimeUnit.MINUTES);
+        cache.put(eval("g.V(x)", 1), results, cache.generation());
+        cache.put(eval("g.V(x)", 2), results, cache.generation());
+        cache.get(eval("g.V(x)", 1));
+        cache.put(eval("g.V(x)", 3), results, cache.generation());
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(eval("g.V(x)", 2)));
+        assertEquals(results, cache.get(eval("g.V(x)", 1)));
+    }
+
+    @Test
+    public void shouldExpireAfterTtl() throws Exception {
+        final ResultCache cache = new ResultCache(10, 50, TimeUnit.MILLISECONDS);
+        cache.put(eval("g.V(x)", 1), results, cache.generation());
+        cache.put(eval("g.V(x)", 2), results, cache.generation());
+        Thread.sleep(100);
+
+        assertNull(cache.get(eval("g.V(x)", 1)));
+        cache.evictExpired();
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldNotCacheResultsOfRequestsSentBeforeInvalidation() {
+        final ResultCache cache = new ResultCache(10, 1, TimeUnit.MINUTES);
+        cache.put(eval("g.V(x)", 1), results, cache.generation());
+
+        final long generation = cache.generation();
+        cache.invalidateAll();
+        cache.put(eval("g.V(x)", 2), results, generation);
+
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    private static RequestMessage eval(final String gremlin, final int x) {
+        final Map<String, Object> bindings = new HashMap<>();
+        bindings.put("x", x);
+        return RequestMessage.build(Tokens.OPS_EVAL)
+                .addArg(Tokens.ARGS_GREMLIN, gremlin)
+                .addArg(Tokens.ARGS_BINDINGS, bindings)
+                .addArg(Tokens.ARGS_CACHE, true).create();
+    }
+}
@@ -25,10 +25,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -174,4 +178,94 @@ public class ResultSetTest extends AbstractResultQueueTest {
 
         assertEquals(100, counter.get());
     }
+
+    @Test
+    public void shouldPublishResultsAsRequested() throws Exception {
+        final TestSubscriber subscriber = new TestSubscriber();
+        resultSet.subscribe(subscriber);
+        addToQueue(100, 0, true, true);
+
+        assertThat(subscriber.done.await(10, TimeUnit.SECONDS), is(true));
+        assertEquals(0, subscriber.received.get());
+
+        subscriber.subscription.request(40);
+        subscriber.subscription.request(60);
+        assertThat(subscriber.completed.await(10, TimeUnit.SECONDS), is(true));
+        assertEquals(100, subscriber.received.get());
+        assertEquals("test-99", subscriber.last.getString());
+    }
+
+    @Test
+    public void shouldPublishErrorToSubscriber() throws Exception {
+        final TestSubscriber subscriber = new TestSubscriber();
+        resultSet.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        final Exception theProblem = new Exception();
+        resultQueue.markError(theProblem);
+
+        assertThat(subscriber.completed.await(10, TimeUnit.SECONDS), is(true));
+        assertEquals(theProblem, subscriber.error.get());
+    }
+
+    @Test
+    public void shouldStopPublishingOnCancel() throws Exception {
+        final TestSubscriber subscriber = new TestSubscriber();
+        resultSet.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        resultQueue.add(new Result("test1"));
+        assertThat(subscriber.firstResult.await(10, TimeUnit.SECONDS), is(true));
+
+        subscriber.subscription.cancel();
+        resultQueue.add(new Result("test2"));
+        subscriber.subscription.request(10);
+        resultQueue.markComplete();
+
+        Thread.sleep(100);
+        assertEquals(1, subscriber.received.get());
+        assertThat(subscriber.completed.getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldOnlyAllowOneSubscriber() throws Exception {
+        resultSet.subscribe(new TestSubscriber());
+
+        final TestSubscriber second = new TestSubscriber();
+        resultSet.subscribe(second);
+        assertThat(second.error.get(), instanceOf(IllegalStateException.class));
+    }
+
+    private static class TestSubscriber implements ResultSet.Subscriber {
+        private final AtomicInteger received = new AtomicInteger(0);
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final CountDownLatch firstResult = new CountDownLatch(1);
+        private volatile ResultSet.Subscription subscription;
+        private volatile Result last;
+
+        @Override
+        public void onSubscribe(final ResultSet.Subscription subscription) {
+            this.subscription = subscription;
+            done.countDown();
+        }
+
+        @Override
+        public void onNext(final Result result) {
+            received.incrementAndGet();
+            last = result;
+            firstResult.countDown();
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            error.set(t);
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
 }
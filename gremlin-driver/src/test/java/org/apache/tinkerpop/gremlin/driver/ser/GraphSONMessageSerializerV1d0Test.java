@@ -22,6 +22,8 @@ import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.NullNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
@@ -38,12 +40,16 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * These tests focus on message serialization and not "result" serialization as test specific to results (e.g.
@@ -68,6 +74,17 @@ public class GraphSONMessageSerializerV1d0Test {
         assertEquals(NullNode.getInstance(), json.get(SerTokens.TOKEN_RESULT).get(SerTokens.TOKEN_DATA));
     }
 
+    @Test
+    public void serializeToUtf8MatchesString() throws Exception {
+        final ResponseMessage message = ResponseMessage.build(msg).result(Arrays.asList("x", "\u00e9", 1)).create();
+        final ByteBuf bb = SERIALIZER.serializeResponseAsUtf8(message, UnpooledByteBufAllocator.DEFAULT);
+        try {
+            assertEquals(SERIALIZER.serializeResponseAsString(message), bb.toString(UTF_8));
+        } finally {
+            bb.release();
+        }
+    }
+
     @Test
     public void serializeToJsonIterable() throws Exception {
         final ArrayList<FunObject> funList = new ArrayList<>();
@@ -343,6 +360,60 @@ public class GraphSONMessageSerializerV1d0Test {
         assertEquals("worked", deserialized.getStatus().getMessage());
     }
 
+    @Test
+    public void serializeCompressedResponseAboveThreshold() throws Exception {
+        final GraphSONMessageSerializerV1d0 serializer = compressingSerializer();
+        final List<String> list = new ArrayList<>();
+        for (int ix = 0; ix < 1000; ix++) {
+            list.add("result-" + ix);
+        }
+
+        final ResponseMessage message = ResponseMessage.build(msg).result(list).create();
+        final int uncompressedSize = SERIALIZER.serializeResponseAsBinary(message, UnpooledByteBufAllocator.DEFAULT).readableBytes();
+        final ByteBuf bb = serializer.serializeResponseAsBinary(message, UnpooledByteBufAllocator.DEFAULT);
+        assertTrue(bb.readableBytes() < uncompressedSize / 2);
+
+        final ResponseMessage deserialized = serializer.deserializeResponse(bb);
+        assertEquals(msg.getRequestId(), deserialized.getRequestId());
+        assertEquals(list, deserialized.getResult().getData());
+    }
+
+    @Test
+    public void serializeCompressedRequestBelowThreshold() throws Exception {
+        final GraphSONMessageSerializerV1d0 serializer = compressingSerializer();
+        final RequestMessage request = RequestMessage.build("op").addArg("gremlin", "1+1").create();
+        final ByteBuf bb = serializer.serializeRequestAsBinary(request, UnpooledByteBufAllocator.DEFAULT);
+
+        final int mimeLen = bb.readByte();
+        assertEquals(SerTokens.MIME_JSON + "-deflate", bb.readBytes(mimeLen).toString(UTF_8));
+        assertEquals(SerTokens.MIME_JSON + "-deflate", serializer.mimeTypesSupported()[0]);
+
+        final RequestMessage deserialized = serializer.deserializeRequest(bb);
+        assertEquals(request.getRequestId(), deserialized.getRequestId());
+        assertEquals("1+1", deserialized.getArgs().get("gremlin"));
+    }
+
+    @Test
+    public void serializeToUtf8IsNeverCompressed() throws Exception {
+        final GraphSONMessageSerializerV1d0 serializer = compressingSerializer();
+        final ResponseMessage message = ResponseMessage.build(msg).result(Arrays.asList("x", "\u00e9", 1)).create();
+        final ByteBuf bb = serializer.serializeResponseAsUtf8(message, UnpooledByteBufAllocator.DEFAULT);
+        try {
+            assertEquals(serializer.serializeResponseAsString(message), bb.toString(UTF_8));
+        } finally {
+            bb.release();
+        }
+    }
+
+    private static GraphSONMessageSerializerV1d0 compressingSerializer() {
+        final GraphSONMessageSerializerV1d0 serializer = new GraphSONMessageSerializerV1d0();
+        final Map<String, Object> config = new HashMap<>();
+        config.put(MessageCompressor.TOKEN_COMPRESSION, MessageCompressor.DEFLATE);
+        config.put(MessageCompressor.TOKEN_COMPRESSION_THRESHOLD, 100);
+        serializer.configure(config, null);
+        return serializer;
+    }
+
     private class FunObject {
         private String val;
 
@@ -34,11 +34,14 @@ import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,8 +49,10 @@ import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Serializer tests that cover non-lossy serialization/deserialization methods.
@@ -306,6 +311,20 @@ public class GryoMessageSerializerV1d0Test {
         assertEquals("worked", deserialized.getStatus().getMessage());
     }
 
+    @Test
+    public void serializeResponseLargerThanOutputBuffer() throws Exception {
+        final List<String> list = new ArrayList<>();
+        for (int ix = 0; ix < 1000; ix++) {
+            list.add("result-" + ix);
+        }
+
+        final ResponseMessage response = convertBinary(list);
+        assertCommon(response);
+
+        final List<String> deserialized = (List<String>) response.getResult().getData();
+        assertEquals(list, deserialized);
+    }
+
     @Test
     public void serializeFullRequestMessage() throws Exception {
         final UUID id = UUID.randomUUID();
@@ -326,6 +345,229 @@ public class GryoMessageSerializerV1d0Test {
         assertEquals("this", deserialized.getArgs().get("test"));
     }
 
+    @Test
+    public void serializeRequestLargerThanOutputBuffer() throws Exception {
+        final UUID id = UUID.randomUUID();
+        final byte[] payload = new byte[10000];
+        Arrays.fill(payload, (byte) 1);
+
+        final RequestMessage request = RequestMessage.build("try")
+                .overrideRequestId(id)
+                .processor("pro")
+                .addArg("test", payload)
+                .create();
+        final ByteBuf bb = binarySerializer.serializeRequestAsBinary(request, allocator);
+        final int mimeLen = bb.readByte();
+        bb.readBytes(new byte[mimeLen]);
+        final RequestMessage deserialized = binarySerializer.deserializeRequest(bb);
+
+        assertEquals(id, deserialized.getRequestId());
+        assertEquals("pro", deserialized.getProcessor());
+        assertArrayEquals(payload, (byte[]) deserialized.getArgs().get("test"));
+    }
+
+    @Test
+    public void deserializeResponseFromDirectBuffer() throws Exception {
+        final List<String> list = largeList();
+        final ByteBuf heap = binarySerializer.serializeResponseAsBinary(responseMessageBuilder.result(list).create(), allocator);
+        final ByteBuf direct = Unpooled.directBuffer(heap.readableBytes());
+        direct.writeBytes(heap);
+
+        final ResponseMessage response = binarySerializer.deserializeResponse(direct);
+        assertCommon(response);
+        assertEquals(list, response.getResult().getData());
+        assertEquals(0, direct.readableBytes());
+    }
+
+    @Test
+    public void deserializeResponseFromCompositeBuffer() throws Exception {
+        final List<String> list = largeList();
+        final ByteBuf bb = binarySerializer.serializeResponseAsBinary(responseMessageBuilder.result(list).create(), allocator);
+
+        // split the message into uneven pieces that do not line up with the boundaries of what is read from them
+        final CompositeByteBuf composite = Unpooled.compositeBuffer();
+        while (bb.isReadable()) {
+            final ByteBuf piece = bb.readBytes(Math.min(777, bb.readableBytes()));
+            composite.addComponent(piece);
+            composite.writerIndex(composite.writerIndex() + piece.readableBytes());
+        }
+
+        final ResponseMessage response = binarySerializer.deserializeResponse(composite);
+        assertCommon(response);
+        assertEquals(list, response.getResult().getData());
+        assertEquals(0, composite.readableBytes());
+    }
+
+    @Test
+    public void deserializeResponseFromSliceOfHeapBuffer() throws Exception {
+        final ByteBuf bb = binarySerializer.serializeResponseAsBinary(responseMessageBuilder.result("some-result").create(), allocator);
+        final ByteBuf framed = allocator.buffer();
+        framed.writeBytes(new byte[] {1, 2, 3});
+        framed.writeBytes(bb);
+        framed.writeBytes(new byte[] {4, 5});
+
+        final ResponseMessage response = binarySerializer.deserializeResponse(framed.slice(3, framed.readableBytes() - 5));
+        assertCommon(response);
+        assertEquals("some-result", response.getResult().getData());
+    }
+
+    @Test
+    public void deserializeRequestFromDirectBuffer() throws Exception {
+        final UUID id = UUID.randomUUID();
+        final byte[] payload = new byte[10000];
+        Arrays.fill(payload, (byte) 1);
+
+        final RequestMessage request = RequestMessage.build("try")
+                .overrideRequestId(id)
+                .processor("pro")
+                .addArg("test", payload)
+                .create();
+        final ByteBuf bb = binarySerializer.serializeRequestAsBinary(request, allocator);
+        final int mimeLen = bb.readByte();
+        bb.readBytes(new byte[mimeLen]);
+        final ByteBuf direct = Unpooled.directBuffer(bb.readableBytes());
+        direct.writeBytes(bb);
+        final RequestMessage deserialized = binarySerializer.deserializeRequest(direct);
+
+        assertEquals(id, deserialized.getRequestId());
+        assertEquals("pro", deserialized.getProcessor());
+        assertArrayEquals(payload, (byte[]) deserialized.getArgs().get("test"));
+    }
+
+    @Test
+    public void serializeCompressedResponseAboveThreshold() throws Exception {
+        final MessageSerializer serializer = compressingSerializer();
+        final List<String> list = largeList();
+        final ResponseMessage message = responseMessageBuilder.result(list).create();
+        final int uncompressedSize = binarySerializer.serializeResponseAsBinary(message, allocator).readableBytes();
+
+        final ByteBuf bb = serializer.serializeResponseAsBinary(message, allocator);
+        assertTrue(bb.readableBytes() < uncompressedSize / 2);
+
+        final ResponseMessage response = serializer.deserializeResponse(bb);
+        assertCommon(response);
+        assertEquals(list, response.getResult().getData());
+    }
+
+    @Test
+    public void serializeCompressedResponseBelowThreshold() throws Exception {
+        final MessageSerializer serializer = compressingSerializer();
+        final ResponseMessage message = responseMessageBuilder.result("some-result").create();
+        final int uncompressedSize = binarySerializer.serializeResponseAsBinary(message, allocator).readableBytes();
+
+        // only the flag that says the message is not compressed is added
+        final ByteBuf bb = serializer.serializeResponseAsBinary(message, allocator);
+        assertEquals(uncompressedSize + 1, bb.readableBytes());
+
+        final ResponseMessage response = serializer.deserializeResponse(bb);
+        assertCommon(response);
+        assertEquals("some-result", response.getResult().getData());
+    }
+
+    @Test
+    public void serializeCompressedRequestAboveThreshold() throws Exception {
+        final MessageSerializer serializer = compressingSerializer();
+        assertEquals(SerTokens.MIME_GRYO_V1D0 + "-deflate", serializer.mimeTypesSupported()[0]);
+
+        final UUID id = UUID.randomUUID();
+        final byte[] payload = new byte[10000];
+        Arrays.fill(payload, (byte) 1);
+
+        final RequestMessage request = RequestMessage.build("try")
+                .overrideRequestId(id)
+                .processor("pro")
+                .addArg("test", payload)
+                .create();
+        final ByteBuf bb = serializer.serializeRequestAsBinary(request, allocator);
+        assertTrue(bb.readableBytes() < payload.length);
+
+        final int mimeLen = bb.readByte();
+        bb.readBytes(new byte[mimeLen]);
+        final RequestMessage deserialized = serializer.deserializeRequest(bb);
+
+        assertEquals(id, deserialized.getRequestId());
+        assertEquals("pro", deserialized.getProcessor());
+        assertArrayEquals(payload, (byte[]) deserialized.getArgs().get("test"));
+    }
+
+    @Test
+    public void serializeSnappyCompressedResponseAboveThreshold() throws Exception {
+        final MessageSerializer serializer = compressingSerializer(MessageCompressor.SNAPPY);
+        assertEquals(SerTokens.MIME_GRYO_V1D0 + "-snappy", serializer.mimeTypesSupported()[0]);
+
+        final List<String> list = largeList();
+        final ResponseMessage message = responseMessageBuilder.result(list).create();
+        final int uncompressedSize = binarySerializer.serializeResponseAsBinary(message, allocator).readableBytes();
+
+        final ByteBuf bb = serializer.serializeResponseAsBinary(message, allocator);
+        assertTrue(bb.readableBytes() < uncompressedSize / 2);
+
+        final ResponseMessage response = serializer.deserializeResponse(bb);
+        assertCommon(response);
+        assertEquals(list, response.getResult().getData());
+    }
+
+    @Test(expected = SerializationException.class)
+    public void shouldNotDeserializeSnappyCompressedResponseWithForgedLength() throws Exception {
+        final MessageSerializer serializer = compressingSerializer(MessageCompressor.SNAPPY);
+        final ByteBuf bb = serializer.serializeResponseAsBinary(responseMessageBuilder.result(largeList()).create(), allocator);
+
+        // claims to be shorter than it is
+        bb.setInt(bb.readerIndex() + 1, 100);
+        serializer.deserializeResponse(bb);
+    }
+
+    @Test(expected = SerializationException.class)
+    public void shouldNotDeserializeCompressedResponseWithForgedLength() throws Exception {
+        final MessageSerializer serializer = compressingSerializer();
+        final ByteBuf bb = serializer.serializeResponseAsBinary(responseMessageBuilder.result(largeList()).create(), allocator);
+
+        // the uncompressed length follows the flag byte
+        bb.setInt(bb.readerIndex() + 1, Integer.MAX_VALUE);
+        serializer.deserializeResponse(bb);
+    }
+
+    @Test(expected = SerializationException.class)
+    public void shouldNotDeserializeCompressedResponseWithNegativeLength() throws Exception {
+        final MessageSerializer serializer = compressingSerializer();
+        final ByteBuf bb = serializer.serializeResponseAsBinary(responseMessageBuilder.result(largeList()).create(), allocator);
+        bb.setInt(bb.readerIndex() + 1, -1);
+        serializer.deserializeResponse(bb);
+    }
+
+    @Test(expected = SerializationException.class)
+    public void shouldNotDeserializeCompressedResponseLargerThanMaxLength() throws Exception {
+        final ByteBuf bb = compressingSerializer().serializeResponseAsBinary(responseMessageBuilder.result(largeList()).create(), allocator);
+
+        final MessageSerializer serializer = new GryoMessageSerializerV1d0();
+        final Map<String, Object> config = new HashMap<>();
+        config.put(MessageCompressor.TOKEN_COMPRESSION, MessageCompressor.DEFLATE);
+        config.put(MessageCompressor.TOKEN_COMPRESSION_MAX_LENGTH, 1024);
+        serializer.configure(config, null);
+        serializer.deserializeResponse(bb);
+    }
+
+    private static MessageSerializer compressingSerializer() {
+        return compressingSerializer(MessageCompressor.DEFLATE);
+    }
+
+    private static MessageSerializer compressingSerializer(final String compression) {
+        final MessageSerializer serializer = new GryoMessageSerializerV1d0();
+        final Map<String, Object> config = new HashMap<>();
+        config.put(MessageCompressor.TOKEN_COMPRESSION, compression);
+        config.put(MessageCompressor.TOKEN_COMPRESSION_THRESHOLD, 100);
+        serializer.configure(config, null);
+        return serializer;
+    }
+
+    private static List<String> largeList() {
+        final List<String> list = new ArrayList<>();
+        for (int ix = 0; ix < 1000; ix++) {
+            list.add("result-" + ix);
+        }
+        return list;
+    }
+
     private void assertCommon(final ResponseMessage response) {
         assertEquals(requestId, response.getRequestId());
         assertEquals(ResponseStatusCode.SUCCESS, response.getStatus().getCode());
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.groovy;
+
+import groovy.lang.GroovyClassLoader;
+import groovy.transform.CompileStatic;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiles scripts with {@code CompileStatic} so that the calls that can be resolved when the script is compiled
+ * do not go through the Groovy meta-object protocol.  Variables that a script does not declare come from the
+ * bindings and are read dynamically, but they are typed by the hints given to this provider so that Gremlin
+ * called on them, like {@code g.V().out()}, is still checked and dispatched statically.  A variable that is bound
+ * to something other than its hinted type fails the script with a {@code ClassCastException}.
+ */
+public class CompileStaticCustomizerProvider implements CompilerCustomizerProvider {
+
+    private final Map<String, Class> variableTypes;
+
+    /**
+     * Hints that "g" is a {@link GraphTraversalSource} and that "graph" is a {@link Graph}.
+     */
+    public CompileStaticCustomizerProvider() {
+        this(new HashMap<String, Class>() {{
+            put("g", GraphTraversalSource.class);
+            put("graph", Graph.class);
+        }});
+    }
+
+    /**
+     * @param variableTypes the types of the bound variables keyed on their names
+     */
+    public CompileStaticCustomizerProvider(final Map<String, Class> variableTypes) {
+        this.variableTypes = Collections.unmodifiableMap(new HashMap<>(variableTypes));
+    }
+
+    public Map<String, Class> getVariableTypes() {
+        return variableTypes;
+    }
+
+    @Override
+    public CompilationCustomizer getCompilationCustomizer() {
+        final Map<String, Object> compileStaticAnnotationParams = new HashMap<>();
+        compileStaticAnnotationParams.put("extensions", Collections.singletonList(GremlinTypeCheckingExtension.class.getName()));
+        return new ASTTransformationCustomizer(compileStaticAnnotationParams, CompileStatic.class);
+    }
+
+    /**
+     * Compiles a script with a loader configured with the customizer of this provider, making the variable type
+     * hints available to its type checking.
+     *
+     * @throws CompilationFailedException if the script is not valid or if it does not pass static type checking
+     */
+    public Class parseClass(final GroovyClassLoader loader, final String script, final String fileName) throws CompilationFailedException {
+        GremlinTypeCheckingExtension.variableTypes.set(variableTypes);
+        try {
+            return loader.parseClass(script, fileName);
+        } finally {
+            GremlinTypeCheckingExtension.variableTypes.remove();
+        }
+    }
+}
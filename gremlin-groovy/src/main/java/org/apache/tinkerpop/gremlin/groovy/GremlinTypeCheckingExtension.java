@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.groovy;
+
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.transform.stc.AbstractTypeCheckingExtension;
+import org.codehaus.groovy.transform.stc.StaticTypeCheckingVisitor;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A type checking extension for scripts compiled by way of the {@link CompileStaticCustomizerProvider}, which
+ * resolves the variables that a script does not declare as dynamic reads of the bindings, typed by the hints of
+ * the provider that is compiling the script.
+ */
+public class GremlinTypeCheckingExtension extends AbstractTypeCheckingExtension {
+
+    /**
+     * The type hints of the provider compiling a script on the current thread.
+     */
+    static final ThreadLocal<Map<String, Class>> variableTypes = ThreadLocal.withInitial(Collections::emptyMap);
+
+    public GremlinTypeCheckingExtension(final StaticTypeCheckingVisitor typeCheckingVisitor) {
+        super(typeCheckingVisitor);
+    }
+
+    @Override
+    public boolean handleUnresolvedVariableExpression(final VariableExpression vexp) {
+        final Class type = variableTypes.get().get(vexp.getName());
+        if (null == type)
+            makeDynamic(vexp);
+        else
+            makeDynamic(vexp, ClassHelper.make(type));
+        return true;
+    }
+}
@@ -21,6 +21,8 @@ package org.apache.tinkerpop.gremlin.groovy.engine;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.groovy.plugin.GremlinPlugin;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CancellationToken;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.javatuples.Pair;
 import org.slf4j.Logger;
@@ -94,6 +96,18 @@ public class GremlinExecutor implements AutoCloseable {
     private final boolean suppliedExecutor;
     private final boolean suppliedScheduledExecutor;
 
+    /**
+     * Completes once the scripts to preload are compiled for the current initialization of the engines.
+     */
+    private volatile CompletableFuture<Void> preloaded = CompletableFuture.completedFuture(null);
+
+    /**
+     * Compiles the scripts to preload in the background.  It is always owned by the {@code GremlinExecutor} and
+     * shut down when it is closed.
+     */
+    private final ExecutorService preloadExecutor = Executors.newSingleThreadExecutor(
+            new BasicThreadFactory.Builder().namingPattern("gremlin-executor-preload-%d").daemon(true).build());
+
     private GremlinExecutor(final Builder builder, final boolean suppliedExecutor,
                             final boolean suppliedScheduledExecutor) {
 
@@ -227,18 +241,45 @@ public class GremlinExecutor implements AutoCloseable {
      */
     public CompletableFuture<Object> eval(final String script, final String language, final Bindings boundVars,
                                           final Function<Object, Object> transformResult, final Consumer<Object> withResult) {
+        return eval(script, language, boundVars, transformResult, withResult, new CancellationToken());
+    }
+
+    /**
+     * Evaluate a script in the same fashion as {@link #eval(String, String, Bindings, Function, Consumer)} with a
+     * {@link CancellationToken} bound to the thread for the evaluation, the transform and the {@link Consumer}.
+     * Cancelling the token stops any traversal iterated there and the token is cancelled when the evaluation
+     * times out.  A script whose token is cancelled before it starts is not evaluated at all.
+     *
+     * @param script the script to evaluate
+     * @param language the language to evaluate it in
+     * @param boundVars the bindings to evaluate in the context of the script
+     * @param transformResult a {@link Function} that transforms the result - can be {@code null}
+     * @param withResult a {@link Consumer} that accepts the result - can be {@code null}
+     * @param cancellationToken the token that can stop the evaluation and iteration of the result
+     */
+    public CompletableFuture<Object> eval(final String script, final String language, final Bindings boundVars,
+                                          final Function<Object, Object> transformResult, final Consumer<Object> withResult,
+                                          final CancellationToken cancellationToken) {
         final String lang = Optional.ofNullable(language).orElse("gremlin-groovy");
 
         logger.debug("Preparing to evaluate script - {} - in thread [{}]", script, Thread.currentThread().getName());
 
         final Bindings bindings = new SimpleBindings();
-        bindings.putAll(this.globalBindings);
-        bindings.putAll(boundVars);
-        beforeEval.accept(bindings);
 
         final CompletableFuture<Object> evaluationFuture = new CompletableFuture<>();
+        final AtomicBoolean timedOut = new AtomicBoolean(false);
         final FutureTask<Void> f = new FutureTask<>(() -> {
+            CancellationToken.bind(cancellationToken);
             try {
+                CancellationToken.checkCancelled();
+
+                // bindings are gathered when the script is about to be evaluated rather than when it is submitted
+                // so that a script sees the bindings left by the scripts that were executed before it on the same
+                // ExecutorService, which matters for serial executors like those of sessions
+                bindings.putAll(this.globalBindings);
+                bindings.putAll(boundVars);
+                beforeEval.accept(bindings);
+
                 logger.debug("Evaluating script - {} - in thread [{}]", script, Thread.currentThread().getName());
 
                 final Object o = scriptEngines.eval(script, bindings, lang);
@@ -259,14 +300,17 @@ public class GremlinExecutor implements AutoCloseable {
                 final Throwable root = null == ex.getCause() ? ex : ExceptionUtils.getRootCause(ex);
 
                 // thread interruptions will typically come as the result of a timeout, so in those cases,
-                // check for that situation and convert to TimeoutException
-                if (root instanceof InterruptedException)
+                // check for that situation and convert to TimeoutException.  the timeout also cancels the token
+                // so a traversal that noticed it should be reported the same way.
+                if (root instanceof InterruptedException || (root instanceof TraversalInterruptedException && timedOut.get()))
                     evaluationFuture.completeExceptionally(new TimeoutException(
                             String.format("Script evaluation exceeded the configured threshold of %s ms for request [%s]: %s", scriptEvaluationTimeout, script, root.getMessage())));
                 else {
                     afterFailure.accept(bindings, root);
                     evaluationFuture.completeExceptionally(root);
                 }
+            } finally {
+                CancellationToken.unbind();
             }
 
             return null;
@@ -280,6 +324,8 @@ public class GremlinExecutor implements AutoCloseable {
                 logger.warn("Timing out script - {} - in thread [{}]", script, Thread.currentThread().getName());
                 if (!f.isDone()) {
                     afterTimeout.accept(bindings);
+                    timedOut.set(true);
+                    cancellationToken.cancel();
                     f.cancel(true);
                 }
             }, scriptEvaluationTimeout, TimeUnit.MILLISECONDS);
@@ -311,6 +357,15 @@ public class GremlinExecutor implements AutoCloseable {
         return globalBindings;
     }
 
+    /**
+     * Gets a future that completes once the scripts listed by the {@code preloadScripts} configuration of each
+     * {@code ScriptEngine} are compiled, which happens in the background after the engines are initialized and
+     * again after they are reset.
+     */
+    public CompletableFuture<Void> preloaded() {
+        return preloaded;
+    }
+
     /**
      * {@inheritDoc}
      * <p/>
@@ -330,6 +385,15 @@ public class GremlinExecutor implements AutoCloseable {
         final CompletableFuture<Void> future = new CompletableFuture<>();
 
         new Thread(() -> {
+            // nothing is left to preload once the engines are closing
+            preloadExecutor.shutdownNow();
+            try {
+                if (!preloadExecutor.awaitTermination(180000, TimeUnit.MILLISECONDS))
+                    logger.warn("Timeout while waiting for the preloading of scripts of GremlinExecutor to stop.");
+            } catch (InterruptedException ie) {
+                logger.warn("Preloading of scripts on GremlinExecutor may not have stopped properly as shutdown thread terminated early.");
+            }
+
             // leave pools running if they are supplied externally.  let the sender be responsible for shutting them down
             if (!suppliedExecutor) {
                 executorService.shutdown();
@@ -438,9 +502,51 @@ public class GremlinExecutor implements AutoCloseable {
                     }
                 });
             }
+
+            // compile the scripts that are expected to be evaluated often so that the first requests for them do
+            // not wait on compilation. that happens in the background so that the engines can be used right away
+            // and a script that is requested before it is preloaded is simply compiled by that request.
+            final boolean hasPreloadScripts = settings.values().stream()
+                    .anyMatch(es -> es.getConfig().containsKey("preloadScripts"));
+            if (hasPreloadScripts) {
+                final CompletableFuture<Void> preload = new CompletableFuture<>();
+                this.preloaded = preload;
+                preloadExecutor.execute(() -> {
+                    try {
+                        preloadScripts(se);
+                    } finally {
+                        preload.complete(null);
+                    }
+                });
+            } else {
+                this.preloaded = CompletableFuture.completedFuture(null);
+            }
         });
     }
 
+    /**
+     * Compiles the scripts listed by the {@code preloadScripts} configuration of each {@code ScriptEngine} and pins
+     * them so that a compiled script stays in the cache of the {@code ScriptEngine} until it is reset.
+     */
+    private void preloadScripts(final ScriptEngines se) {
+        for (Map.Entry<String, EngineSettings> config : settings.entrySet()) {
+            final String language = config.getKey();
+            final List<String> preloadScripts = (List<String>) config.getValue().getConfig()
+                    .getOrDefault("preloadScripts", Collections.emptyList());
+            final long preloaded = preloadScripts.stream().filter(script -> {
+                try {
+                    se.pin(script, language);
+                    return true;
+                } catch (Exception ex) {
+                    logger.warn("Could not preload {} ScriptEngine with script [{}] - {}", language, script, ex.getMessage());
+                    return false;
+                }
+            }).count();
+
+            if (preloaded > 0) logger.info("Preloaded {} ScriptEngine with {} scripts", language, preloaded);
+        }
+    }
+
     /**
      * Create a {@code Builder} with the gremlin-groovy ScriptEngine configured.
      */
@@ -19,10 +19,12 @@
 package org.apache.tinkerpop.gremlin.groovy.engine;
 
 import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
+import org.apache.tinkerpop.gremlin.groovy.CompileStaticCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.SecurityCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.DependencyManager;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngineFactory;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.ScriptClassCache;
 import org.apache.tinkerpop.gremlin.groovy.plugin.GremlinPlugin;
 import org.apache.tinkerpop.gremlin.groovy.plugin.IllegalEnvironmentException;
 import org.kohsuke.groovy.sandbox.GroovyInterceptor;
@@ -40,6 +42,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -108,6 +111,13 @@ public class ScriptEngines implements AutoCloseable {
         }
     }
 
+    /**
+     * Gets the {@code ScriptEngine} for a language if one is configured.
+     */
+    public Optional<ScriptEngine> get(final String language) {
+        return Optional.ofNullable(scriptEngines.get(language));
+    }
+
     /**
      * Compiles a script without executing it.
      *
@@ -131,6 +141,28 @@ public class ScriptEngines implements AutoCloseable {
         }
     }
 
+    /**
+     * Compiles a script without executing it and pins its class in the cache of a {@link GremlinGroovyScriptEngine}
+     * so that it is not evicted.  Other {@link ScriptEngine} implementations just compile the script.
+     *
+     * @throws java.lang.UnsupportedOperationException if the {@link ScriptEngine} implementation does not implement
+     * the {@link javax.script.Compilable} interface.
+     */
+    public CompiledScript pin(final String script, final String language) throws ScriptException {
+        if (!scriptEngines.containsKey(language))
+            throw new IllegalArgumentException("Language [%s] not supported");
+
+        final ScriptEngine scriptEngine = scriptEngines.get(language);
+        if (!(scriptEngine instanceof GremlinGroovyScriptEngine)) return compile(script, language);
+
+        try {
+            evaluationCount.incrementAndGet();
+            return ((GremlinGroovyScriptEngine) scriptEngine).pin(script);
+        } finally {
+            evaluationCount.decrementAndGet();
+        }
+    }
+
     /**
      * Compiles a script without executing it.
      *
@@ -345,9 +377,33 @@ public class ScriptEngines implements AutoCloseable {
             final long interruptionTimeout = ((Number) config.getOrDefault("interruptionTimeout",
                     GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT)).longValue();
 
+            final int classCacheSize = ((Number) config.getOrDefault("classCacheSize",
+                    ScriptClassCache.DEFAULT_MAX_SIZE)).intValue();
+            final long classCacheWeight = ((Number) config.getOrDefault("classCacheWeight",
+                    ScriptClassCache.DEFAULT_MAX_WEIGHT)).longValue();
+
+            CompileStaticCustomizerProvider compileStaticCustomizerProvider = null;
+            if ((Boolean) config.getOrDefault("compileStatic", false)) {
+                final Map<String, String> variableTypeNames = (Map<String, String>) config.getOrDefault("staticVariableTypes", Collections.emptyMap());
+                if (variableTypeNames.isEmpty())
+                    compileStaticCustomizerProvider = new CompileStaticCustomizerProvider();
+                else {
+                    final Map<String, Class> variableTypes = new HashMap<>();
+                    for (Map.Entry<String, String> variableTypeName : variableTypeNames.entrySet()) {
+                        try {
+                            variableTypes.put(variableTypeName.getKey(), Class.forName(variableTypeName.getValue()));
+                        } catch (Exception ex) {
+                            logger.warn("Could not load class [{}] for the type of variable [{}].  It will be read as an Object by static compilation.",
+                                    variableTypeName.getValue(), variableTypeName.getKey());
+                        }
+                    }
+                    compileStaticCustomizerProvider = new CompileStaticCustomizerProvider(variableTypes);
+                }
+            }
+
             return Optional.of((ScriptEngine) new GremlinGroovyScriptEngine(
                     new DefaultImportCustomizerProvider(imports, staticImports), securityCustomizerProvider,
-                    interruptionTimeout));
+                    interruptionTimeout, classCacheSize, classCacheWeight, compileStaticCustomizerProvider));
         } else {
             return Optional.ofNullable(SCRIPT_ENGINE_MANAGER.getEngineByName(language));
         }
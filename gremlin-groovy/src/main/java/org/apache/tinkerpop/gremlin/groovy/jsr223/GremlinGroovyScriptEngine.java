@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.groovy.jsr223;
 
 import groovy.transform.ThreadInterrupt;
+import org.apache.tinkerpop.gremlin.groovy.CompileStaticCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.EmptyImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.ImportCustomizerProvider;
@@ -48,6 +49,8 @@ import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.MethodClosure;
 import org.codehaus.groovy.syntax.SyntaxException;
 import org.codehaus.groovy.util.ReferenceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
 import javax.script.CompiledScript;
@@ -69,6 +72,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
@@ -82,6 +86,8 @@ import java.util.regex.Pattern;
  */
 public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements DependencyManager, AutoCloseable {
 
+    private static final Logger logger = LoggerFactory.getLogger(GremlinGroovyScriptEngine.class);
+
     public static final long DEFAULT_SCRIPT_EVALUATION_TIMEOUT = 60000;
     public static final String KEY_REFERENCE_TYPE = "#jsr223.groovy.engine.keep.globals";
     public static final String REFERENCE_TYPE_PHANTOM = "phantom";
@@ -91,6 +97,32 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
 
     private static final Pattern patternImportStatic = Pattern.compile("\\Aimport\\sstatic.*");
 
+    /**
+     * Nanoseconds spent compiling and then executing the script of the most recent call to {@code eval} on the
+     * current thread.
+     */
+    private static final ThreadLocal<long[]> lastEvalTimes = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * The way that the script of the most recent call to {@code eval} on the current thread was compiled.
+     */
+    private static final ThreadLocal<CompilationMode> lastCompilationMode = ThreadLocal.withInitial(() -> CompilationMode.DYNAMIC);
+
+    /**
+     * The ways in which a script can be compiled.
+     */
+    public enum CompilationMode {
+        /**
+         * Compiled with {@code CompileStatic} by way of a {@link CompileStaticCustomizerProvider}.
+         */
+        STATIC,
+
+        /**
+         * Compiled as dynamic Groovy.
+         */
+        DYNAMIC
+    }
+
     private ThreadLocal<Boolean> registeredSandbox = new ThreadLocal<Boolean>() {
         @Override
         protected Boolean initialValue() {
@@ -101,7 +133,7 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
     /**
      * Script to generated Class map.
      */
-    private ManagedConcurrentValueMap<String, Class> classMap = new ManagedConcurrentValueMap<>(ReferenceBundle.getSoftBundle());
+    private final ScriptClassCache classCache;
 
     /**
      * Global closures map - this is used to simulate a single global functions namespace
@@ -110,6 +142,19 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
 
     protected GremlinGroovyClassLoader loader;
 
+    /**
+     * Compiles scripts statically when a {@link CompileStaticCustomizerProvider} is configured.
+     */
+    private GremlinGroovyClassLoader staticLoader;
+
+    /**
+     * Names of the cached script classes that were compiled statically.
+     */
+    private final Set<String> staticClassNames = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong staticCompilations = new AtomicLong(0l);
+    private final AtomicLong dynamicCompilations = new AtomicLong(0l);
+
     private AtomicLong counter = new AtomicLong(0l);
 
     /**
@@ -126,6 +171,7 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
 
     private ImportCustomizerProvider importCustomizerProvider;
     private Optional<SecurityCustomizerProvider> securityProvider;
+    private Optional<CompileStaticCustomizerProvider> compileStaticProvider;
 
     /**
      * If this value is zero then no timeout is applied.
@@ -150,10 +196,41 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
     public GremlinGroovyScriptEngine(final ImportCustomizerProvider importCustomizerProvider,
                                      final SecurityCustomizerProvider securityCustomizerProvider,
                                      final long scriptEvaluationTimeout) {
+        this(importCustomizerProvider, securityCustomizerProvider, scriptEvaluationTimeout,
+                ScriptClassCache.DEFAULT_MAX_SIZE, ScriptClassCache.DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * @param classCacheSize the number of compiled script classes to cache
+     * @param classCacheWeight the total length of the scripts whose compiled classes are cached
+     */
+    public GremlinGroovyScriptEngine(final ImportCustomizerProvider importCustomizerProvider,
+                                     final SecurityCustomizerProvider securityCustomizerProvider,
+                                     final long scriptEvaluationTimeout, final int classCacheSize,
+                                     final long classCacheWeight) {
+        this(importCustomizerProvider, securityCustomizerProvider, scriptEvaluationTimeout, classCacheSize,
+                classCacheWeight, null);
+    }
+
+    /**
+     * @param compileStaticCustomizerProvider compiles scripts statically where they pass type checking and
+     *                                        dynamically where they do not, which is ignored with a sandbox
+     *                                        as static dispatch would go around its interceptors
+     */
+    public GremlinGroovyScriptEngine(final ImportCustomizerProvider importCustomizerProvider,
+                                     final SecurityCustomizerProvider securityCustomizerProvider,
+                                     final long scriptEvaluationTimeout, final int classCacheSize,
+                                     final long classCacheWeight,
+                                     final CompileStaticCustomizerProvider compileStaticCustomizerProvider) {
         GremlinLoader.load();
         this.importCustomizerProvider = importCustomizerProvider;
         this.securityProvider = Optional.ofNullable(securityCustomizerProvider);
+        if (compileStaticCustomizerProvider != null && securityCustomizerProvider != null)
+            logger.warn("Scripts will not be compiled statically as a sandbox is configured");
+        this.compileStaticProvider = null == securityCustomizerProvider ?
+                Optional.ofNullable(compileStaticCustomizerProvider) : Optional.empty();
         this.scriptEvaluationTimeout = scriptEvaluationTimeout;
+        this.classCache = new ScriptClassCache(classCacheSize, classCacheWeight, this::unloadClass);
         createClassLoader();
     }
 
@@ -250,7 +327,7 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
 
         // must clear the local cache here because the the classloader has been reset.  therefore, classes previously
         // referenced before that might not have evaluated might cleanly evaluate now.
-        this.classMap.clear();
+        this.classCache.clear();
         this.globalClosures.clear();
 
         this.loadedPlugins.clear();
@@ -287,10 +364,20 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
             globalClosures.setBundle(bundle);
         } catch (ClassCastException cce) { /*ignore.*/ }
 
+        final long[] evalTimes = lastEvalTimes.get();
+        evalTimes[0] = 0;
+        evalTimes[1] = 0;
         try {
             final Class clazz = getScriptClass(script);
             if (null == clazz) throw new ScriptException("Script class is null");
-            return eval(clazz, context);
+            lastCompilationMode.set(getCompilationMode(clazz));
+
+            final long start = System.nanoTime();
+            try {
+                return eval(clazz, context);
+            } finally {
+                evalTimes[1] = System.nanoTime() - start;
+            }
         } catch (SyntaxException e) {
             throw new ScriptException(e.getMessage(), e.getSourceLocator(), e.getLine());
         } catch (Exception e) {
@@ -315,10 +402,42 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
         return this.factory;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The class of the compiled script is kept in the bounded cache of the engine like that of any evaluated script
+     * and may be evicted from it, in which case the {@code CompiledScript} still works but a later compilation of
+     * the same script compiles it again.  Use {@link #pin(String)} to keep the class in the cache.
+     */
     @Override
     public CompiledScript compile(final String scriptSource) throws ScriptException {
+        return compile(scriptSource, false);
+    }
+
+    @Override
+    public CompiledScript compile(final Reader reader) throws ScriptException {
+        return compile(readFully(reader));
+    }
+
+    /**
+     * Compiles a script and pins its class in the cache so that it is not evicted until it is {@link #release
+     * released} as many times as it was pinned or the engine is reset.
+     */
+    public CompiledScript pin(final String scriptSource) throws ScriptException {
+        return compile(scriptSource, true);
+    }
+
+    /**
+     * Releases one pin of the class of a script that was compiled with {@link #pin(String)} so that it can be
+     * evicted from the cache once it is no longer pinned and used.
+     */
+    public void release(final String scriptSource) {
+        classCache.unpin(scriptSource);
+    }
+
+    private CompiledScript compile(final String scriptSource, final boolean pin) throws ScriptException {
         try {
-            return new GroovyCompiledScript(this, getScriptClass(scriptSource));
+            return new GroovyCompiledScript(this, getScriptClass(scriptSource, pin));
         } catch (SyntaxException e) {
             throw new ScriptException(e.getMessage(), e.getSourceLocator(), e.getLine());
         } catch (IOException e) {
@@ -328,11 +447,6 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
         }
     }
 
-    @Override
-    public CompiledScript compile(final Reader reader) throws ScriptException {
-        return compile(readFully(reader));
-    }
-
     @Override
     public Object invokeFunction(final String name, final Object... args) throws ScriptException, NoSuchMethodException {
         return invokeImpl(null, name, args);
@@ -360,18 +474,110 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
     }
 
     Class getScriptClass(final String script) throws SyntaxException, CompilationFailedException, IOException {
+        return getScriptClass(script, false);
+    }
+
+    private Class getScriptClass(final String script, final boolean pin) throws SyntaxException, CompilationFailedException, IOException {
         ensureSandbox();
 
-        Class clazz = classMap.get(script);
-        if (clazz != null) return clazz;
+        final Class cached = classCache.get(script);
+        if (cached != null) return pin ? classCache.pin(script, cached) : cached;
+
+        final long start = System.nanoTime();
+        final Class clazz = parseClass(script, generateScriptName());
+        lastEvalTimes.get()[0] = System.nanoTime() - start;
+        return pin ? classCache.pin(script, clazz) : classCache.put(script, clazz);
+    }
 
-        clazz = loader.parseClass(script, generateScriptName());
-        classMap.put(script, clazz);
+    /**
+     * Compiles a script statically when a {@link CompileStaticCustomizerProvider} is configured, falling back to
+     * dynamic compilation should the script not pass static type checking.
+     */
+    private Class parseClass(final String script, final String fileName) throws CompilationFailedException {
+        if (compileStaticProvider.isPresent()) {
+            try {
+                final Class clazz = compileStaticProvider.get().parseClass(staticLoader, script, fileName);
+                staticClassNames.add(clazz.getName());
+                staticCompilations.incrementAndGet();
+                return clazz;
+            } catch (CompilationFailedException cfe) {
+                // scripts that rely on sugar, meta-programming or functions defined by other scripts need to be
+                // dynamic.  if the script is simply not valid then it fails again below with the same error.
+                logger.debug("Script {} could not be compiled statically and will be compiled dynamically - {}",
+                        fileName, cfe.getMessage());
+            }
+        }
+
+        final Class clazz = loader.parseClass(script, fileName);
+        dynamicCompilations.incrementAndGet();
         return clazz;
     }
 
+    /**
+     * Gets the way that a class returned from this {@code ScriptEngine} was compiled.
+     */
+    public CompilationMode getCompilationMode(final Class scriptClass) {
+        return staticClassNames.contains(scriptClass.getName()) ? CompilationMode.STATIC : CompilationMode.DYNAMIC;
+    }
+
+    /**
+     * Gets the number of script classes that were compiled statically.
+     */
+    public long getStaticCompilationCount() {
+        return staticCompilations.get();
+    }
+
+    /**
+     * Gets the number of script classes that were compiled dynamically, including those that failed static type
+     * checking.
+     */
+    public long getDynamicCompilationCount() {
+        return dynamicCompilations.get();
+    }
+
+    /**
+     * Gets the cache of the classes compiled from scripts along with statistics on its use.
+     */
+    public ScriptClassCache getClassCache() {
+        return classCache;
+    }
+
+    /**
+     * Removes a class evicted from the cache from the class loader and the Groovy meta-class registry so that
+     * nothing but running evaluations of its script keeps it from being unloaded.
+     */
+    private void unloadClass(final Class clazz) {
+        loader.removeClassCacheEntry(clazz.getName());
+        if (staticLoader != null) staticLoader.removeClassCacheEntry(clazz.getName());
+        staticClassNames.remove(clazz.getName());
+        InvokerHelper.removeClass(clazz);
+    }
+
+    /**
+     * Gets the time in nanoseconds that the most recent call to {@code eval} on the current thread spent compiling
+     * its script, which is zero when the script class was already cached.
+     */
+    public static long getLastCompilationTime() {
+        return lastEvalTimes.get()[0];
+    }
+
+    /**
+     * Gets the time in nanoseconds that the most recent call to {@code eval} on the current thread spent executing
+     * its compiled script.  As Gremlin is lazy this does not include iteration of a returned {@code Traversal}.
+     */
+    public static long getLastExecutionTime() {
+        return lastEvalTimes.get()[1];
+    }
+
+    /**
+     * Gets the way that the script of the most recent call to {@code eval} on the current thread was compiled.
+     */
+    public static CompilationMode getLastCompilationMode() {
+        return lastCompilationMode.get();
+    }
+
     boolean isCached(final String script) {
-        return classMap.get(script) != null;
+        return classCache.contains(script);
     }
 
     Object eval(final Class scriptClass, final ScriptContext context) throws ScriptException {
@@ -491,6 +697,13 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
         conf.addCompilationCustomizers(new ASTTransformationCustomizer(ThreadInterrupt.class));
 
         this.loader = new GremlinGroovyClassLoader(getParentLoader(), conf);
+
+        if (this.compileStaticProvider.isPresent()) {
+            final CompilerConfiguration staticConf = new CompilerConfiguration();
+            conf.getCompilationCustomizers().forEach(staticConf::addCompilationCustomizers);
+            staticConf.addCompilationCustomizers(this.compileStaticProvider.get().getCompilationCustomizer());
+            this.staticLoader = new GremlinGroovyClassLoader(getParentLoader(), staticConf);
+        }
         this.securityProvider.ifPresent(SecurityCustomizerProvider::registerInterceptors);
     }
 
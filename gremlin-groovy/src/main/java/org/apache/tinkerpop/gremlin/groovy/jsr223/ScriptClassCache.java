@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.groovy.jsr223;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A bounded cache of the classes that the {@link GremlinGroovyScriptEngine} compiles from scripts.  It holds no
+ * more than a maximum number of classes and a maximum total weight, where the weight of a class is the length of
+ * the script it was compiled from, and evicts the least recently used classes to stay within both.  Evicted
+ * classes are handed to a callback that removes them from the class loader so that they can be unloaded.
+ * <p/>
+ * Lookups never block: classes are read from a concurrent map and the recency of a class is only recorded when
+ * the lock that guards the eviction order is free, which makes the eviction order approximate under contention.
+ * <p/>
+ * Classes may also be pinned, which keeps them in the cache until they are unpinned as many times as they were
+ * pinned or the cache is cleared.  Pinned classes do not count toward the bounds.
+ */
+public final class ScriptClassCache {
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_MAX_WEIGHT = 16 * 1024 * 1024;
+
+    private final int maxSize;
+    private final long maxWeight;
+    private final Consumer<Class> onRemove;
+
+    private final Map<String, Class> pinned = new ConcurrentHashMap<>();
+    private final Map<String, Class> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the fields below as well as all changes to {@link #pinned} and {@link #entries}.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Integer> pins = new HashMap<>();
+    private final LinkedHashMap<String, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+
+    ScriptClassCache(final int maxSize, final long maxWeight, final Consumer<Class> onRemove) {
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.onRemove = onRemove;
+    }
+
+    /**
+     * Gets the class compiled from the script or {@code null} if it is not cached.
+     */
+    Class get(final String script) {
+        Class clazz = pinned.get(script);
+        if (null == clazz) {
+            clazz = entries.get(script);
+            if (clazz != null && lock.tryLock()) {
+                try {
+                    order.get(script);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        if (null == clazz)
+            misses.incrementAndGet();
+        else
+            hits.incrementAndGet();
+
+        return clazz;
+    }
+
+    /**
+     * Caches the class compiled from the script and returns the class to use for it, which is the one already
+     * cached should another thread have compiled the same script first.
+     */
+    Class put(final String script, final Class clazz) {
+        lock.lock();
+        try {
+            final Class toUse = use(script, clazz);
+            if (!pinned.containsKey(script) && !entries.containsKey(script)) {
+                entries.put(script, toUse);
+                order.put(script, Boolean.TRUE);
+                weight += script.length();
+                evict();
+            }
+            return toUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches the class compiled from the script like {@link #put(String, Class)} and pins it, so that it stays in
+     * the cache until it is {@link #unpin unpinned} as many times as it was pinned.
+     */
+    Class pin(final String script, final Class clazz) {
+        lock.lock();
+        try {
+            final Class toUse = use(script, clazz);
+            if (entries.remove(script) != null) {
+                order.remove(script);
+                weight -= script.length();
+            }
+            pinned.put(script, toUse);
+            pins.merge(script, 1, Integer::sum);
+            return toUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases one pin of a class.  Once it has no pins left the class returns to the bounded part of the cache
+     * where it is evicted like any other class once it is the least recently used.
+     */
+    void unpin(final String script) {
+        lock.lock();
+        try {
+            final Integer count = pins.get(script);
+            if (null == count) return;
+            if (count > 1) {
+                pins.put(script, count - 1);
+                return;
+            }
+
+            pins.remove(script);
+            final Class clazz = pinned.remove(script);
+            entries.put(script, clazz);
+            order.put(script, Boolean.TRUE);
+            weight += script.length();
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean contains(final String script) {
+        return pinned.containsKey(script) || entries.containsKey(script);
+    }
+
+    /**
+     * Removes all classes from the cache, pinned or not.
+     */
+    void clear() {
+        lock.lock();
+        try {
+            pinned.values().forEach(onRemove);
+            entries.values().forEach(onRemove);
+            pinned.clear();
+            entries.clear();
+            pins.clear();
+            order.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Class use(final String script, final Class clazz) {
+        final Class existing = pinned.containsKey(script) ? pinned.get(script) : entries.get(script);
+        final Class toUse = null == existing ? clazz : existing;
+        if (toUse != clazz) onRemove.accept(clazz);
+        return toUse;
+    }
+
+    private void evict() {
+        final Iterator<String> itty = order.keySet().iterator();
+        while ((order.size() > maxSize || weight > maxWeight) && itty.hasNext()) {
+            final String eldest = itty.next();
+            itty.remove();
+            weight -= eldest.length();
+            evictions.incrementAndGet();
+            onRemove.accept(entries.remove(eldest));
+        }
+    }
+
+    /**
+     * Gets the number of cached classes including those that are pinned.
+     */
+    public int size() {
+        return entries.size() + pinned.size();
+    }
+
+    public int getPinnedSize() {
+        return pinned.size();
+    }
+
+    /**
+     * Gets the total length of the scripts of the cached classes that are not pinned.
+     */
+    public long getWeight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups that did not find a cached class, each of which is typically followed by a
+     * compilation.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of classes removed because the cache was full.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Gets the ratio of lookups that found a cached class to all lookups.
+     */
+    public double getHitRatio() {
+        final long hitCount = hits.get();
+        final long lookups = hitCount + misses.get();
+        return lookups == 0 ? 0d : (double) hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScriptClassCache{size=%s, pinned=%s, weight=%s, maxSize=%s, maxWeight=%s, hits=%s, misses=%s, evictions=%s}",
+                size(), getPinnedSize(), getWeight(), maxSize, maxWeight, hits.get(), misses.get(), evictions.get());
+    }
+}
@@ -20,7 +20,11 @@ package org.apache.tinkerpop.gremlin.groovy.engine;
 
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngineTest;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.ScriptClassCache;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CancellationToken;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.junit.Test;
 import org.kohsuke.groovy.sandbox.GroovyInterceptor;
 
@@ -35,8 +39,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -89,6 +95,41 @@ public class GremlinExecutorTest {
         gremlinExecutor.close();
     }
 
+    @Test
+    public void shouldPreloadScripts() throws Exception {
+        final Map<String, Object> config = new HashMap<>();
+        config.put("classCacheSize", 1);
+        config.put("preloadScripts", Arrays.asList("1+1", "x+1", "1 +"));
+        final GremlinExecutor gremlinExecutor = GremlinExecutor.build()
+                .addEngineSettings("gremlin-groovy", Collections.emptyList(), Collections.emptyList(),
+                        Collections.emptyList(), config)
+                .create();
+
+        // scripts are preloaded in the background
+        gremlinExecutor.preloaded().get(30000, TimeUnit.MILLISECONDS);
+
+        // preloaded scripts are pinned and not bound by the size of the cache. the script that doesn't compile
+        // is skipped.
+        final ScriptClassCache classCache = ((GremlinGroovyScriptEngine) gremlinExecutor.getScriptEngines()
+                .get("gremlin-groovy").get()).getClassCache();
+        assertEquals(2, classCache.getPinnedSize());
+
+        final long misses = classCache.getMissCount();
+        assertEquals(2, gremlinExecutor.eval("1+1").get());
+        assertEquals(3, gremlinExecutor.eval("1+2").get());
+        assertEquals(3, gremlinExecutor.eval("1+2").get());
+        assertEquals(misses + 1, classCache.getMissCount());
+
+        gremlinExecutor.close();
+    }
+
+    @Test
+    public void shouldBeReadyWithoutScriptsToPreload() throws Exception {
+        final GremlinExecutor gremlinExecutor = GremlinExecutor.build().create();
+        assertTrue(gremlinExecutor.preloaded().isDone());
+        gremlinExecutor.close();
+    }
+
     @Test
     public void shouldEvalSuccessfulAssertionScript() throws Exception {
         final GremlinExecutor gremlinExecutor = GremlinExecutor.build().create();
@@ -219,6 +260,48 @@ public class GremlinExecutorTest {
         gremlinExecutor.close();
     }
 
+    @Test
+    public void shouldStopTraversalInScriptWhenTokenIsCancelled() throws Exception {
+        final GremlinExecutor gremlinExecutor = GremlinExecutor.build().create();
+        final CancellationToken token = new CancellationToken();
+        final CompletableFuture<Object> future = gremlinExecutor.eval(
+                "while (true) { __.inject(1,2,3).toList() }", null, new SimpleBindings(), null, null, token);
+
+        Thread.sleep(250);
+        assertFalse(future.isDone());
+        token.cancel();
+
+        try {
+            future.get(2000, TimeUnit.MILLISECONDS);
+            fail("The script should have been cancelled");
+        } catch (ExecutionException ex) {
+            assertThat(ex.getCause(), instanceOf(TraversalInterruptedException.class));
+        } finally {
+            gremlinExecutor.close();
+        }
+    }
+
+    @Test
+    public void shouldNotEvalScriptWhenTokenIsCancelledBeforeItStarts() throws Exception {
+        final GremlinExecutor gremlinExecutor = GremlinExecutor.build().create();
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        final Bindings b = new SimpleBindings();
+        final AtomicBoolean evaluated = new AtomicBoolean(false);
+        b.put("evaluated", evaluated);
+        try {
+            gremlinExecutor.eval("evaluated.set(true)", null, b, null, null, token).get();
+            fail("The script should have been cancelled");
+        } catch (ExecutionException ex) {
+            assertThat(ex.getCause(), instanceOf(TraversalInterruptedException.class));
+        } finally {
+            gremlinExecutor.close();
+        }
+
+        assertFalse(evaluated.get());
+    }
+
     @Test
     public void shouldTimeoutSleepingScript() throws Exception {
         final AtomicBoolean successCalled = new AtomicBoolean(false);
@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.groovy.jsr223;
 
 import groovy.lang.Closure;
 import groovy.lang.Script;
+import org.apache.tinkerpop.gremlin.groovy.CompileStaticCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.NoImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.SecurityCustomizerProvider;
@@ -34,6 +35,7 @@ import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -67,6 +69,202 @@ public class GremlinGroovyScriptEngineTest {
         assertFalse(engine.isCached(script));
     }
 
+    @Test
+    public void shouldEvictLeastRecentlyUsedScriptClasses() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, 2, Long.MAX_VALUE);
+
+        assertEquals(2, engine.eval("1+1"));
+        assertEquals(3, engine.eval("1+2"));
+        final Class evicted = engine.getScriptClass("1+2");
+        assertEquals(2, engine.eval("1+1"));
+        assertEquals(4, engine.eval("1+3"));
+
+        assertTrue(engine.isCached("1+1"));
+        assertFalse(engine.isCached("1+2"));
+        assertTrue(engine.isCached("1+3"));
+        assertEquals(1, engine.getClassCache().getEvictionCount());
+        assertEquals(2, engine.getClassCache().size());
+
+        // the evicted class is released by the class loader so that it can be unloaded
+        assertFalse(Arrays.asList(engine.loader.getLoadedClasses()).contains(evicted));
+        assertTrue(Arrays.asList(engine.loader.getLoadedClasses()).contains(engine.getScriptClass("1+1")));
+
+        // an evicted script is simply compiled again
+        assertEquals(3, engine.eval("1+2"));
+    }
+
+    @Test
+    public void shouldEvictScriptClassesToStayWithinWeight() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, 100, 10);
+
+        assertEquals(1001, engine.eval("1000+1"));
+        assertEquals(6, engine.getClassCache().getWeight());
+        assertEquals(1002, engine.eval("1000+2"));
+
+        assertFalse(engine.isCached("1000+1"));
+        assertTrue(engine.isCached("1000+2"));
+        assertEquals(6, engine.getClassCache().getWeight());
+    }
+
+    @Test
+    public void shouldNotPinCompiledScriptClasses() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, 1, Long.MAX_VALUE);
+
+        assertNotNull(engine.compile("1+1"));
+        assertNotNull(engine.compile("1+2"));
+
+        assertFalse(engine.isCached("1+1"));
+        assertTrue(engine.isCached("1+2"));
+        assertEquals(0, engine.getClassCache().getPinnedSize());
+        assertEquals(1, engine.getClassCache().size());
+    }
+
+    @Test
+    public void shouldPinScriptClasses() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, 1, Long.MAX_VALUE);
+
+        assertEquals(2, engine.eval("1+1"));
+        assertNotNull(engine.pin("1+1"));
+        assertEquals(3, engine.eval("1+2"));
+        assertEquals(4, engine.eval("1+3"));
+
+        assertTrue(engine.isCached("1+1"));
+        assertFalse(engine.isCached("1+2"));
+        assertEquals(1, engine.getClassCache().getPinnedSize());
+        assertEquals("1+3".length(), engine.getClassCache().getWeight());
+
+        engine.reset();
+
+        assertFalse(engine.isCached("1+1"));
+        assertEquals(0, engine.getClassCache().size());
+    }
+
+    @Test
+    public void shouldKeepScriptClassPinnedUntilReleasedAsOftenAsPinned() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, 1, Long.MAX_VALUE);
+
+        assertNotNull(engine.pin("1+1"));
+        assertNotNull(engine.pin("1+1"));
+        engine.release("1+1");
+        assertEquals(1, engine.getClassCache().getPinnedSize());
+
+        engine.release("1+1");
+        assertEquals(0, engine.getClassCache().getPinnedSize());
+        assertTrue(engine.isCached("1+1"));
+    }
+
+    @Test
+    public void shouldEvictReleasedScriptClasses() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, 1, Long.MAX_VALUE);
+
+        assertNotNull(engine.pin("1+1"));
+        engine.release("1+1");
+        assertTrue(engine.isCached("1+1"));
+        assertEquals(0, engine.getClassCache().getPinnedSize());
+        assertEquals("1+1".length(), engine.getClassCache().getWeight());
+
+        // once released the class is evicted like any other
+        assertEquals(3, engine.eval("1+2"));
+        assertFalse(engine.isCached("1+1"));
+        assertEquals(1, engine.getClassCache().getEvictionCount());
+
+        // releasing a script that is not pinned does nothing
+        engine.release("1+2");
+        assertTrue(engine.isCached("1+2"));
+        assertEquals(1, engine.getClassCache().size());
+    }
+
+    @Test
+    public void shouldCompileScriptsStatically() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, ScriptClassCache.DEFAULT_MAX_SIZE,
+                ScriptClassCache.DEFAULT_MAX_WEIGHT, new CompileStaticCustomizerProvider(Collections.singletonMap("s", String.class)));
+
+        final Bindings b = engine.createBindings();
+        b.put("s", "marko");
+        b.put("x", 1);
+        assertEquals("MARKO", engine.eval("s.toUpperCase()", b));
+        assertEquals(GremlinGroovyScriptEngine.CompilationMode.STATIC, GremlinGroovyScriptEngine.getLastCompilationMode());
+        assertEquals("marko1", engine.eval("def y = s + x; y", b));
+        assertEquals(GremlinGroovyScriptEngine.CompilationMode.STATIC, GremlinGroovyScriptEngine.getLastCompilationMode());
+
+        assertEquals(2l, engine.getStaticCompilationCount());
+        assertEquals(0l, engine.getDynamicCompilationCount());
+    }
+
+    @Test
+    public void shouldCompileGremlinStaticallyWithDefaultVariableTypes() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, ScriptClassCache.DEFAULT_MAX_SIZE,
+                ScriptClassCache.DEFAULT_MAX_WEIGHT, new CompileStaticCustomizerProvider());
+
+        assertEquals(GremlinGroovyScriptEngine.CompilationMode.STATIC,
+                engine.getCompilationMode(engine.getScriptClass("g.V(x).out('knows').has('age', gt(30)).values('name')")));
+        assertEquals(GremlinGroovyScriptEngine.CompilationMode.STATIC,
+                engine.getCompilationMode(engine.getScriptClass("graph.addVertex(T.label, 'person', 'name', name)")));
+        assertEquals(GremlinGroovyScriptEngine.CompilationMode.DYNAMIC,
+                engine.getCompilationMode(engine.getScriptClass("g.V.out.name")));
+    }
+
+    @Test
+    public void shouldFallBackToDynamicCompilationWhenStaticTypeCheckingFails() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(),
+                null, GremlinGroovyScriptEngine.DEFAULT_SCRIPT_EVALUATION_TIMEOUT, ScriptClassCache.DEFAULT_MAX_SIZE,
+                ScriptClassCache.DEFAULT_MAX_WEIGHT, new CompileStaticCustomizerProvider(Collections.singletonMap("s", String.class)));
+
+        final Bindings b = engine.createBindings();
+        b.put("s", "marko");
+        b.put("x", 1);
+        assertEquals(2, engine.eval("x + 1", b));
+        assertEquals(GremlinGroovyScriptEngine.CompilationMode.DYNAMIC, GremlinGroovyScriptEngine.getLastCompilationMode());
+        assertEquals("MARKO", engine.eval("s.toUpperCase()", b));
+        assertEquals(GremlinGroovyScriptEngine.CompilationMode.STATIC, GremlinGroovyScriptEngine.getLastCompilationMode());
+        assertEquals(2, engine.eval("x + 1", b));
+        assertEquals(GremlinGroovyScriptEngine.CompilationMode.DYNAMIC, GremlinGroovyScriptEngine.getLastCompilationMode());
+
+        assertEquals(1l, engine.getStaticCompilationCount());
+        assertEquals(1l, engine.getDynamicCompilationCount());
+
+        try {
+            engine.eval("x +", b);
+            fail("Script is not valid and should not compile either way");
+        } catch (ScriptException ignored) {
+        }
+    }
+
+    @Test
+    public void shouldTrackScriptClassCacheHitsAndMisses() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+
+        assertEquals(2, engine.eval("1+1"));
+        assertEquals(2, engine.eval("1+1"));
+        assertEquals(2, engine.eval("1+1"));
+        assertEquals(3, engine.eval("1+2"));
+
+        assertEquals(2, engine.getClassCache().getHitCount());
+        assertEquals(2, engine.getClassCache().getMissCount());
+        assertEquals(0.5d, engine.getClassCache().getHitRatio(), 0.0001d);
+    }
+
+    @Test
+    public void shouldTrackCompilationTimeOnlyWhenScriptIsNotCached() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+
+        assertEquals(3, engine.eval("1+2"));
+        assertTrue(GremlinGroovyScriptEngine.getLastCompilationTime() > 0);
+        assertTrue(GremlinGroovyScriptEngine.getLastExecutionTime() > 0);
+
+        assertEquals(3, engine.eval("1+2"));
+        assertEquals(0, GremlinGroovyScriptEngine.getLastCompilationTime());
+        assertTrue(GremlinGroovyScriptEngine.getLastExecutionTime() > 0);
+    }
+
     @Test
     public void shouldEvalSimple() throws Exception {
         final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
@@ -71,6 +71,14 @@ public abstract class AbstractChannelizer extends ChannelInitializer<SocketChann
     protected static final String PIPELINE_RESULT_ITERATOR_HANDLER = "result-iterator-handler";
     protected static final String PIPELINE_OP_EXECUTOR = "op-executor";
 
+    /**
+     * The name under which {@link #configure(ChannelPipeline)} adds the handler that writes a
+     * {@link org.apache.tinkerpop.gremlin.server.handler.Frame}, the already serialized form of a response that
+     * carries results.  Pipelines without one are sent such responses as {@code ResponseMessage} objects for their
+     * response encoder to serialize.
+     */
+    public static final String PIPELINE_RESPONSE_FRAME_ENCODER = "response-frame-encoder";
+
     protected final Map<String, MessageSerializer> serializers = new HashMap<>();
 
     private OpSelectorHandler opSelectorHandler;
@@ -110,7 +118,8 @@ public abstract class AbstractChannelizer extends ChannelInitializer<SocketChann
 
         // these handlers don't share any state and can thus be initialized once per pipeline
         this.opSelectorHandler = new OpSelectorHandler(settings, graphManager, gremlinExecutor, scheduledExecutorService);
-        this.opExecutorHandler = new OpExecutorHandler(settings, graphManager, gremlinExecutor, scheduledExecutorService);
+        this.opExecutorHandler = new OpExecutorHandler(settings, graphManager, gremlinExecutor, scheduledExecutorService,
+                serverGremlinExecutor.getAdmissionController());
         this.iteratorHandler = new IteratorHandler(settings);
     }
 
@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.server;
 
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
+import org.apache.tinkerpop.gremlin.server.util.ThreadFactoryUtil;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 import org.slf4j.Logger;
@@ -26,8 +27,16 @@ import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
 import javax.script.SimpleBindings;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
  * Holder for {@link Graph} and {@link TraversalSource} instances configured for the server to be passed to script
@@ -42,20 +51,50 @@ public final class GraphManager {
     private final Map<String, TraversalSource> traversalSources = new ConcurrentHashMap<>();
 
     /**
-     * Create a new instance using the {@link Settings} from Gremlin Server.
+     * Create a new instance using the {@link Settings} from Gremlin Server.  The graphs are opened concurrently, as
+     * opening some of them involves connecting to their storage, on a pool of no more threads than there are
+     * processors and the constructor returns once all of them are opened or failed.
      */
     public GraphManager(final Settings settings) {
-        settings.graphs.entrySet().forEach(e -> {
-            try {
-                final Graph newGraph = GraphFactory.open(e.getValue());
-                graphs.put(e.getKey(), newGraph);
-                logger.info("Graph [{}] was successfully configured via [{}].", e.getKey(), e.getValue());
-            } catch (RuntimeException re) {
-                logger.warn(String.format("Graph [%s] configured at [%s] could not be instantiated and will not be available in Gremlin Server.  GraphFactory message: %s",
-                        e.getKey(), e.getValue(), re.getMessage()), re);
-                if (re.getCause() != null) logger.debug("GraphFactory exception", re.getCause());
+        if (settings.graphs.isEmpty()) return;
+
+        final int threads = Math.min(settings.graphs.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, ThreadFactoryUtil.create("open-graph-%d"));
+        try {
+            final List<String> names = new ArrayList<>(settings.graphs.keySet());
+            final List<Future<Void>> opened = executor.invokeAll(names.stream().map(name -> (Callable<Void>) () -> {
+                openGraph(name, settings.graphs.get(name));
+                return null;
+            }).collect(Collectors.toList()));
+
+            // openGraph() handles the failures of a graph itself so anything that gets here is unexpected, and an
+            // Error in particular should not leave the server running as though nothing happened
+            for (int ix = 0; ix < opened.size(); ix++) {
+                try {
+                    opened.get(ix).get();
+                } catch (ExecutionException ee) {
+                    if (ee.getCause() instanceof Error) throw (Error) ee.getCause();
+                    logger.warn(String.format("Graph [%s] could not be opened and will not be available in Gremlin Server.", names.get(ix)), ee.getCause());
+                }
             }
-        });
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for graphs to open", ie);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void openGraph(final String name, final String configurationFile) {
+        try {
+            final Graph newGraph = GraphFactory.open(configurationFile);
+            graphs.put(name, newGraph);
+            logger.info("Graph [{}] was successfully configured via [{}].", name, configurationFile);
+        } catch (RuntimeException re) {
+            logger.warn(String.format("Graph [%s] configured at [%s] could not be instantiated and will not be available in Gremlin Server.  GraphFactory message: %s",
+                    name, configurationFile, re.getMessage()), re);
+            if (re.getCause() != null) logger.debug("GraphFactory exception", re.getCause());
+        }
     }
 
     /**
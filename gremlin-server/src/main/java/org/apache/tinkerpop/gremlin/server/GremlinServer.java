@@ -18,6 +18,8 @@
  */
 package org.apache.tinkerpop.gremlin.server;
 
+import org.apache.tinkerpop.gremlin.driver.Transport;
+import org.apache.tinkerpop.gremlin.server.op.OpLoader;
 import org.apache.tinkerpop.gremlin.server.util.LifeCycleHook;
 import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.apache.tinkerpop.gremlin.server.util.ServerGremlinExecutor;
@@ -29,8 +31,8 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 import io.netty.util.internal.logging.Slf4JLoggerFactory;
@@ -39,11 +41,15 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Start and stop Gremlin Server.
@@ -61,7 +67,8 @@ public class GremlinServer {
 
     private static final Logger logger = LoggerFactory.getLogger(GremlinServer.class);
     private final Settings settings;
-    private Channel ch;
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
+    private final Transport transport;
 
     private CompletableFuture<Void> serverStopped = null;
     private CompletableFuture<ServerGremlinExecutor<EventLoopGroup>> serverStarted = null;
@@ -79,11 +86,13 @@ public class GremlinServer {
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> this.stop().join(), SERVER_THREAD_PREFIX + "shutdown"));
 
+        transport = Transport.of(settings.transport);
+
         final ThreadFactory threadFactoryBoss = ThreadFactoryUtil.create("boss-%d");
-        bossGroup = new NioEventLoopGroup(settings.threadPoolBoss, threadFactoryBoss);
+        bossGroup = transport.createEventLoopGroup(bossThreads(), threadFactoryBoss);
 
         final ThreadFactory threadFactoryWorker = ThreadFactoryUtil.create("worker-%d");
-        workerGroup = new NioEventLoopGroup(settings.threadPoolWorker, threadFactoryWorker);
+        workerGroup = transport.createEventLoopGroup(settings.threadPoolWorker, threadFactoryWorker);
 
         serverGremlinExecutor = new ServerGremlinExecutor<>(settings, null, workerGroup, EventLoopGroup.class);
         gremlinExecutorService = serverGremlinExecutor.getGremlinExecutorService();
@@ -101,9 +110,12 @@ public class GremlinServer {
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> this.stop().join(), SERVER_THREAD_PREFIX + "shutdown"));
 
-        final ThreadFactory threadFactoryBoss = ThreadFactoryUtil.create("boss-%d");
-        bossGroup = new NioEventLoopGroup(settings.threadPoolBoss, threadFactoryBoss);
+        // the transport has to match the type of the worker group that was supplied
         workerGroup = serverGremlinExecutor.getScheduledExecutorService();
+        transport = Transport.of(workerGroup);
+
+        final ThreadFactory threadFactoryBoss = ThreadFactoryUtil.create("boss-%d");
+        bossGroup = transport.createEventLoopGroup(bossThreads(), threadFactoryBoss);
         gremlinExecutorService = serverGremlinExecutor.getGremlinExecutorService();
     }
 
@@ -126,6 +138,7 @@ public class GremlinServer {
             b.childOption(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, settings.writeBufferLowWaterMark);
             b.childOption(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, settings.writeBufferHighWaterMark);
             b.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+            configureSocketOptions(b);
 
             // fire off any lifecycle scripts that were provided by the user. hooks get initialized during
             // ServerGremlinExecutor initialization
@@ -139,30 +152,61 @@ public class GremlinServer {
                 }
             });
 
+            // processors that are not loaded by the ServiceLoader have to be enabled in the settings
+            OpLoader.load(settings);
+
             final Channelizer channelizer = createChannelizer(settings);
             channelizer.init(serverGremlinExecutor);
             b.group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
+                    .channel(transport.serverSocketChannelClass())
                     .childHandler(channelizer);
 
+            // with SO_REUSEPORT several server channels can bind the same port and the kernel balances accepted
+            // connections across them, which is only possible with the native transport
+            final int acceptors = acceptors();
+            if (acceptors > 1) b.option(EpollChannelOption.SO_REUSEPORT, true);
+            if (settings.acceptors > 1 && acceptors == 1)
+                logger.warn("The acceptors setting of {} requires the epoll transport - binding a single acceptor", settings.acceptors);
+
             // bind to host/port and wait for channel to be ready
-            b.bind(settings.host, settings.port).addListener(new ChannelFutureListener() {
-                @Override
-                public void operationComplete(final ChannelFuture channelFuture) throws Exception {
-                    if (channelFuture.isSuccess()) {
-                        ch = channelFuture.channel();
-
-                        logger.info("Gremlin Server configured with worker thread pool of {}, gremlin pool of {} and boss thread pool of {}.",
-                                settings.threadPoolWorker, settings.gremlinPool, settings.threadPoolBoss);
-                        logger.info("Channel started at port {}.", settings.port);
-
-                        serverReadyFuture.complete(serverGremlinExecutor);
-                    } else {
-                        serverReadyFuture.completeExceptionally(new IOException(
-                                String.format("Could not bind to %s and %s - perhaps something else is bound to that address.", settings.host, settings.port)));
+            final AtomicInteger acceptorsLeftToBind = new AtomicInteger(acceptors);
+            final AtomicBoolean bindFailed = new AtomicBoolean(false);
+            for (int ix = 0; ix < acceptors; ix++) {
+                b.bind(settings.host, settings.port).addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(final ChannelFuture channelFuture) throws Exception {
+                        if (channelFuture.isSuccess()) {
+                            channels.add(channelFuture.channel());
+
+                            // another acceptor already failed to bind so this one must not be left listening
+                            if (bindFailed.get()) {
+                                channels.remove(channelFuture.channel());
+                                channelFuture.channel().close();
+                                return;
+                            }
+
+                            if (acceptorsLeftToBind.decrementAndGet() == 0) {
+                                logger.info("Gremlin Server configured with worker thread pool of {}, gremlin pool of {} and boss thread pool of {}.",
+                                        settings.threadPoolWorker, settings.gremlinPool, bossThreads());
+                                logger.info("Channel started at port {} with {} transport and {} acceptor(s).", settings.port, transport, acceptors);
+
+                                serverReadyFuture.complete(serverGremlinExecutor);
+
+                                // requests are accepted from here on but the scripts to preload may still be
+                                // compiling in the background
+                                serverGremlinExecutor.getGremlinExecutor().preloaded().thenRun(() ->
+                                        logger.info("Gremlin Server is ready with all configured scripts preloaded."));
+                            }
+                        } else if (bindFailed.compareAndSet(false, true)) {
+                            // close the acceptors that did bind so that the port is not left half served
+                            channels.forEach(Channel::close);
+                            channels.clear();
+                            serverReadyFuture.completeExceptionally(new IOException(
+                                    String.format("Could not bind to %s and %s - perhaps something else is bound to that address.", settings.host, settings.port)));
+                        }
                     }
-                }
-            });
+                });
+            }
         } catch (Exception ex) {
             logger.error("Gremlin Server Error", ex);
             serverReadyFuture.completeExceptionally(ex);
@@ -171,6 +215,48 @@ public class GremlinServer {
         return serverStarted;
     }
 
+    /**
+     * Gets the number of server channels to bind, where more than one is only possible with the epoll transport.
+     */
+    private int acceptors() {
+        return transport == Transport.EPOLL ? Math.max(1, settings.acceptors) : 1;
+    }
+
+    /**
+     * Gets the size of the boss group, which needs a thread for each acceptor as each server channel is bound to
+     * an event loop of its own.
+     */
+    private int bossThreads() {
+        return Math.max(settings.threadPoolBoss, acceptors());
+    }
+
+    /**
+     * Gets a future that completes once the server is started and its {@code ScriptEngine} instances have compiled
+     * the scripts that they are configured to preload.  The server accepts requests as soon as the future of
+     * {@link #start()} completes, so this is a signal that it is warmed up rather than that it is up.
+     */
+    public synchronized CompletableFuture<Void> ready() {
+        if (null == serverStarted) throw new IllegalStateException("Gremlin Server has not been started");
+        return serverStarted.thenCompose(sge -> sge.getGremlinExecutor().preloaded());
+    }
+
+    private void configureSocketOptions(final ServerBootstrap b) {
+        b.childOption(ChannelOption.TCP_NODELAY, settings.tcpNoDelay);
+        b.childOption(ChannelOption.SO_KEEPALIVE, settings.keepAlive);
+        if (settings.sendBufferSize > 0)
+            b.childOption(ChannelOption.SO_SNDBUF, settings.sendBufferSize);
+
+        // the receive buffer is set on the server channel as well so that accepted sockets inherit it before the
+        // TCP window is negotiated
+        if (settings.receiveBufferSize > 0) {
+            b.option(ChannelOption.SO_RCVBUF, settings.receiveBufferSize);
+            b.childOption(ChannelOption.SO_RCVBUF, settings.receiveBufferSize);
+        }
+
+        if (transport == Transport.EPOLL)
+            b.childOption(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+    }
+
     private static Channelizer createChannelizer(final Settings settings) throws Exception {
         try {
             final Class clazz = Class.forName(settings.channelizer);
@@ -198,9 +284,9 @@ public class GremlinServer {
         }
 
         serverStopped = new CompletableFuture<>();
-        final CountDownLatch servicesLeftToShutdown = new CountDownLatch(3);
+        final CountDownLatch servicesLeftToShutdown = new CountDownLatch(2 + channels.size());
 
-        ch.close().addListener(f -> servicesLeftToShutdown.countDown());
+        channels.forEach(ch -> ch.close().addListener(f -> servicesLeftToShutdown.countDown()));
 
         logger.info("Shutting down thread pools.");
 
@@ -239,6 +325,14 @@ public class GremlinServer {
                 logger.warn("Timeout waiting for Gremlin thread pool to shutdown - continuing with shutdown process.");
             }
 
+            OpLoader.getProcessors().forEach((name, op) -> {
+                try {
+                    op.close();
+                } catch (Exception ex) {
+                    logger.warn(String.format("Exception while closing the [%s] OpProcessor", name), ex);
+                }
+            });
+
             try {
                 servicesLeftToShutdown.await(30000, TimeUnit.MILLISECONDS);
             } catch (InterruptedException ie) {
@@ -26,7 +26,7 @@ import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
-public interface OpProcessor {
+public interface OpProcessor extends AutoCloseable {
 
     /**
      * The name of the processor which requests must refer to "processor" field on a request.
@@ -39,4 +39,12 @@ public interface OpProcessor {
      * and return the Consumer function for that particular operation.
      */
     public ThrowingConsumer<Context> select(final Context ctx) throws OpProcessorException;
+
+    /**
+     * Releases the resources held by the processor.  Called once when Gremlin Server stops.
+     */
+    @Override
+    public default void close() throws Exception {
+        // do nothing by default
+    }
 }
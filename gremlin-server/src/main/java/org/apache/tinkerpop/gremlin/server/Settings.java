@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.server;
 
 import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
+import org.apache.tinkerpop.gremlin.driver.Transport;
 import org.apache.tinkerpop.gremlin.driver.ser.GryoMessageSerializerV1d0;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
@@ -109,6 +110,14 @@ public class Settings {
      */
     public int resultIterationBatchSize = 64;
 
+    /**
+     * The target size in bytes of a serialized batch of results.  When greater than zero, the number of results in
+     * a batch is adjusted from the average serialized size of the results already sent for the request, so that
+     * large results are sent in smaller batches.  The {@link #resultIterationBatchSize} remains the upper bound on
+     * the number of results in a batch.
+     */
+    public int resultIterationBatchBytes = 0;
+
     /**
      * The maximum length of the initial line (e.g. {@code "GET / HTTP/1.0"}) processed in a request, which essentially
      * controls the maximum length of the submitted URI. This setting ties to the Netty {@code HttpRequestDecoder}.
@@ -153,6 +162,39 @@ public class Settings {
      */
     public int writeBufferLowWaterMark = 1024 * 32;
 
+    /**
+     * The network transport to use - either {@code nio} or {@code epoll}.  The {@code epoll} transport is only
+     * available on Linux and falls back to {@code nio} if the native libraries cannot be loaded.
+     */
+    public String transport = Transport.NIO.name().toLowerCase();
+
+    /**
+     * The number of server channels to bind to the port.  Values greater than one use {@code SO_REUSEPORT} so that
+     * the kernel spreads incoming connections across acceptors and require the {@code epoll} transport.  The
+     * boss thread pool is grown to this value when {@link #threadPoolBoss} is smaller.
+     */
+    public int acceptors = 1;
+
+    /**
+     * Sets {@code TCP_NODELAY} on client connections.
+     */
+    public boolean tcpNoDelay = true;
+
+    /**
+     * Sets {@code SO_KEEPALIVE} on client connections.
+     */
+    public boolean keepAlive = true;
+
+    /**
+     * Sets {@code SO_SNDBUF} on client connections.  A value of zero or less leaves the operating system default.
+     */
+    public int sendBufferSize = 0;
+
+    /**
+     * Sets {@code SO_RCVBUF} on client connections.  A value of zero or less leaves the operating system default.
+     */
+    public int receiveBufferSize = 0;
+
     /**
      * The full class name of the {@link Channelizer} to use in Gremlin Server.
      */
@@ -184,6 +226,37 @@ public class Settings {
      */
     public SslSettings ssl = null;
 
+    /**
+     * The number of the slowest script fingerprints to track and publish through the metrics reporters.  Set to
+     * zero to disable tracking.  Defaults to 10.
+     */
+    public int slowScripts = 10;
+
+    /**
+     * The number of scripts that may be prepared with the "prepare" op, which bounds the memory that prepared
+     * scripts hold.  Once it is reached the least recently used script is unprepared to make room for a new one.
+     * Set to zero to disable the "prepare" op.  Defaults to 1024.
+     */
+    public int maxPreparedScripts = 1024;
+
+    /**
+     * The number of requests that may be waiting on or running in the {@link #gremlinPool} before Gremlin Server
+     * grants each connection a single credit.  Defaults to 1024.
+     */
+    public int maxInFlight = 1024;
+
+    /**
+     * The most credits granted to a connection, where a credit allows a client to have one more request in flight
+     * on that connection.  Credits are returned to the client with each response to a request and shrink as the
+     * server approaches {@link #maxInFlight}.  Set to zero to disable the granting of credits.  Defaults to 128.
+     */
+    public int maxInFlightPerConnection = 128;
+
+    /**
+     * Configures admission control for requests that execute in the {@link #gremlinPool}.
+     */
+    public AdmissionControlSettings admissionControl = null;
+
     /**
      * The list of plugins to enable for the server.  Plugins may be available on the classpath, but with this
      * configuration it is possible to explicitly include or omit them.
@@ -192,7 +265,9 @@ public class Settings {
 
     /**
      * Custom settings for {@link OpProcessor} implementations. Implementations are loaded via
-     * {@link ServiceLoader} but custom configurations can be supplied through this configuration.
+     * {@link ServiceLoader} but custom configurations can be supplied through this configuration.  An
+     * implementation that is not registered for the {@link ServiceLoader}, like the {@code TraversalOpProcessor},
+     * is only loaded when it is listed here.
      */
     public List<ProcessorSettings> processors = new ArrayList<>();
 
@@ -204,6 +279,10 @@ public class Settings {
         return Optional.ofNullable(ssl);
     }
 
+    public Optional<AdmissionControlSettings> optionalAdmissionControl() {
+        return Optional.ofNullable(admissionControl);
+    }
+
     /**
      * Read configuration from a file into a new {@link Settings} object.
      *
@@ -247,6 +326,13 @@ public class Settings {
         final TypeDescription sslSettings = new TypeDescription(SslSettings.class);
         constructor.addTypeDescription(sslSettings);
 
+        final TypeDescription admissionControlSettingsDescription = new TypeDescription(AdmissionControlSettings.class);
+        admissionControlSettingsDescription.putListPropertyType("queues", QueueSettings.class);
+        constructor.addTypeDescription(admissionControlSettingsDescription);
+
+        final TypeDescription queueSettingsDescription = new TypeDescription(QueueSettings.class);
+        constructor.addTypeDescription(queueSettingsDescription);
+
         final TypeDescription serverMetricsDescription = new TypeDescription(ServerMetrics.class);
         constructor.addTypeDescription(serverMetricsDescription);
 
@@ -273,8 +359,8 @@ public class Settings {
     }
 
     /**
-     * Custom configurations for any {@link OpProcessor} implementations.  These settings will not be relevant
-     * unless the referenced {@link OpProcessor} is actually loaded via {@link ServiceLoader}.
+     * Custom configurations for any {@link OpProcessor} implementations.  An {@link OpProcessor} that is not loaded
+     * via {@link ServiceLoader} is loaded by its class name from these settings.
      */
     public static class ProcessorSettings {
         /**
@@ -339,6 +425,69 @@ public class Settings {
     /**
      * Settings to configure SSL support.
      */
+    /**
+     * Settings for admission control, which places requests in bounded, prioritized queues before they are
+     * allowed to execute in the {@link #gremlinPool}.
+     */
+    public static class AdmissionControlSettings {
+        /**
+         * Enables admission control.  Other settings will be ignored unless this is set to true.
+         */
+        public boolean enabled = false;
+
+        /**
+         * Time in milliseconds that a request may wait in a queue before it is rejected with a
+         * {@code SERVER_ERROR_BUSY} response.  A value of zero or less means that requests wait until they are
+         * executed.  Defaults to 5000.
+         */
+        public long maxQueueWait = 5000;
+
+        /**
+         * The queues that requests are placed in.  A request goes to the first queue that matches it and is
+         * executed without admission control if none match.  By default, there is a single queue that matches
+         * all requests to the standard {@link OpProcessor}.
+         */
+        public List<QueueSettings> queues = new ArrayList<>(Collections.singletonList(new QueueSettings()));
+    }
+
+    /**
+     * Settings for a single admission control queue.  The {@link #processor}, {@link #op} and {@link #graph}
+     * settings determine which requests are placed in the queue, where a {@code null} matches any value.
+     */
+    public static class QueueSettings {
+        /**
+         * The name of the queue which is used to name its metrics.
+         */
+        public String name = "default";
+
+        /**
+         * The name of the {@link OpProcessor} that requests must be sent to.
+         */
+        public String processor = "";
+
+        /**
+         * The operation that requests must have.
+         */
+        public String op = null;
+
+        /**
+         * The name of a {@link Graph} or {@code TraversalSource} that requests must reference either through
+         * rebindings or as the target of a traversal.
+         */
+        public String graph = null;
+
+        /**
+         * Queues with higher priority have their requests executed before those of queues with lower priority.
+         */
+        public int priority = 0;
+
+        /**
+         * The maximum number of requests that can wait in the queue.  Further requests are rejected with a
+         * {@code SERVER_ERROR_BUSY} response.
+         */
+        public int maxSize = 1024;
+    }
+
     public static class SslSettings {
         /**
          * Enables SSL.  Other settings will be ignored unless this is set to true. By default a self-signed
@@ -22,6 +22,7 @@ import io.netty.channel.EventLoopGroup;
 import org.apache.tinkerpop.gremlin.server.AbstractChannelizer;
 import org.apache.tinkerpop.gremlin.server.handler.NioGremlinBinaryRequestDecoder;
 import org.apache.tinkerpop.gremlin.server.handler.NioGremlinResponseEncoder;
+import org.apache.tinkerpop.gremlin.server.handler.NioGremlinResponseFrameEncoder;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
@@ -51,6 +52,7 @@ public class NioChannelizer extends AbstractChannelizer {
         if (logger.isDebugEnabled())
             pipeline.addLast(new LoggingHandler("log-io", LogLevel.DEBUG));
 
+        pipeline.addLast(PIPELINE_RESPONSE_FRAME_ENCODER, new NioGremlinResponseFrameEncoder());
         pipeline.addLast("response-encoder", new NioGremlinResponseEncoder());
         pipeline.addLast("request-binary-decoder", nioGremlinBinaryRequestDecoder);
 
@@ -22,6 +22,7 @@ import io.netty.channel.EventLoopGroup;
 import org.apache.tinkerpop.gremlin.server.AbstractChannelizer;
 import org.apache.tinkerpop.gremlin.server.handler.WsGremlinBinaryRequestDecoder;
 import org.apache.tinkerpop.gremlin.server.handler.WsGremlinResponseEncoder;
+import org.apache.tinkerpop.gremlin.server.handler.WsGremlinResponseFrameEncoder;
 import org.apache.tinkerpop.gremlin.server.handler.WsGremlinTextRequestDecoder;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http.HttpObjectAggregator;
@@ -44,6 +45,7 @@ public class WebSocketChannelizer extends AbstractChannelizer {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketChannelizer.class);
 
     private WsGremlinResponseEncoder wsGremlinResponseEncoder;
+    private WsGremlinResponseFrameEncoder wsGremlinResponseFrameEncoder;
     private WsGremlinTextRequestDecoder wsGremlinTextRequestDecoder;
     private WsGremlinBinaryRequestDecoder wsGremlinBinaryRequestDecoder;
 
@@ -52,6 +54,7 @@ public class WebSocketChannelizer extends AbstractChannelizer {
         super.init(serverGremlinExecutor);
 
         wsGremlinResponseEncoder = new WsGremlinResponseEncoder();
+        wsGremlinResponseFrameEncoder = new WsGremlinResponseFrameEncoder();
         wsGremlinTextRequestDecoder = new WsGremlinTextRequestDecoder(serializers);
         wsGremlinBinaryRequestDecoder = new WsGremlinBinaryRequestDecoder(serializers);
     }
@@ -83,6 +86,7 @@ public class WebSocketChannelizer extends AbstractChannelizer {
         if (logger.isDebugEnabled())
             pipeline.addLast(new LoggingHandler("log-aggregator-encoder", LogLevel.DEBUG));
 
+        pipeline.addLast(PIPELINE_RESPONSE_FRAME_ENCODER, wsGremlinResponseFrameEncoder);
         pipeline.addLast("response-encoder", wsGremlinResponseEncoder);
         pipeline.addLast("request-text-decoder", wsGremlinTextRequestDecoder);
         pipeline.addLast("request-binary-decoder", wsGremlinBinaryRequestDecoder);
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * A response that has already been serialized to its wire format - a {@code ByteBuf} holding either binary or UTF-8
+ * text content, or a {@code String} for text serializers.  Serializing the response in the thread that produced the results
+ * (rather than in the Netty event loop) means that results bound to a thread, like those of a session, can be
+ * serialized without blocking the event loop.
+ */
+public final class Frame {
+    private final Object msg;
+    private final boolean binary;
+
+    public Frame(final ByteBuf msg) {
+        this(msg, true);
+    }
+
+    /**
+     * @param msg the serialized response
+     * @param binary {@code true} if the buffer contains binary content and {@code false} if it is UTF-8 text
+     */
+    public Frame(final ByteBuf msg, final boolean binary) {
+        this.msg = msg;
+        this.binary = binary;
+    }
+
+    public Frame(final String msg) {
+        this.msg = msg;
+        this.binary = false;
+    }
+
+    public Object getMsg() {
+        return msg;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * The number of serialized bytes in the frame, or the number of characters for a {@code String}.
+     */
+    public int size() {
+        return msg instanceof ByteBuf ? ((ByteBuf) msg).readableBytes() : ((String) msg).length();
+    }
+
+    /**
+     * Release the underlying message if it is reference counted.  Should be called if the {@code Frame} is not
+     * going to be written.
+     */
+    public void tryRelease() {
+        ReferenceCountUtil.release(msg);
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.server.handler;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -28,7 +29,8 @@ import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
 import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
-import org.apache.tinkerpop.gremlin.driver.ser.MessageTextSerializer;
+import org.apache.tinkerpop.gremlin.driver.ser.GraphSONMessageSerializerV1d0;
+import org.apache.tinkerpop.gremlin.driver.ser.SerTokens;
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
@@ -38,21 +40,27 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.util.function.FunctionUtils;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
-import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
-import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
-import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.javatuples.Pair;
 import org.javatuples.Quartet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,8 +68,10 @@ import org.slf4j.LoggerFactory;
 import javax.script.Bindings;
 import javax.script.SimpleBindings;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -69,7 +79,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static com.codahale.metrics.MetricRegistry.name;
 import static io.netty.handler.codec.http.HttpHeaders.Names.*;
@@ -96,6 +109,18 @@ public class HttpGremlinEndpointHandler extends ChannelInboundHandlerAdapter {
 
     private static final Timer evalOpTimer = MetricManager.INSTANCE.getTimer(name(GremlinServer.class, "op", "eval"));
 
+    /**
+     * Completes when the last response started on a channel has been fully written so that pipelined requests
+     * can be answered in order.
+     */
+    private static final AttributeKey<CompletableFuture<Void>> LAST_RESPONSE = AttributeKey.valueOf("lastHttpResponse");
+
+    /**
+     * Completes when a channel that stopped being writable can be written to again or is closed, so that a
+     * streaming response can wait for the client to catch up without polling.
+     */
+    private static final AttributeKey<CompletableFuture<Void>> WRITABLE = AttributeKey.valueOf("httpWritable");
+
     /**
      * Serializers for the response.
      */
@@ -110,26 +135,55 @@ public class HttpGremlinEndpointHandler extends ChannelInboundHandlerAdapter {
     private final GremlinExecutor gremlinExecutor;
     private final GraphManager graphManager;
 
+    /**
+     * The number of results to serialize before they are flushed to the client as a chunk.
+     */
+    private final int resultIterationBatchSize;
+
+    /**
+     * The time in milliseconds that a streamed response may take to be written, including the time spent waiting
+     * for a slow client to catch up.
+     */
+    private final long serializedResponseTimeout;
+
     public HttpGremlinEndpointHandler(final Map<String, MessageSerializer> serializers,
                                       final GremlinExecutor gremlinExecutor,
                                       final GraphManager graphManager) {
+        this(serializers, gremlinExecutor, graphManager, 64);
+    }
+
+    public HttpGremlinEndpointHandler(final Map<String, MessageSerializer> serializers,
+                                      final GremlinExecutor gremlinExecutor,
+                                      final GraphManager graphManager,
+                                      final int resultIterationBatchSize) {
+        this(serializers, gremlinExecutor, graphManager, resultIterationBatchSize, 30000l);
+    }
+
+    public HttpGremlinEndpointHandler(final Map<String, MessageSerializer> serializers,
+                                      final GremlinExecutor gremlinExecutor,
+                                      final GraphManager graphManager,
+                                      final int resultIterationBatchSize,
+                                      final long serializedResponseTimeout) {
         this.serializers = serializers;
         this.gremlinExecutor = gremlinExecutor;
         this.graphManager = graphManager;
+        this.resultIterationBatchSize = resultIterationBatchSize;
+        this.serializedResponseTimeout = serializedResponseTimeout;
     }
 
     @Override
     public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
         if (msg instanceof FullHttpRequest) {
             final FullHttpRequest req = (FullHttpRequest) msg;
+            final boolean keepAlive = isKeepAlive(req);
 
             if (is100ContinueExpected(req)) {
-                ctx.write(new DefaultFullHttpResponse(HTTP_1_1, CONTINUE));
+                respondInOrder(ctx, () -> sendContinue(ctx));
             }
 
             if (req.getMethod() != GET && req.getMethod() != POST) {
-                sendError(ctx, METHOD_NOT_ALLOWED, METHOD_NOT_ALLOWED.toString());
                 ReferenceCountUtil.release(msg);
+                respondInOrder(ctx, () -> sendError(ctx, METHOD_NOT_ALLOWED, METHOD_NOT_ALLOWED.toString(), keepAlive));
                 return;
             }
 
@@ -137,114 +191,297 @@ public class HttpGremlinEndpointHandler extends ChannelInboundHandlerAdapter {
             try {
                 requestArguments = getRequestArguments(req);
             } catch (IllegalArgumentException iae) {
-                sendError(ctx, BAD_REQUEST, iae.getMessage());
-                ReferenceCountUtil.release(msg);
-                return;
-            }
-
-            final String acceptString = Optional.ofNullable(req.headers().get("Accept")).orElse("application/json");
-            final String accept = acceptString.equals("*/*") ? "application/json" : acceptString;
-            final MessageTextSerializer serializer = (MessageTextSerializer) serializers.get(accept);
-            if (null == serializer) {
-                sendError(ctx, BAD_REQUEST, String.format("no serializer for requested Accept header: %s", accept));
                 ReferenceCountUtil.release(msg);
+                respondInOrder(ctx, () -> sendError(ctx, BAD_REQUEST, iae.getMessage(), keepAlive));
                 return;
             }
 
+            final String acceptString = Optional.ofNullable(req.headers().get(ACCEPT)).orElse("application/json");
+            final Optional<String> accept = chooseMimeType(acceptString);
             final String origin = req.headers().get(ORIGIN);
-            final boolean keepAlive = !isKeepAlive(req);
 
             // not using the req any where below here - assume it is safe to release at this point.
             ReferenceCountUtil.release(msg);
 
+            if (!accept.isPresent()) {
+                respondInOrder(ctx, () -> sendError(ctx, BAD_REQUEST,
+                        String.format("no serializer for requested Accept header: %s", acceptString), keepAlive));
+                return;
+            }
+
+            respondInOrder(ctx, () -> evaluate(ctx, requestArguments, accept.get(), origin, keepAlive));
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) releaseWriters(ctx);
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        releaseWriters(ctx);
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+        logger.error("Error processing HTTP Request", cause);
+        sendError(ctx, INTERNAL_SERVER_ERROR, cause.getCause().getMessage(), false);
+    }
+
+    /**
+     * Requests may be pipelined on a single connection, but HTTP requires that the responses come back in the
+     * order that the requests arrived.  Each response is therefore only started once the one before it on the
+     * same channel has been fully written.  This method is only called from the event loop so the channel
+     * attribute needs no further synchronization.
+     */
+    private static void respondInOrder(final ChannelHandlerContext ctx, final Supplier<CompletableFuture<Void>> responder) {
+        final Attribute<CompletableFuture<Void>> lastResponse = ctx.channel().attr(LAST_RESPONSE);
+        final CompletableFuture<Void> previous = Optional.ofNullable(lastResponse.get()).orElse(CompletableFuture.completedFuture(null));
+        final CompletableFuture<Void> current = new CompletableFuture<>();
+        lastResponse.set(current);
+
+        previous.whenComplete((v, t) -> {
+            // no point in evaluating anything for a client that has gone away
+            if (!ctx.channel().isActive()) {
+                current.complete(null);
+                return;
+            }
+
             try {
-                logger.debug("Processing request containing script [{}] and bindings of [{}] on {}",
-                        requestArguments.getValue0(), requestArguments.getValue1(), Thread.currentThread().getName());
-                final ChannelPromise promise = ctx.channel().newPromise();
-                final AtomicReference<Object> resultHolder = new AtomicReference<>();
-                promise.addListener(future -> {
-                    // if failed then the error was already written back to the client as part of the eval future
-                    // processing of the exception
-                    if (future.isSuccess()) {
-                        logger.debug("Preparing HTTP response for request with script [{}] and bindings of [{}] with result of [{}] on [{}]",
-                                requestArguments.getValue0(), requestArguments.getValue1(), resultHolder.get(), Thread.currentThread().getName());
-                        final FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, OK, (ByteBuf) resultHolder.get());
-                        response.headers().set(CONTENT_TYPE, accept);
-                        response.headers().set(CONTENT_LENGTH, response.content().readableBytes());
-
-                        // handle cors business
-                        if (origin != null) response.headers().set(ACCESS_CONTROL_ALLOW_ORIGIN, origin);
-
-                        if (!keepAlive) {
-                            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
-                        } else {
-                            response.headers().set(CONNECTION, HttpHeaders.Values.KEEP_ALIVE);
-                            ctx.writeAndFlush(response);
-                        }
-                    }
+                responder.get().whenComplete((r, ex) -> current.complete(null));
+            } catch (Exception ex) {
+                logger.error("Error processing HTTP Request", ex);
+                ctx.close();
+                current.complete(null);
+            }
+        });
+    }
+
+    private static CompletableFuture<Void> sendContinue(final ChannelHandlerContext ctx) {
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+        ctx.writeAndFlush(new DefaultFullHttpResponse(HTTP_1_1, CONTINUE)).addListener(future -> written.complete(null));
+        return written;
+    }
+
+    private CompletableFuture<Void> evaluate(final ChannelHandlerContext ctx,
+                                             final Quartet<String, Map<String, Object>, String, Map<String, String>> requestArguments,
+                                             final String accept, final String origin, final boolean keepAlive) {
+        logger.debug("Processing request containing script [{}] and bindings of [{}] on {}",
+                requestArguments.getValue0(), requestArguments.getValue1(), Thread.currentThread().getName());
+
+        final Bindings bindings;
+        try {
+            bindings = createBindings(requestArguments.getValue1(), requestArguments.getValue3());
+        } catch (IllegalStateException iae) {
+            return sendError(ctx, BAD_REQUEST, iae.getMessage(), keepAlive);
+        }
+
+        final MessageSerializer serializer = serializers.get(accept);
+        final HttpResponse response = new DefaultHttpResponse(HTTP_1_1, OK);
+        response.headers().set(CONTENT_TYPE, accept);
+        response.headers().set(CONNECTION, keepAlive ? HttpHeaders.Values.KEEP_ALIVE : HttpHeaders.Values.CLOSE);
+
+        // handle cors business
+        if (origin != null) response.headers().set(ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+
+        final Timer.Context timerContext = evalOpTimer.time();
+        final AtomicBoolean responseStarted = new AtomicBoolean(false);
+
+        // provide a transform function to serialize and write the response - this will force serialization to
+        // occur in the same thread as the eval so that results can be streamed back as they are iterated.
+        final CompletableFuture<Object> evalFuture = gremlinExecutor.eval(requestArguments.getValue0(), requestArguments.getValue2(), bindings,
+                FunctionUtils.wrapFunction(o -> {
+                    // stopping the timer here is roughly equivalent to where the timer would have been stopped for
+                    // this metric in other contexts.  we just want to measure eval time not serialization time.
+                    timerContext.stop();
+
+                    logger.debug("Transforming result of request with script [{}] and bindings of [{}] with result of [{}] on [{}]",
+                            requestArguments.getValue0(), requestArguments.getValue1(), o, Thread.currentThread().getName());
+
+                    // only plain json can be written a piece at a time without altering the format of the response.
+                    // everything else is serialized as a single message with a known length.
+                    if (serializer instanceof GraphSONMessageSerializerV1d0)
+                        return streamResponse(ctx, ((GraphSONMessageSerializerV1d0) serializer).getMapper(),
+                                IteratorUtils.asIterator(o), response, responseStarted);
+                    else
+                        return writeFullResponse(ctx, serializer, IteratorUtils.asList(o), response, responseStarted);
+                }));
+
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        evalFuture.whenComplete((lastWrite, t) -> {
+            if (null == t) {
+                ((ChannelFuture) lastWrite).addListener(future -> {
+                    if (!keepAlive) ctx.close();
+                    done.complete(null);
                 });
+            } else if (responseStarted.get()) {
+                // the status line has already gone out with a 200 so the only way left to tell the client that
+                // the response is incomplete is to cut off the chunked stream
+                logger.warn(String.format("Error encountered while streaming results for script: %s", requestArguments.getValue0()), t);
+                errorMeter.mark();
+                ctx.close();
+                done.complete(null);
+            } else {
+                sendError(ctx, INTERNAL_SERVER_ERROR, String.format("Error encountered evaluating script: %s", requestArguments.getValue0()), keepAlive)
+                        .whenComplete((r, ex) -> done.complete(null));
+            }
+        });
 
-                final Timer.Context timerContext = evalOpTimer.time();
+        return done;
+    }
 
-                final Bindings bindings;
-                try {
-                    bindings = createBindings(requestArguments.getValue1(), requestArguments.getValue3());
-                } catch (IllegalStateException iae) {
-                    sendError(ctx, BAD_REQUEST, iae.getMessage());
-                    ReferenceCountUtil.release(msg);
-                    return;
+    /**
+     * Writes results to the client with chunked transfer encoding in batches as they are iterated. The body
+     * is still a single JSON document in the same form produced by the serializer for a full
+     * {@link ResponseMessage}.
+     */
+    private ChannelFuture streamResponse(final ChannelHandlerContext ctx, final ObjectMapper graphsonMapper,
+                                         final Iterator itty, final HttpResponse response,
+                                         final AtomicBoolean responseStarted) throws Exception {
+        HttpHeaders.setTransferEncodingChunked(response);
+        final long deadline = System.currentTimeMillis() + serializedResponseTimeout;
+        final ChunkOutputStream out = new ChunkOutputStream(ctx.alloc());
+        try {
+            final JsonGenerator generator = graphsonMapper.getFactory().createGenerator(out);
+            generator.writeStartObject();
+            generator.writeStringField(SerTokens.TOKEN_REQUEST, UUID.randomUUID().toString());
+            generator.writeObjectFieldStart(SerTokens.TOKEN_STATUS);
+            generator.writeStringField(SerTokens.TOKEN_MESSAGE, "");
+            generator.writeNumberField(SerTokens.TOKEN_CODE, ResponseStatusCode.SUCCESS.getValue());
+            generator.writeObjectField(SerTokens.TOKEN_ATTRIBUTES, Collections.emptyMap());
+            generator.writeEndObject();
+            generator.writeObjectFieldStart(SerTokens.TOKEN_RESULT);
+            generator.writeArrayFieldStart(SerTokens.TOKEN_DATA);
+
+            int count = 0;
+            while (itty.hasNext()) {
+                graphsonMapper.writeValue(generator, itty.next());
+                if (++count == resultIterationBatchSize) {
+                    count = 0;
+                    generator.flush();
+                    writeChunk(ctx, response, responseStarted, out.take(), deadline);
                 }
+            }
 
-                // provide a transform function to serialize to message - this will force serialization to occur
-                // in the same thread as the eval. after the CompletableFuture is returned from the eval the result
-                // is ready to be written as a ByteBuf directly to the response.  nothing should be blocking here.
-                final CompletableFuture<Object> evalFuture = gremlinExecutor.eval(requestArguments.getValue0(), requestArguments.getValue2(), bindings,
-                        FunctionUtils.wrapFunction(o -> {
-                            // stopping the timer here is roughly equivalent to where the timer would have been stopped for
-                            // this metric in other contexts.  we just want to measure eval time not serialization time.
-                            timerContext.stop();
-
-                            logger.debug("Transforming result of request with script [{}] and bindings of [{}] with result of [{}] on [{}]",
-                                    requestArguments.getValue0(), requestArguments.getValue1(), o, Thread.currentThread().getName());
-                            final ResponseMessage responseMessage = ResponseMessage.build(UUID.randomUUID())
-                                    .code(ResponseStatusCode.SUCCESS)
-                                    .result(IteratorUtils.asList(o)).create();
-                            try {
-                                Object wrappedBuffer = (Object) Unpooled.wrappedBuffer(serializer.serializeResponseAsString(responseMessage).getBytes(UTF8));
-                                // http server is sessionless and must handle commit on transactions
-                                this.graphManager.commitAll();
-                                return wrappedBuffer;
-                            } catch (Exception ex) {
-                                logger.warn(String.format("Error during serialization for %s", responseMessage), ex);
-                                throw ex;
-                            }
-                        }));
-
-                evalFuture.exceptionally(t -> {
-                    sendError(ctx, INTERNAL_SERVER_ERROR, String.format("Error encountered evaluating script: %s", requestArguments.getValue0()));
-                    promise.setFailure(t);
-                    return null;
-                });
+            generator.writeEndArray();
+            generator.writeObjectField(SerTokens.TOKEN_META, Collections.emptyMap());
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.flush();
 
-                evalFuture.thenAcceptAsync(r -> {
-                    // now that the eval/serialization is done in the same thread - complete the promise so we can
-                    // write back the HTTP response on the same thread as the original request
-                    resultHolder.set(r);
-                    promise.setSuccess();
-                }, gremlinExecutor.getExecutorService());
-            } catch (Exception ex) {
-                // tossed to exceptionCaught which delegates to sendError method
-                final Throwable t = ExceptionUtils.getRootCause(ex);
-                throw new RuntimeException(null == t ? ex : t);
+            // http server is sessionless and must handle commit on transactions
+            this.graphManager.commitAll();
+
+            if (responseStarted.compareAndSet(false, true)) ctx.write(response);
+            ctx.write(new DefaultHttpContent(out.take()));
+            return ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        } finally {
+            out.release();
+        }
+    }
+
+    private ChannelFuture writeFullResponse(final ChannelHandlerContext ctx, final MessageSerializer serializer,
+                                            final List<Object> results, final HttpResponse response,
+                                            final AtomicBoolean responseStarted) throws Exception {
+        final ResponseMessage responseMessage = ResponseMessage.build(UUID.randomUUID())
+                .code(ResponseStatusCode.SUCCESS)
+                .result(results).create();
+
+        final ByteBuf serialized;
+        try {
+            serialized = serializer.serializeResponseAsBinary(responseMessage, ctx.alloc());
+        } catch (Exception ex) {
+            logger.warn(String.format("Error during serialization for %s", responseMessage), ex);
+            throw ex;
+        }
+
+        try {
+            // http server is sessionless and must handle commit on transactions
+            this.graphManager.commitAll();
+        } catch (Exception ex) {
+            ReferenceCountUtil.release(serialized);
+            throw ex;
+        }
+
+        final FullHttpResponse fullResponse = new DefaultFullHttpResponse(HTTP_1_1, OK, serialized);
+        fullResponse.headers().set(response.headers());
+        fullResponse.headers().set(CONTENT_LENGTH, serialized.readableBytes());
+        responseStarted.set(true);
+        return ctx.writeAndFlush(fullResponse);
+    }
+
+    private static void writeChunk(final ChannelHandlerContext ctx, final HttpResponse response,
+                                   final AtomicBoolean responseStarted, final ByteBuf chunk,
+                                   final long deadline) throws Exception {
+        if (responseStarted.compareAndSet(false, true)) ctx.write(response);
+        ctx.writeAndFlush(new DefaultHttpContent(chunk));
+
+        // don't keep iterating into memory if the client is not keeping up with what is already written.  this
+        // holds a gremlinPool thread, so the wait is bounded by the serializedResponseTimeout
+        while (!ctx.channel().isWritable()) {
+            if (!ctx.channel().isActive())
+                throw new IllegalStateException("Connection closed before the response could be fully written");
+
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0)
+                throw new TimeoutException("Serialization of the entire response exceeded the serializeResponseTimeout setting [Gremlin Server paused writes to client as messages were not being consumed quickly enough]");
+
+            try {
+                awaitWritable(ctx).get(remaining, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignored) {
+                // checked again at the top of the loop
             }
         }
     }
 
-    @Override
-    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
-        logger.error("Error processing HTTP Request", cause);
-        sendError(ctx, INTERNAL_SERVER_ERROR, cause.getCause().getMessage());
-        ctx.close();
+    /**
+     * Gets a future that completes once the channel is writable again or is closed.  The future is registered
+     * before writability is checked again so that a change that lands in between is not missed.
+     */
+    private static CompletableFuture<Void> awaitWritable(final ChannelHandlerContext ctx) {
+        final Attribute<CompletableFuture<Void>> writable = ctx.channel().attr(WRITABLE);
+        final CompletableFuture<Void> waiting = new CompletableFuture<>();
+        final CompletableFuture<Void> existing = writable.setIfAbsent(waiting);
+        final CompletableFuture<Void> future = null == existing ? waiting : existing;
+        if (ctx.channel().isWritable() || !ctx.channel().isActive()) releaseWriters(ctx);
+        return future;
+    }
+
+    private static void releaseWriters(final ChannelHandlerContext ctx) {
+        final CompletableFuture<Void> waiting = ctx.channel().attr(WRITABLE).getAndRemove();
+        if (waiting != null) waiting.complete(null);
+    }
+
+    /**
+     * Picks the first mime type from the {@code Accept} header, in order of quality, that has a configured
+     * serializer.  A wildcard resolves to plain JSON.
+     */
+    private Optional<String> chooseMimeType(final String acceptString) {
+        final List<Pair<String, Double>> mimeTypes = new ArrayList<>();
+        for (String mediaRange : acceptString.split(",")) {
+            final String[] parts = mediaRange.split(";");
+            double quality = 1.0d;
+            for (int ix = 1; ix < parts.length; ix++) {
+                final String param = parts[ix].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException nfe) {
+                        quality = 0.0d;
+                    }
+                }
+            }
+
+            final String mimeType = parts[0].trim();
+            if (quality > 0.0d) mimeTypes.add(Pair.with(mimeType.equals("*/*") ? "application/json" : mimeType, quality));
+        }
+
+        // stable sort so that ties keep the order given by the client
+        mimeTypes.sort((a, b) -> Double.compare(b.getValue1(), a.getValue1()));
+        return mimeTypes.stream().map(Pair::getValue0).filter(serializers::containsKey).findFirst();
     }
 
     private Bindings createBindings(final Map<String,Object> bindingMap, final Map<String,String> rebindingMap)  {
@@ -366,7 +603,8 @@ public class HttpGremlinEndpointHandler extends ChannelInboundHandlerAdapter {
             return node.asText();
     }
 
-    private static void sendError(final ChannelHandlerContext ctx, final HttpResponseStatus status, final String message) {
+    private static CompletableFuture<Void> sendError(final ChannelHandlerContext ctx, final HttpResponseStatus status,
+                                                     final String message, final boolean keepAlive) {
         logger.warn("Invalid request - responding with {} and {}", status, message);
         errorMeter.mark();
         final ObjectNode node = mapper.createObjectNode();
@@ -374,8 +612,49 @@ public class HttpGremlinEndpointHandler extends ChannelInboundHandlerAdapter {
         final FullHttpResponse response = new DefaultFullHttpResponse(
                 HTTP_1_1, status, Unpooled.copiedBuffer(node.toString(), CharsetUtil.UTF_8));
         response.headers().set(CONTENT_TYPE, "application/json");
+        response.headers().set(CONTENT_LENGTH, response.content().readableBytes());
+        response.headers().set(CONNECTION, keepAlive ? HttpHeaders.Values.KEEP_ALIVE : HttpHeaders.Values.CLOSE);
+
+        // errors in the request do not spoil the connection, so only close it if the client didn't want it kept
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+        ctx.writeAndFlush(response).addListener(future -> {
+            if (!keepAlive) ctx.close();
+            written.complete(null);
+        });
+        return written;
+    }
+
+    /**
+     * An {@code OutputStream} over a Netty {@code ByteBuf} whose contents can be taken off as a chunk at any point
+     * after which writing continues into a fresh buffer.
+     */
+    private static final class ChunkOutputStream extends OutputStream {
+        private final ByteBufAllocator allocator;
+        private ByteBuf buffer;
 
-        // Close the connection as soon as the error message is sent.
-        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        ChunkOutputStream(final ByteBufAllocator allocator) {
+            this.allocator = allocator;
+            this.buffer = allocator.buffer();
+        }
+
+        @Override
+        public void write(final int b) {
+            buffer.writeByte(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            buffer.writeBytes(b, off, len);
+        }
+
+        ByteBuf take() {
+            final ByteBuf chunk = buffer;
+            buffer = allocator.buffer();
+            return chunk;
+        }
+
+        void release() {
+            ReferenceCountUtil.release(buffer);
+        }
     }
 }
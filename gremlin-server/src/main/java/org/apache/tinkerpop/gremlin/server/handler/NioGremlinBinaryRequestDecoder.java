@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.ser.SerializationException;
 import org.apache.tinkerpop.gremlin.driver.ser.Serializers;
+import org.apache.tinkerpop.gremlin.server.util.RequestPhase;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
@@ -65,10 +66,13 @@ public class NioGremlinBinaryRequestDecoder extends ByteToMessageDecoder {
 
             channelHandlerContext.channel().attr(StateKey.SERIALIZER).set(serializer);
             channelHandlerContext.channel().attr(StateKey.USE_BINARY).set(true);
+            final long start = System.nanoTime();
             try {
                 objects.add(serializer.deserializeRequest(byteBuf.discardReadBytes()));
             } catch (SerializationException se) {
                 objects.add(RequestMessage.INVALID);
+            } finally {
+                RequestPhase.DECODE.record(System.nanoTime() - start);
             }
         } finally {
             contentTypeBytes.release();
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.nio.charset.Charset;
+
+/**
+ * Writes a pre-serialized {@link Frame} to the NIO channel.
+ */
+@ChannelHandler.Sharable
+public class NioGremlinResponseFrameEncoder extends MessageToByteEncoder<Frame> {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Override
+    protected void encode(final ChannelHandlerContext ctx, final Frame frame, final ByteBuf byteBuf) throws Exception {
+        if (frame.getMsg() instanceof ByteBuf) {
+            final ByteBuf serialized = (ByteBuf) frame.getMsg();
+            try {
+                byteBuf.writeBytes(serialized);
+            } finally {
+                frame.tryRelease();
+            }
+        } else {
+            byteBuf.writeBytes(((String) frame.getMsg()).getBytes(UTF8));
+        }
+    }
+}
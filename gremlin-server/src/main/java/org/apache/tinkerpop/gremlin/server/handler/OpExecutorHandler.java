@@ -19,11 +19,14 @@
 package org.apache.tinkerpop.gremlin.server.handler;
 
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
 import org.apache.tinkerpop.gremlin.server.Settings;
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
+import org.apache.tinkerpop.gremlin.server.util.AdmissionController;
 import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -33,6 +36,7 @@ import org.javatuples.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
@@ -46,13 +50,21 @@ public class OpExecutorHandler extends SimpleChannelInboundHandler<Pair<RequestM
     private final GraphManager graphManager;
     private final ScheduledExecutorService scheduledExecutorService;
     private final GremlinExecutor gremlinExecutor;
+    private final Optional<AdmissionController> admissionController;
 
     public OpExecutorHandler(final Settings settings, final GraphManager graphManager, final GremlinExecutor gremlinExecutor,
                              final ScheduledExecutorService scheduledExecutorService) {
+        this(settings, graphManager, gremlinExecutor, scheduledExecutorService, Optional.empty());
+    }
+
+    public OpExecutorHandler(final Settings settings, final GraphManager graphManager, final GremlinExecutor gremlinExecutor,
+                             final ScheduledExecutorService scheduledExecutorService,
+                             final Optional<AdmissionController> admissionController) {
         this.settings = settings;
         this.graphManager = graphManager;
         this.gremlinExecutor = gremlinExecutor;
         this.scheduledExecutorService = scheduledExecutorService;
+        this.admissionController = admissionController;
     }
 
     @Override
@@ -63,14 +75,35 @@ public class OpExecutorHandler extends SimpleChannelInboundHandler<Pair<RequestM
                 settings, graphManager, gremlinExecutor, scheduledExecutorService);
 
         try {
-            op.accept(gremlinServerContext);
+            // with admission control the op may be queued (or rejected) rather than executed immediately
+            if (admissionController.isPresent() && admissionController.get().offer(msg, ctx, () -> executeQueued(ctx, op, gremlinServerContext)))
+                return;
+
+            execute(ctx, op, gremlinServerContext);
+        } finally {
+            ReferenceCountUtil.release(objects);
+        }
+    }
+
+    private static void execute(final ChannelHandlerContext ctx, final ThrowingConsumer<Context> op, final Context context) throws Exception {
+        try {
+            op.accept(context);
         } catch (OpProcessorException ope) {
             // Ops may choose to throw OpProcessorException or write the error ResponseMessage down the line
             // themselves
             logger.warn(ope.getMessage(), ope);
             ctx.writeAndFlush(ope.getResponseMessage());
-        } finally {
-            ReferenceCountUtil.release(objects);
+        }
+    }
+
+    private static void executeQueued(final ChannelHandlerContext ctx, final ThrowingConsumer<Context> op, final Context context) {
+        try {
+            execute(ctx, op, context);
+        } catch (Exception ex) {
+            // a queued op is not executed in the event loop so errors can't be left to bubble up the pipeline
+            final RequestMessage msg = context.getRequestMessage();
+            logger.warn(String.format("Exception processing request [%s].", msg), ex);
+            ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR).statusMessage(ex.getMessage()).create());
         }
     }
 }
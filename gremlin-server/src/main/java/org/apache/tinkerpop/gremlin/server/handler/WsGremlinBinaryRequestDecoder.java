@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.ser.SerializationException;
 import org.apache.tinkerpop.gremlin.driver.ser.Serializers;
+import org.apache.tinkerpop.gremlin.server.util.RequestPhase;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -69,10 +70,13 @@ public class WsGremlinBinaryRequestDecoder extends MessageToMessageDecoder<Binar
 
             channelHandlerContext.channel().attr(StateKey.SERIALIZER).set(serializer);
             channelHandlerContext.channel().attr(StateKey.USE_BINARY).set(true);
+            final long start = System.nanoTime();
             try {
                 objects.add(serializer.deserializeRequest(messageBytes.discardReadBytes()));
             } catch (SerializationException se) {
                 objects.add(RequestMessage.INVALID);
+            } finally {
+                RequestPhase.DECODE.record(System.nanoTime() - start);
             }
         } finally {
             contentTypeBytes.release();
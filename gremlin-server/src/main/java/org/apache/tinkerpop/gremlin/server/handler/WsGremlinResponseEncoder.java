@@ -24,7 +24,6 @@ import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.driver.ser.MessageTextSerializer;
 import org.apache.tinkerpop.gremlin.server.GremlinServer;
-import org.apache.tinkerpop.gremlin.server.op.session.Session;
 import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -40,6 +39,9 @@ import java.util.List;
 import static com.codahale.metrics.MetricRegistry.name;
 
 /**
+ * Serializes a {@link ResponseMessage} to a WebSocket frame.  Responses containing results are typically
+ * serialized prior to reaching the pipeline and arrive as a {@link Frame} - see {@link WsGremlinResponseFrameEncoder}.
+ *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 @ChannelHandler.Sharable
@@ -51,35 +53,20 @@ public class WsGremlinResponseEncoder extends MessageToMessageEncoder<ResponseMe
     protected void encode(final ChannelHandlerContext ctx, final ResponseMessage o, final List<Object> objects) throws Exception {
         final MessageSerializer serializer = ctx.channel().attr(StateKey.SERIALIZER).get();
         final boolean useBinary = ctx.channel().attr(StateKey.USE_BINARY).get();
-        final Session session = ctx.channel().attr(StateKey.SESSION).get();
 
         try {
             if (!o.getStatus().getCode().isSuccess())
                 errorMeter.mark();
 
             if (useBinary) {
-                final ByteBuf serialized;
-
-                // if the request came in on a session then the serialization must occur in that same thread.
-                if (null == session)
-                    serialized = serializer.serializeResponseAsBinary(o, ctx.alloc());
-                else
-                    serialized = session.getExecutor().submit(() -> serializer.serializeResponseAsBinary(o, ctx.alloc())).get();
-
+                final ByteBuf serialized = serializer.serializeResponseAsBinary(o, ctx.alloc());
                 objects.add(new BinaryWebSocketFrame(serialized));
             } else {
                 // the expectation is that the GremlinTextRequestDecoder will have placed a MessageTextSerializer
                 // instance on the channel.
                 final MessageTextSerializer textSerializer = (MessageTextSerializer) serializer;
 
-                final String serialized;
-
-                // if the request came in on a session then the serialization must occur in that same thread.
-                if (null == session)
-                    serialized = textSerializer.serializeResponseAsString(o);
-                else
-                    serialized = session.getExecutor().submit(() -> textSerializer.serializeResponseAsString(o)).get();
-
+                final String serialized = textSerializer.serializeResponseAsString(o);
                 objects.add(new TextWebSocketFrame(true, 0, serialized));
             }
         } catch (Exception ex) {
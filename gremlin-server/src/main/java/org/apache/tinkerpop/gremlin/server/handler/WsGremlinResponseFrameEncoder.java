@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+
+import java.util.List;
+
+/**
+ * Wraps a pre-serialized {@link Frame} in the appropriate WebSocket frame.
+ */
+@ChannelHandler.Sharable
+public class WsGremlinResponseFrameEncoder extends MessageToMessageEncoder<Frame> {
+    @Override
+    protected void encode(final ChannelHandlerContext ctx, final Frame frame, final List<Object> objects) throws Exception {
+        if (frame.getMsg() instanceof ByteBuf) {
+            final ByteBuf serialized = (ByteBuf) frame.getMsg();
+            objects.add(frame.isBinary() ? new BinaryWebSocketFrame(serialized) : new TextWebSocketFrame(serialized));
+        } else
+            objects.add(new TextWebSocketFrame(true, 0, (String) frame.getMsg()));
+    }
+}
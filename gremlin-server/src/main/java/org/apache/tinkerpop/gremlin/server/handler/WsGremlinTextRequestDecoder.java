@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.ser.MessageTextSerializer;
 import org.apache.tinkerpop.gremlin.driver.ser.SerializationException;
 import org.apache.tinkerpop.gremlin.driver.ser.Serializers;
+import org.apache.tinkerpop.gremlin.server.util.RequestPhase;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
@@ -51,6 +52,7 @@ public class WsGremlinTextRequestDecoder extends MessageToMessageDecoder<TextWeb
 
     @Override
     protected void decode(final ChannelHandlerContext channelHandlerContext, final TextWebSocketFrame frame, final List<Object> objects) throws Exception {
+        final long start = System.nanoTime();
         try {
             // the default serializer must be a MessageTextSerializer instance to be compatible with this decoder
             final MessageTextSerializer serializer = (MessageTextSerializer) select("application/json", Serializers.DEFAULT_REQUEST_SERIALIZER);
@@ -60,6 +62,8 @@ public class WsGremlinTextRequestDecoder extends MessageToMessageDecoder<TextWeb
             objects.add(serializer.deserializeRequest(frame.text()));
         } catch (SerializationException se) {
             objects.add(RequestMessage.INVALID);
+        } finally {
+            RequestPhase.DECODE.record(System.nanoTime() - start);
         }
     }
 
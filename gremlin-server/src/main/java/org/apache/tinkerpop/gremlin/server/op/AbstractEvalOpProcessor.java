@@ -24,28 +24,33 @@ import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CancellationToken;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GremlinServer;
-import org.apache.tinkerpop.gremlin.server.OpProcessor;
-import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.util.CacheInvalidation;
+import org.apache.tinkerpop.gremlin.server.util.CancellableRequests;
 import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.apache.tinkerpop.gremlin.server.util.PreparedScripts;
+import org.apache.tinkerpop.gremlin.server.util.RequestPhase;
+import org.apache.tinkerpop.gremlin.server.util.SlowScriptTracker;
 import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import io.netty.channel.ChannelHandlerContext;
-import org.apache.commons.lang.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
@@ -57,7 +62,7 @@ import static com.codahale.metrics.MetricRegistry.name;
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
-public abstract class AbstractEvalOpProcessor implements OpProcessor {
+public abstract class AbstractEvalOpProcessor extends AbstractOpProcessor {
     private static final Logger logger = LoggerFactory.getLogger(AbstractEvalOpProcessor.class);
     private static final Timer evalOpTimer = MetricManager.INSTANCE.getTimer(name(GremlinServer.class, "op", "eval"));
 
@@ -71,10 +76,8 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
             T.label.getAccessor(), T.value.getAccessor());
     private static final String invalidBindingKeysJoined = String.join(",", invalidBindingsKeys);
 
-    protected final boolean manageTransactions;
-
     protected AbstractEvalOpProcessor(final boolean manageTransactions) {
-        this.manageTransactions = manageTransactions;
+        super(manageTransactions);
     }
 
     /**
@@ -104,8 +107,18 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
     }
 
     protected Optional<ThrowingConsumer<Context>> validateEvalMessage(final RequestMessage message) throws OpProcessorException {
-        if (!message.optionalArgs(Tokens.ARGS_GREMLIN).isPresent()) {
-            final String msg = String.format("A message with an [%s] op code requires a [%s] argument.", Tokens.OPS_EVAL, Tokens.ARGS_GREMLIN);
+        final Optional<Object> handle = message.optionalArgs(Tokens.ARGS_SCRIPT_HANDLE);
+        if (handle.isPresent()) {
+            if (!PreparedScripts.INSTANCE.get(handle.get().toString()).isPresent()) {
+                final String msg = String.format("The script with the [%s] of [%s] has not been prepared.", Tokens.ARGS_SCRIPT_HANDLE, handle.get());
+                // the attribute tells the client that it can prepare the script again, as it may have been evicted
+                final Map<String, Object> attributes = new HashMap<>();
+                attributes.put(Tokens.STATUS_ATTRIBUTE_UNPREPARED, handle.get().toString());
+                throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS)
+                        .statusAttributes(attributes).result(msg).create());
+            }
+        } else if (!message.optionalArgs(Tokens.ARGS_GREMLIN).isPresent()) {
+            final String msg = String.format("A message with an [%s] op code requires a [%s] or a [%s] argument.", Tokens.OPS_EVAL, Tokens.ARGS_GREMLIN, Tokens.ARGS_SCRIPT_HANDLE);
             throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
         }
 
@@ -136,23 +149,48 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
     protected void evalOpInternal(final Context context, final Supplier<GremlinExecutor> gremlinExecutorSupplier,
                               final BindingSupplier<Bindings> bindingsSupplier) throws OpProcessorException {
         final Timer.Context timerContext = evalOpTimer.time();
+        final long start = System.nanoTime();
         final ChannelHandlerContext ctx = context.getChannelHandlerContext();
         final RequestMessage msg = context.getRequestMessage();
         final GremlinExecutor gremlinExecutor = gremlinExecutorSupplier.get();
 
         final Map<String, Object> args = msg.getArgs();
 
-        final String script = (String) args.get(Tokens.ARGS_GREMLIN);
-        final String language = args.containsKey(Tokens.ARGS_LANGUAGE) ? (String) args.get(Tokens.ARGS_LANGUAGE) : null;
+        // a prepared script is evaluated with the very script it was prepared from so that the ScriptEngine finds
+        // its class without hashing or comparing the text of the script
+        final Optional<PreparedScripts.PreparedScript> prepared = PreparedScripts.INSTANCE.get(
+                Objects.toString(args.get(Tokens.ARGS_SCRIPT_HANDLE), null));
+        final String script = prepared.isPresent() ? prepared.get().getScript() : (String) args.get(Tokens.ARGS_GREMLIN);
+        final String language = prepared.isPresent() ? prepared.get().getLanguage() :
+                args.containsKey(Tokens.ARGS_LANGUAGE) ? (String) args.get(Tokens.ARGS_LANGUAGE) : null;
         final Bindings bindings = bindingsSupplier.get();
 
+        // a client that caches the results of the request needs to hear when they should be discarded
+        if (Boolean.TRUE.equals(args.get(Tokens.ARGS_CACHE))) CacheInvalidation.INSTANCE.subscribe(ctx.channel());
+
+        // the token stops the traversals of the request should the client disconnect or ask to cancel it
+        final CancellationToken cancellationToken = CancellableRequests.INSTANCE.register(msg.getRequestId(), ctx.channel());
+
         final CompletableFuture<Object> evalFuture = gremlinExecutor.eval(script, language, bindings, null, o -> {
+            // the groovy engine keeps the timings of the eval that just completed on this thread
+            if (null == language || language.equals("gremlin-groovy")) {
+                final long compilationTime = GremlinGroovyScriptEngine.getLastCompilationTime();
+                if (compilationTime > 0) RequestPhase.COMPILE.record(compilationTime);
+                RequestPhase.EVALUATION.record(GremlinGroovyScriptEngine.getLastExecutionTime());
+                logger.debug("Script of request [{}] was compiled {}", msg.getRequestId(),
+                        GremlinGroovyScriptEngine.getLastCompilationMode());
+            }
+
             final Iterator itty = IteratorUtils.asIterator(o);
 
             logger.debug("Preparing to iterate results from - {} - in thread [{}]", msg, Thread.currentThread().getName());
 
             try {
                 handleIterator(context, itty);
+            } catch (TraversalInterruptedException ex) {
+                final String errorMessage = String.format("Request [%s] was cancelled during iteration of its result", msg.getRequestId());
+                logger.warn(errorMessage);
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_CANCELLED).statusMessage(errorMessage).create());
             } catch (TimeoutException ex) {
                 final String errorMessage = String.format("Response iteration exceeded the configured threshold for request [%s] - %s", msg, ex.getMessage());
                 logger.warn(errorMessage);
@@ -160,14 +198,23 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
             } catch (Exception ex) {
                 logger.warn(String.format("Exception processing a script on request [%s].", msg), ex);
                 ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR).statusMessage(ex.getMessage()).create());
+            } finally {
+                CancellableRequests.INSTANCE.unregister(msg.getRequestId());
+                SlowScriptTracker.INSTANCE.record(script, System.nanoTime() - start);
             }
-        });
+        }, cancellationToken);
 
         evalFuture.handle((v, t) -> {
             timerContext.stop();
 
             if (t != null) {
-                if (t instanceof TimeoutException) {
+                CancellableRequests.INSTANCE.unregister(msg.getRequestId());
+                SlowScriptTracker.INSTANCE.record(script, System.nanoTime() - start);
+                if (t instanceof TraversalInterruptedException) {
+                    final String errorMessage = String.format("Request [%s] was cancelled during evaluation", msg.getRequestId());
+                    logger.warn(errorMessage);
+                    ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_CANCELLED).statusMessage(errorMessage).create());
+                } else if (t instanceof TimeoutException) {
                     final String errorMessage = String.format("Response evaluation exceeded the configured threshold for request [%s] - %s", msg, t.getMessage());
                     logger.warn(errorMessage);
                     ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_TIMEOUT).statusMessage(t.getMessage()).create());
@@ -181,95 +228,6 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
         });
     }
 
-    /**
-     * Called by {@link #evalOpInternal} when iterating a result set. Implementers should respect the
-     * {@link Settings#serializedResponseTimeout} configuration and break the serialization process if
-     * it begins to take too long to do so, throwing a {@link java.util.concurrent.TimeoutException} in such
-     * cases.
-     *
-     * @param context The Gremlin Server {@link Context} object containing settings, request message, etc.
-     * @param itty The result to iterator
-     * @throws TimeoutException if the time taken to serialize the entire result set exceeds the allowable time.
-     */
-    protected void handleIterator(final Context context, final Iterator itty) throws TimeoutException, InterruptedException {
-        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
-        final RequestMessage msg = context.getRequestMessage();
-        final Settings settings = context.getSettings();
-        boolean warnOnce = false;
-
-        // we have an empty iterator - happens on stuff like: g.V().iterate()
-        if (!itty.hasNext()) {
-            // as there is nothing left to iterate if we are transaction managed then we should execute a
-            // commit here before we send back a NO_CONTENT which implies success
-            if (manageTransactions) context.getGraphManager().commitAll();
-            ctx.writeAndFlush(ResponseMessage.build(msg)
-                    .code(ResponseStatusCode.NO_CONTENT)
-                    .create());
-        }
-
-        // timer for the total serialization time
-        final StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
-
-        // the batch size can be overridden by the request
-        final int resultIterationBatchSize = (Integer) msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
-                .orElse(settings.resultIterationBatchSize);
-        List<Object> aggregate = new ArrayList<>(resultIterationBatchSize);
-        while (itty.hasNext()) {
-            if (Thread.interrupted()) throw new InterruptedException();
-
-            // have to check the aggregate size because it is possible that the channel is not writeable (below)
-            // so iterating next() if the message is not written and flushed would bump the aggregate size beyond
-            // the expected resultIterationBatchSize.  Total serialization time for the response remains in
-            // effect so if the client is "slow" it may simply timeout.
-            if (aggregate.size() < resultIterationBatchSize) aggregate.add(itty.next());
-
-            // if there's no more items in the iterator then we've aggregated everything and are thus ready to
-            // commit stuff if transaction management is on.  exceptions should bubble up and be handle in the normal
-            // manner of things.  a final SUCCESS message will not have been sent (below) and we ship back an error.
-            // if transaction management is not enabled, then returning SUCCESS below is OK as this is a different
-            // usage context.  without transaction management enabled, the user is responsible for maintaining
-            // the transaction and will want a SUCCESS to know their eval and iteration was ok.  they would then
-            // potentially have a failure on commit on the next request.
-            if (!itty.hasNext() && manageTransactions)
-                context.getGraphManager().commitAll();
-
-            // send back a page of results if batch size is met or if it's the end of the results being iterated.
-            // also check writeability of the channel to prevent OOME for slow clients.
-            if (ctx.channel().isWritable()) {
-                if  (aggregate.size() == resultIterationBatchSize || !itty.hasNext()) {
-                    final ResponseStatusCode code = itty.hasNext() ? ResponseStatusCode.PARTIAL_CONTENT : ResponseStatusCode.SUCCESS;
-                    ctx.writeAndFlush(ResponseMessage.build(msg)
-                            .code(code)
-                            .result(aggregate).create());
-
-                    aggregate = new ArrayList<>(resultIterationBatchSize);
-                }
-            } else {
-                // don't keep triggering this warning over and over again for the same request
-                if (!warnOnce) {
-                    logger.warn("Pausing response writing as writeBufferHighWaterMark exceeded on {} - writing will continue once client has caught up", msg);
-                    warnOnce = true;
-                }
-
-                // since the client is lagging we can hold here for a period of time for the client to catch up.
-                // this isn't blocking the IO thread - just a worker.
-                TimeUnit.MILLISECONDS.sleep(10);
-            }
-
-            stopWatch.split();
-            if (stopWatch.getSplitTime() > settings.serializedResponseTimeout) {
-                final String timeoutMsg = String.format("Serialization of the entire response exceeded the serializeResponseTimeout setting %s",
-                        warnOnce ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "");
-                throw new TimeoutException(timeoutMsg.trim());
-            }
-
-            stopWatch.unsplit();
-        }
-
-        stopWatch.stop();
-    }
-
     @FunctionalInterface
     public interface BindingSupplier<T> {
         public T get() throws OpProcessorException;
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import io.netty.channel.ChannelHandlerContext;
+import org.apache.commons.lang.time.StopWatch;
+import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.driver.ser.MessageTextSerializer;
+import org.apache.tinkerpop.gremlin.driver.ser.SerializationException;
+import org.apache.tinkerpop.gremlin.server.AbstractChannelizer;
+import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.OpProcessor;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.handler.Frame;
+import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.apache.tinkerpop.gremlin.server.util.RequestCredits;
+import org.apache.tinkerpop.gremlin.server.util.RequestPhase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A base {@link OpProcessor} implementation that iterates the results of an operation and writes them back to the
+ * client in batches, whether those results came from a script or from some other source like a traversal.
+ */
+public abstract class AbstractOpProcessor implements OpProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractOpProcessor.class);
+
+    protected final boolean manageTransactions;
+
+    protected AbstractOpProcessor(final boolean manageTransactions) {
+        this.manageTransactions = manageTransactions;
+    }
+
+    /**
+     * Iterates the result of an operation and writes it down the Netty pipeline in batches. Implementers should
+     * respect the {@link Settings#serializedResponseTimeout} configuration and break the serialization process if
+     * it begins to take too long to do so, throwing a {@link java.util.concurrent.TimeoutException} in such cases.
+     *
+     * @param context The Gremlin Server {@link Context} object containing settings, request message, etc.
+     * @param itty The result to iterator
+     * @throws TimeoutException if the time taken to serialize the entire result set exceeds the allowable time.
+     */
+    protected void handleIterator(final Context context, final Iterator itty) throws TimeoutException, InterruptedException {
+        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
+        final RequestMessage msg = context.getRequestMessage();
+        final Settings settings = context.getSettings();
+        boolean warnOnce = false;
+
+        // we have an empty iterator - happens on stuff like: g.V().iterate()
+        if (!itty.hasNext()) {
+            // as there is nothing left to iterate if we are transaction managed then we should execute a
+            // commit here before we send back a NO_CONTENT which implies success
+            if (manageTransactions) context.getGraphManager().commitAll();
+            ctx.writeAndFlush(ResponseMessage.build(msg)
+                    .code(ResponseStatusCode.NO_CONTENT)
+                    .statusAttributes(RequestCredits.INSTANCE.grant())
+                    .create());
+        }
+
+        // timer for the total serialization time
+        final StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        // time spent in serialization and waiting on the client is subtracted to get the iteration time
+        final long iterationStart = System.nanoTime();
+        long excludedFromIteration = 0;
+
+        // the batch size can be overridden by the request
+        final int resultIterationBatchSize = (Integer) msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
+                .orElse(settings.resultIterationBatchSize);
+
+        // results are serialized here only if the pipeline can write the serialized form - a custom channelizer
+        // might only have an encoder for the ResponseMessage itself
+        final boolean serializeFrames = ctx.pipeline().get(AbstractChannelizer.PIPELINE_RESPONSE_FRAME_ENCODER) != null;
+
+        // when batches are sized by bytes the first batch holds a single result to gauge the serialized size and
+        // the limit then adjusts to the average serialized size of the results so far
+        int batchLimit = settings.resultIterationBatchBytes > 0 && serializeFrames ? 1 : resultIterationBatchSize;
+        long bytesSerialized = 0;
+        long itemsSerialized = 0;
+
+        List<Object> aggregate = new ArrayList<>(batchLimit);
+        while (itty.hasNext()) {
+            if (Thread.interrupted()) throw new InterruptedException();
+
+            // have to check the aggregate size because it is possible that the channel is not writeable (below)
+            // so iterating next() if the message is not written and flushed would bump the aggregate size beyond
+            // the expected resultIterationBatchSize.  Total serialization time for the response remains in
+            // effect so if the client is "slow" it may simply timeout.
+            if (aggregate.size() < batchLimit) aggregate.add(itty.next());
+
+            // if there's no more items in the iterator then we've aggregated everything and are thus ready to
+            // commit stuff if transaction management is on.  exceptions should bubble up and be handle in the normal
+            // manner of things.  a final SUCCESS message will not have been sent (below) and we ship back an error.
+            // if transaction management is not enabled, then returning SUCCESS below is OK as this is a different
+            // usage context.  without transaction management enabled, the user is responsible for maintaining
+            // the transaction and will want a SUCCESS to know their eval and iteration was ok.  they would then
+            // potentially have a failure on commit on the next request.
+            if (!itty.hasNext() && manageTransactions)
+                context.getGraphManager().commitAll();
+
+            // send back a page of results if batch size is met or if it's the end of the results being iterated.
+            // also check writeability of the channel to prevent OOME for slow clients.
+            if (ctx.channel().isWritable()) {
+                if  (aggregate.size() >= batchLimit || !itty.hasNext()) {
+                    final ResponseStatusCode code = itty.hasNext() ? ResponseStatusCode.PARTIAL_CONTENT : ResponseStatusCode.SUCCESS;
+                    final ResponseMessage responseMessage = ResponseMessage.build(msg)
+                            .code(code)
+                            .statusAttributes(RequestCredits.INSTANCE.grant())
+                            .result(aggregate).create();
+
+                    if (!serializeFrames) {
+                        ctx.writeAndFlush(responseMessage);
+                    } else {
+                        // serialize in this thread rather than in the event loop.  results from a session must be
+                        // serialized in the session thread and doing that here means the encoder never has to block
+                        // waiting on the session executor.
+                        final Frame frame;
+                        final long serializationStart = System.nanoTime();
+                        try {
+                            frame = makeFrame(ctx, responseMessage);
+                        } catch (SerializationException ex) {
+                            logger.warn(String.format("The result [%s] in the request %s could not be serialized and returned.", aggregate, msg.getRequestId()), ex);
+                            final String errorMessage = String.format("Error during serialization: %s",
+                                    ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+                            ctx.writeAndFlush(ResponseMessage.build(msg)
+                                    .code(ResponseStatusCode.SERVER_ERROR_SERIALIZATION)
+                                    .statusMessage(errorMessage).create());
+                            break;
+                        }
+
+                        final long serializationTime = System.nanoTime() - serializationStart;
+                        RequestPhase.SERIALIZATION.record(serializationTime);
+                        excludedFromIteration += serializationTime;
+
+                        if (settings.resultIterationBatchBytes > 0) {
+                            bytesSerialized += frame.size();
+                            itemsSerialized += aggregate.size();
+                            final long averageSize = Math.max(1, bytesSerialized / itemsSerialized);
+                            batchLimit = (int) Math.max(1, Math.min(resultIterationBatchSize, settings.resultIterationBatchBytes / averageSize));
+                        }
+
+                        final long writeStart = System.nanoTime();
+                        ctx.writeAndFlush(frame).addListener(f -> RequestPhase.WRITE.record(System.nanoTime() - writeStart));
+                    }
+                    aggregate = new ArrayList<>(batchLimit);
+                }
+            } else {
+                // don't keep triggering this warning over and over again for the same request
+                if (!warnOnce) {
+                    logger.warn("Pausing response writing as writeBufferHighWaterMark exceeded on {} - writing will continue once client has caught up", msg);
+                    warnOnce = true;
+                }
+
+                // since the client is lagging we can hold here for a period of time for the client to catch up.
+                // this isn't blocking the IO thread - just a worker.
+                TimeUnit.MILLISECONDS.sleep(10);
+                excludedFromIteration += TimeUnit.MILLISECONDS.toNanos(10);
+            }
+
+            stopWatch.split();
+            if (stopWatch.getSplitTime() > settings.serializedResponseTimeout) {
+                final String timeoutMsg = String.format("Serialization of the entire response exceeded the serializeResponseTimeout setting %s",
+                        warnOnce ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "");
+                throw new TimeoutException(timeoutMsg.trim());
+            }
+
+            stopWatch.unsplit();
+        }
+
+        stopWatch.stop();
+        RequestPhase.ITERATION.record(Math.max(0, System.nanoTime() - iterationStart - excludedFromIteration));
+    }
+
+    /**
+     * Serializes the {@link ResponseMessage} with the serializer negotiated for the channel, producing a
+     * {@link Frame} that the response encoders can write without further processing.
+     */
+    protected static Frame makeFrame(final ChannelHandlerContext ctx, final ResponseMessage responseMessage) throws SerializationException {
+        final MessageSerializer serializer = ctx.channel().attr(StateKey.SERIALIZER).get();
+        final boolean useBinary = ctx.channel().attr(StateKey.USE_BINARY).get();
+
+        if (useBinary)
+            return new Frame(serializer.serializeResponseAsBinary(responseMessage, ctx.alloc()));
+        else {
+            // the expectation is that the GremlinTextRequestDecoder will have placed a MessageTextSerializer
+            // instance on the channel.
+            final MessageTextSerializer textSerializer = (MessageTextSerializer) serializer;
+            return new Frame(textSerializer.serializeResponseAsUtf8(responseMessage, ctx.alloc()), false);
+        }
+    }
+}
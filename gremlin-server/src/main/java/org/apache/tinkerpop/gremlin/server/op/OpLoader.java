@@ -19,37 +19,78 @@
 package org.apache.tinkerpop.gremlin.server.op;
 
 import org.apache.tinkerpop.gremlin.server.OpProcessor;
+import org.apache.tinkerpop.gremlin.server.Settings;
 import org.apache.tinkerpop.gremlin.server.op.standard.StandardOpProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
- * Uses {@code ServiceLoader} to load {@link OpProcessor} instances into a cache.
+ * Uses {@code ServiceLoader} to load {@link OpProcessor} instances into a cache.  Processors that are not registered
+ * for the {@code ServiceLoader} are only loaded when they are named in the {@link Settings#processors} given to
+ * {@link #load(Settings)}.
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 public final class OpLoader {
     private static final Logger logger = LoggerFactory.getLogger(OpLoader.class);
 
-    private static final Map<String, OpProcessor> processors = new HashMap<>();
+    private static final Map<String, OpProcessor> serviceProcessors = new HashMap<>();
+    private static volatile Map<String, OpProcessor> processors = serviceProcessors;
 
     static {
-        ServiceLoader.load(OpProcessor.class).forEach(op -> {
-            final String name = op.getName();
-            logger.info("Adding the {} OpProcessor.", name.equals(StandardOpProcessor.OP_PROCESSOR_NAME) ? "standard" : name);
-            if (processors.containsKey(name))
-                throw new RuntimeException(String.format("There is a naming conflict with the %s OpProcessor implementations.", name));
-
-            processors.put(name, op);
-        });
+        ServiceLoader.load(OpProcessor.class).forEach(op -> addProcessor(serviceProcessors, op));
+    }
+
+    /**
+     * Adds the processors named in the {@link Settings#processors} that were not found by the
+     * {@code ServiceLoader} to those that were, replacing any processors added by a previous call.
+     */
+    public static synchronized void load(final Settings settings) {
+        final Map<String, OpProcessor> loaded = new HashMap<>(serviceProcessors);
+        final Set<String> serviceClassNames = serviceProcessors.values().stream()
+                .map(op -> op.getClass().getCanonicalName()).collect(Collectors.toSet());
+        settings.processors.stream()
+                .map(p -> p.className)
+                .filter(className -> !serviceClassNames.contains(className))
+                .forEach(className -> {
+                    try {
+                        final Class<?> clazz = Class.forName(className);
+                        if (!OpProcessor.class.isAssignableFrom(clazz))
+                            throw new IllegalStateException(String.format("%s is not an OpProcessor", className));
+                        addProcessor(loaded, (OpProcessor) clazz.newInstance());
+                    } catch (ReflectiveOperationException ex) {
+                        throw new IllegalStateException(String.format("Could not load the %s OpProcessor", className), ex);
+                    }
+                });
+
+        processors = loaded;
     }
 
     public static Optional<OpProcessor> getProcessor(final String name) {
         return Optional.ofNullable(processors.get(name));
     }
+
+    /**
+     * Gets all of the loaded processors keyed by name.
+     */
+    public static Map<String, OpProcessor> getProcessors() {
+        return Collections.unmodifiableMap(processors);
+    }
+
+    private static void addProcessor(final Map<String, OpProcessor> cache, final OpProcessor op) {
+        final String name = op.getName();
+        logger.info("Adding the {} OpProcessor.", name.equals(StandardOpProcessor.OP_PROCESSOR_NAME) ? "standard" : name);
+        if (cache.containsKey(name))
+            throw new RuntimeException(String.format("There is a naming conflict with the %s OpProcessor implementations.", name));
+
+        cache.put(name, op);
+    }
 }
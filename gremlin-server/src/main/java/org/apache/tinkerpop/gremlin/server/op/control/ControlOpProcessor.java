@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 import static com.codahale.metrics.MetricRegistry.name;
 
@@ -59,9 +60,15 @@ public class ControlOpProcessor implements OpProcessor {
 
         final ThrowingConsumer<Context> op;
         switch (message.getOp()) {
+            case Tokens.OPS_CANCEL:
+                op = validateCancelMessage(message).orElse(ControlOps::cancelOp);
+                break;
             case Tokens.OPS_VERSION:
                 op = ControlOps::versionOp;
                 break;
+            case Tokens.OPS_INVALIDATE:
+                op = ControlOps::invalidateOp;
+                break;
             case Tokens.OPS_IMPORT:
                 op = validateImportMessage(message).orElse(ControlOps::importOp);
                 break;
@@ -86,6 +93,25 @@ public class ControlOpProcessor implements OpProcessor {
         return op;
     }
 
+    private static Optional<ThrowingConsumer<Context>> validateCancelMessage(final RequestMessage message) throws OpProcessorException {
+        final Optional<Object> requestId = message.optionalArgs(Tokens.ARGS_REQUEST_ID);
+        if (!requestId.isPresent()) {
+            final String msg = String.format("A message with an [%s] op code requires a [%s] argument.", Tokens.OPS_CANCEL, Tokens.ARGS_REQUEST_ID);
+            throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
+        }
+
+        if (!(requestId.get() instanceof UUID)) {
+            try {
+                UUID.fromString(requestId.get().toString());
+            } catch (IllegalArgumentException iae) {
+                final String msg = String.format("A message with an [%s] op code requires that the [%s] argument is a UUID.", Tokens.OPS_CANCEL, Tokens.ARGS_REQUEST_ID);
+                throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
+            }
+        }
+
+        return Optional.empty();
+    }
+
     private static Optional<ThrowingConsumer<Context>> validateImportMessage(final RequestMessage message) throws OpProcessorException {
         final Optional<List> l = message.optionalArgs(Tokens.ARGS_IMPORTS);
         if (!l.isPresent()) {
@@ -26,6 +26,8 @@ import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.groovy.engine.ScriptEngines;
 import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.util.CacheInvalidation;
+import org.apache.tinkerpop.gremlin.server.util.CancellableRequests;
 import org.apache.tinkerpop.gremlin.util.Gremlin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +36,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -47,6 +50,33 @@ class ControlOps {
         context.getChannelHandlerContext().writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SUCCESS).result(Gremlin.version()), ctx.voidPromise());
     }
 
+    /**
+     * Cancel a request that is being processed and was sent on the same connection.  The result is {@code true}
+     * if the request was found and {@code false} if it had already completed, was never received or was sent on
+     * another connection.
+     */
+    public static void cancelOp(final Context context) {
+        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
+        final RequestMessage msg = context.getRequestMessage();
+        final Object requestId = msg.getArgs().get(Tokens.ARGS_REQUEST_ID);
+        final UUID toCancel = requestId instanceof UUID ? (UUID) requestId : UUID.fromString(requestId.toString());
+        final boolean cancelled = CancellableRequests.INSTANCE.cancel(toCancel, ctx.channel());
+        logger.info("Request to cancel [{}] from {} - {}", toCancel, msg.getRequestId(), cancelled ? "cancelled" : "not found");
+        ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SUCCESS).result(cancelled).create(), ctx.voidPromise());
+    }
+
+    /**
+     * Tell the clients that cache results to clear their caches.  The result is the number of connections that
+     * were told.
+     */
+    public static void invalidateOp(final Context context) {
+        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
+        final RequestMessage msg = context.getRequestMessage();
+        final int notified = CacheInvalidation.INSTANCE.invalidate();
+        logger.info("Request to invalidate client caches from {} - sent to {} connections", msg.getRequestId(), notified);
+        ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SUCCESS).result(notified).create(), ctx.voidPromise());
+    }
+
     /**
      * Modify the imports on the {@code ScriptEngine}.
      */
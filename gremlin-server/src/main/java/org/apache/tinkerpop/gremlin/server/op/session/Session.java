@@ -19,21 +19,15 @@
 package org.apache.tinkerpop.gremlin.server.op.session;
 
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
-import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
 import org.apache.tinkerpop.gremlin.server.Settings;
-import org.apache.tinkerpop.gremlin.server.util.LifeCycleHook;
-import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
-import javax.script.SimpleBindings;
-import java.util.HashSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -56,37 +50,35 @@ public class Session {
     /**
      * Each session gets its own ScriptEngine so as to isolate its configuration and the classes loaded to it.
      * This is important as it enables user interfaces built on Gremlin Server to have isolation in what
-     * libraries they use and what classes exist.
+     * libraries they use and what classes exist.  By binding the session to run ScriptEngine evaluations in a
+     * specific thread, each request will respect the ThreadLocal nature of Graph implementations.  That thread is
+     * shared with other sessions.
      */
-    private final GremlinExecutor gremlinExecutor;
+    private final SessionExecutorPool.SessionExecutor sessionExecutor;
 
-    /**
-     * By binding the session to run ScriptEngine evaluations in a specific thread, each request will respect
-     * the ThreadLocal nature of Graph implementations.
-     */
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final SessionExecutorPool sessionExecutorPool;
 
     private final ConcurrentHashMap<String, Session> sessions;
 
-    public Session(final String session, final Context context, final ConcurrentHashMap<String, Session> sessions) {
+    Session(final String session, final Context context, final ConcurrentHashMap<String, Session> sessions,
+            final SessionExecutorPool sessionExecutorPool) {
         logger.info("New session established for {}", session);
         this.session = session;
-        this.bindings = new SimpleBindings();
         this.settings = context.getSettings();
         this.graphManager = context.getGraphManager();
         this.scheduledExecutorService = context.getScheduledExecutorService();
         this.sessions = sessions;
+        this.sessionExecutorPool = sessionExecutorPool;
 
-        final Settings.ProcessorSettings processorSettings = this.settings.processors.stream()
-                .filter(p -> p.className.equals(SessionOpProcessor.class.getCanonicalName()))
-                .findAny().orElse(SessionOpProcessor.DEFAULT_SETTINGS);
+        final Settings.ProcessorSettings processorSettings = SessionOpProcessor.getProcessorSettings(settings);
         this.configuredSessionTimeout = Long.parseLong(processorSettings.config.get(SessionOpProcessor.CONFIG_SESSION_TIMEOUT).toString());
 
-        this.gremlinExecutor = initializeGremlinExecutor().create();
+        this.sessionExecutor = sessionExecutorPool.acquire();
+        this.bindings = sessionExecutor.getBindings();
     }
 
     public GremlinExecutor getGremlinExecutor() {
-        return gremlinExecutor;
+        return sessionExecutor.getGremlinExecutor();
     }
 
     public Bindings getBindings() {
@@ -94,7 +86,7 @@ public class Session {
     }
 
     public ExecutorService getExecutor() {
-        return executor;
+        return sessionExecutor;
     }
 
     public void touch() {
@@ -104,49 +96,21 @@ public class Session {
         if (null == killFuture || !killFuture.isDone()) {
             if (killFuture != null) killFuture.cancel(false);
             kill.set(this.scheduledExecutorService.schedule(() -> {
-                // when the session is killed open transaction should be rolled back
-                graphManager.getGraphs().values().forEach(g -> {
-                    if (g.features().graph().supportsTransactions()) {
-                        // have to execute the rollback in the executor because the transaction is associated with
-                        // that thread of execution from this session
-                        this.executor.execute(() -> {
+                // when the session is killed open transaction should be rolled back.  have to execute the rollback
+                // in the executor because the transaction is associated with that thread of execution from this
+                // session.  the thread is only released back to the pool once that is done.
+                getExecutor().execute(() -> {
+                    graphManager.getGraphs().values().forEach(g -> {
+                        if (g.features().graph().supportsTransactions() && g.tx().isOpen()) {
                             logger.info("Rolling back any open transactions before killing idle session: {}", this.session);
-                            if (g.tx().isOpen()) g.tx().rollback();
-                        });
-                    }
+                            g.tx().rollback();
+                        }
+                    });
+                    sessionExecutorPool.release(sessionExecutor);
                 });
                 sessions.remove(this.session);
                 logger.info("Kill idle session named {} after {} milliseconds", this.session, this.configuredSessionTimeout);
             }, this.configuredSessionTimeout, TimeUnit.MILLISECONDS));
         }
     }
-
-    private GremlinExecutor.Builder initializeGremlinExecutor() {
-        final GremlinExecutor.Builder gremlinExecutorBuilder = GremlinExecutor.build()
-                .scriptEvaluationTimeout(settings.scriptEvaluationTimeout)
-                .afterTimeout(b -> {
-                    graphManager.rollbackAll();
-                    this.bindings.clear();
-                    this.bindings.putAll(b);
-                })
-                .afterSuccess(b -> {
-                    this.bindings.clear();
-                    this.bindings.putAll(b);
-                })
-                .enabledPlugins(new HashSet<>(settings.plugins))
-                .globalBindings(graphManager.getAsBindings())
-                .promoteBindings(kv -> kv.getValue() instanceof Graph
-                        || kv.getValue() instanceof TraversalSource)
-                .executorService(executor)
-                .scheduledExecutorService(scheduledExecutorService);
-
-        settings.scriptEngines.forEach((k, v) -> {
-            // make sure that server related classes are available at init - no really necessary here because
-            // lifecycle hooks are not executed per session, but there should be some consistency .... i guess
-            v.imports.add(LifeCycleHook.class.getCanonicalName());
-            gremlinExecutorBuilder.addEngineSettings(k, v.imports, v.staticImports, v.scripts, v.config);
-        });
-
-        return gremlinExecutorBuilder;
-    }
 }
@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op.session;
+
+import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
+import org.apache.tinkerpop.gremlin.server.GraphManager;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.util.LifeCycleHook;
+import org.apache.tinkerpop.gremlin.server.util.ThreadFactoryUtil;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.Bindings;
+import javax.script.SimpleBindings;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multiplexes sessions over a bounded set of threads rather than giving each session a thread of its own.  The
+ * requests of a session are executed one at a time and in the order they arrived, on whichever thread is free.
+ * As {@link Graph} transactions are bound to a thread, a session that finishes a request with a transaction left
+ * open is pinned to its thread, which is then not shared with other sessions until that transaction is committed
+ * or rolled back.  Should every thread be pinned, additional threads are started for the sessions waiting and are
+ * stopped once they are no longer pinned.
+ * <p/>
+ * Each session still gets its own {@link GremlinExecutor} so that sessions remain isolated from one another, but
+ * a number of them are prepared ahead of time in the background so that creating a session does not have to wait
+ * for a {@code ScriptEngine} to be initialized.
+ */
+class SessionExecutorPool {
+    private static final Logger logger = LoggerFactory.getLogger(SessionExecutorPool.class);
+
+    private final Settings settings;
+    private final GraphManager graphManager;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private final List<SessionThread> threads = new ArrayList<>();
+    private final Deque<SessionThread> idle = new ArrayDeque<>();
+    private final Queue<SessionExecutor> waiting = new ArrayDeque<>();
+    private final AtomicInteger overflowCounter = new AtomicInteger(0);
+
+    private final int prepared;
+    private final BlockingQueue<SessionExecutor> available = new LinkedBlockingQueue<>();
+    private final AtomicInteger preparing = new AtomicInteger(0);
+    private final ExecutorService preparer = Executors.newSingleThreadExecutor(ThreadFactoryUtil.create("session-prepare-%d"));
+
+    SessionExecutorPool(final Settings settings, final GraphManager graphManager,
+                        final ScheduledExecutorService scheduledExecutorService,
+                        final int threadCount, final int prepared) {
+        this.settings = settings;
+        this.graphManager = graphManager;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.prepared = prepared;
+
+        final int size = Math.max(1, threadCount);
+        for (int ix = 0; ix < size; ix++) {
+            final SessionThread thread = new SessionThread("session-" + ix, false);
+            threads.add(thread);
+            idle.add(thread);
+        }
+
+        logger.info("Sessions will be executed on {} threads with {} script engines prepared in advance", size, prepared);
+    }
+
+    GraphManager getGraphManager() {
+        return graphManager;
+    }
+
+    /**
+     * Gets a {@link SessionExecutor} for a new session, preferring one that was prepared in advance.
+     */
+    SessionExecutor acquire() {
+        final SessionExecutor sessionExecutor = available.poll();
+        prepare();
+        return null == sessionExecutor ? create() : sessionExecutor;
+    }
+
+    /**
+     * Releases the resources of a {@link SessionExecutor} once its session is closed.
+     */
+    void release(final SessionExecutor sessionExecutor) {
+        try {
+            sessionExecutor.gremlinExecutor.closeAsync();
+        } catch (Exception ex) {
+            logger.warn("Could not close the GremlinExecutor of a session", ex);
+        }
+    }
+
+    synchronized void close() {
+        preparer.shutdownNow();
+        threads.forEach(t -> t.executor.shutdown());
+        available.forEach(this::release);
+        available.clear();
+    }
+
+    private synchronized void prepare() {
+        while (preparing.get() + available.size() < prepared) {
+            preparing.incrementAndGet();
+            preparer.execute(() -> {
+                try {
+                    available.offer(create());
+                } catch (Exception ex) {
+                    logger.warn("Could not prepare a GremlinExecutor for a future session", ex);
+                } finally {
+                    preparing.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Finds a thread for a session that has a request to execute.  The session waits if all threads are busy.
+     */
+    private synchronized void schedule(final SessionExecutor sessionExecutor) {
+        if (sessionExecutor.pinned != null) {
+            sessionExecutor.pinned.run(sessionExecutor);
+            return;
+        }
+
+        final SessionThread thread = freeThread();
+        if (null == thread)
+            waiting.offer(sessionExecutor);
+        else
+            thread.run(sessionExecutor);
+    }
+
+    /**
+     * Gets an idle thread or, should every thread be pinned, starts an overflow thread.  Returns {@code null} if
+     * threads are busy but not pinned, as one of them will take the next waiting session once it is done.
+     */
+    private SessionThread freeThread() {
+        SessionThread thread = idle.poll();
+        if (null == thread && threads.stream().allMatch(t -> t.owner != null)) {
+            thread = new SessionThread("session-overflow-" + overflowCounter.getAndIncrement(), true);
+            threads.add(thread);
+            logger.debug("All session threads are pinned by open transactions - starting {}", thread.name);
+        }
+
+        return thread;
+    }
+
+    /**
+     * Called from the thread once a request of a session has been executed to either pin that session to the thread
+     * or hand the thread to the next session.
+     */
+    private synchronized void completed(final SessionThread thread, final SessionExecutor sessionExecutor,
+                                        final boolean transactionOpen) {
+        if (transactionOpen) {
+            thread.owner = sessionExecutor;
+            sessionExecutor.pinned = thread;
+
+            // the pinned thread cannot take the next waiting session so hand it to another
+            if (!waiting.isEmpty()) {
+                final SessionThread other = freeThread();
+                if (other != null) other.run(waiting.poll());
+            }
+            return;
+        }
+
+        if (thread.owner == sessionExecutor) {
+            thread.owner = null;
+            sessionExecutor.pinned = null;
+        }
+
+        final SessionExecutor next = waiting.poll();
+        if (next != null)
+            thread.run(next);
+        else if (thread.overflow) {
+            threads.remove(thread);
+            thread.executor.shutdown();
+        } else
+            idle.push(thread);
+    }
+
+    private boolean isTransactionOpen() {
+        return graphManager.getGraphs().values().stream()
+                .anyMatch(g -> g.features().graph().supportsTransactions() && g.tx().isOpen());
+    }
+
+    private SessionExecutor create() {
+        final Bindings bindings = new SimpleBindings();
+        final SessionExecutor sessionExecutor = new SessionExecutor(bindings);
+
+        final GremlinExecutor.Builder gremlinExecutorBuilder = GremlinExecutor.build()
+                .scriptEvaluationTimeout(settings.scriptEvaluationTimeout)
+                .afterTimeout(b -> {
+                    graphManager.rollbackAll();
+                    bindings.clear();
+                    bindings.putAll(b);
+                })
+                .afterSuccess(b -> {
+                    bindings.clear();
+                    bindings.putAll(b);
+                })
+                .enabledPlugins(new HashSet<>(settings.plugins))
+                .globalBindings(graphManager.getAsBindings())
+                .promoteBindings(kv -> kv.getValue() instanceof Graph
+                        || kv.getValue() instanceof TraversalSource)
+                .executorService(sessionExecutor)
+                .scheduledExecutorService(scheduledExecutorService);
+
+        settings.scriptEngines.forEach((k, v) -> {
+            // make sure that server related classes are available at init - no really necessary here because
+            // lifecycle hooks are not executed per session, but there should be some consistency .... i guess
+            v.imports.add(LifeCycleHook.class.getCanonicalName());
+            gremlinExecutorBuilder.addEngineSettings(k, v.imports, v.staticImports, v.scripts, v.config);
+        });
+
+        sessionExecutor.gremlinExecutor = gremlinExecutorBuilder.create();
+        return sessionExecutor;
+    }
+
+    private class SessionThread {
+        private final String name;
+        private final boolean overflow;
+        private final ExecutorService executor;
+
+        /**
+         * The session that has a transaction open on this thread.
+         */
+        private SessionExecutor owner = null;
+
+        private SessionThread(final String name, final boolean overflow) {
+            this.name = name;
+            this.overflow = overflow;
+            this.executor = Executors.newSingleThreadExecutor(ThreadFactoryUtil.create(name));
+        }
+
+        private void run(final SessionExecutor sessionExecutor) {
+            executor.execute(() -> sessionExecutor.runNext(this));
+        }
+    }
+
+    /**
+     * The {@link ExecutorService}, {@link GremlinExecutor} and {@code Bindings} that belong to a single session.
+     * Requests submitted to the {@link ExecutorService} are queued and executed one at a time.
+     */
+    class SessionExecutor extends AbstractExecutorService {
+        private final Bindings bindings;
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private GremlinExecutor gremlinExecutor;
+        private boolean running = false;
+        private volatile boolean shutdown = false;
+        private SessionThread pinned = null;
+
+        private SessionExecutor(final Bindings bindings) {
+            this.bindings = bindings;
+        }
+
+        Bindings getBindings() {
+            return bindings;
+        }
+
+        GremlinExecutor getGremlinExecutor() {
+            return gremlinExecutor;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if (shutdown) throw new RejectedExecutionException("The session has been closed");
+
+            synchronized (this) {
+                tasks.offer(command);
+                if (running) return;
+                running = true;
+            }
+
+            schedule(this);
+        }
+
+        private void runNext(final SessionThread thread) {
+            final Runnable task;
+            synchronized (this) {
+                task = tasks.poll();
+            }
+
+            try {
+                if (task != null) task.run();
+            } finally {
+                completed(thread, this, isTransactionOpen());
+            }
+
+            synchronized (this) {
+                if (tasks.isEmpty()) {
+                    running = false;
+                    return;
+                }
+            }
+
+            schedule(this);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            synchronized (this) {
+                final List<Runnable> notRun = new ArrayList<>(tasks);
+                tasks.clear();
+                return notRun;
+            }
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && !running;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                if (System.nanoTime() > deadline) return false;
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            return true;
+        }
+    }
+}
@@ -33,10 +33,12 @@ import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.script.Bindings;
+import javax.script.SimpleBindings;
+import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.codahale.metrics.MetricRegistry.name;
@@ -70,15 +72,38 @@ public class SessionOpProcessor extends AbstractEvalOpProcessor {
      */
     public static final long DEFAULT_SESSION_TIMEOUT = 28800000l;
 
+    /**
+     * Configuration setting for the number of threads that sessions share.  Defaults to the size of the
+     * {@link Settings#gremlinPool}.
+     */
+    public static final String CONFIG_SESSION_THREADS = "sessionThreads";
+
+    /**
+     * Configuration setting for the number of script engines to prepare ahead of time for new sessions.
+     */
+    public static final String CONFIG_SESSION_PREPARED_ENGINES = "sessionPreparedEngines";
+
+    /**
+     * Default number of script engines to prepare ahead of time for new sessions.
+     */
+    public static final int DEFAULT_SESSION_PREPARED_ENGINES = 2;
+
     static final Settings.ProcessorSettings DEFAULT_SETTINGS = new Settings.ProcessorSettings();
 
     static {
         DEFAULT_SETTINGS.className = SessionOpProcessor.class.getCanonicalName();
         DEFAULT_SETTINGS.config = new HashMap<String, Object>() {{
             put(CONFIG_SESSION_TIMEOUT, DEFAULT_SESSION_TIMEOUT);
+            put(CONFIG_SESSION_PREPARED_ENGINES, DEFAULT_SESSION_PREPARED_ENGINES);
         }};
     }
 
+    /**
+     * The threads and script engines for sessions are created with the first session and replaced should the
+     * server be restarted with different graphs.
+     */
+    private static SessionExecutorPool sessionExecutorPool = null;
+
     public SessionOpProcessor() {
         super(false);
     }
@@ -115,12 +140,19 @@ public class SessionOpProcessor extends AbstractEvalOpProcessor {
         context.getChannelHandlerContext().channel().attr(StateKey.SESSION).set(session);
 
         evalOpInternal(context, session::getGremlinExecutor, () -> {
-            final Bindings bindings = session.getBindings();
-
-            // parameter bindings override session bindings if present
-            Optional.ofNullable((Map<String, Object>) msg.getArgs().get(Tokens.ARGS_BINDINGS)).ifPresent(bindings::putAll);
-
-            return bindings;
+            final Optional<Map<String, Object>> parameters = Optional.ofNullable((Map<String, Object>) msg.getArgs().get(Tokens.ARGS_BINDINGS));
+
+            // the session bindings are only read when the script is evaluated so that they include the bindings
+            // of requests that were ahead of this one in the session.  parameter bindings override session
+            // bindings if present
+            return new SimpleBindings(new AbstractMap<String, Object>() {
+                @Override
+                public Set<Entry<String, Object>> entrySet() {
+                    final Map<String, Object> bindings = new HashMap<>(session.getBindings());
+                    parameters.ifPresent(bindings::putAll);
+                    return bindings.entrySet();
+                }
+            });
         });
     }
 
@@ -131,8 +163,42 @@ public class SessionOpProcessor extends AbstractEvalOpProcessor {
         logger.debug("In-session request {} for eval for session {} in thread {}",
                 msg.getRequestId(), sessionId, Thread.currentThread().getName());
 
-        final Session session = sessions.computeIfAbsent(sessionId, k -> new Session(k, context, sessions));
+        final SessionExecutorPool pool = getSessionExecutorPool(context);
+        final Session session = sessions.computeIfAbsent(sessionId, k -> new Session(k, context, sessions, pool));
         session.touch();
         return session;
     }
+
+    private static synchronized SessionExecutorPool getSessionExecutorPool(final Context context) {
+        if (null == sessionExecutorPool || sessionExecutorPool.getGraphManager() != context.getGraphManager()) {
+            if (sessionExecutorPool != null) sessionExecutorPool.close();
+
+            final Settings settings = context.getSettings();
+            final Map<String, Object> config = getProcessorSettings(settings).config;
+            final int threads = Integer.parseInt(config.getOrDefault(CONFIG_SESSION_THREADS, settings.gremlinPool).toString());
+            final int prepared = Integer.parseInt(config.getOrDefault(CONFIG_SESSION_PREPARED_ENGINES, DEFAULT_SESSION_PREPARED_ENGINES).toString());
+            sessionExecutorPool = new SessionExecutorPool(settings, context.getGraphManager(),
+                    context.getScheduledExecutorService(), threads, prepared);
+        }
+
+        return sessionExecutorPool;
+    }
+
+    /**
+     * Forgets the open sessions and stops the threads that they are executed on.
+     */
+    @Override
+    public void close() throws Exception {
+        sessions.clear();
+        synchronized (SessionOpProcessor.class) {
+            if (sessionExecutorPool != null) sessionExecutorPool.close();
+            sessionExecutorPool = null;
+        }
+    }
+
+    static Settings.ProcessorSettings getProcessorSettings(final Settings settings) {
+        return settings.processors.stream()
+                .filter(p -> p.className.equals(SessionOpProcessor.class.getCanonicalName()))
+                .findAny().orElse(DEFAULT_SETTINGS);
+    }
 }
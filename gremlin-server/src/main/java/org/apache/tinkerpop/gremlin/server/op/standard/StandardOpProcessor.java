@@ -18,33 +18,51 @@
  */
 package org.apache.tinkerpop.gremlin.server.op.standard;
 
+import com.codahale.metrics.Histogram;
 import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
 import org.apache.tinkerpop.gremlin.server.OpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.AbstractEvalOpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.apache.tinkerpop.gremlin.server.util.PreparedScripts;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
+import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
 import javax.script.SimpleBindings;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+
+import static com.codahale.metrics.MetricRegistry.name;
 
 /**
  * Simple {@link OpProcessor} implementation that handles {@code ScriptEngine} script evaluation outside the context
- * of a session.
+ * of a session.  It also handles the "batch" operation, which evaluates a number of scripts sent in a single
+ * request, each of which is answered under its own request identifier, the "prepare" operation, which compiles
+ * a script and answers with a handle that an "eval" may then send in place of the script, and the "unprepare"
+ * operation, which drops a prepared script by its handle.
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 public class StandardOpProcessor extends AbstractEvalOpProcessor {
     private static final Logger logger = LoggerFactory.getLogger(StandardOpProcessor.class);
+    private static final Histogram batchSizeHistogram = MetricManager.INSTANCE.getHistogram(name(GremlinServer.class, "op", "batch", "size"));
     public static final String OP_PROCESSOR_NAME = "";
 
     public StandardOpProcessor() {
@@ -61,6 +79,174 @@ public class StandardOpProcessor extends AbstractEvalOpProcessor {
         return this::evalOp;
     }
 
+    @Override
+    public ThrowingConsumer<Context> select(final Context ctx) throws OpProcessorException {
+        final RequestMessage message = ctx.getRequestMessage();
+        if (message.getOp().equals(Tokens.OPS_BATCH)) {
+            validateBatchMessage(message);
+            return this::batchOp;
+        } else if (message.getOp().equals(Tokens.OPS_PREPARE)) {
+            validatePrepareMessage(message);
+            return this::prepareOp;
+        } else if (message.getOp().equals(Tokens.OPS_UNPREPARE)) {
+            validateUnprepareMessage(message);
+            return this::unprepareOp;
+        }
+
+        return super.select(ctx);
+    }
+
+    private static void validateBatchMessage(final RequestMessage message) throws OpProcessorException {
+        final Optional<Object> requests = message.optionalArgs(Tokens.ARGS_REQUESTS);
+        if (!requests.isPresent() || !(requests.get() instanceof List)) {
+            final String msg = String.format("A message with an [%s] op code requires a [%s] argument that is a list.", Tokens.OPS_BATCH, Tokens.ARGS_REQUESTS);
+            throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
+        }
+
+        for (Object request : (List) requests.get()) {
+            if (!(request instanceof Map) || null == toRequestId(((Map) request).get(Tokens.ARGS_REQUEST_ID))) {
+                final String msg = String.format("Each of the [%s] in a message with an [%s] op code must be a map with a [%s] that is a UUID.", Tokens.ARGS_REQUESTS, Tokens.OPS_BATCH, Tokens.ARGS_REQUEST_ID);
+                throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
+            }
+        }
+    }
+
+    /**
+     * Writes the response to a request that failed as a whole, like one that could not be selected or was rejected
+     * as the server is busy.  The client waits on the requests in a "batch" rather than on the batch itself, so the
+     * response is written under the identifier of each request in the batch that has one.  Any other message, or a
+     * batch in which no request can be identified, is answered under its own identifier.
+     */
+    public static void writeFailure(final ChannelHandlerContext ctx, final RequestMessage message, final ResponseMessage response) {
+        final List<UUID> requestIds = new ArrayList<>();
+        final Optional<Object> requests = message.optionalArgs(Tokens.ARGS_REQUESTS);
+        if (message.getOp().equals(Tokens.OPS_BATCH) && requests.isPresent() && requests.get() instanceof List) {
+            for (Object request : (List) requests.get()) {
+                final UUID requestId = request instanceof Map ? toRequestId(((Map) request).get(Tokens.ARGS_REQUEST_ID)) : null;
+                if (requestId != null) requestIds.add(requestId);
+            }
+        }
+
+        if (requestIds.isEmpty()) {
+            ctx.writeAndFlush(response);
+            return;
+        }
+
+        for (UUID requestId : requestIds) {
+            ctx.write(ResponseMessage.build(requestId)
+                    .code(response.getStatus().getCode())
+                    .statusMessage(response.getStatus().getMessage())
+                    .statusAttributes(response.getStatus().getAttributes())
+                    .result(response.getResult().getData())
+                    .responseMetaData(response.getResult().getMeta()).create());
+        }
+        ctx.flush();
+    }
+
+    private static void validatePrepareMessage(final RequestMessage message) throws OpProcessorException {
+        final Optional<Object> script = message.optionalArgs(Tokens.ARGS_GREMLIN);
+        if (!script.isPresent() || !(script.get() instanceof String)) {
+            final String msg = String.format("A message with an [%s] op code requires a [%s] argument.", Tokens.OPS_PREPARE, Tokens.ARGS_GREMLIN);
+            throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
+        }
+
+        if (!PreparedScripts.INSTANCE.canPrepare()) {
+            final String msg = "The script cannot be prepared as the preparation of scripts is disabled.";
+            throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.SERVER_ERROR).statusMessage(msg).create());
+        }
+    }
+
+    private static void validateUnprepareMessage(final RequestMessage message) throws OpProcessorException {
+        if (!message.optionalArgs(Tokens.ARGS_SCRIPT_HANDLE).isPresent()) {
+            final String msg = String.format("A message with an [%s] op code requires a [%s] argument.", Tokens.OPS_UNPREPARE, Tokens.ARGS_SCRIPT_HANDLE);
+            throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
+        }
+    }
+
+    private static UUID toRequestId(final Object requestId) {
+        if (null == requestId || requestId instanceof UUID) return (UUID) requestId;
+
+        // serializers without a UUID type send the identifier as a string
+        try {
+            return UUID.fromString(requestId.toString());
+        } catch (IllegalArgumentException iae) {
+            return null;
+        }
+    }
+
+    /**
+     * Schedules the evaluation of each request in the batch as if it had been sent as its own "eval" request, so
+     * results and errors are written back under the identifier of each individual request.
+     */
+    private void batchOp(final Context context) {
+        final RequestMessage msg = context.getRequestMessage();
+        final List<Map<String, Object>> requests = (List<Map<String, Object>>) msg.getArgs().get(Tokens.ARGS_REQUESTS);
+
+        logger.debug("Sessionless request {} for batch of {} evals in thread {}", msg.getRequestId(), requests.size(), Thread.currentThread().getName());
+        batchSizeHistogram.update(requests.size());
+
+        for (Map<String, Object> request : requests) {
+            final Map<String, Object> args = new HashMap<>(request);
+            final RequestMessage.Builder builder = RequestMessage.build(Tokens.OPS_EVAL).processor(msg.getProcessor())
+                    .overrideRequestId(toRequestId(args.remove(Tokens.ARGS_REQUEST_ID)));
+            args.forEach(builder::addArg);
+
+            final RequestMessage evalMessage = builder.create();
+            final Context evalContext = new Context(evalMessage, context.getChannelHandlerContext(), context.getSettings(),
+                    context.getGraphManager(), context.getGremlinExecutor(), context.getScheduledExecutorService());
+            try {
+                validateEvalMessage(evalMessage);
+                evalOp(evalContext);
+            } catch (OpProcessorException ope) {
+                // a bad request fails on its own and does not stop the rest of the batch
+                logger.warn(ope.getMessage(), ope);
+                context.getChannelHandlerContext().writeAndFlush(ope.getResponseMessage());
+            }
+        }
+    }
+
+    /**
+     * Compiles the script in the gremlin pool, as compilation can take some time, and answers with the handle by
+     * which it may then be evaluated.
+     */
+    private void prepareOp(final Context context) {
+        final RequestMessage msg = context.getRequestMessage();
+        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
+        final GremlinExecutor gremlinExecutor = context.getGremlinExecutor();
+        final String script = (String) msg.getArgs().get(Tokens.ARGS_GREMLIN);
+        final String language = (String) msg.getArgs().get(Tokens.ARGS_LANGUAGE);
+
+        logger.debug("Sessionless request {} for prepare in thread {}", msg.getRequestId(), Thread.currentThread().getName());
+
+        gremlinExecutor.getExecutorService().submit(() -> {
+            try {
+                final Optional<CompiledScript> compiledScript = gremlinExecutor.compile(script, Optional.ofNullable(language));
+                final String handle = PreparedScripts.INSTANCE.prepare(script, language, compiledScript);
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SUCCESS).result(handle).create());
+            } catch (ScriptException se) {
+                logger.warn(String.format("Could not compile the script to prepare on request [%s].", msg), se);
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_SCRIPT_EVALUATION).statusMessage(se.getMessage()).create());
+            } catch (Exception ex) {
+                logger.warn(String.format("Could not prepare the script on request [%s].", msg), ex);
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR).statusMessage(ex.getMessage()).create());
+            }
+        });
+    }
+
+    /**
+     * Drops the prepared script so that its class may be evicted from the cache of the {@code ScriptEngine}.  A
+     * handle that is not prepared is ignored as the script may already have been evicted.
+     */
+    private void unprepareOp(final Context context) {
+        final RequestMessage msg = context.getRequestMessage();
+        final String handle = msg.getArgs().get(Tokens.ARGS_SCRIPT_HANDLE).toString();
+
+        logger.debug("Sessionless request {} for unprepare of {}", msg.getRequestId(), handle);
+
+        PreparedScripts.INSTANCE.unprepare(handle);
+        context.getChannelHandlerContext().writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.NO_CONTENT).create());
+    }
+
     private void evalOp(final Context context) throws OpProcessorException {
         final RequestMessage msg = context.getRequestMessage();
 
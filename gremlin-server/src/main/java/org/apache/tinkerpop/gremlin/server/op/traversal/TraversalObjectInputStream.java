@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalScriptFunction;
+import org.apache.tinkerpop.gremlin.util.function.ScriptEngineLambda;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An {@code ObjectInputStream} that checks each class named in the stream before it is resolved so that a
+ * serialized {@link org.apache.tinkerpop.gremlin.process.traversal.Traversal} sent by a client can only instantiate
+ * steps, predicates, tokens and the basic Java types they hold.  Anything else, including lambdas and the classes
+ * that evaluate scripts, is rejected with an {@code InvalidClassException} before it is loaded.
+ */
+final class TraversalObjectInputStream extends ObjectInputStream {
+
+    /**
+     * Packages whose classes may be deserialized.
+     */
+    private static final List<String> ALLOWED_PACKAGES = Arrays.asList(
+            "org.apache.tinkerpop.gremlin.process.traversal.",
+            "org.apache.tinkerpop.gremlin.structure.",
+            "org.apache.tinkerpop.gremlin.util.function.",
+            "org.apache.tinkerpop.gremlin.util.iterator.");
+
+    /**
+     * Classes from the {@link #ALLOWED_PACKAGES} that may not be deserialized because they evaluate scripts.
+     */
+    private static final Set<String> DENIED_CLASSES = new HashSet<>(Arrays.asList(
+            ScriptEngineLambda.class.getName(),
+            TraversalScriptFunction.class.getName()));
+
+    /**
+     * Individual classes outside of the {@link #ALLOWED_PACKAGES} that may be deserialized.
+     */
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+            Boolean.class.getName(), Byte.class.getName(), Character.class.getName(), Short.class.getName(),
+            Integer.class.getName(), Long.class.getName(), Float.class.getName(), Double.class.getName(),
+            Number.class.getName(), String.class.getName(), Enum.class.getName(), Object.class.getName(),
+            java.math.BigDecimal.class.getName(), java.math.BigInteger.class.getName(),
+            java.util.ArrayList.class.getName(), java.util.LinkedList.class.getName(),
+            java.util.HashMap.class.getName(), java.util.LinkedHashMap.class.getName(),
+            java.util.TreeMap.class.getName(), java.util.HashSet.class.getName(),
+            java.util.LinkedHashSet.class.getName(), java.util.TreeSet.class.getName(),
+            java.util.UUID.class.getName(), java.util.Date.class.getName(),
+            "java.util.Arrays$ArrayList", "java.util.Collections$EmptyList", "java.util.Collections$EmptyMap",
+            "java.util.Collections$EmptySet", "java.util.Collections$SingletonList",
+            "java.util.Collections$SingletonMap", "java.util.Collections$SingletonSet",
+            "java.util.Collections$UnmodifiableCollection", "java.util.Collections$UnmodifiableList",
+            "java.util.Collections$UnmodifiableRandomAccessList", "java.util.Collections$UnmodifiableSet",
+            "java.util.Collections$UnmodifiableMap"));
+
+    private final Set<String> additionalClasses;
+
+    /**
+     * @param in the stream holding the serialized traversal
+     * @param additionalClasses class names, or package prefixes ending with a ".", to allow in addition to the
+     *                          defaults, such as the strategies or predicates of a particular graph
+     */
+    TraversalObjectInputStream(final InputStream in, final Set<String> additionalClasses) throws IOException {
+        super(in);
+        this.additionalClasses = Collections.unmodifiableSet(new HashSet<>(additionalClasses));
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        if (!isAllowed(desc.getName()))
+            throw new InvalidClassException(desc.getName(), "Class is not allowed in a serialized traversal");
+        return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException, ClassNotFoundException {
+        throw new InvalidClassException(Arrays.toString(interfaces), "Proxy classes are not allowed in a serialized traversal");
+    }
+
+    boolean isAllowed(final String name) {
+        // arrays are named like "[[Ljava.lang.String;" or "[I" and are allowed if their component type is
+        final String componentName = name.replaceFirst("^\\[+", "");
+        if (componentName.length() != name.length()) {
+            if (componentName.length() == 1) return true;
+            return componentName.startsWith("L") && componentName.endsWith(";")
+                    && isAllowed(componentName.substring(1, componentName.length() - 1));
+        }
+
+        if (DENIED_CLASSES.contains(name)) return false;
+        if (ALLOWED_CLASSES.contains(name) || additionalClasses.contains(name)) return true;
+        return ALLOWED_PACKAGES.stream().anyMatch(name::startsWith)
+                || additionalClasses.stream().anyMatch(c -> c.endsWith(".") && name.startsWith(c));
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op.traversal;
+
+import com.codahale.metrics.Timer;
+import io.netty.channel.ChannelHandlerContext;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CancellationToken;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.GraphManager;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.OpProcessor;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.op.AbstractOpProcessor;
+import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
+import org.apache.tinkerpop.gremlin.server.util.CancellableRequests;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * An {@link OpProcessor} that executes a serialized {@link Traversal} against a {@link Graph} or
+ * {@link TraversalSource} held by the {@link GraphManager}.  The traversal is iterated directly, which avoids the
+ * compilation and caching overhead of the {@code ScriptEngine} for requests that are expressed purely as a
+ * traversal.  Transactions are managed in the same way as they are for the {@code StandardOpProcessor}.
+ * <p/>
+ * Only steps, predicates, tokens and basic Java types may be deserialized from the request, so a traversal that
+ * holds a lambda is rejected.  Other classes can be allowed with the {@link #CONFIG_ALLOWED_CLASSES} setting.
+ */
+public class TraversalOpProcessor extends AbstractOpProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(TraversalOpProcessor.class);
+    private static final Timer traversalOpTimer = MetricManager.INSTANCE.getTimer(name(GremlinServer.class, "op", "traversal"));
+    public static final String OP_PROCESSOR_NAME = "traversal";
+
+    /**
+     * Configuration setting for a list of class names, or package prefixes ending with a ".", that may be
+     * deserialized from a traversal in addition to the steps, tokens and basic types that are always allowed.
+     */
+    public static final String CONFIG_ALLOWED_CLASSES = "allowedClasses";
+
+    public TraversalOpProcessor() {
+        super(true);
+    }
+
+    @Override
+    public String getName() {
+        return OP_PROCESSOR_NAME;
+    }
+
+    @Override
+    public ThrowingConsumer<Context> select(final Context ctx) throws OpProcessorException {
+        final RequestMessage message = ctx.getRequestMessage();
+        logger.debug("Selecting processor for RequestMessage {}", message);
+
+        final ThrowingConsumer<Context> op;
+        switch (message.getOp()) {
+            case Tokens.OPS_TRAVERSE:
+                op = validateTraversalMessage(message).orElse(this::traverseOp);
+                break;
+            case Tokens.OPS_INVALID:
+                final String msgInvalid = String.format("Message could not be parsed.  Check the format of the request. [%s]", message);
+                throw new OpProcessorException(msgInvalid, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_MALFORMED_REQUEST).result(msgInvalid).create());
+            default:
+                final String msgDefault = String.format("Message with op code [%s] is not recognized.", message.getOp());
+                throw new OpProcessorException(msgDefault, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_MALFORMED_REQUEST).result(msgDefault).create());
+        }
+
+        return op;
+    }
+
+    private static Optional<ThrowingConsumer<Context>> validateTraversalMessage(final RequestMessage message) throws OpProcessorException {
+        if (!message.optionalArgs(Tokens.ARGS_GREMLIN).isPresent()) {
+            final String msg = String.format("A message with an [%s] op code requires a [%s] argument.", Tokens.OPS_TRAVERSE, Tokens.ARGS_GREMLIN);
+            throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
+        }
+
+        if (!message.optionalArgs(Tokens.ARGS_TRAVERSAL_SOURCE).isPresent()) {
+            final String msg = String.format("A message with an [%s] op code requires a [%s] argument.", Tokens.OPS_TRAVERSE, Tokens.ARGS_TRAVERSAL_SOURCE);
+            throw new OpProcessorException(msg, ResponseMessage.build(message).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(msg).create());
+        }
+
+        return Optional.empty();
+    }
+
+    private void traverseOp(final Context context) throws OpProcessorException {
+        final Timer.Context timerContext = traversalOpTimer.time();
+        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
+        final RequestMessage msg = context.getRequestMessage();
+        final GraphManager graphManager = context.getGraphManager();
+
+        final Traversal.Admin<?, ?> traversal = attachTraversal(msg, graphManager, getAllowedClasses(context.getSettings()));
+
+        logger.debug("Sessionless request {} for traversal in thread {}", msg.getRequestId(), Thread.currentThread().getName());
+
+        final CancellationToken cancellationToken = CancellableRequests.INSTANCE.register(msg.getRequestId(), ctx.channel());
+        final AtomicBoolean timedOut = new AtomicBoolean(false);
+        final Future<?> traversalFuture = context.getGremlinExecutor().getExecutorService().submit(() -> {
+            CancellationToken.bind(cancellationToken);
+            try {
+                // a request that was cancelled while it waited to execute is not started at all
+                CancellationToken.checkCancelled();
+
+                // same as with a script - start each request with a fresh transaction
+                graphManager.rollbackAll();
+                handleIterator(context, traversal);
+            } catch (TraversalInterruptedException ex) {
+                final boolean wasTimeout = timedOut.get();
+                final String errorMessage = wasTimeout ?
+                        String.format("Traversal evaluation exceeded the configured threshold for request [%s]", msg) :
+                        String.format("Request [%s] was cancelled during iteration of its traversal", msg.getRequestId());
+                logger.warn(errorMessage);
+                graphManager.rollbackAll();
+                ctx.writeAndFlush(ResponseMessage.build(msg)
+                        .code(wasTimeout ? ResponseStatusCode.SERVER_ERROR_TIMEOUT : ResponseStatusCode.SERVER_ERROR_CANCELLED)
+                        .statusMessage(errorMessage).create());
+            } catch (TimeoutException ex) {
+                final String errorMessage = String.format("Response iteration exceeded the configured threshold for request [%s] - %s", msg, ex.getMessage());
+                logger.warn(errorMessage);
+                graphManager.rollbackAll();
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_TIMEOUT).statusMessage(errorMessage).create());
+            } catch (InterruptedException ex) {
+                final String errorMessage = String.format("Traversal evaluation exceeded the configured threshold for request [%s]", msg);
+                logger.warn(errorMessage);
+                graphManager.rollbackAll();
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_TIMEOUT).statusMessage(errorMessage).create());
+            } catch (Exception ex) {
+                logger.warn(String.format("Exception processing a traversal on request [%s].", msg), ex);
+                graphManager.rollbackAll();
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR).statusMessage(ex.getMessage()).create());
+            } finally {
+                CancellationToken.unbind();
+                CancellableRequests.INSTANCE.unregister(msg.getRequestId());
+                timerContext.stop();
+            }
+        });
+
+        // the traversal is cancelled and interrupted if it runs past the timeout which the steps of the traversal
+        // or handleIterator will notice and bail out
+        final long timeout = context.getSettings().scriptEvaluationTimeout;
+        if (timeout > 0)
+            context.getScheduledExecutorService().schedule(() -> {
+                if (!traversalFuture.isDone()) {
+                    timedOut.set(true);
+                    cancellationToken.cancel();
+                    traversalFuture.cancel(true);
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deserializes the {@link Traversal} from the request and attaches it to the {@link Graph} referenced by the
+     * {@link Tokens#ARGS_TRAVERSAL_SOURCE} argument along with the strategies of that graph or traversal source.
+     * Only the classes allowed by {@link TraversalObjectInputStream} are deserialized.
+     */
+    private static Traversal.Admin<?, ?> attachTraversal(final RequestMessage msg, final GraphManager graphManager,
+                                                         final Set<String> allowedClasses) throws OpProcessorException {
+        final String graphOrTraversalSource = (String) msg.getArgs().get(Tokens.ARGS_TRAVERSAL_SOURCE);
+        final Graph graph;
+        final TraversalStrategies strategies;
+        if (graphManager.getTraversalSources().containsKey(graphOrTraversalSource)) {
+            final TraversalSource traversalSource = graphManager.getTraversalSources().get(graphOrTraversalSource);
+            if (traversalSource.getGraphComputer().isPresent() || !traversalSource.getGraph().isPresent()) {
+                final String error = String.format("The [%s] TraversalSource must use a standard engine with a Graph to process a traversal", graphOrTraversalSource);
+                throw new OpProcessorException(error, ResponseMessage.build(msg).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(error).create());
+            }
+
+            graph = traversalSource.getGraph().get();
+            final List<TraversalStrategy> sourceStrategies = traversalSource.getStrategies();
+            strategies = TraversalStrategies.GlobalCache.getStrategies(graph.getClass()).clone()
+                    .addStrategies(sourceStrategies.toArray(new TraversalStrategy[sourceStrategies.size()]));
+        } else if (graphManager.getGraphs().containsKey(graphOrTraversalSource)) {
+            graph = graphManager.getGraphs().get(graphOrTraversalSource);
+            strategies = TraversalStrategies.GlobalCache.getStrategies(graph.getClass());
+        } else {
+            final String error = String.format("Could not process traversal as [%s] is not in the Graph or TraversalSource global bindings", graphOrTraversalSource);
+            throw new OpProcessorException(error, ResponseMessage.build(msg).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(error).create());
+        }
+
+        final Traversal.Admin<?, ?> traversal;
+        try {
+            // gryo delivers the bytes as they were sent but graphson will have encoded them as base64
+            final Object serialized = msg.getArgs().get(Tokens.ARGS_GREMLIN);
+            final byte[] bytes = serialized instanceof String ? Base64.getDecoder().decode((String) serialized) : (byte[]) serialized;
+            try (final ObjectInputStream in = new TraversalObjectInputStream(new ByteArrayInputStream(bytes), allowedClasses)) {
+                traversal = ((Traversal) in.readObject()).asAdmin();
+            }
+        } catch (Exception ex) {
+            final String error = String.format("The [%s] argument could not be deserialized to a Traversal - %s", Tokens.ARGS_GREMLIN, ex.getMessage());
+            throw new OpProcessorException(error, ResponseMessage.build(msg).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(error).create());
+        }
+
+        if (traversal.isLocked()) {
+            final String error = "The traversal has already had its strategies applied and cannot be processed";
+            throw new OpProcessorException(error, ResponseMessage.build(msg).code(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS).result(error).create());
+        }
+
+        traversal.setGraph(graph);
+        traversal.setStrategies(strategies);
+
+        // the supplier of the start elements does not survive serialization so it has to be recreated against
+        // the graph that the traversal was attached to
+        for (final GraphStep graphStep : TraversalHelper.getStepsOfAssignableClassRecursively(GraphStep.class, traversal)) {
+            graphStep.setIteratorSupplier(() -> graphStep.returnsVertex() ?
+                    graph.vertices(graphStep.getIds()) : graph.edges(graphStep.getIds()));
+        }
+
+        return traversal;
+    }
+
+    private static Set<String> getAllowedClasses(final Settings settings) {
+        return settings.processors.stream()
+                .filter(p -> p.className.equals(TraversalOpProcessor.class.getCanonicalName()))
+                .filter(p -> p.config != null && p.config.containsKey(CONFIG_ALLOWED_CLASSES))
+                .flatMap(p -> ((List<Object>) p.config.get(CONFIG_ALLOWED_CLASSES)).stream())
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import io.netty.channel.ChannelHandlerContext;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.op.control.ControlOpProcessor;
+import org.apache.tinkerpop.gremlin.server.op.session.SessionOpProcessor;
+import org.apache.tinkerpop.gremlin.server.op.standard.StandardOpProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Places requests in bounded, prioritized queues and only releases them for execution when the Gremlin thread pool
+ * has capacity to run them.  Requests are rejected with {@link ResponseStatusCode#SERVER_ERROR_BUSY} when their
+ * queue is full or when they wait longer than {@link Settings.AdmissionControlSettings#maxQueueWait}, so that an
+ * overloaded server sheds load quickly rather than timing out requests that have been waiting in the pool's
+ * unbounded queue.
+ * <p/>
+ * The capacity of the thread pool is tracked through the {@link ExecutorService} returned from
+ * {@link #wrap(ExecutorService)}, which must be the one that evaluations are submitted to.
+ */
+public class AdmissionController {
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    private final Settings.AdmissionControlSettings settings;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final int capacity;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+
+    /**
+     * Queues in the order they were configured, which is the order in which they are matched to requests.
+     */
+    private final List<AdmissionQueue> queues;
+
+    /**
+     * Queues in the order in which requests are released for execution.
+     */
+    private final List<AdmissionQueue> queuesByPriority;
+
+    public AdmissionController(final Settings settings, final ScheduledExecutorService scheduledExecutorService) {
+        this.settings = settings.admissionControl;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.capacity = settings.gremlinPool;
+        this.queues = this.settings.queues.stream().map(AdmissionQueue::new).collect(Collectors.toList());
+        this.queuesByPriority = this.queues.stream()
+                .sorted(Comparator.comparingInt((AdmissionQueue q) -> q.queueSettings.priority).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Wraps the {@link ExecutorService} of the Gremlin thread pool so that the number of tasks submitted to it
+     * can be tracked and queued requests released as those tasks complete.
+     */
+    public ExecutorService wrap(final ExecutorService executorService) {
+        return new AdmittedExecutorService(executorService);
+    }
+
+    /**
+     * Offers a request for admission.  If the request matches one of the queues then it will either be placed in
+     * that queue (and the {@code task} run when capacity allows) or rejected.  Either way the request is handled
+     * and {@code true} is returned.  If the request does not match a queue {@code false} is returned and the
+     * caller should run the {@code task} itself.
+     */
+    public boolean offer(final RequestMessage msg, final ChannelHandlerContext ctx, final Runnable task) {
+        final Optional<AdmissionQueue> queue = select(msg);
+        if (!queue.isPresent()) return false;
+
+        final AdmissionQueue q = queue.get();
+        if (q.size.incrementAndGet() > q.queueSettings.maxSize) {
+            q.size.decrementAndGet();
+            reject(q, msg, ctx, String.format("Gremlin Server is busy - the [%s] queue is full", q.queueSettings.name));
+            return true;
+        }
+
+        final Admission admission = new Admission(task);
+        if (settings.maxQueueWait > 0) {
+            admission.expiry = scheduledExecutorService.schedule(() -> {
+                if (admission.claim()) {
+                    q.size.decrementAndGet();
+                    reject(q, msg, ctx, String.format("Gremlin Server is busy - request waited more than %s ms in the [%s] queue",
+                            settings.maxQueueWait, q.queueSettings.name));
+                }
+            }, settings.maxQueueWait, TimeUnit.MILLISECONDS);
+        }
+
+        q.requests.offer(admission);
+        dispatch();
+        return true;
+    }
+
+    private Optional<AdmissionQueue> select(final RequestMessage msg) {
+        // control operations are cheap and sessions have their own threads so neither are queued
+        final String processor = msg.getProcessor();
+        if (processor.equals(ControlOpProcessor.OP_PROCESSOR_NAME) || processor.equals(SessionOpProcessor.OP_PROCESSOR_NAME))
+            return Optional.empty();
+
+        return queues.stream().filter(q -> q.matches(msg)).findFirst();
+    }
+
+    private void reject(final AdmissionQueue queue, final RequestMessage msg, final ChannelHandlerContext ctx, final String message) {
+        queue.rejected.mark();
+        logger.warn("{} - rejecting {}", message, msg);
+        StandardOpProcessor.writeFailure(ctx, msg, ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_BUSY).statusMessage(message).create());
+    }
+
+    /**
+     * Releases queued requests, highest priority first, for as long as the Gremlin thread pool has capacity.  Only
+     * one thread dispatches at a time and others simply leave the work to it, so that the calling event loop is
+     * never blocked.  Anything offered or released while dispatching is picked up by the re-check at the end.
+     */
+    private void dispatch() {
+        while (dispatching.compareAndSet(false, true)) {
+            try {
+                while (inFlight.get() < capacity) {
+                    final Optional<Admission> next = next();
+                    if (!next.isPresent()) break;
+
+                    final Admission admission = next.get();
+                    if (admission.expiry != null) admission.expiry.cancel(false);
+
+                    // the task will typically submit its evaluation to the pool before it returns, which
+                    // increments the number of tasks in flight
+                    admission.task.run();
+                }
+            } finally {
+                dispatching.set(false);
+            }
+
+            if (inFlight.get() >= capacity || queues.stream().allMatch(q -> q.size.get() == 0)) return;
+        }
+    }
+
+    private Optional<Admission> next() {
+        for (AdmissionQueue queue : queuesByPriority) {
+            Admission admission;
+            while ((admission = queue.requests.poll()) != null) {
+                // requests that have already expired are skipped as they have been rejected
+                if (admission.claim()) {
+                    queue.size.decrementAndGet();
+                    queue.waitTimer.update(System.nanoTime() - admission.queued, TimeUnit.NANOSECONDS);
+                    return Optional.of(admission);
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static class Admission {
+        private final Runnable task;
+        private final long queued = System.nanoTime();
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private volatile ScheduledFuture<?> expiry = null;
+
+        private Admission(final Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * An admission is either released for execution or expired, so whichever comes first claims it.
+         */
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private static class AdmissionQueue {
+        private final Settings.QueueSettings queueSettings;
+        private final Queue<Admission> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger(0);
+        private final Timer waitTimer;
+        private final Meter rejected;
+
+        private AdmissionQueue(final Settings.QueueSettings queueSettings) {
+            this.queueSettings = queueSettings;
+            this.waitTimer = MetricManager.INSTANCE.getTimer(name(GremlinServer.class, "admission", queueSettings.name, "wait"));
+            this.rejected = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "admission", queueSettings.name, "rejected"));
+
+            // the server may be started more than once in the same jvm so replace any gauge that is already there
+            final String depthName = name(GremlinServer.class, "admission", queueSettings.name, "depth");
+            MetricManager.INSTANCE.getRegistry().remove(depthName);
+            MetricManager.INSTANCE.getGuage(size::get, depthName);
+        }
+
+        private boolean matches(final RequestMessage msg) {
+            if (queueSettings.processor != null && !queueSettings.processor.equals(msg.getProcessor())) return false;
+            if (queueSettings.op != null && !queueSettings.op.equals(msg.getOp())) return false;
+            return null == queueSettings.graph || referencesGraph(msg);
+        }
+
+        private boolean referencesGraph(final RequestMessage msg) {
+            final Optional<String> traversalSource = msg.optionalArgs(Tokens.ARGS_TRAVERSAL_SOURCE);
+            if (traversalSource.isPresent() && traversalSource.get().equals(queueSettings.graph)) return true;
+
+            final Optional<Map<String, String>> rebindings = msg.optionalArgs(Tokens.ARGS_REBINDINGS);
+            return rebindings.isPresent() && rebindings.get().containsValue(queueSettings.graph);
+        }
+    }
+
+    /**
+     * Counts the tasks submitted to the Gremlin thread pool and releases queued requests as they complete.
+     */
+    private class AdmittedExecutorService extends DelegatingExecutorService {
+
+        private AdmittedExecutorService(final ExecutorService executorService) {
+            super(executorService);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            inFlight.incrementAndGet();
+            try {
+                executorService.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        inFlight.decrementAndGet();
+                        dispatch();
+                    }
+                });
+            } catch (RuntimeException re) {
+                inFlight.decrementAndGet();
+                throw re;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.netty.channel.Channel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps track of the channels of clients that cache the results of their requests, so that they can be told to
+ * clear their caches when the data they cached may have changed.  A channel is tracked once it sends a request with
+ * the {@link Tokens#ARGS_CACHE} argument and until it closes.  As only the application knows when its data changes,
+ * an invalidation is made with the "invalidate" operation of the "control" {@code OpProcessor} or by calling
+ * {@link #invalidate()} from code running in Gremlin Server, such as a {@code LifeCycleHook} or a listener on the
+ * graph.
+ */
+public enum CacheInvalidation {
+    INSTANCE;
+
+    private static final Meter invalidationMeter = MetricManager.INSTANCE.getMeter(MetricRegistry.name(GremlinServer.class, "cache", "invalidations"));
+
+    private final ChannelGroup channels = new DefaultChannelGroup("cache-invalidation", GlobalEventExecutor.INSTANCE);
+
+    /**
+     * Tracks the channel so that it is sent invalidations.  Closed channels are removed automatically.
+     */
+    public void subscribe(final Channel channel) {
+        channels.add(channel);
+    }
+
+    /**
+     * Pushes an invalidation to every tracked channel.  The invalidation is a {@link ResponseMessage} with a
+     * request identifier of its own and the {@link Tokens#STATUS_ATTRIBUTE_INVALIDATE} status attribute.
+     *
+     * @return the number of channels that were sent the invalidation
+     */
+    public int invalidate() {
+        invalidationMeter.mark();
+
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(Tokens.STATUS_ATTRIBUTE_INVALIDATE, true);
+        final ResponseMessage invalidation = ResponseMessage.build(UUID.randomUUID())
+                .code(ResponseStatusCode.NO_CONTENT)
+                .statusAttributes(attributes).create();
+
+        final int notified = channels.size();
+        channels.writeAndFlush(invalidation);
+        return notified;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CancellationToken;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link CancellationToken} of each request that is being processed so that the request can be cancelled
+ * by its identifier from the connection that sent it.  The token of a request is also cancelled if the channel that the request arrived on closes
+ * before the request is complete, so that the traversals of a client that went away stop consuming resources.
+ */
+public enum CancellableRequests {
+    INSTANCE;
+
+    private static final Meter cancelledMeter = MetricManager.INSTANCE.getMeter(MetricRegistry.name(GremlinServer.class, "cancelled"));
+
+    private final Map<UUID, Registration> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a token for a request that is about to be processed.  The request must be unregistered once
+     * processing completes.
+     */
+    public CancellationToken register(final UUID requestId, final Channel channel) {
+        final Registration registration = new Registration(channel);
+        registrations.put(requestId, registration);
+        channel.closeFuture().addListener(registration.onClose);
+        return registration.token;
+    }
+
+    public void unregister(final UUID requestId) {
+        final Registration registration = registrations.remove(requestId);
+        if (registration != null) registration.channel.closeFuture().removeListener(registration.onClose);
+    }
+
+    /**
+     * Cancels the request with the specified identifier if it arrived on the channel that asks for it to be
+     * cancelled, so that a client cannot cancel the requests of another.
+     *
+     * @return {@code true} if the request was being processed for that channel and {@code false} otherwise
+     */
+    public boolean cancel(final UUID requestId, final Channel requester) {
+        final Registration registration = registrations.get(requestId);
+        if (null == registration || registration.channel != requester) return false;
+
+        registration.cancel();
+        return true;
+    }
+
+    private static final class Registration {
+        private final Channel channel;
+        private final CancellationToken token = new CancellationToken();
+        private final ChannelFutureListener onClose = future -> cancel();
+
+        private Registration(final Channel channel) {
+            this.channel = channel;
+        }
+
+        private void cancel() {
+            if (!token.isCancelled()) cancelledMeter.mark();
+            token.cancel();
+        }
+    }
+}
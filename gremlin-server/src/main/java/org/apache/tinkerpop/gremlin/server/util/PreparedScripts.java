@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the scripts prepared with the "prepare" op so that they can be evaluated by their handle.  The handle of a
+ * script is derived from its language and text, so the same script prepared on any server gets the same handle.
+ * The class of each prepared script is pinned in the cache of the {@code ScriptEngine} until it is unprepared.
+ * Evaluating a prepared script also passes the very same script {@code String} to the {@code ScriptEngine}, so
+ * looking it up in that cache need not hash or compare its text.
+ * No more than {@link Settings#maxPreparedScripts} are held, beyond which the least recently used script is
+ * unprepared, and their number is published as a gauge named
+ * {@code org.apache.tinkerpop.gremlin.server.GremlinServer.prepared-scripts} through the {@link MetricManager}.
+ */
+public enum PreparedScripts {
+    INSTANCE;
+
+    private static final Logger logger = LoggerFactory.getLogger(PreparedScripts.class);
+    private static final String GAUGE_NAME = MetricRegistry.name(GremlinServer.class, "prepared-scripts");
+    private static final String DEFAULT_LANGUAGE = "gremlin-groovy";
+
+    private final Map<String, PreparedScript> prepared = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong(0);
+    private volatile int max = 0;
+
+    /**
+     * Sets the number of scripts that may be prepared, unpreparing those prepared so far.  A maximum of zero
+     * disables the preparation of scripts.
+     */
+    public synchronized void configure(final int max) {
+        this.max = Math.max(0, max);
+        prepared.values().forEach(PreparedScript::release);
+        prepared.clear();
+
+        // the gauge can only be registered once per name so replace anything left over from a previous server
+        MetricManager.INSTANCE.getRegistry().remove(GAUGE_NAME);
+        MetricManager.INSTANCE.getGuage((Gauge<Integer>) prepared::size, GAUGE_NAME);
+    }
+
+    /**
+     * Gets the handle of a script which is the same for the same script and language.
+     *
+     * @param language the language of the script where {@code null} is the default of "gremlin-groovy"
+     */
+    public static String handleOf(final String script, final String language) {
+        final String key = Optional.ofNullable(language).orElse(DEFAULT_LANGUAGE) + ":" + script;
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Determines if scripts may be prepared, which is the case unless the maximum number of prepared scripts is
+     * zero.
+     */
+    public boolean canPrepare() {
+        return max > 0;
+    }
+
+    /**
+     * Adds a compiled script and returns its handle.  Preparing a script that is already prepared keeps the
+     * script that was prepared first.  If the maximum number of prepared scripts has been reached, the least
+     * recently used script is unprepared to make room.
+     *
+     * @throws IllegalStateException if the preparation of scripts is disabled
+     */
+    public synchronized String prepare(final String script, final String language, final Optional<CompiledScript> compiledScript) {
+        if (!canPrepare())
+            throw new IllegalStateException("The preparation of scripts is disabled");
+
+        final String handle = handleOf(script, language);
+        final PreparedScript preparedScript = new PreparedScript(script, language, compiledScript, clock.incrementAndGet());
+        final PreparedScript existing = prepared.putIfAbsent(handle, preparedScript);
+        if (existing != null) {
+            existing.touch(clock.incrementAndGet());
+        } else {
+            preparedScript.pin();
+            while (prepared.size() > max) {
+                prepared.entrySet().stream()
+                        .filter(e -> !e.getKey().equals(handle))
+                        .min(Comparator.comparingLong(e -> e.getValue().lastUsed))
+                        .ifPresent(e -> {
+                            logger.debug("Unpreparing the least recently used script with handle {}", e.getKey());
+                            unprepare(e.getKey());
+                        });
+            }
+        }
+
+        return handle;
+    }
+
+    /**
+     * Removes the prepared script with the specified handle and releases its compiled class so that the
+     * {@code ScriptEngine} may evict it.
+     *
+     * @return {@code true} if the script was prepared
+     */
+    public synchronized boolean unprepare(final String handle) {
+        final PreparedScript removed = null == handle ? null : prepared.remove(handle);
+        if (null == removed) return false;
+
+        removed.release();
+        return true;
+    }
+
+    /**
+     * Gets the prepared script with the specified handle, marking it as used.
+     */
+    public Optional<PreparedScript> get(final String handle) {
+        final PreparedScript preparedScript = null == handle ? null : prepared.get(handle);
+        if (preparedScript != null) preparedScript.touch(clock.incrementAndGet());
+        return Optional.ofNullable(preparedScript);
+    }
+
+    /**
+     * Gets the number of prepared scripts.
+     */
+    public int size() {
+        return prepared.size();
+    }
+
+    /**
+     * A script prepared for evaluation by its handle.
+     */
+    public static final class PreparedScript {
+        private final String script;
+        private final String language;
+
+        private final Optional<CompiledScript> compiledScript;
+
+        private volatile long lastUsed;
+
+        private PreparedScript(final String script, final String language, final Optional<CompiledScript> compiledScript,
+                               final long lastUsed) {
+            this.script = script;
+            this.language = language;
+            this.compiledScript = compiledScript;
+            this.lastUsed = lastUsed;
+        }
+
+        public String getScript() {
+            return script;
+        }
+
+        /**
+         * Gets the language of the script which is {@code null} for the default language.
+         */
+        public String getLanguage() {
+            return language;
+        }
+
+        private void touch(final long now) {
+            lastUsed = now;
+        }
+
+        private void pin() {
+            compiledScript.map(CompiledScript::getEngine)
+                    .filter(engine -> engine instanceof GremlinGroovyScriptEngine)
+                    .ifPresent(engine -> {
+                        try {
+                            ((GremlinGroovyScriptEngine) engine).pin(script);
+                        } catch (ScriptException se) {
+                            logger.warn("Could not pin the class of the prepared script [{}] - {}", script, se.getMessage());
+                        }
+                    });
+        }
+
+        private void release() {
+            compiledScript.map(CompiledScript::getEngine)
+                    .filter(engine -> engine instanceof GremlinGroovyScriptEngine)
+                    .ifPresent(engine -> ((GremlinGroovyScriptEngine) engine).release(script));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Wraps the Gremlin thread pool to record the time that each task waits before it starts to run as the
+ * {@link RequestPhase#QUEUE} phase and to count the tasks that are outstanding for {@link RequestCredits}.
+ */
+final class QueueTimingExecutorService extends DelegatingExecutorService {
+
+    QueueTimingExecutorService(final ExecutorService executorService) {
+        super(executorService);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        final long submitted = System.nanoTime();
+        RequestCredits.INSTANCE.acquire();
+        try {
+            executorService.execute(() -> {
+                RequestPhase.QUEUE.record(System.nanoTime() - submitted);
+                try {
+                    command.run();
+                } finally {
+                    RequestCredits.INSTANCE.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            RequestCredits.INSTANCE.release();
+            throw ex;
+        }
+    }
+}
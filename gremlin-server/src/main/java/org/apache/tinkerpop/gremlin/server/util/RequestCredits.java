@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.Settings;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Grants credits to connections so that clients can pipeline many requests on a single connection without
+ * overrunning the server.  The number of credits is the number of requests that a connection may have in flight
+ * and is sent back as the {@link Tokens#STATUS_ATTRIBUTE_CREDITS} status attribute of each response.  It is bound
+ * by {@link Settings#maxInFlightPerConnection} and shrinks as the number of requests waiting on or running in the
+ * Gremlin thread pool approaches {@link Settings#maxInFlight}, down to a single credit when the server is
+ * saturated.  The number of outstanding requests is published as a gauge named
+ * {@code org.apache.tinkerpop.gremlin.server.GremlinServer.outstanding} through the {@link MetricManager}.
+ */
+public enum RequestCredits {
+    INSTANCE;
+
+    private static final String GAUGE_NAME = MetricRegistry.name(GremlinServer.class, "outstanding");
+
+    private final AtomicInteger outstanding = new AtomicInteger(0);
+    private volatile int maxInFlight = 0;
+    private volatile int maxInFlightPerConnection = 0;
+
+    /**
+     * Sets the limits from which credits are computed.  A {@code maxInFlightPerConnection} of zero disables
+     * the granting of credits.
+     */
+    public synchronized void configure(final int maxInFlight, final int maxInFlightPerConnection) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxInFlightPerConnection = Math.max(0, maxInFlightPerConnection);
+
+        // the gauge can only be registered once per name so replace anything left over from a previous server
+        MetricManager.INSTANCE.getRegistry().remove(GAUGE_NAME);
+        MetricManager.INSTANCE.getGuage((Gauge<Integer>) outstanding::get, GAUGE_NAME);
+    }
+
+    /**
+     * Called when a request is submitted to the Gremlin thread pool.
+     */
+    void acquire() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Called when a request submitted to the Gremlin thread pool has finished.
+     */
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Gets the number of credits to grant to a connection given the current load on the server or zero if
+     * credits are not granted.
+     */
+    public int available() {
+        if (maxInFlightPerConnection == 0) return 0;
+        return Math.max(1, Math.min(maxInFlightPerConnection, maxInFlight - outstanding.get()));
+    }
+
+    /**
+     * Gets the status attributes that carry the credits for a response.
+     */
+    public Map<String, Object> grant() {
+        final int credits = available();
+        if (credits == 0) return Collections.emptyMap();
+
+        // a HashMap rather than a singleton map as GraphSON with embedded types has to be able to construct it
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(Tokens.STATUS_ATTRIBUTE_CREDITS, credits);
+        return attributes;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The phases that a request passes through in Gremlin Server, each of which keeps a latency histogram in the
+ * {@link MetricManager} named {@code org.apache.tinkerpop.gremlin.server.GremlinServer.phase.<phase>} so that
+ * the reporters configured for the server can show where time is spent.
+ */
+public enum RequestPhase {
+    /**
+     * Deserialization of the incoming request.
+     */
+    DECODE,
+
+    /**
+     * Time a request waits in the Gremlin thread pool queue before it starts to execute.
+     */
+    QUEUE,
+
+    /**
+     * Compilation of a script that was not already in the script cache.
+     */
+    COMPILE,
+
+    /**
+     * Execution of a compiled script, which does not include iteration of the result.
+     */
+    EVALUATION,
+
+    /**
+     * Iteration of the result, excluding the time spent serializing it.
+     */
+    ITERATION,
+
+    /**
+     * Serialization of result batches into response frames.
+     */
+    SERIALIZATION,
+
+    /**
+     * Time from handing a response frame to the channel until it is written to the socket.
+     */
+    WRITE;
+
+    private final Timer timer = MetricManager.INSTANCE.getTimer(MetricRegistry.name(GremlinServer.class, "phase", name().toLowerCase()));
+
+    /**
+     * Records the time spent in this phase.
+     */
+    public void record(final long nanos) {
+        timer.update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer getTimer() {
+        return timer;
+    }
+}
@@ -18,7 +18,10 @@
  */
 package org.apache.tinkerpop.gremlin.server.util;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
 import org.apache.tinkerpop.gremlin.server.GremlinServer;
@@ -28,11 +31,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -55,6 +62,7 @@ public class ServerGremlinExecutor<T extends ScheduledExecutorService> {
     private final T scheduledExecutorService;
     private final ExecutorService gremlinExecutorService;
     private final GremlinExecutor gremlinExecutor;
+    private final Optional<AdmissionController> admissionController;
 
     /**
      * Create a new object from {@link Settings} where thread pools are internally created. Note that the
@@ -75,13 +83,6 @@ public class ServerGremlinExecutor<T extends ScheduledExecutorService> {
                                  final T scheduledExecutorService, final Class<T> scheduleExecutorServiceClass) {
         this.settings = settings;
 
-        if (null == gremlinExecutorService) {
-            final ThreadFactory threadFactoryGremlin = ThreadFactoryUtil.create("exec-%d");
-            this.gremlinExecutorService = Executors.newFixedThreadPool(settings.gremlinPool, threadFactoryGremlin);
-        } else {
-            this.gremlinExecutorService = gremlinExecutorService;
-        }
-
         if (null == scheduledExecutorService) {
             final ThreadFactory threadFactoryGremlin = ThreadFactoryUtil.create("worker-%d");
             this.scheduledExecutorService = scheduleExecutorServiceClass.cast(
@@ -90,6 +91,31 @@ public class ServerGremlinExecutor<T extends ScheduledExecutorService> {
             this.scheduledExecutorService = scheduledExecutorService;
         }
 
+        // the pool is wrapped so that the time requests spend waiting for a thread is recorded
+        final ExecutorService gremlinPool;
+        if (null == gremlinExecutorService) {
+            final ThreadFactory threadFactoryGremlin = ThreadFactoryUtil.create("exec-%d");
+            gremlinPool = new QueueTimingExecutorService(Executors.newFixedThreadPool(settings.gremlinPool, threadFactoryGremlin));
+        } else {
+            gremlinPool = new QueueTimingExecutorService(gremlinExecutorService);
+        }
+
+        SlowScriptTracker.INSTANCE.configure(settings.slowScripts);
+        PreparedScripts.INSTANCE.configure(settings.maxPreparedScripts);
+        RequestCredits.INSTANCE.configure(settings.maxInFlight, settings.maxInFlightPerConnection);
+
+        // with admission control the pool is wrapped so that requests can be released from their queues as
+        // the pool frees up
+        if (settings.optionalAdmissionControl().isPresent() && settings.admissionControl.enabled) {
+            final AdmissionController controller = new AdmissionController(settings, this.scheduledExecutorService);
+            this.admissionController = Optional.of(controller);
+            this.gremlinExecutorService = controller.wrap(gremlinPool);
+            logger.info("Admission control enabled");
+        } else {
+            this.admissionController = Optional.empty();
+            this.gremlinExecutorService = gremlinPool;
+        }
+
         // initialize graphs from configuration
         graphManager = new GraphManager(settings);
 
@@ -118,6 +144,8 @@ public class ServerGremlinExecutor<T extends ScheduledExecutorService> {
 
         logger.info("Initialized GremlinExecutor and configured ScriptEngines.");
 
+        registerScriptEngineMetrics();
+
         // script engine init may have altered the graph bindings or maybe even created new ones - need to
         // re-apply those references back
         gremlinExecutor.getGlobalBindings().entrySet().stream()
@@ -140,6 +168,39 @@ public class ServerGremlinExecutor<T extends ScheduledExecutorService> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Publishes the statistics of the cache of compiled scripts of the gremlin-groovy {@code ScriptEngine}, the
+     * number of scripts that it compiled statically and dynamically and whether the scripts to preload are
+     * compiled as gauges.  The gauges look the engine up each time they are read as the engine is replaced when
+     * reloaded.
+     */
+    private void registerScriptEngineMetrics() {
+        final Map<String, Function<GremlinGroovyScriptEngine, Number>> gauges = new LinkedHashMap<>();
+        gauges.put("cache.size", se -> se.getClassCache().size());
+        gauges.put("cache.weight", se -> se.getClassCache().getWeight());
+        gauges.put("cache.hits", se -> se.getClassCache().getHitCount());
+        gauges.put("cache.misses", se -> se.getClassCache().getMissCount());
+        gauges.put("cache.evictions", se -> se.getClassCache().getEvictionCount());
+        gauges.put("cache.hit-ratio", se -> se.getClassCache().getHitRatio());
+        gauges.put("compilations.static", GremlinGroovyScriptEngine::getStaticCompilationCount);
+        gauges.put("compilations.dynamic", GremlinGroovyScriptEngine::getDynamicCompilationCount);
+
+        gauges.forEach((key, stat) -> {
+            // the gauge can only be registered once per name so replace anything left over from a previous server
+            final String name = MetricRegistry.name(GremlinServer.class, "scripts", key);
+            MetricManager.INSTANCE.getRegistry().remove(name);
+            MetricManager.INSTANCE.getGuage((Gauge<Number>) () -> gremlinExecutor.getScriptEngines().get("gremlin-groovy")
+                    .filter(se -> se instanceof GremlinGroovyScriptEngine)
+                    .map(se -> stat.apply((GremlinGroovyScriptEngine) se))
+                    .orElse(0), name);
+        });
+
+        // one once the scripts to preload are compiled, which signals that the server is warmed up
+        final String preloaded = MetricRegistry.name(GremlinServer.class, "scripts", "preloaded");
+        MetricManager.INSTANCE.getRegistry().remove(preloaded);
+        MetricManager.INSTANCE.getGuage((Gauge<Integer>) () -> gremlinExecutor.preloaded().isDone() ? 1 : 0, preloaded);
+    }
+
     public T getScheduledExecutorService() {
         return scheduledExecutorService;
     }
@@ -152,6 +213,10 @@ public class ServerGremlinExecutor<T extends ScheduledExecutorService> {
         return gremlinExecutorService;
     }
 
+    public Optional<AdmissionController> getAdmissionController() {
+        return admissionController;
+    }
+
     public GraphManager getGraphManager() {
         return graphManager;
     }
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.Settings;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the slowest scripts processed by Gremlin Server.  Scripts are grouped by a fingerprint of their normalized
+ * form, where literals are replaced by placeholders and whitespace is collapsed, so that the same script with
+ * different parameters is reported once.  Only the {@link Settings#slowScripts} fingerprints with the highest
+ * maximum duration are retained and they are published as a gauge named
+ * {@code org.apache.tinkerpop.gremlin.server.GremlinServer.slow-scripts} through the {@link MetricManager}.  Once
+ * the tracker is full, the count and mean of a fingerprint only reflect the executions that were slow enough to be
+ * considered.
+ */
+public enum SlowScriptTracker {
+    INSTANCE;
+
+    private static final String GAUGE_NAME = MetricRegistry.name(GremlinServer.class, "slow-scripts");
+    private static final int MAX_SCRIPT_LENGTH = 256;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?[lLfFdDgG]?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern WHITESPACE_AROUND_SYMBOL = Pattern.compile(" ?([^\\w ]) ?");
+
+    private final Map<String, ScriptStats> tracked = new HashMap<>();
+    private volatile int size = 0;
+
+    /**
+     * The smallest maximum duration of the tracked fingerprints once the tracker is full, below which a script
+     * cannot make it into the list and need not be normalized.
+     */
+    private volatile long threshold = 0;
+
+    /**
+     * Sets the number of fingerprints to track, clearing those tracked so far.  A size of zero disables tracking.
+     */
+    public synchronized void configure(final int size) {
+        this.size = Math.max(0, size);
+        this.threshold = 0;
+        tracked.clear();
+
+        // the gauge can only be registered once per name so replace anything left over from a previous server
+        MetricManager.INSTANCE.getRegistry().remove(GAUGE_NAME);
+        if (this.size > 0) MetricManager.INSTANCE.getGuage((Gauge<List<Map<String, Object>>>) this::getSlowest, GAUGE_NAME);
+    }
+
+    /**
+     * Records the time taken to process a script.
+     */
+    public void record(final String script, final long nanos) {
+        if (size == 0 || null == script || nanos < threshold) return;
+
+        final String normalized = normalize(script);
+        final String fingerprint = fingerprint(normalized);
+        synchronized (this) {
+            final ScriptStats stats = tracked.get(fingerprint);
+            if (stats != null)
+                stats.update(nanos);
+            else {
+                if (tracked.size() >= size) {
+                    final ScriptStats fastest = tracked.values().stream().min(Comparator.comparingLong(s -> s.max)).get();
+                    if (nanos <= fastest.max) return;
+                    tracked.remove(fastest.fingerprint);
+                }
+
+                final ScriptStats added = new ScriptStats(fingerprint, normalized);
+                added.update(nanos);
+                tracked.put(fingerprint, added);
+            }
+
+            if (tracked.size() >= size)
+                threshold = tracked.values().stream().mapToLong(s -> s.max).min().getAsLong();
+        }
+    }
+
+    /**
+     * Gets the tracked fingerprints ordered from slowest to fastest with durations in milliseconds.
+     */
+    public synchronized List<Map<String, Object>> getSlowest() {
+        return tracked.values().stream()
+                .sorted(Comparator.comparingLong((ScriptStats s) -> s.max).reversed())
+                .map(ScriptStats::toMap)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces string and number literals with a placeholder, collapses whitespace and removes it from around
+     * symbols.
+     */
+    public static String normalize(final String script) {
+        final String withoutStrings = STRING_LITERAL.matcher(script).replaceAll("?");
+        final String withoutNumbers = NUMBER_LITERAL.matcher(withoutStrings).replaceAll("?");
+        final String collapsed = WHITESPACE.matcher(withoutNumbers).replaceAll(" ").trim();
+        return WHITESPACE_AROUND_SYMBOL.matcher(collapsed).replaceAll("$1");
+    }
+
+    /**
+     * Gets the SHA-1 digest of a normalized script in hex, which unlike a 32-bit hash will not merge the statistics
+     * of different scripts in any realistic workload.
+     */
+    static String fingerprint(final String normalized) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException nsae) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException(nsae);
+        }
+
+        final StringBuilder hex = new StringBuilder(40);
+        for (byte b : digest.digest(normalized.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static class ScriptStats {
+        private final String fingerprint;
+        private final String script;
+        private long count = 0;
+        private long total = 0;
+        private long max = 0;
+
+        private ScriptStats(final String fingerprint, final String normalized) {
+            this.fingerprint = fingerprint;
+            this.script = normalized.length() > MAX_SCRIPT_LENGTH ? normalized.substring(0, MAX_SCRIPT_LENGTH) + "..." : normalized;
+        }
+
+        private void update(final long nanos) {
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+
+        private Map<String, Object> toMap() {
+            final Map<String, Object> m = new LinkedHashMap<>();
+            m.put("fingerprint", fingerprint);
+            m.put("script", script);
+            m.put("count", count);
+            m.put("max", TimeUnit.NANOSECONDS.toMillis(max));
+            m.put("mean", TimeUnit.NANOSECONDS.toMillis(total / count));
+            return m;
+        }
+    }
+}
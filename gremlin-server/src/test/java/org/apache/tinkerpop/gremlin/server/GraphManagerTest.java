@@ -23,6 +23,9 @@ import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.junit.Test;
 
 import javax.script.Bindings;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -59,4 +62,35 @@ public class GraphManagerTest {
         assertThat(bindings.get("graph"), instanceOf(TinkerGraph.class));
         assertThat(bindings.containsKey("graph"), is(true));
     }
+
+    @Test
+    public void shouldOpenGraphsThatCanBeOpened() {
+        final Settings settings = Settings.read(GraphManagerTest.class.getResourceAsStream("gremlin-server-integration.yaml"));
+        final String config = settings.graphs.get("graph");
+        settings.graphs.put("graph1", config);
+        settings.graphs.put("graph2", config);
+        settings.graphs.put("nope", "does-not-exist.properties");
+
+        final Map<String, Graph> m = new GraphManager(settings).getGraphs();
+        assertEquals(3, m.size());
+        assertThat(m.containsKey("nope"), is(false));
+        m.values().forEach(g -> assertThat(g, instanceOf(TinkerGraph.class)));
+    }
+
+    @Test(expected = ExceptionInInitializerError.class)
+    public void shouldRethrowErrorsFromOpeningGraphs() throws Exception {
+        final File config = File.createTempFile("graph-manager", ".properties");
+        config.deleteOnExit();
+        Files.write(config.toPath(), ("gremlin.graph=" + UnloadableGraph.class.getName()).getBytes(StandardCharsets.UTF_8));
+
+        final Settings settings = Settings.read(GraphManagerTest.class.getResourceAsStream("gremlin-server-integration.yaml"));
+        settings.graphs.put("unloadable", config.getAbsolutePath());
+        new GraphManager(settings);
+    }
+
+    static class UnloadableGraph {
+        static {
+            if (true) throw new IllegalStateException("this graph cannot be loaded");
+        }
+    }
 }
@@ -22,14 +22,23 @@ import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.driver.Client;
 import org.apache.tinkerpop.gremlin.driver.Cluster;
+import org.apache.tinkerpop.gremlin.driver.LoadBalancingStrategy;
 import org.apache.tinkerpop.gremlin.driver.Result;
 import org.apache.tinkerpop.gremlin.driver.ResultSet;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.exception.ResponseException;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.driver.ser.GraphSONMessageSerializerGremlinV1d0;
 import org.apache.tinkerpop.gremlin.driver.ser.JsonBuilderGryoSerializer;
 import org.apache.tinkerpop.gremlin.driver.ser.GryoMessageSerializerV1d0;
+import org.apache.tinkerpop.gremlin.driver.ser.MessageCompressor;
 import org.apache.tinkerpop.gremlin.driver.ser.Serializers;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.server.op.session.SessionOpProcessor;
+import org.apache.tinkerpop.gremlin.server.op.traversal.TraversalOpProcessor;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
 import org.apache.tinkerpop.gremlin.util.TimeUtil;
 import groovy.json.JsonBuilder;
@@ -39,10 +48,12 @@ import org.junit.Test;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
@@ -59,6 +70,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.core.StringStartsWith.startsWith;
 
 /**
@@ -92,6 +104,56 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
                 settings.serializers.stream().filter(s -> s.config.containsKey("custom"))
                         .findFirst().get().config.put("custom", custom);
                 break;
+            case "shouldPrepareScriptsAgainWhenEvicted":
+                settings.maxPreparedScripts = 1;
+                break;
+            case "shouldFailEachRequestOfBatchRejectedAsBusy":
+                settings.gremlinPool = 1;
+                settings.admissionControl = new Settings.AdmissionControlSettings();
+                settings.admissionControl.enabled = true;
+                settings.admissionControl.maxQueueWait = 0;
+                settings.admissionControl.queues.get(0).maxSize = 1;
+                break;
+            case "shouldShareThreadsAcrossSessions":
+                settings.processors.clear();
+                final Settings.ProcessorSettings processorSettings = new Settings.ProcessorSettings();
+                processorSettings.className = SessionOpProcessor.class.getCanonicalName();
+                processorSettings.config = new HashMap<>();
+                processorSettings.config.put(SessionOpProcessor.CONFIG_SESSION_TIMEOUT, SessionOpProcessor.DEFAULT_SESSION_TIMEOUT);
+                processorSettings.config.put(SessionOpProcessor.CONFIG_SESSION_THREADS, 2);
+                settings.processors.add(processorSettings);
+                break;
+            case "shouldSubmitTraversal":
+            case "shouldSubmitTraversalWithGraphSONSerialization":
+                final Settings.ProcessorSettings traversalSettings = new Settings.ProcessorSettings();
+                traversalSettings.className = TraversalOpProcessor.class.getCanonicalName();
+                traversalSettings.config = new HashMap<>();
+                settings.processors.add(traversalSettings);
+                break;
+            case "shouldWorkWithCompressedGryoSerialization":
+            case "shouldWorkWithCompressedGraphSONSerialization":
+                final Map<String, Object> compressionConfig = new HashMap<>();
+                compressionConfig.put(MessageCompressor.TOKEN_COMPRESSION, MessageCompressor.DEFLATE);
+                compressionConfig.put(MessageCompressor.TOKEN_COMPRESSION_THRESHOLD, 100);
+
+                final Settings.SerializerSettings gryo = new Settings.SerializerSettings();
+                gryo.className = GryoMessageSerializerV1d0.class.getName();
+                gryo.config = compressionConfig;
+                settings.serializers.add(gryo);
+
+                final Settings.SerializerSettings graphson = new Settings.SerializerSettings();
+                graphson.className = GraphSONMessageSerializerGremlinV1d0.class.getName();
+                graphson.config = compressionConfig;
+                settings.serializers.add(graphson);
+                break;
+            case "shouldWorkWithSnappyCompressedGryoSerialization":
+                final Settings.SerializerSettings snappy = new Settings.SerializerSettings();
+                snappy.className = GryoMessageSerializerV1d0.class.getName();
+                snappy.config = new HashMap<>();
+                snappy.config.put(MessageCompressor.TOKEN_COMPRESSION, MessageCompressor.SNAPPY);
+                snappy.config.put(MessageCompressor.TOKEN_COMPRESSION_THRESHOLD, 100);
+                settings.serializers.add(snappy);
+                break;
             case "shouldExecuteScriptInSessionOnTransactionalGraph":
             case "shouldExecuteSessionlessScriptOnTransactionalGraph":
                 deleteDirectory(new File("/tmp/neo4j"));
@@ -390,6 +452,44 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldWorkWithCompressedGryoSerialization() throws Exception {
+        final Cluster cluster = Cluster.build().serializer(Serializers.GRYO_V1D0, MessageCompressor.DEFLATE, 100).create();
+        final Client client = cluster.connect();
+
+        final List<Result> r = client.submit("(1..1000).collect{'result-' + it}").all().join();
+        assertEquals(1000, r.size());
+        assertEquals("result-1", r.get(0).getString());
+        assertEquals("result-1000", r.get(999).getString());
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldWorkWithSnappyCompressedGryoSerialization() throws Exception {
+        final Cluster cluster = Cluster.build().serializer(Serializers.GRYO_V1D0, MessageCompressor.SNAPPY, 100).create();
+        final Client client = cluster.connect();
+
+        final List<Result> r = client.submit("(1..1000).collect{'result-' + it}").all().join();
+        assertEquals(1000, r.size());
+        assertEquals("result-1", r.get(0).getString());
+        assertEquals("result-1000", r.get(999).getString());
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldWorkWithCompressedGraphSONSerialization() throws Exception {
+        final Cluster cluster = Cluster.build().serializer(Serializers.GRAPHSON_V1D0, MessageCompressor.DEFLATE, 100).create();
+        final Client client = cluster.connect();
+
+        final List<Result> r = client.submit("TinkerFactory.createModern().traversal().V().valueMap()").all().join();
+        assertEquals(6, r.size());
+        assertTrue(r.stream().allMatch(result -> result.get(Map.class).containsKey("name")));
+
+        cluster.close();
+    }
+
     @Test
     public void shouldWorkWithGraphSONSerialization() throws Exception {
         final Cluster cluster = Cluster.build("localhost").serializer(Serializers.GRAPHSON_V1D0).create();
@@ -442,6 +542,283 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldEventuallySucceedWithLatencyAwareLeastPending() throws Exception {
+        final String noGremlinServer = "74.125.225.19";
+        final Cluster cluster = Cluster.build(noGremlinServer).addContactPoint("localhost")
+                .loadBalancingStrategy(new LoadBalancingStrategy.LatencyAware(new LoadBalancingStrategy.LeastPending())).create();
+        final Client client = cluster.connect();
+
+        // the first host is dead on init.  request should succeed on localhost
+        for (int ix = 0; ix < 5; ix++) {
+            assertEquals(2, client.submit("1+1").all().join().get(0).getInt());
+        }
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldSubmitWithPartitionKeyUsingKeyAware() throws Exception {
+        final Cluster cluster = Cluster.build().loadBalancingStrategy(new LoadBalancingStrategy.KeyAware()).create();
+        final Client client = cluster.connect();
+
+        final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                .addArg(Tokens.ARGS_GREMLIN, "1+1")
+                .addArg(Tokens.ARGS_PARTITION_KEY, "marko").create();
+        assertEquals(2, client.submitAsync(request).get().all().get().get(0).getInt());
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldPublishResultsToSubscriberWithBackpressure() throws Exception {
+        final Cluster cluster = Cluster.build().create();
+        final Client client = cluster.connect();
+
+        final AtomicInteger received = new AtomicInteger(0);
+        final CountDownLatch complete = new CountDownLatch(1);
+        final AtomicReference<ResultSet.Subscription> subscription = new AtomicReference<>();
+        final ResultSet results = client.submit("(1..4000).collect{'x' * 500}");
+        results.subscribe(new ResultSet.Subscriber() {
+            @Override
+            public void onSubscribe(final ResultSet.Subscription s) {
+                subscription.set(s);
+            }
+
+            @Override
+            public void onNext(final Result result) {
+                received.incrementAndGet();
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+                complete.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                complete.countDown();
+            }
+        });
+
+        subscription.get().request(1);
+        Thread.sleep(1000);
+
+        // reads from the channel should have paused well before the whole result was buffered
+        assertEquals(1, received.get());
+        assertTrue(results.getAvailableItemCount() < 2000);
+
+        subscription.get().request(Long.MAX_VALUE);
+        assertTrue(complete.await(30, TimeUnit.SECONDS));
+        assertEquals(4000, received.get());
+        assertTrue(results.allItemsAvailable());
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldSubmitBatchedRequests() throws Exception {
+        final Cluster cluster = Cluster.build().batchWindow(50).maxBatchSize(16).create();
+        final Client client = cluster.connect().batching();
+
+        final List<CompletableFuture<ResultSet>> futures = new ArrayList<>();
+        for (int ix = 0; ix < 100; ix++) {
+            final Map<String, Object> params = new HashMap<>();
+            params.put("x", ix);
+            futures.add(client.submitAsync("x+1", params));
+        }
+
+        // a failure in one request of the batch should not affect the others
+        final CompletableFuture<ResultSet> bad = client.submitAsync("1/0");
+
+        for (int ix = 0; ix < 100; ix++) {
+            assertEquals(ix + 1, futures.get(ix).get().one().getInt());
+        }
+
+        try {
+            bad.get().all().get();
+            fail("Should have thrown an exception for division by zero");
+        } catch (Exception ex) {
+            final Throwable root = ExceptionUtils.getRootCause(ex);
+            assertThat(root, instanceOf(ResponseException.class));
+            assertEquals(ResponseStatusCode.SERVER_ERROR_SCRIPT_EVALUATION, ((ResponseException) root).getResponseStatusCode());
+        }
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldFailEachRequestOfBatchRejectedAsBusy() throws Exception {
+        // a single connection so that the rejected batch shares it with the requests that are still in flight
+        final Cluster cluster = Cluster.build().batchWindow(50).minConnectionPoolSize(1).maxConnectionPoolSize(1)
+                .maxInProcessPerConnection(16).maxSimultaneousUsagePerConnection(16).create();
+        final Client client = cluster.connect();
+
+        // one runs and one waits in the queue so the batch finds the queue full
+        final ResultSet running = client.submit("Thread.sleep(1000);'running'");
+        final ResultSet queued = client.submit("Thread.sleep(1000);'queued'");
+        Thread.sleep(250);
+
+        final Client batching = client.batching();
+        final CompletableFuture<ResultSet> first = batching.submitAsync("1+1");
+        final CompletableFuture<ResultSet> second = batching.submitAsync("2+2");
+
+        for (CompletableFuture<ResultSet> rejected : Arrays.asList(first, second)) {
+            try {
+                rejected.get().all().get(10, TimeUnit.SECONDS);
+                fail("Should have been rejected as the admission queue is full");
+            } catch (Exception ex) {
+                final Throwable root = ExceptionUtils.getRootCause(ex);
+                assertThat(root, instanceOf(ResponseException.class));
+                assertEquals(ResponseStatusCode.SERVER_ERROR_BUSY, ((ResponseException) root).getResponseStatusCode());
+            }
+        }
+
+        // the rejection of the batch must not take down the connection or the requests in flight on it
+        assertEquals("running", running.one().getString());
+        assertEquals("queued", queued.one().getString());
+        assertEquals(3, client.submit("1+2").one().getInt());
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldSubmitBatchedRequestsWithGraphSONSerialization() throws Exception {
+        final Cluster cluster = Cluster.build().serializer(Serializers.GRAPHSON_V1D0).batchWindow(50).create();
+        final Client client = cluster.connect().batching();
+
+        final CompletableFuture<ResultSet> first = client.submitAsync("'marko'");
+        final CompletableFuture<ResultSet> second = client.submitAsync("'vadas'");
+
+        assertEquals("marko", first.get().one().getString());
+        assertEquals("vadas", second.get().one().getString());
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldSubmitPreparedScripts() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        final String scriptHandle = client.prepare("x + y");
+        assertEquals(scriptHandle, client.prepare("x + y"));
+
+        final Map<String, Object> params = new HashMap<>();
+        params.put("y", 1);
+        for (int ix = 0; ix < 10; ix++) {
+            params.put("x", ix);
+            assertEquals(ix + 1, client.submitPrepared(scriptHandle, params).one().getInt());
+        }
+
+        // prepared scripts can be batched as they are just evaluations sent with a handle instead of a script
+        final Client batching = client.batching();
+        final CompletableFuture<ResultSet> first = batching.submitPreparedAsync(scriptHandle, params);
+        final Map<String, Object> otherParams = new HashMap<>(params);
+        otherParams.put("x", 100);
+        final CompletableFuture<ResultSet> second = batching.submitPreparedAsync(scriptHandle, otherParams);
+        assertEquals(10, first.get().one().getInt());
+        assertEquals(101, second.get().one().getInt());
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldUnpreparePreparedScripts() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        final String scriptHandle = client.prepare("x * 2");
+        assertEquals(4, client.submitPrepared(scriptHandle, Collections.singletonMap("x", 2)).one().getInt());
+
+        client.unprepare(scriptHandle);
+
+        try {
+            client.submitPrepared(scriptHandle, Collections.singletonMap("x", 2)).all().get();
+            fail("Should have thrown an exception for a script that was unprepared");
+        } catch (Exception ex) {
+            final Throwable root = ExceptionUtils.getRootCause(ex);
+            assertThat(root, instanceOf(ResponseException.class));
+            assertEquals(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS, ((ResponseException) root).getResponseStatusCode());
+        }
+
+        // unpreparing a script that is not prepared is harmless
+        client.unprepare(scriptHandle);
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldPrepareScriptsAgainWhenEvicted() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+        final String scriptHandle = client.prepare("x * 2");
+
+        // another client fills the server with its own prepared script which evicts the first
+        final Cluster otherCluster = Cluster.open();
+        otherCluster.connect().prepare("x * 3");
+
+        assertEquals(4, client.submitPrepared(scriptHandle, Collections.singletonMap("x", 2)).one().getInt());
+        assertEquals(6, client.submitPrepared(scriptHandle, Collections.singletonMap("x", 3)).one().getInt());
+
+        otherCluster.close();
+        cluster.close();
+    }
+
+    @Test
+    public void shouldNotSubmitUnpreparedScripts() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        try {
+            client.submitPrepared(UUID.randomUUID().toString(), null).all().get();
+            fail("Should have thrown an exception for a script that was not prepared");
+        } catch (Exception ex) {
+            final Throwable root = ExceptionUtils.getRootCause(ex);
+            assertThat(root, instanceOf(ResponseException.class));
+            assertEquals(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS, ((ResponseException) root).getResponseStatusCode());
+        }
+
+        try {
+            client.prepare("1 +");
+            fail("Should have thrown an exception for a script that does not compile");
+        } catch (Exception ex) {
+            final Throwable root = ExceptionUtils.getRootCause(ex);
+            assertThat(root, instanceOf(ResponseException.class));
+            assertEquals(ResponseStatusCode.SERVER_ERROR_SCRIPT_EVALUATION, ((ResponseException) root).getResponseStatusCode());
+        }
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldCacheResultsUntilServerInvalidates() throws Exception {
+        final Cluster cluster = Cluster.build().resultCacheSize(100).create();
+        final Client client = cluster.connect();
+
+        final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                .addArg(Tokens.ARGS_GREMLIN, "System.nanoTime()")
+                .addArg(Tokens.ARGS_CACHE, true).create();
+        final long first = client.submitAsync(request).get().all().get().get(0).getLong();
+        assertEquals(first, client.submitAsync(request).get().one().getLong());
+        assertEquals(1, cluster.getResultCache().getHitCount());
+
+        // the server pushes the invalidation to the connection separately from the response to the request
+        final RequestMessage invalidate = RequestMessage.build(Tokens.OPS_INVALIDATE).processor("control").create();
+        assertEquals(1, client.submitAsync(invalidate).get().one().getInt());
+
+        final long start = System.currentTimeMillis();
+        while (cluster.getResultCache().getInvalidationCount() == 0 && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(1, cluster.getResultCache().getInvalidationCount());
+        assertEquals(0, cluster.getResultCache().size());
+        assertThat(client.submitAsync(request).get().one().getLong(), is(not(first)));
+
+        cluster.close();
+    }
+
     @Test
     public void shouldFailClientSideWithTooLargeAResponse() {
         final Cluster cluster = Cluster.build().maxContentLength(1).create();
@@ -583,6 +960,39 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldShareThreadsAcrossSessions() throws Exception {
+        final Cluster cluster = Cluster.build().create();
+        final List<Client> clients = IntStream.range(0, 10)
+                .mapToObj(i -> cluster.connect(name.getMethodName() + i)).collect(Collectors.toList());
+
+        // requests for each session should be processed in order even though the sessions share two threads
+        final List<ResultSet> assignments = new ArrayList<>();
+        final List<ResultSet> reads = new ArrayList<>();
+        final List<ResultSet> threadNames = new ArrayList<>();
+        for (int ix = 0; ix < clients.size(); ix++) {
+            assignments.add(clients.get(ix).submit("Thread.sleep(20);x = " + ix));
+            reads.add(clients.get(ix).submit("x * 10"));
+            threadNames.add(clients.get(ix).submit("Thread.currentThread().getName()"));
+        }
+
+        for (int ix = 0; ix < clients.size(); ix++) {
+            assertEquals(ix, assignments.get(ix).all().get().get(0).getInt());
+            assertEquals(ix * 10, reads.get(ix).all().get().get(0).getInt());
+        }
+
+        final long threadsUsed = threadNames.stream().map(rs -> {
+            try {
+                return rs.all().get().get(0).getString();
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        }).distinct().count();
+        assertTrue(threadsUsed <= 2);
+
+        cluster.close();
+    }
+
     @Test
     public void shouldBeThreadSafeToUseOneClient() throws Exception {
         final Cluster cluster = Cluster.build().create();
@@ -611,6 +1021,33 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldPipelineRequestsOnOneConnectionWithCreditsFromServer() throws Exception {
+        // without credits from the server a single connection would only allow one request in flight at a time
+        // and most of these requests would time out waiting for it
+        final Cluster cluster = Cluster.build()
+                .minConnectionPoolSize(1)
+                .maxConnectionPoolSize(1)
+                .maxInProcessPerConnection(1)
+                .maxSimultaneousUsagePerConnection(128)
+                .maxWaitForConnection(1000).create();
+        final Client client = cluster.connect();
+
+        // the first response carries the credits
+        assertEquals(1, client.submit("1").all().get().get(0).getInt());
+
+        final List<CompletableFuture<ResultSet>> futures = new ArrayList<>();
+        for (int ix = 0; ix < 64; ix++) {
+            futures.add(client.submitAsync("Thread.sleep(100);" + ix));
+        }
+
+        for (int ix = 0; ix < futures.size(); ix++) {
+            assertEquals(ix, futures.get(ix).get().all().get().get(0).getInt());
+        }
+
+        cluster.close();
+    }
+
     @Test
     public void shouldRebindGraphVariables() throws Exception {
         final Cluster cluster = Cluster.build().create();
@@ -653,4 +1090,64 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldSubmitTraversal() throws Exception {
+        final Cluster cluster = Cluster.build().create();
+        final Client client = cluster.connect();
+
+        client.submit("graph.addVertex('name','traverser').addEdge('knows', graph.addVertex('name','traversed'))").all().get();
+
+        final GraphTraversalSource g = EmptyGraph.instance().traversal();
+        final List<Result> results = client.submit(g.V().has("name", "traverser").out("knows").values("name"), "g").all().get();
+        assertEquals(1, results.size());
+        assertEquals("traversed", results.get(0).getString());
+
+        final Vertex v = client.submit(g.V().has("name", "traversed"), "graph").one().getVertex();
+        assertEquals("traversed", v.value("name"));
+
+        try {
+            client.submit(g.V(), "nope").all().get();
+            fail("Should have tossed an exception because \"nope\" is not a Graph or TraversalSource");
+        } catch (Exception ex) {
+            final Throwable root = ExceptionUtils.getRootCause(ex);
+            assertThat(root, instanceOf(ResponseException.class));
+            final ResponseException re = (ResponseException) root;
+            assertEquals(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS, re.getResponseStatusCode());
+        }
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldNotSubmitTraversalUnlessTraversalOpProcessorIsEnabled() throws Exception {
+        final Cluster cluster = Cluster.build().create();
+        final Client client = cluster.connect();
+
+        try {
+            client.submit(EmptyGraph.instance().traversal().V(), "g").all().get();
+            fail("Should have tossed an exception because the traversal OpProcessor is not configured");
+        } catch (Exception ex) {
+            final Throwable root = ExceptionUtils.getRootCause(ex);
+            assertThat(root, instanceOf(ResponseException.class));
+            final ResponseException re = (ResponseException) root;
+            assertEquals(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS, re.getResponseStatusCode());
+        }
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldSubmitTraversalWithGraphSONSerialization() throws Exception {
+        final Cluster cluster = Cluster.build().serializer(Serializers.GRAPHSON_V1D0).create();
+        final Client client = cluster.connect();
+
+        client.submit("graph.addVertex('name','graphson-traverser')").all().get();
+
+        final GraphTraversalSource g = EmptyGraph.instance().traversal();
+        final List<Result> results = client.submit(g.V().has("name", "graphson-traverser").values("name"), "g").all().get();
+        assertEquals(1, results.size());
+        assertEquals("graphson-traverser", results.get(0).getString());
+
+        cluster.close();
+    }
 }
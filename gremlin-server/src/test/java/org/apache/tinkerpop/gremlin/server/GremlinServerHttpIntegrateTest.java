@@ -20,6 +20,9 @@ package org.apache.tinkerpop.gremlin.server;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.Unpooled;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.ser.GryoMessageSerializerV1d0;
 import org.apache.tinkerpop.gremlin.server.channel.HttpChannelizer;
 import org.apache.http.Consts;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -32,10 +35,18 @@ import org.apache.http.util.EntityUtils;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONTokens;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Integration tests for server-side settings and processing.
@@ -59,6 +70,16 @@ public class GremlinServerHttpIntegrateTest extends AbstractGremlinServerIntegra
             case "should200OnGETWithGremlinQueryStringArgumentWithIteratorResultAndRebinding":
                 settings.scriptEngines.get("gremlin-groovy").scripts = Arrays.asList("scripts/generate-classic.groovy");
                 break;
+            case "should200OnGETWithStreamedResultsToSlowClient":
+                settings.writeBufferLowWaterMark = 512;
+                settings.writeBufferHighWaterMark = 1024;
+                settings.resultIterationBatchSize = 10;
+                break;
+            case "shouldCutOffStreamedResultsWhenClientDoesNotCatchUp":
+                settings.writeBufferLowWaterMark = 512;
+                settings.writeBufferHighWaterMark = 1024;
+                settings.serializedResponseTimeout = 500;
+                break;
             case "should200OnPOSTTransactionalGraph":
                 deleteDirectory(new File("/tmp/neo4j"));
                 settings.graphs.put("graph", "conf/neo4j-empty.properties");
@@ -176,6 +197,129 @@ public class GremlinServerHttpIntegrateTest extends AbstractGremlinServerIntegra
         }
     }
 
+    @Test
+    public void should200OnGETWithGryoAcceptHeader() throws Exception {
+        final CloseableHttpClient httpclient = HttpClients.createDefault();
+        final HttpGet httpget = new HttpGet("http://localhost:8182?gremlin=1-1");
+        httpget.addHeader("Accept", "application/vnd.gremlin-v1.0+gryo");
+
+        try (final CloseableHttpResponse response = httpclient.execute(httpget)) {
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertEquals("application/vnd.gremlin-v1.0+gryo", response.getEntity().getContentType().getValue());
+            final ResponseMessage msg = new GryoMessageSerializerV1d0().deserializeResponse(
+                    Unpooled.wrappedBuffer(EntityUtils.toByteArray(response.getEntity())));
+            assertEquals(0, ((List) msg.getResult().getData()).get(0));
+        }
+    }
+
+    @Test
+    public void should200OnGETWithAcceptHeaderChoosingSerializerByQuality() throws Exception {
+        final CloseableHttpClient httpclient = HttpClients.createDefault();
+        final HttpGet httpget = new HttpGet("http://localhost:8182?gremlin=1-1");
+        httpget.addHeader("Accept", "text/html, application/vnd.gremlin-v1.0+gryo;q=0.5, application/json;q=0.9");
+
+        try (final CloseableHttpResponse response = httpclient.execute(httpget)) {
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertEquals("application/json", response.getEntity().getContentType().getValue());
+        }
+    }
+
+    @Test
+    public void should200OnGETWithChunkedStreamOfLargeResult() throws Exception {
+        final CloseableHttpClient httpclient = HttpClients.createDefault();
+        final HttpGet httpget = new HttpGet("http://localhost:8182?gremlin=(1..500)");
+
+        try (final CloseableHttpResponse response = httpclient.execute(httpget)) {
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertEquals("application/json", response.getEntity().getContentType().getValue());
+            assertTrue(response.getEntity().isChunked());
+            final String json = EntityUtils.toString(response.getEntity());
+            final JsonNode node = mapper.readTree(json);
+            assertEquals(500, node.get("result").get("data").size());
+            for (int ix = 0; ix < 500; ix++) {
+                assertEquals(ix + 1, node.get("result").get("data").get(ix).intValue());
+            }
+            assertEquals(200, node.get("status").get("code").intValue());
+        }
+    }
+
+    @Test
+    public void should200OnPipelinedRequestsInOrderOnKeptAliveConnection() throws Exception {
+        try (final Socket socket = new Socket("localhost", 8182)) {
+            // the first request is slow so without ordering its response would come after the second
+            final OutputStream out = socket.getOutputStream();
+            out.write(("GET /?gremlin=Thread.sleep(500)%3B1 HTTP/1.1\r\nHost: localhost\r\n\r\n" +
+                    "GET /?gremlin=2 HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            // the server should close the connection after the second response, so read it all
+            final InputStream in = socket.getInputStream();
+            final ByteArrayOutputStream responses = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                responses.write(buffer, 0, read);
+            }
+
+            final String raw = responses.toString("UTF-8");
+            final int first = raw.indexOf("\"data\":[1]");
+            final int second = raw.indexOf("\"data\":[2]");
+            assertTrue(raw, first > 0);
+            assertTrue(raw, second > first);
+            assertTrue(raw, raw.indexOf("HTTP/1.1 200 OK", raw.indexOf("HTTP/1.1 200 OK") + 1) > first);
+        }
+    }
+
+    @Test
+    public void should200OnGETWithStreamedResultsToSlowClient() throws Exception {
+        try (final Socket socket = new Socket("localhost", 8182)) {
+            final OutputStream out = socket.getOutputStream();
+            out.write("GET /?gremlin=(1..20000) HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            // let the server fill its write buffer and wait on the client
+            Thread.sleep(1000);
+
+            final String raw = readFully(socket.getInputStream());
+            assertTrue(raw.startsWith("HTTP/1.1 200 OK"));
+            assertTrue(raw.contains(",20000"));
+            assertTrue(raw.endsWith("0\r\n\r\n"));
+        }
+    }
+
+    @Test
+    public void shouldCutOffStreamedResultsWhenClientDoesNotCatchUp() throws Exception {
+        try (final Socket socket = new Socket("localhost", 8182)) {
+            final OutputStream out = socket.getOutputStream();
+            out.write("GET /?gremlin=(1..1000000) HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            // the server gives up on the response once the serializedResponseTimeout passes and closes the connection
+            Thread.sleep(2000);
+
+            final String raw = readFully(socket.getInputStream());
+            assertTrue(raw.startsWith("HTTP/1.1 200 OK"));
+            assertFalse(raw.endsWith("0\r\n\r\n"));
+        }
+    }
+
+    @Test
+    public void should200OnPOSTExpectingContinueWithContinueFirst() throws Exception {
+        try (final Socket socket = new Socket("localhost", 8182)) {
+            final String body = "{\"gremlin\":\"1+1\"}";
+            final OutputStream out = socket.getOutputStream();
+            out.write(("POST / HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\nExpect: 100-continue\r\n" +
+                    "Connection: close\r\nContent-Length: " + body.length() + "\r\n\r\n" + body).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            final String raw = readFully(socket.getInputStream());
+            final int ok = raw.indexOf("HTTP/1.1 200 OK");
+            assertTrue(raw, raw.startsWith("HTTP/1.1 100 Continue"));
+            assertTrue(raw, ok > 0);
+            assertEquals(raw, -1, raw.indexOf("HTTP/1.1 100 Continue", ok));
+        }
+    }
+
     @Test
     public void should400OnGETWithBadAcceptHeader() throws Exception {
         final CloseableHttpClient httpclient = HttpClients.createDefault();
@@ -466,4 +610,14 @@ public class GremlinServerHttpIntegrateTest extends AbstractGremlinServerIntegra
             assertEquals(500, response.getStatusLine().getStatusCode());
         }
     }
+
+    private static String readFully(final InputStream in) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toString("UTF-8");
+    }
 }
@@ -18,14 +18,17 @@
  */
 package org.apache.tinkerpop.gremlin.server;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.log4j.Logger;
 import org.apache.tinkerpop.gremlin.driver.Client;
 import org.apache.tinkerpop.gremlin.driver.Cluster;
 import org.apache.tinkerpop.gremlin.driver.ResultSet;
 import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.Transport;
 import org.apache.tinkerpop.gremlin.driver.exception.ResponseException;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.driver.ser.Serializers;
 import org.apache.tinkerpop.gremlin.driver.simple.NioClient;
@@ -35,20 +38,31 @@ import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.server.channel.NioChannelizer;
 import org.apache.tinkerpop.gremlin.server.op.session.SessionOpProcessor;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.apache.tinkerpop.gremlin.server.util.RequestPhase;
+import org.apache.tinkerpop.gremlin.server.util.SlowScriptTracker;
 import org.apache.tinkerpop.gremlin.util.Log4jRecordingAppender;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -101,13 +115,62 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
             case "shouldBatchResultsByTwos":
                 settings.resultIterationBatchSize = 2;
                 break;
+            case "shouldBatchResultsByBytes":
+                settings.resultIterationBatchBytes = 1500;
+                break;
             case "shouldWorkOverNioTransport":
                 settings.channelizer = NioChannelizer.class.getName();
                 break;
+            case "shouldWorkOverEpollTransportWithMultipleAcceptors":
+                settings.transport = "epoll";
+                settings.acceptors = 2;
+                break;
             case "shouldEnableSsl":
                 settings.ssl = new Settings.SslSettings();
                 settings.ssl.enabled = true;
                 break;
+            case "shouldCancelRequestWhenClientDisconnects":
+                settings.gremlinPool = 1;
+                break;
+            case "shouldGrantCreditsWithResponses":
+                settings.maxInFlightPerConnection = 16;
+                break;
+            case "shouldNotGrantCreditsWhenDisabled":
+                settings.maxInFlightPerConnection = 0;
+                break;
+            case "shouldRejectWithServerBusyWhenAdmissionQueueIsFull":
+                settings.gremlinPool = 1;
+                settings.admissionControl = new Settings.AdmissionControlSettings();
+                settings.admissionControl.enabled = true;
+                settings.admissionControl.maxQueueWait = 0;
+                settings.admissionControl.queues.get(0).maxSize = 1;
+                break;
+            case "shouldRejectWithServerBusyWhenAdmissionQueueWaitIsExceeded":
+                settings.gremlinPool = 1;
+                settings.admissionControl = new Settings.AdmissionControlSettings();
+                settings.admissionControl.enabled = true;
+                settings.admissionControl.maxQueueWait = 250;
+                break;
+            case "shouldAdmitHigherPriorityRequestsFirst":
+                settings.gremlinPool = 1;
+                settings.admissionControl = new Settings.AdmissionControlSettings();
+                settings.admissionControl.enabled = true;
+                final Settings.QueueSettings high = new Settings.QueueSettings();
+                high.name = "high";
+                high.graph = "g";
+                high.priority = 10;
+                settings.admissionControl.queues.add(0, high);
+                break;
+            case "shouldCompileScriptsStaticallyWhenConfigured":
+                settings.scriptEngines.get("gremlin-groovy").config = new HashMap<String, Object>() {{
+                    put("compileStatic", true);
+                }};
+                break;
+            case "shouldSignalReadinessOnceScriptsArePreloaded":
+                settings.scriptEngines.get("gremlin-groovy").config = new HashMap<String, Object>() {{
+                    put("preloadScripts", Arrays.asList("g.V().count()", "1+1"));
+                }};
+                break;
             case "shouldStartWithDefaultSettings":
                 return new Settings();
             case "shouldHaveTheSessionTimeout":
@@ -137,6 +200,54 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldCompileScriptsStaticallyWhenConfigured() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        final String staticCompilations = MetricRegistry.name(GremlinServer.class, "scripts", "compilations", "static");
+        final String dynamicCompilations = MetricRegistry.name(GremlinServer.class, "scripts", "compilations", "dynamic");
+        final long staticBefore = ((Number) MetricManager.INSTANCE.getRegistry().getGauges().get(staticCompilations).getValue()).longValue();
+        final long dynamicBefore = ((Number) MetricManager.INSTANCE.getRegistry().getGauges().get(dynamicCompilations).getValue()).longValue();
+
+        try {
+            final Map<String, Object> params = new HashMap<>();
+            params.put("n", "marko");
+            assertEquals("marko", client.submit("graph.addVertex('name', n); g.V().has('name', n).values('name')", params).one().getString());
+            assertEquals(2, client.submit("def x = 1; x + 1").one().getInt());
+
+            // the traversal compiles statically while a method called on a parameter of unknown type needs to fall
+            // back to dynamic compilation
+            assertEquals(1, client.submit("g.V().count()").one().getLong());
+            assertEquals("MARKO", client.submit("n.toUpperCase()", params).one().getString());
+
+            assertEquals(staticBefore + 3, ((Number) MetricManager.INSTANCE.getRegistry().getGauges().get(staticCompilations).getValue()).longValue());
+            assertEquals(dynamicBefore + 1, ((Number) MetricManager.INSTANCE.getRegistry().getGauges().get(dynamicCompilations).getValue()).longValue());
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    public void shouldSignalReadinessOnceScriptsArePreloaded() throws Exception {
+        final String preloaded = MetricRegistry.name(GremlinServer.class, "scripts", "preloaded");
+        final long start = System.currentTimeMillis();
+        while (((Number) MetricManager.INSTANCE.getRegistry().getGauges().get(preloaded).getValue()).intValue() == 0
+                && System.currentTimeMillis() - start < 30000) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(1, ((Number) MetricManager.INSTANCE.getRegistry().getGauges().get(preloaded).getValue()).intValue());
+
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+        try {
+            assertEquals(2, client.submit("1+1").one().getInt());
+        } finally {
+            cluster.close();
+        }
+    }
+
     @Test
     public void shouldEnableSsl() {
         final Cluster cluster = Cluster.build().enableSsl(true).create();
@@ -244,6 +355,83 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldReturnInvalidRequestArgsWhenBatchRequestsNotSupplied() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_BATCH).create();
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicBoolean pass = new AtomicBoolean(false);
+            client.submit(request, result -> {
+                pass.set(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS == result.getStatus().getCode());
+                latch.countDown();
+            });
+
+            if (!latch.await(3000, TimeUnit.MILLISECONDS))
+                fail("Request should have returned error, but instead timed out");
+            assertTrue(pass.get());
+        }
+    }
+
+    @Test
+    public void shouldAnswerEachRequestInBatchSeparately() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final UUID good = UUID.randomUUID();
+            final Map<String, Object> goodRequest = new HashMap<>();
+            goodRequest.put(Tokens.ARGS_REQUEST_ID, good);
+            goodRequest.put(Tokens.ARGS_GREMLIN, "x+1");
+            final Map<String, Object> bindings = new HashMap<>();
+            bindings.put("x", 1);
+            goodRequest.put(Tokens.ARGS_BINDINGS, bindings);
+
+            // the second request is missing its script so it should fail without affecting the first
+            final UUID bad = UUID.randomUUID();
+            final Map<String, Object> badRequest = new HashMap<>();
+            badRequest.put(Tokens.ARGS_REQUEST_ID, bad);
+
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_BATCH)
+                    .addArg(Tokens.ARGS_REQUESTS, new ArrayList<>(Arrays.asList(goodRequest, badRequest))).create();
+            final CountDownLatch latch = new CountDownLatch(2);
+            final Map<UUID, ResponseMessage> responses = new ConcurrentHashMap<>();
+            client.submit(request, result -> {
+                responses.put(result.getRequestId(), result);
+                latch.countDown();
+            });
+
+            assertTrue(latch.await(3000, TimeUnit.MILLISECONDS));
+            assertEquals(ResponseStatusCode.SUCCESS, responses.get(good).getStatus().getCode());
+            assertEquals(2, ((List) responses.get(good).getResult().getData()).get(0));
+            assertEquals(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS, responses.get(bad).getStatus().getCode());
+            assertFalse(responses.containsKey(request.getRequestId()));
+        }
+    }
+
+    @Test
+    public void shouldAnswerEachRequestOfInvalidBatch() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final UUID first = UUID.randomUUID();
+            final Map<String, Object> firstRequest = new HashMap<>();
+            firstRequest.put(Tokens.ARGS_REQUEST_ID, first);
+            firstRequest.put(Tokens.ARGS_GREMLIN, "1+1");
+
+            // the second request has no identifier so the batch as a whole is invalid
+            final Map<String, Object> secondRequest = new HashMap<>();
+            secondRequest.put(Tokens.ARGS_GREMLIN, "2+2");
+
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_BATCH)
+                    .addArg(Tokens.ARGS_REQUESTS, new ArrayList<>(Arrays.asList(firstRequest, secondRequest))).create();
+            final CountDownLatch latch = new CountDownLatch(1);
+            final Map<UUID, ResponseMessage> responses = new ConcurrentHashMap<>();
+            client.submit(request, result -> {
+                responses.put(result.getRequestId(), result);
+                latch.countDown();
+            });
+
+            assertTrue(latch.await(3000, TimeUnit.MILLISECONDS));
+            assertEquals(ResponseStatusCode.REQUEST_ERROR_INVALID_REQUEST_ARGUMENTS, responses.get(first).getStatus().getCode());
+            assertFalse(responses.containsKey(request.getRequestId()));
+        }
+    }
+
     @Test
     public void shouldBatchResultsByTwos() throws Exception {
         try (SimpleClient client = new WebSocketClient()) {
@@ -258,6 +446,208 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldBatchResultsByBytes() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "(0..<10).collect{'x' * 1000}").create();
+
+            // each result is about 1000 bytes so with a 1500 byte target each one should come back on its own
+            final AtomicInteger responses = new AtomicInteger(0);
+            final CountDownLatch latch = new CountDownLatch(1);
+            client.submit(request, r -> {
+                responses.incrementAndGet();
+                if (r.getStatus().getCode() == ResponseStatusCode.SUCCESS) latch.countDown();
+            });
+
+            assertTrue(latch.await(30000, TimeUnit.MILLISECONDS));
+            assertEquals(10, responses.get());
+        }
+    }
+
+    @Test
+    public void shouldRecordPhaseLatenciesAndSlowestScripts() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        // the literals differ so the scripts should still share a fingerprint
+        assertEquals(1, client.submit("Thread.sleep(100);[1,2,3]").all().get().get(0).getInt());
+        assertEquals(4, client.submit("Thread.sleep(200);  [4,5,6]").all().get().get(0).getInt());
+        assertEquals(3, client.submit("1+2").all().get().get(0).getInt());
+
+        Arrays.asList(RequestPhase.DECODE, RequestPhase.QUEUE, RequestPhase.COMPILE, RequestPhase.EVALUATION,
+                RequestPhase.ITERATION, RequestPhase.SERIALIZATION).forEach(p -> assertTrue(p.getTimer().getCount() > 0));
+
+        // scripts are recorded after the final response is written so give the server a moment to catch up
+        List<Map<String, Object>> slowest = SlowScriptTracker.INSTANCE.getSlowest();
+        for (int i = 0; i < 50 && slowest.size() < 2; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+            slowest = SlowScriptTracker.INSTANCE.getSlowest();
+        }
+
+        assertEquals(2, slowest.size());
+        assertEquals("Thread.sleep(?);[?,?,?]", slowest.get(0).get("script"));
+        assertEquals(2L, slowest.get(0).get("count"));
+        assertTrue((Long) slowest.get(0).get("max") >= 200);
+        assertEquals("?+?", slowest.get(1).get("script"));
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldGrantCreditsWithResponses() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicReference<Object> credits = new AtomicReference<>();
+            client.submit("[1,2,3]", r -> {
+                credits.set(r.getStatus().getAttributes().get(Tokens.STATUS_ATTRIBUTE_CREDITS));
+                latch.countDown();
+            });
+
+            assertTrue(latch.await(3000, TimeUnit.MILLISECONDS));
+            assertEquals(16, ((Number) credits.get()).intValue());
+        }
+    }
+
+    @Test
+    public void shouldNotGrantCreditsWhenDisabled() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicBoolean hasCredits = new AtomicBoolean(true);
+            client.submit("[1,2,3]", r -> {
+                hasCredits.set(r.getStatus().getAttributes().containsKey(Tokens.STATUS_ATTRIBUTE_CREDITS));
+                latch.countDown();
+            });
+
+            assertTrue(latch.await(3000, TimeUnit.MILLISECONDS));
+            assertFalse(hasCredits.get());
+        }
+    }
+
+    @Test
+    public void shouldCancelRunningRequestWithControlOp() throws Exception {
+        // only the connection that sent the request can cancel it
+        try (SimpleClient client = new WebSocketClient(); SimpleClient otherClient = new WebSocketClient()) {
+            final UUID requestId = UUID.randomUUID();
+            final UUID cancelId = UUID.randomUUID();
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL).overrideRequestId(requestId)
+                    .addArg(Tokens.ARGS_GREMLIN, "while (true) { __.inject(1,2,3).toList() }").create();
+
+            // the simple client has a single callback, so route the responses on its connection by request
+            final CompletableFuture<ResponseMessage> evalResponse = new CompletableFuture<>();
+            final CompletableFuture<ResponseMessage> cancelResponse = new CompletableFuture<>();
+            final Consumer<ResponseMessage> callback = r -> (r.getRequestId().equals(cancelId) ? cancelResponse : evalResponse).complete(r);
+            client.submit(request, callback);
+
+            // give the script a moment to start running
+            Thread.sleep(500);
+            assertFalse(evalResponse.isDone());
+
+            final RequestMessage otherCancel = RequestMessage.build(Tokens.OPS_CANCEL).processor("control")
+                    .addArg(Tokens.ARGS_REQUEST_ID, requestId.toString()).create();
+            final CompletableFuture<ResponseMessage> otherResponse = new CompletableFuture<>();
+            otherClient.submit(otherCancel, otherResponse::complete);
+            assertEquals(false, otherResponse.get(10000, TimeUnit.MILLISECONDS).getResult().getData());
+            assertFalse(evalResponse.isDone());
+
+            final RequestMessage cancel = RequestMessage.build(Tokens.OPS_CANCEL).processor("control")
+                    .overrideRequestId(cancelId).addArg(Tokens.ARGS_REQUEST_ID, requestId.toString()).create();
+            client.submit(cancel, callback);
+
+            assertEquals(ResponseStatusCode.SUCCESS, cancelResponse.get(10000, TimeUnit.MILLISECONDS).getStatus().getCode());
+            assertEquals(true, cancelResponse.get().getResult().getData());
+            assertEquals(ResponseStatusCode.SERVER_ERROR_CANCELLED, evalResponse.get(10000, TimeUnit.MILLISECONDS).getStatus().getCode());
+        }
+    }
+
+    @Test
+    public void shouldCancelRequestWhenClientDisconnects() throws Exception {
+        // the gremlinPool only has one thread, so nothing else can run until the abandoned script stops
+        final SimpleClient abandoning = new WebSocketClient();
+        abandoning.submit(RequestMessage.build(Tokens.OPS_EVAL)
+                .addArg(Tokens.ARGS_GREMLIN, "while (true) { __.inject(1,2,3).toList() }").create(), r -> {});
+        Thread.sleep(500);
+        abandoning.close();
+
+        try (SimpleClient client = new WebSocketClient()) {
+            final CompletableFuture<ResponseMessage> response = new CompletableFuture<>();
+            client.submit("1+1", response::complete);
+
+            // well inside the scriptEvaluationTimeout that would otherwise be needed to free the thread
+            assertEquals(ResponseStatusCode.SUCCESS, response.get(10000, TimeUnit.MILLISECONDS).getStatus().getCode());
+        }
+    }
+
+    @Test
+    public void shouldRejectWithServerBusyWhenAdmissionQueueIsFull() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final List<ResponseStatusCode> codes = Collections.synchronizedList(new ArrayList<>());
+            final CountDownLatch latch = new CountDownLatch(3);
+            for (int ix = 0; ix < 3; ix++) {
+                // one runs, one waits in the queue and the last finds the queue full
+                final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                        .addArg(Tokens.ARGS_GREMLIN, "Thread.sleep(1000);'done'").create();
+                client.submit(request, r -> {
+                    codes.add(r.getStatus().getCode());
+                    latch.countDown();
+                });
+            }
+
+            assertTrue(latch.await(30000, TimeUnit.MILLISECONDS));
+            assertEquals(ResponseStatusCode.SERVER_ERROR_BUSY, codes.get(0));
+            assertEquals(2, codes.stream().filter(c -> c == ResponseStatusCode.SUCCESS).count());
+        }
+    }
+
+    @Test
+    public void shouldRejectWithServerBusyWhenAdmissionQueueWaitIsExceeded() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final List<ResponseStatusCode> codes = Collections.synchronizedList(new ArrayList<>());
+            final CountDownLatch latch = new CountDownLatch(2);
+            final RequestMessage slow = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "Thread.sleep(2000);'done'").create();
+            client.submit(slow, r -> {
+                codes.add(r.getStatus().getCode());
+                latch.countDown();
+            });
+
+            final RequestMessage waiting = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "'waited'").create();
+            client.submit(waiting, r -> {
+                codes.add(r.getStatus().getCode());
+                latch.countDown();
+            });
+
+            assertTrue(latch.await(30000, TimeUnit.MILLISECONDS));
+            assertEquals(ResponseStatusCode.SERVER_ERROR_BUSY, codes.get(0));
+            assertEquals(ResponseStatusCode.SUCCESS, codes.get(1));
+        }
+    }
+
+    @Test
+    public void shouldAdmitHigherPriorityRequestsFirst() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final List<Object> results = Collections.synchronizedList(new ArrayList<>());
+            final CountDownLatch latch = new CountDownLatch(3);
+            final Consumer<ResponseMessage> callback = r -> {
+                results.add(((List) r.getResult().getData()).get(0));
+                latch.countDown();
+            };
+
+            // occupy the only thread in the pool so that the next two requests are queued
+            client.submit(RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "Thread.sleep(1000);'first'").create(), callback);
+            client.submit(RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "'low'").create(), callback);
+            client.submit(RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "'high'")
+                    .addArg(Tokens.ARGS_REBINDINGS, Collections.singletonMap("g", "g")).create(), callback);
+
+            assertTrue(latch.await(30000, TimeUnit.MILLISECONDS));
+            assertEquals(Arrays.asList("first", "high", "low"), results);
+        }
+    }
+
     @Test
     public void shouldBatchResultsByOnesByOverridingFromClientSide() throws Exception {
         try (SimpleClient client = new WebSocketClient()) {
@@ -287,6 +677,22 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldWorkOverEpollTransportWithMultipleAcceptors() throws Exception {
+        assumeThat("epoll is only available on Linux", Transport.EPOLL.isAvailable(), is(true));
+
+        final Cluster cluster = Cluster.build().transport(Transport.EPOLL).create();
+        final Client client = cluster.connect();
+
+        try {
+            for (int ix = 0; ix < 10; ix++) {
+                assertEquals(ix, client.submit(String.valueOf(ix)).one().getInt());
+            }
+        } finally {
+            cluster.close();
+        }
+    }
+
     @Test
     public void shouldNotThrowNoSuchElementException() throws Exception {
         final Cluster cluster = Cluster.open();
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.driver.ser.GryoMessageSerializerV1d0;
+import org.apache.tinkerpop.gremlin.server.AbstractChannelizer;
+import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.handler.NioGremlinResponseFrameEncoder;
+import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AbstractOpProcessorTest {
+    private static final MessageSerializer serializer = new GryoMessageSerializerV1d0();
+    private static final List<Integer> results = Arrays.asList(1, 2, 3);
+
+    private final AbstractOpProcessor processor = new AbstractOpProcessor(false) {
+        @Override
+        public ThrowingConsumer<Context> select(final Context ctx) {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+    };
+
+    @Test
+    public void shouldWriteSerializedFramesWhenPipelineHasFrameEncoder() throws Exception {
+        final EmbeddedChannel channel = createChannel(true);
+        processor.handleIterator(createContext(channel), results.iterator());
+
+        final Object written = channel.readOutbound();
+        assertThat(written, instanceOf(ByteBuf.class));
+        final ResponseMessage response = serializer.deserializeResponse((ByteBuf) written);
+        assertEquals(ResponseStatusCode.SUCCESS, response.getStatus().getCode());
+        assertEquals(results, response.getResult().getData());
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void shouldWriteResponseMessagesWhenPipelineHasNoFrameEncoder() throws Exception {
+        final EmbeddedChannel channel = createChannel(false);
+        processor.handleIterator(createContext(channel), results.iterator());
+
+        final Object written = channel.readOutbound();
+        assertThat(written, instanceOf(ResponseMessage.class));
+        final ResponseMessage response = (ResponseMessage) written;
+        assertEquals(ResponseStatusCode.SUCCESS, response.getStatus().getCode());
+        assertEquals(results, response.getResult().getData());
+        assertNull(channel.readOutbound());
+    }
+
+    private static EmbeddedChannel createChannel(final boolean withFrameEncoder) {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        if (withFrameEncoder)
+            channel.pipeline().addFirst(AbstractChannelizer.PIPELINE_RESPONSE_FRAME_ENCODER, new NioGremlinResponseFrameEncoder());
+        channel.attr(StateKey.SERIALIZER).set(serializer);
+        channel.attr(StateKey.USE_BINARY).set(true);
+        return channel;
+    }
+
+    private static Context createContext(final EmbeddedChannel channel) {
+        final ChannelHandlerContext ctx = channel.pipeline().lastContext();
+        return new Context(RequestMessage.build(Tokens.OPS_EVAL).create(), ctx, new Settings(), null, null, null);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op.session;
+
+import org.apache.tinkerpop.gremlin.server.GraphManager;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SessionExecutorPoolTest {
+    private final ThreadLocal<Boolean> transactionOpen = ThreadLocal.withInitial(() -> false);
+    private ScheduledExecutorService scheduledExecutorService;
+    private SessionExecutorPool pool;
+
+    @Before
+    public void setUp() {
+        final Settings settings = new Settings();
+        settings.scriptEngines = new HashMap<>();
+        final GraphManager graphManager = new GraphManager(settings);
+        graphManager.getGraphs().put("graph", transactionalGraph());
+
+        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        pool = new SessionExecutorPool(settings, graphManager, scheduledExecutorService, 1, 0);
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+        scheduledExecutorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldExecuteWaitingSessionWhenThreadIsPinned() throws Exception {
+        final SessionExecutorPool.SessionExecutor pinning = pool.acquire();
+        final SessionExecutorPool.SessionExecutor waiting = pool.acquire();
+
+        final CountDownLatch waitingSubmitted = new CountDownLatch(1);
+        final AtomicReference<Thread> pinnedThread = new AtomicReference<>();
+        pinning.execute(() -> {
+            pinnedThread.set(Thread.currentThread());
+            try {
+                waitingSubmitted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+
+            // leave a transaction open so that the session is pinned to the only thread
+            transactionOpen.set(true);
+        });
+
+        final CountDownLatch executed = new CountDownLatch(1);
+        final AtomicReference<Thread> waitingThread = new AtomicReference<>();
+        waiting.execute(() -> {
+            waitingThread.set(Thread.currentThread());
+            executed.countDown();
+        });
+        waitingSubmitted.countDown();
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertNotEquals(pinnedThread.get(), waitingThread.get());
+
+        // the pinned session keeps its thread
+        final AtomicReference<Thread> pinnedAgain = new AtomicReference<>();
+        final CountDownLatch committed = new CountDownLatch(1);
+        pinning.execute(() -> {
+            pinnedAgain.set(Thread.currentThread());
+            transactionOpen.set(false);
+            committed.countDown();
+        });
+
+        assertTrue(committed.await(5, TimeUnit.SECONDS));
+        assertEquals(pinnedThread.get(), pinnedAgain.get());
+    }
+
+    private Graph transactionalGraph() {
+        final Transaction tx = proxy(Transaction.class, (method, args) -> method.equals("isOpen") ? transactionOpen.get() : null);
+        final Graph.Features.GraphFeatures graphFeatures = proxy(Graph.Features.GraphFeatures.class,
+                (method, args) -> method.equals("supportsTransactions") ? true : null);
+        final Graph.Features features = proxy(Graph.Features.class, (method, args) -> method.equals("graph") ? graphFeatures : null);
+        return proxy(Graph.class, (method, args) -> {
+            if (method.equals("features")) return features;
+            if (method.equals("tx")) return tx;
+            return null;
+        });
+    }
+
+    private static <T> T proxy(final Class<T> clazz, final BiFunction<String, Object[], Object> answer) {
+        return clazz.cast(Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[]{clazz},
+                (p, method, args) -> answer.apply(method.getName(), args)));
+    }
+}
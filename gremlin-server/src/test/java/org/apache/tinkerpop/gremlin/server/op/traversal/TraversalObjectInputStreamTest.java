@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalScriptFunction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.util.Serializer;
+import org.apache.tinkerpop.gremlin.util.function.ScriptEngineLambda;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TraversalObjectInputStreamTest {
+    private static final GraphTraversalSource g = EmptyGraph.instance().traversal();
+
+    @Test
+    public void shouldDeserializeTraversal() throws Exception {
+        final Traversal traversal = g.V().has("name", P.within("marko", "vadas")).out("knows")
+                .has("age", P.gt(20)).group().by(T.label).by(__.count());
+        assertEquals(traversal.toString(), deserialize(traversal, Collections.emptySet()).toString());
+    }
+
+    @Test(expected = InvalidClassException.class)
+    public void shouldNotDeserializeTraversalWithLambda() throws Exception {
+        deserialize(g.V().map((Function<Traverser<Vertex>, Integer> & Serializable) t -> 1), Collections.emptySet());
+    }
+
+    @Test(expected = InvalidClassException.class)
+    public void shouldNotDeserializeClassThatIsNotAllowed() throws Exception {
+        deserialize(new File("x"), Collections.emptySet());
+    }
+
+    @Test
+    public void shouldDeserializeAdditionalAllowedClass() throws Exception {
+        assertEquals(new File("x"), deserialize(new File("x"), Collections.singleton(File.class.getName())));
+        assertEquals(new File("x"), deserialize(new File("x"), Collections.singleton("java.io.")));
+    }
+
+    @Test
+    public void shouldNotAllowClassesThatEvaluateScripts() throws Exception {
+        final TraversalObjectInputStream in = createInputStream(Collections.singleton("org.apache.tinkerpop."));
+        assertFalse(in.isAllowed(ScriptEngineLambda.class.getName()));
+        assertFalse(in.isAllowed(TraversalScriptFunction.class.getName()));
+    }
+
+    @Test
+    public void shouldCheckComponentTypeOfArrays() throws Exception {
+        final TraversalObjectInputStream in = createInputStream(Collections.emptySet());
+        assertTrue(in.isAllowed("[I"));
+        assertTrue(in.isAllowed("[[Ljava.lang.String;"));
+        assertFalse(in.isAllowed("[Ljava.io.File;"));
+        assertFalse(in.isAllowed("java.lang.invoke.SerializedLambda"));
+    }
+
+    private static TraversalObjectInputStream createInputStream(final Set<String> allowedClasses) throws Exception {
+        return new TraversalObjectInputStream(new ByteArrayInputStream(Serializer.serializeObject("x")), allowedClasses);
+    }
+
+    private static Object deserialize(final Object object, final Set<String> allowedClasses) throws Exception {
+        try (final TraversalObjectInputStream in = new TraversalObjectInputStream(
+                new ByteArrayInputStream(Serializer.serializeObject(object)), allowedClasses)) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PreparedScriptsTest {
+
+    @After
+    public void tearDown() {
+        PreparedScripts.INSTANCE.configure(0);
+    }
+
+    @Test
+    public void shouldUnprepareLeastRecentlyUsedScript() {
+        PreparedScripts.INSTANCE.configure(2);
+        final String first = PreparedScripts.INSTANCE.prepare("1+1", null, Optional.empty());
+        final String second = PreparedScripts.INSTANCE.prepare("1+2", null, Optional.empty());
+
+        assertTrue(PreparedScripts.INSTANCE.get(first).isPresent());
+        final String third = PreparedScripts.INSTANCE.prepare("1+3", null, Optional.empty());
+
+        assertEquals(2, PreparedScripts.INSTANCE.size());
+        assertTrue(PreparedScripts.INSTANCE.get(first).isPresent());
+        assertFalse(PreparedScripts.INSTANCE.get(second).isPresent());
+        assertTrue(PreparedScripts.INSTANCE.get(third).isPresent());
+    }
+
+    @Test
+    public void shouldReleaseScriptClassWhenUnprepared() throws Exception {
+        PreparedScripts.INSTANCE.configure(1);
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+        final String handle = PreparedScripts.INSTANCE.prepare("1+1", null, Optional.of(engine.compile("1+1")));
+        assertEquals(1, engine.getClassCache().getPinnedSize());
+
+        assertTrue(PreparedScripts.INSTANCE.unprepare(handle));
+        assertFalse(PreparedScripts.INSTANCE.get(handle).isPresent());
+        assertEquals(0, engine.getClassCache().getPinnedSize());
+        assertFalse(PreparedScripts.INSTANCE.unprepare(handle));
+    }
+
+    @Test
+    public void shouldReleaseScriptClassWhenEvicted() throws Exception {
+        PreparedScripts.INSTANCE.configure(1);
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+        PreparedScripts.INSTANCE.prepare("1+1", null, Optional.of(engine.compile("1+1")));
+        PreparedScripts.INSTANCE.prepare("1+2", null, Optional.of(engine.compile("1+2")));
+
+        assertEquals(1, PreparedScripts.INSTANCE.size());
+        assertEquals(1, engine.getClassCache().getPinnedSize());
+    }
+
+    @Test
+    public void shouldKeepScriptClassPinnedWhenPreparedAgain() throws Exception {
+        PreparedScripts.INSTANCE.configure(1);
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+        final String handle = PreparedScripts.INSTANCE.prepare("1+1", null, Optional.of(engine.compile("1+1")));
+        assertEquals(handle, PreparedScripts.INSTANCE.prepare("1+1", null, Optional.of(engine.compile("1+1"))));
+
+        assertEquals(1, PreparedScripts.INSTANCE.size());
+        assertEquals(1, engine.getClassCache().getPinnedSize());
+
+        // the second prepare must not leave a pin behind once the script is unprepared
+        assertTrue(PreparedScripts.INSTANCE.unprepare(handle));
+        assertEquals(0, engine.getClassCache().getPinnedSize());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotPrepareScriptWhenDisabled() {
+        PreparedScripts.INSTANCE.configure(0);
+        PreparedScripts.INSTANCE.prepare("1+1", null, Optional.empty());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class SlowScriptTrackerTest {
+
+    @Test
+    public void shouldNotShareFingerprintBetweenScriptsWithSameHashCode() {
+        // "Aa" and "BB" have the same String.hashCode()
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(SlowScriptTracker.fingerprint("Aa"), SlowScriptTracker.fingerprint("BB"));
+        assertEquals(40, SlowScriptTracker.fingerprint("Aa").length());
+    }
+
+    @Test
+    public void shouldTrackScriptsWithSameHashCodeSeparately() {
+        SlowScriptTracker.INSTANCE.configure(10);
+        SlowScriptTracker.INSTANCE.record("Aa", 1000);
+        SlowScriptTracker.INSTANCE.record("BB", 1000);
+
+        final List<Map<String, Object>> slowest = SlowScriptTracker.INSTANCE.getSlowest();
+        assertEquals(2, slowest.size());
+        SlowScriptTracker.INSTANCE.configure(0);
+    }
+}
@@ -36,18 +36,35 @@ public final class Constants {
     public static final String GREMLIN_HADOOP_GRAPH_INPUT_FORMAT_HAS_EDGES = "gremlin.hadoop.graphOutputFormat.hasEdges";
     public static final String GREMLIN_HADOOP_GRAPH_OUTPUT_FORMAT_HAS_EDGES = "gremlin.hadoop.graphInputFormat.hasEdges";;
 
+    public static final String GREMLIN_HADOOP_GRAPH_FILTER = "gremlin.hadoop.graphFilter";
+
     public static final String GREMLIN_HADOOP_JARS_IN_DISTRIBUTED_CACHE = "gremlin.hadoop.jarsInDistributedCache";
     public static final String HIDDEN_G = Graph.Hidden.hide("g");
     public static final String GREMLIN_HADOOP_JOB_PREFIX = "HadoopGremlin: ";
     public static final String GREMLIN_HADOOP_GIRAPH_JOB_PREFIX = "HadoopGremlin(Giraph): ";
     // public static final String GREMLIN_HADOOP_MAP_REDUCE_JOB_PREFIX = "HadoopGremlin(MapReduce): ";
     public static final String GREMLIN_HADOOP_SPARK_JOB_PREFIX = "HadoopGremlin(Spark): ";
+    public static final String GREMLIN_HADOOP_LOCAL_JOB_PREFIX = "HadoopGremlin(Local): ";
     public static final String HADOOP_GREMLIN_LIBS = "HADOOP_GREMLIN_LIBS";
     public static final String DOT_JAR = ".jar";
     public static final String HIDDEN_ITERATION = Graph.Hidden.hide("gremlin.hadoop.iteration");
     public static final String GREMLIN_HADOOP_MAP_REDUCE_CLASS = "gremlin.hadoop.mapReduceClass";
 
     public static final String MAPRED_INPUT_DIR = "mapred.input.dir";
+    public static final String MAPRED_OUTPUT_DIR = "mapred.output.dir";
+
+    // giraph based constants
+    public static final String GREMLIN_HADOOP_GIRAPH_COUNTER_GROUP = "HadoopGremlin(Giraph)";
+    public static final String GIRAPH_USE_OUT_OF_CORE_GRAPH = "giraph.useOutOfCoreGraph";
+    public static final String GIRAPH_MAX_PARTITIONS_IN_MEMORY = "giraph.maxPartitionsInMemory";
+    public static final String GIRAPH_USE_OUT_OF_CORE_MESSAGES = "giraph.useOutOfCoreMessages";
+    public static final String GIRAPH_MAX_MESSAGES_IN_MEMORY = "giraph.maxMessagesInMemory";
+    public static final String GIRAPH_MIN_WORKERS = "giraph.minWorkers";
+    public static final String GIRAPH_MAX_WORKERS = "giraph.maxWorkers";
+    public static final String GIRAPH_NUM_COMPUTE_THREADS = "giraph.numComputeThreads";
+
+    // local based constants
+    public static final String GREMLIN_HADOOP_LOCAL_WORKERS = "gremlin.hadoop.localWorkers";
 
     // spark based constants
     public static final String GREMLIN_HADOOP_GRAPH_INPUT_RDD = "gremlin.hadoop.graphInputRDD";
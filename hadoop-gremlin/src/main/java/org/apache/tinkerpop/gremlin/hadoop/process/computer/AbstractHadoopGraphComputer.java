@@ -29,6 +29,7 @@ import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.GraphComputerHelper;
@@ -110,6 +111,28 @@ public abstract class AbstractHadoopGraphComputer implements GraphComputer {
             throw GraphComputer.Exceptions.resultGraphPersistCombinationNotSupported(this.resultGraph, this.persist);
     }
 
+    /**
+     * The {@link GraphFilter} of the vertex program relaxed to what can be safely pushed down to the graph readers.
+     * Properties are only filtered when nothing is persisted and edges are only filtered when edges are not persisted.
+     * MapReduce jobs also read the loaded graph and thus, if a job is not declared by the vertex program, nothing is filtered.
+     */
+    protected GraphFilter getGraphFilter() {
+        if (null == this.vertexProgram ||
+                !this.hadoopGraph.configuration().getBoolean(Constants.GREMLIN_HADOOP_GRAPH_FILTER, true) ||
+                !this.vertexProgram.getMapReducers().containsAll(this.mapReducers))
+            return GraphFilter.all();
+        final GraphFilter graphFilter = this.vertexProgram.getGraphFilter().clone();
+        // compute keys are read back from intermediate graph outputs (e.g. by the vertex program's MapReduce jobs)
+        final Set<String> elementComputeKeys = this.vertexProgram.getElementComputeKeys();
+        if (!elementComputeKeys.isEmpty())
+            graphFilter.addPropertyKeys(elementComputeKeys.toArray(new String[elementComputeKeys.size()]));
+        if (!this.persist.equals(Persist.NOTHING))
+            graphFilter.allowAllPropertyKeys();
+        if (this.persist.equals(Persist.EDGES))
+            graphFilter.allowAllEdges();
+        return graphFilter;
+    }
+
     @Override
     public Features features() {
         return new Features() {
@@ -160,6 +183,11 @@ public abstract class AbstractHadoopGraphComputer implements GraphComputer {
             public boolean supportsDirectObjects() {
                 return false;
             }
+
+            @Override
+            public boolean supportsGraphFilter() {
+                return true;
+            }
         };
     }
 }
@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.hadoop.process.computer.giraph;
 
 import org.apache.giraph.graph.Vertex;
 import org.apache.hadoop.io.NullWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.MessageWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.ObjectWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
@@ -28,7 +29,7 @@ import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class GiraphComputeVertex extends Vertex<ObjectWritable, VertexWritable, NullWritable, ObjectWritable> {
+public final class GiraphComputeVertex extends Vertex<ObjectWritable, VertexWritable, NullWritable, MessageWritable> {
 
     public GiraphComputeVertex() {
     }
@@ -41,7 +42,7 @@ public final class GiraphComputeVertex extends Vertex<ObjectWritable, VertexWrit
     }
 
     @Override
-    public void compute(final Iterable<ObjectWritable> messages) {
+    public void compute(final Iterable<MessageWritable> messages) {
         final GiraphWorkerContext workerContext = (GiraphWorkerContext) this.getWorkerContext();
         final VertexProgram<?> vertexProgram = workerContext.getVertexProgramPool().take();
         vertexProgram.execute(ComputerGraph.vertexProgram(this.getValue().get(), vertexProgram), workerContext.getMessenger(this, messages.iterator()), workerContext.getMemory());
@@ -19,7 +19,6 @@
 package org.apache.tinkerpop.gremlin.hadoop.process.computer.giraph;
 
 import org.apache.commons.configuration.BaseConfiguration;
-import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.FileConfiguration;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.giraph.conf.GiraphConfiguration;
@@ -38,6 +37,7 @@ import org.apache.tinkerpop.gremlin.hadoop.process.computer.AbstractHadoopGraphC
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.giraph.io.GiraphVertexInputFormat;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.giraph.io.GiraphVertexOutputFormat;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.util.MapReduceHelper;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopConfiguration;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.ObjectWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.ObjectWritableIterator;
@@ -46,6 +46,7 @@ import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
 import org.apache.tinkerpop.gremlin.hadoop.structure.util.HadoopHelper;
 import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
@@ -67,8 +68,14 @@ public final class GiraphGraphComputer extends AbstractHadoopGraphComputer imple
 
     public GiraphGraphComputer(final HadoopGraph hadoopGraph) {
         super(hadoopGraph);
-        final Configuration configuration = hadoopGraph.configuration();
+        final HadoopConfiguration configuration = hadoopGraph.configuration();
         configuration.getKeys().forEachRemaining(key -> this.giraphConfiguration.set(key, configuration.getProperty(key).toString()));
+        this.giraphConfiguration.setBoolean(Constants.GIRAPH_USE_OUT_OF_CORE_GRAPH, configuration.getGiraphOutOfCoreGraph());
+        this.giraphConfiguration.setInt(Constants.GIRAPH_MAX_PARTITIONS_IN_MEMORY, configuration.getGiraphMaxPartitionsInMemory());
+        this.giraphConfiguration.setBoolean(Constants.GIRAPH_USE_OUT_OF_CORE_MESSAGES, configuration.getGiraphOutOfCoreMessages());
+        this.giraphConfiguration.setInt(Constants.GIRAPH_MAX_MESSAGES_IN_MEMORY, configuration.getGiraphMaxMessagesInMemory());
+        this.giraphConfiguration.setInt(Constants.GIRAPH_NUM_COMPUTE_THREADS, configuration.getGiraphNumComputeThreads());
+        this.giraphConfiguration.setWorkerConfiguration(configuration.getGiraphMinWorkers(), configuration.getGiraphMaxWorkers(), 100.0f);
         this.giraphConfiguration.setMasterComputeClass(GiraphMemory.class);
         this.giraphConfiguration.setVertexClass(GiraphComputeVertex.class);
         this.giraphConfiguration.setWorkerContextClass(GiraphWorkerContext.class);
@@ -114,6 +121,13 @@ public final class GiraphGraphComputer extends AbstractHadoopGraphComputer imple
     @Override
     public int run(final String[] args) {
         this.giraphConfiguration.setBoolean(Constants.GREMLIN_HADOOP_GRAPH_OUTPUT_FORMAT_HAS_EDGES, this.persist.equals(Persist.EDGES));
+        // push the parts of the graph that the vertex program will read down to the graph readers
+        final GraphFilter graphFilter = this.getGraphFilter();
+        if (!graphFilter.allowsAll()) {
+            final BaseConfiguration apacheConfiguration = new BaseConfiguration();
+            graphFilter.storeState(apacheConfiguration);
+            ConfUtil.mergeApacheIntoHadoopConfiguration(apacheConfiguration, this.giraphConfiguration);
+        }
         try {
             // it is possible to run graph computer without a vertex program (and thus, only map reduce jobs if they exist)
             if (null != this.vertexProgram) {
@@ -141,6 +155,9 @@ public final class GiraphGraphComputer extends AbstractHadoopGraphComputer imple
                 // execute the job and wait until it completes (if it fails, throw an exception)
                 if (!job.run(true))
                     throw new IllegalStateException("The GiraphGraphComputer job failed -- aborting all subsequent MapReduce jobs");  // how do I get the exception that occured?
+                // report the worker message volume and heap usage gathered by GiraphMemory
+                job.getInternalJob().getCounters().getGroup(Constants.GREMLIN_HADOOP_GIRAPH_COUNTER_GROUP).forEach(counter ->
+                        this.logger.info(Constants.GREMLIN_HADOOP_GIRAPH_JOB_PREFIX + counter.getName() + "=" + counter.getValue()));
                 // add vertex program memory values to the return memory
                 for (final String key : this.vertexProgram.getMemoryComputeKeys()) {
                     final Path path = new Path(this.giraphConfiguration.get(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION) + "/" + key);
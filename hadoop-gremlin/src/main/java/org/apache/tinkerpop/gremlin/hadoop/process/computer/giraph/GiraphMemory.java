@@ -19,9 +19,12 @@
 package org.apache.tinkerpop.gremlin.hadoop.process.computer.giraph;
 
 import org.apache.commons.configuration.Configuration;
+import org.apache.giraph.aggregators.LongMaxAggregator;
+import org.apache.giraph.aggregators.LongSumAggregator;
 import org.apache.giraph.master.MasterCompute;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.SequenceFile;
 import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.util.Rule;
@@ -33,6 +36,7 @@ import org.apache.tinkerpop.gremlin.process.computer.Memory;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.MapMemory;
 import org.apache.tinkerpop.gremlin.process.computer.util.MemoryHelper;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.io.DataInput;
@@ -46,11 +50,15 @@ import java.util.stream.Collectors;
  */
 public final class GiraphMemory extends MasterCompute implements Memory {
 
+    public static final String MESSAGES_SENT = Graph.Hidden.hide("gremlin.giraph.messagesSent");
+    public static final String MAX_WORKER_HEAP_USED = Graph.Hidden.hide("gremlin.giraph.maxWorkerHeapUsed");
+
     private VertexProgram<?> vertexProgram;
     private GiraphWorkerContext worker;
     private Set<String> memoryKeys;
     private boolean isMasterCompute = true;
     private long startTime = System.currentTimeMillis();
+    private long messagesSent = 0l;
 
     public GiraphMemory() {
         // Giraph ReflectionUtils requires this to be public at minimum
@@ -82,16 +90,21 @@ public final class GiraphMemory extends MasterCompute implements Memory {
                     MemoryHelper.validateKey(key);
                     this.registerPersistentAggregator(key, MemoryAggregator.class);
                 }
+                this.registerAggregator(MESSAGES_SENT, LongSumAggregator.class);
+                // persistent so that it holds the largest heap reported over all supersteps and not just the last
+                this.registerPersistentAggregator(MAX_WORKER_HEAP_USED, LongMaxAggregator.class);
             } catch (final Exception e) {
                 throw new IllegalStateException(e.getMessage(), e);
             }
             this.vertexProgram.setup(this);
         } else {
+            this.updateWorkerMetrics();
             if (this.vertexProgram.terminate(this)) { // terminate
                 // write the memory to HDFS
                 final MapMemory memory = new MapMemory(this);
                 // a hack to get the last iteration memory values to stick
                 this.vertexProgram.terminate(memory);
+                HadoopGraph.LOGGER.info("Workers sent " + this.messagesSent + " messages in total with a max worker heap of " + this.getMaxWorkerHeapUsed() + " bytes");
                 final String outputLocation = this.getConf().get(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION, null);
                 if (null != outputLocation) {
                     try {
@@ -112,6 +125,28 @@ public final class GiraphMemory extends MasterCompute implements Memory {
         }
     }
 
+    private void updateWorkerMetrics() {
+        // the aggregated values are those reported by the workers at the end of the previous superstep
+        final long superstepMessages = this.<LongWritable>getAggregatedValue(MESSAGES_SENT).get();
+        this.messagesSent = this.messagesSent + superstepMessages;
+        this.getContext().getCounter(Constants.GREMLIN_HADOOP_GIRAPH_COUNTER_GROUP, "messagesSent").increment(superstepMessages);
+        HadoopGraph.LOGGER.info("Superstep " + (this.getSuperstep() - 1) + " sent " + superstepMessages + " messages with a max worker heap so far of " + this.getMaxWorkerHeapUsed() + " bytes");
+    }
+
+    /**
+     * The total number of messages sent by all workers so far (only available to the master).
+     */
+    public long getMessagesSent() {
+        return this.messagesSent;
+    }
+
+    /**
+     * The largest heap usage reported by any worker at the end of a superstep (only available to the master).
+     */
+    public long getMaxWorkerHeapUsed() {
+        return this.<LongWritable>getAggregatedValue(MAX_WORKER_HEAP_USED).get();
+    }
+
     @Override
     public int getIteration() {
         if (this.isMasterCompute) {
@@ -23,6 +23,7 @@ import org.apache.giraph.combiner.Combiner;
 import org.apache.giraph.conf.ImmutableClassesGiraphConfigurable;
 import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.MessageWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.ObjectWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
 import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
@@ -31,21 +32,21 @@ import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class GiraphMessageCombiner extends Combiner<ObjectWritable, ObjectWritable> implements ImmutableClassesGiraphConfigurable {
+public final class GiraphMessageCombiner extends Combiner<ObjectWritable, MessageWritable> implements ImmutableClassesGiraphConfigurable {
 
     private MessageCombiner messageCombiner;
     private ImmutableClassesGiraphConfiguration configuration;
 
     @Override
-    public void combine(final ObjectWritable vertexIndex, final ObjectWritable originalMessage, final ObjectWritable messageToCombine) {
+    public void combine(final ObjectWritable vertexIndex, final MessageWritable originalMessage, final MessageWritable messageToCombine) {
         originalMessage.set(originalMessage.isEmpty() ?
                 messageToCombine.get() :
                 this.messageCombiner.combine(originalMessage.get(), messageToCombine.get()));
     }
 
     @Override
-    public ObjectWritable createInitialMessage() {
-        return ObjectWritable.empty();
+    public MessageWritable createInitialMessage() {
+        return MessageWritable.empty();
     }
 
     @Override
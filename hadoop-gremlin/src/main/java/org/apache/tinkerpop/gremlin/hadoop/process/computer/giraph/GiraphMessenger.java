@@ -18,6 +18,7 @@
  */
 package org.apache.tinkerpop.gremlin.hadoop.process.computer.giraph;
 
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.MessageWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.ObjectWritable;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.process.computer.Messenger;
@@ -31,6 +32,7 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -38,16 +40,18 @@ import java.util.Iterator;
 public final class GiraphMessenger<M> implements Messenger<M> {
 
     private GiraphComputeVertex giraphComputeVertex;
-    private Iterator<ObjectWritable<M>> messages;
+    private Iterator<MessageWritable<M>> messages;
+    private LongAdder messagesSent;
 
-    public GiraphMessenger(final GiraphComputeVertex giraphComputeVertex, final Iterator<ObjectWritable<M>> messages) {
+    public GiraphMessenger(final GiraphComputeVertex giraphComputeVertex, final Iterator<MessageWritable<M>> messages, final LongAdder messagesSent) {
         this.giraphComputeVertex = giraphComputeVertex;
         this.messages = messages;
+        this.messagesSent = messagesSent;
     }
 
     @Override
     public Iterator<M> receiveMessages() {
-        return IteratorUtils.map(this.messages, ObjectWritable::get);
+        return IteratorUtils.map(this.messages, MessageWritable::get);
     }
 
     @Override
@@ -56,14 +60,18 @@ public final class GiraphMessenger<M> implements Messenger<M> {
             final MessageScope.Local<M> localMessageScope = (MessageScope.Local) messageScope;
             final Traversal.Admin<Vertex, Edge> incidentTraversal = GiraphMessenger.setVertexStart(localMessageScope.getIncidentTraversal().get(), this.giraphComputeVertex.getValue().get());
             final Direction direction = GiraphMessenger.getOppositeDirection(incidentTraversal);
-            incidentTraversal.forEachRemaining(edge ->
-                    this.giraphComputeVertex.sendMessage(
-                            new ObjectWritable<>(edge.vertices(direction).next().id()),
-                            new ObjectWritable<>(localMessageScope.getEdgeFunction().apply(message, edge))));
+            incidentTraversal.forEachRemaining(edge -> {
+                this.giraphComputeVertex.sendMessage(
+                        new ObjectWritable<>(edge.vertices(direction).next().id()),
+                        new MessageWritable<>(localMessageScope.getEdgeFunction().apply(message, edge)));
+                this.messagesSent.increment();
+            });
         } else {
             final MessageScope.Global globalMessageScope = (MessageScope.Global) messageScope;
-            globalMessageScope.vertices().forEach(vertex ->
-                    this.giraphComputeVertex.sendMessage(new ObjectWritable<>(vertex.id()), new ObjectWritable<>(message)));
+            globalMessageScope.vertices().forEach(vertex -> {
+                this.giraphComputeVertex.sendMessage(new ObjectWritable<>(vertex.id()), new MessageWritable<>(message));
+                this.messagesSent.increment();
+            });
         }
     }
 
@@ -21,15 +21,17 @@ package org.apache.tinkerpop.gremlin.hadoop.process.computer.giraph;
 import org.apache.commons.configuration.Configuration;
 import org.apache.giraph.conf.GiraphConstants;
 import org.apache.giraph.worker.WorkerContext;
+import org.apache.hadoop.io.LongWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
-import org.apache.tinkerpop.gremlin.hadoop.structure.io.ObjectWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.MessageWritable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.ImmutableMemory;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
 
 import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -38,6 +40,7 @@ public final class GiraphWorkerContext extends WorkerContext {
 
     private VertexProgramPool vertexProgramPool;
     private GiraphMemory memory;
+    private final LongAdder messagesSent = new LongAdder();
 
     public GiraphWorkerContext() {
         // Giraph ReflectionUtils requires this to be public at minimum
@@ -61,6 +64,10 @@ public final class GiraphWorkerContext extends WorkerContext {
 
     public void postSuperstep() {
         this.vertexProgramPool.workerIterationEnd(new ImmutableMemory(this.memory));
+        // report this worker's message volume and heap usage to the master (see GiraphMemory)
+        final Runtime runtime = Runtime.getRuntime();
+        this.aggregate(GiraphMemory.MESSAGES_SENT, new LongWritable(this.messagesSent.sumThenReset()));
+        this.aggregate(GiraphMemory.MAX_WORKER_HEAP_USED, new LongWritable(runtime.totalMemory() - runtime.freeMemory()));
     }
 
     public VertexProgramPool getVertexProgramPool() {
@@ -71,7 +78,7 @@ public final class GiraphWorkerContext extends WorkerContext {
         return this.memory;
     }
 
-    public GiraphMessenger getMessenger(final GiraphComputeVertex giraphComputeVertex, final Iterator<ObjectWritable> messages) {
-        return new GiraphMessenger(giraphComputeVertex, messages);
+    public GiraphMessenger getMessenger(final GiraphComputeVertex giraphComputeVertex, final Iterator<MessageWritable> messages) {
+        return new GiraphMessenger(giraphComputeVertex, messages, this.messagesSent);
     }
 }
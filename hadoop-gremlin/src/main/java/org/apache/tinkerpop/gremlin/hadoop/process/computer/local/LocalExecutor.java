@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.process.computer.local;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.JobID;
+import org.apache.hadoop.mapreduce.OutputCommitter;
+import org.apache.hadoop.mapreduce.OutputFormat;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskID;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.ObjectWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
+import org.apache.tinkerpop.gremlin.process.computer.util.MapReducePool;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The stages of a {@link LocalGraphComputer} job. Each stage is split into many small chunks that are executed on a
+ * work-stealing {@link ForkJoinPool} so that all the cores of the machine are kept busy.
+ */
+public final class LocalExecutor {
+
+    private static final int CHUNKS_PER_WORKER = 16;
+    private static final String JOB_TRACKER_ID = "local";
+
+    private LocalExecutor() {
+    }
+
+    //////////////////
+    // INPUT/OUTPUT //
+    //////////////////
+
+    /**
+     * Read the graph with the configured {@link InputFormat}, one input split per task. A vertex that appears in more
+     * than one split is only kept once. The returned list has one partition per input split.
+     */
+    public static List<List<StarGraph.StarVertex>> readGraph(final ForkJoinPool pool, final Configuration hadoopConfiguration) {
+        final InputFormat<NullWritable, VertexWritable> inputFormat = ReflectionUtils.newInstance(hadoopConfiguration.getClass(Constants.GREMLIN_HADOOP_GRAPH_INPUT_FORMAT, InputFormat.class, InputFormat.class), hadoopConfiguration);
+        final List<InputSplit> splits;
+        try {
+            splits = inputFormat.getSplits(new JobContext(hadoopConfiguration, new JobID(JOB_TRACKER_ID, 0)));
+        } catch (final IOException | InterruptedException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        final List<List<StarGraph.StarVertex>> partitions = new ArrayList<>(splits.size());
+        for (int i = 0; i < splits.size(); i++) {
+            partitions.add(new ArrayList<>());
+        }
+        final Set<Object> vertexIds = ConcurrentHashMap.newKeySet();
+        LocalExecutor.execute(pool, IntStream.range(0, splits.size()), i -> {
+            try {
+                final TaskAttemptContext context = new TaskAttemptContext(hadoopConfiguration, new TaskAttemptID());
+                final RecordReader<NullWritable, VertexWritable> reader = inputFormat.createRecordReader(splits.get(i), context);
+                reader.initialize(splits.get(i), context);
+                while (reader.nextKeyValue()) {
+                    final StarGraph.StarVertex vertex = reader.getCurrentValue().get();
+                    if (vertexIds.add(vertex.id()))
+                        partitions.get(i).add(vertex);
+                }
+                reader.close();
+            } catch (final IOException | InterruptedException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+        return partitions;
+    }
+
+    /**
+     * Write the graph with the configured {@link OutputFormat} to the {@link Constants#HIDDEN_G} directory of the output
+     * location, one file per partition. Each partition is written and committed as its own task attempt.
+     */
+    public static void writeGraph(final ForkJoinPool pool, final List<List<StarGraph.StarVertex>> partitions, final Configuration hadoopConfiguration) {
+        final String outputLocation = hadoopConfiguration.get(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION, null);
+        if (null == outputLocation)
+            return;
+        final Configuration outputConfiguration = new Configuration(hadoopConfiguration);
+        outputConfiguration.set(Constants.MAPRED_OUTPUT_DIR, outputLocation + "/" + Constants.HIDDEN_G);
+        final JobID jobId = new JobID(JOB_TRACKER_ID, 0);
+        final JobContext jobContext = new JobContext(outputConfiguration, jobId);
+        try {
+            final OutputCommitter jobCommitter = LocalExecutor.createOutputFormat(outputConfiguration).getOutputCommitter(new TaskAttemptContext(outputConfiguration, new TaskAttemptID(new TaskID(jobId, true, 0), 0)));
+            jobCommitter.setupJob(jobContext);
+            LocalExecutor.execute(pool, IntStream.range(0, partitions.size()), i -> {
+                try {
+                    // the output committer of a file output format is bound to the first task attempt it sees so each task gets its own
+                    final OutputFormat<NullWritable, VertexWritable> outputFormat = LocalExecutor.createOutputFormat(outputConfiguration);
+                    final TaskAttemptContext context = new TaskAttemptContext(outputConfiguration, new TaskAttemptID(new TaskID(jobId, true, i), 0));
+                    final OutputCommitter committer = outputFormat.getOutputCommitter(context);
+                    committer.setupTask(context);
+                    final RecordWriter<NullWritable, VertexWritable> writer = outputFormat.getRecordWriter(context);
+                    final VertexWritable vertexWritable = new VertexWritable();
+                    for (final StarGraph.StarVertex vertex : partitions.get(i)) {
+                        vertexWritable.set(vertex);
+                        writer.write(NullWritable.get(), vertexWritable);
+                    }
+                    writer.close(context);
+                    if (committer.needsTaskCommit(context))
+                        committer.commitTask(context);
+                } catch (final IOException | InterruptedException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+            jobCommitter.commitJob(jobContext);
+        } catch (final IOException | InterruptedException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static OutputFormat<NullWritable, VertexWritable> createOutputFormat(final Configuration hadoopConfiguration) {
+        return ReflectionUtils.newInstance(hadoopConfiguration.getClass(Constants.GREMLIN_HADOOP_GRAPH_OUTPUT_FORMAT, OutputFormat.class, OutputFormat.class), hadoopConfiguration);
+    }
+
+    ////////////////////
+    // VERTEX PROGRAM //
+    ////////////////////
+
+    public static <M> void executeVertexProgramIteration(final ForkJoinPool pool,
+                                                         final List<StarGraph.StarVertex> vertices,
+                                                         final VertexProgramPool vertexProgramPool,
+                                                         final LocalMessageBoard<M> messageBoard,
+                                                         final Memory memory) {
+        LocalExecutor.executeInChunks(pool, vertices.size(), (start, end) -> {
+            final VertexProgram<M> vertexProgram = vertexProgramPool.take();
+            final LocalMessenger<M> messenger = new LocalMessenger<>(messageBoard);
+            for (int i = start; i < end; i++) {
+                final StarGraph.StarVertex vertex = vertices.get(i);
+                messenger.setVertex(vertex);
+                vertexProgram.execute(ComputerGraph.vertexProgram(vertex, vertexProgram), messenger, memory);
+            }
+            vertexProgramPool.offer(vertexProgram);
+        });
+    }
+
+    ////////////////
+    // MAP REDUCE //
+    ////////////////
+
+    public static void executeMapReduce(final ForkJoinPool pool,
+                                        final List<StarGraph.StarVertex> vertices,
+                                        final MapReduce mapReduce,
+                                        final Memory.Admin memory,
+                                        final Configuration hadoopConfiguration) {
+        // no need to run combiners as this is a single machine
+        final MapReducePool mapReducePool = new MapReducePool(mapReduce, pool.getParallelism());
+        final LocalMapEmitter<?, ?> mapEmitter = new LocalMapEmitter<>(mapReduce.doStage(MapReduce.Stage.REDUCE));
+        mapReducePool.workerStart(MapReduce.Stage.MAP);
+        LocalExecutor.executeInChunks(pool, vertices.size(), (start, end) -> {
+            final MapReduce workerMapReduce = mapReducePool.take();
+            for (int i = start; i < end; i++) {
+                workerMapReduce.map(ComputerGraph.mapReduce(vertices.get(i)), mapEmitter);
+            }
+            mapReducePool.offer(workerMapReduce);
+        });
+        mapReducePool.workerEnd(MapReduce.Stage.MAP);
+        mapEmitter.complete(mapReduce);  // sort results if a map output sort is defined
+        final Queue<KeyValue<?, ?>> result;
+        if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
+            final LocalReduceEmitter<?, ?> reduceEmitter = new LocalReduceEmitter<>();
+            final List<Map.Entry<?, Queue<?>>> keyValues = new ArrayList<>((Set) mapEmitter.reduceMap.entrySet());
+            mapReducePool.workerStart(MapReduce.Stage.REDUCE);
+            LocalExecutor.executeInChunks(pool, keyValues.size(), (start, end) -> {
+                final MapReduce workerMapReduce = mapReducePool.take();
+                for (int i = start; i < end; i++) {
+                    workerMapReduce.reduce(keyValues.get(i).getKey(), keyValues.get(i).getValue().iterator(), reduceEmitter);
+                }
+                mapReducePool.offer(workerMapReduce);
+            });
+            mapReducePool.workerEnd(MapReduce.Stage.REDUCE);
+            reduceEmitter.complete(mapReduce); // sort results if a reduce output sort is defined
+            result = (Queue) reduceEmitter.reduceQueue;
+        } else {
+            result = (Queue) mapEmitter.mapQueue;
+        }
+        LocalExecutor.saveMapReduceResult(result.iterator(), mapReduce, hadoopConfiguration);
+        mapReduce.addResultToMemory(memory, result.iterator());
+    }
+
+    private static void saveMapReduceResult(final Iterator<KeyValue<?, ?>> keyValues, final MapReduce mapReduce, final Configuration hadoopConfiguration) {
+        final String outputLocation = hadoopConfiguration.get(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION, null);
+        if (null != outputLocation) {
+            try {
+                final SequenceFile.Writer writer = SequenceFile.createWriter(FileSystem.get(hadoopConfiguration), hadoopConfiguration, new Path(outputLocation + "/" + mapReduce.getMemoryKey()), ObjectWritable.class, ObjectWritable.class);
+                while (keyValues.hasNext()) {
+                    final KeyValue<?, ?> keyValue = keyValues.next();
+                    writer.append(new ObjectWritable<>(keyValue.getKey()), new ObjectWritable<>(keyValue.getValue()));
+                }
+                writer.close();
+            } catch (final IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+    }
+
+    ///////////////
+
+    /**
+     * Split {@code [0, size)} into ranges of roughly {@link #CHUNKS_PER_WORKER} per worker and process them in parallel.
+     */
+    private static void executeInChunks(final ForkJoinPool pool, final int size, final BiConsumer<Integer, Integer> chunkConsumer) {
+        final int chunkSize = Math.max(1, size / (pool.getParallelism() * CHUNKS_PER_WORKER));
+        LocalExecutor.execute(pool, IntStream.range(0, (size + chunkSize - 1) / chunkSize), chunk -> chunkConsumer.accept(chunk * chunkSize, Math.min(size, (chunk + 1) * chunkSize)));
+    }
+
+    private static void execute(final ForkJoinPool pool, final IntStream tasks, final IntConsumer task) {
+        // a parallel stream started from within a fork join pool executes its tasks on that pool
+        if (ForkJoinTask.getPool() == pool) {
+            tasks.parallel().forEach(task);
+            return;
+        }
+        try {
+            pool.submit(() -> tasks.parallel().forEach(task)).get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (final InterruptedException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.process.computer.local;
+
+import org.apache.commons.configuration.FileConfiguration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.process.computer.AbstractHadoopGraphComputer;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopConfiguration;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.HadoopHelper;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer} that executes {@link HadoopGraph} jobs in the
+ * current JVM without a cluster. The input splits are read in parallel with the configured {@code InputFormat}, the
+ * vertex program iterations and MapReduce jobs are executed on a work-stealing pool with messages passed through
+ * shared memory, and the resultant graph is written with the configured {@code OutputFormat}. The number of worker
+ * threads is set by {@link Constants#GREMLIN_HADOOP_LOCAL_WORKERS} and defaults to the number of available processors.
+ */
+public final class LocalGraphComputer extends AbstractHadoopGraphComputer {
+
+    public LocalGraphComputer(final HadoopGraph hadoopGraph) {
+        super(hadoopGraph);
+    }
+
+    @Override
+    public Future<ComputerResult> submit() {
+        super.validateStatePriorToExecution();
+        // apache and hadoop configurations that are used throughout the graph computer computation
+        final org.apache.commons.configuration.Configuration apacheConfiguration = new HadoopConfiguration(this.hadoopGraph.configuration());
+        apacheConfiguration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_OUTPUT_FORMAT_HAS_EDGES, this.persist.equals(Persist.EDGES));
+        // push the parts of the graph that the vertex program will read down to the graph readers
+        final GraphFilter graphFilter = this.getGraphFilter();
+        if (!graphFilter.allowsAll())
+            graphFilter.storeState(apacheConfiguration);
+        final Configuration hadoopConfiguration = ConfUtil.makeHadoopConfiguration(apacheConfiguration);
+        if (FileInputFormat.class.isAssignableFrom(hadoopConfiguration.getClass(Constants.GREMLIN_HADOOP_GRAPH_INPUT_FORMAT, InputFormat.class))) {
+            try {
+                final String inputLocation = FileSystem.get(hadoopConfiguration).getFileStatus(new Path(hadoopConfiguration.get(Constants.GREMLIN_HADOOP_INPUT_LOCATION))).getPath().toString();
+                hadoopConfiguration.set(Constants.MAPRED_INPUT_DIR, inputLocation);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        final int workers = hadoopConfiguration.getInt(Constants.GREMLIN_HADOOP_LOCAL_WORKERS, Runtime.getRuntime().availableProcessors());
+        // the job itself runs on the pool of the computer rather than the common pool and then forks its work there
+        final ForkJoinPool pool = new ForkJoinPool(workers);
+
+        return CompletableFuture.<ComputerResult>supplyAsync(() -> {
+            try {
+                final long startTime = System.currentTimeMillis();
+                HadoopPools.initialize(apacheConfiguration);
+                // delete output location
+                final String outputLocation = hadoopConfiguration.get(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION, null);
+                if (null != outputLocation) {
+                    try {
+                        FileSystem.get(hadoopConfiguration).delete(new Path(outputLocation), true);
+                    } catch (final IOException e) {
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                }
+                this.logger.info(Constants.GREMLIN_HADOOP_LOCAL_JOB_PREFIX + (null == this.vertexProgram ? "No VertexProgram" : this.vertexProgram) + "[" + this.mapReducers + "]");
+                // read the input splits in parallel
+                final List<List<StarGraph.StarVertex>> partitions = LocalExecutor.readGraph(pool, hadoopConfiguration);
+                final List<StarGraph.StarVertex> vertices = new ArrayList<>();
+                partitions.forEach(vertices::addAll);
+                final LocalMemory memory = new LocalMemory(this.vertexProgram, this.mapReducers);
+
+                ////////////////////////////////
+                // process the vertex program //
+                ////////////////////////////////
+                if (null != this.vertexProgram) {
+                    // drop any compute properties that exist in the input graph
+                    final String[] elementComputeKeys = this.vertexProgram.getElementComputeKeys().toArray(new String[this.vertexProgram.getElementComputeKeys().size()]);
+                    if (elementComputeKeys.length > 0)
+                        vertices.forEach(vertex -> vertex.dropVertexProperties(elementComputeKeys));
+                    final LocalMessageBoard<Object> messageBoard = new LocalMessageBoard<>(this.vertexProgram.getMessageCombiner().orElse(null));
+                    final VertexProgramPool vertexProgramPool = new VertexProgramPool(this.vertexProgram, pool.getParallelism());
+                    this.vertexProgram.setup(memory);
+                    memory.completeSubRound();
+                    while (true) {
+                        vertexProgramPool.workerIterationStart(memory.asImmutable());
+                        LocalExecutor.executeVertexProgramIteration(pool, vertices, vertexProgramPool, messageBoard, memory);
+                        vertexProgramPool.workerIterationEnd(memory.asImmutable());
+                        messageBoard.completeIteration();
+                        memory.completeSubRound();
+                        final boolean terminate = this.vertexProgram.terminate(memory);
+                        memory.incrIteration();
+                        memory.completeSubRound();
+                        if (terminate)
+                            break;
+                    }
+                    // write the graph using the output format
+                    if (!this.persist.equals(Persist.NOTHING))
+                        LocalExecutor.writeGraph(pool, partitions, hadoopConfiguration);
+                }
+
+                //////////////////////////////
+                // process the map reducers //
+                //////////////////////////////
+                for (final MapReduce mapReduce : this.mapReducers) {
+                    if (mapReduce.doStage(MapReduce.Stage.MAP))
+                        LocalExecutor.executeMapReduce(pool, vertices, mapReduce, memory, hadoopConfiguration);
+                }
+                // update runtime and return the newly computed graph
+                memory.setRuntime(System.currentTimeMillis() - startTime);
+                if (null != this.vertexProgram)
+                    memory.complete();
+                else
+                    memory.completeSubRound();
+                return new DefaultComputerResult(HadoopHelper.getOutputGraph(this.hadoopGraph, this.resultGraph, this.persist), memory.asImmutable());
+            } finally {
+                pool.shutdown();
+            }
+        }, pool);
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final FileConfiguration configuration = new PropertiesConfiguration(args[0]);
+        new LocalGraphComputer(HadoopGraph.open(configuration)).program(VertexProgram.createVertexProgram(HadoopGraph.open(configuration), configuration)).submit().get();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.process.computer.local;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The shared-memory mailboxes of a {@link LocalGraphComputer} keyed by vertex id. Messages sent in the current
+ * iteration are received in the next. If the vertex program has a {@link MessageCombiner}, each mailbox holds at
+ * most one message.
+ */
+final class LocalMessageBoard<M> {
+
+    private final MessageCombiner<M> combiner;
+    private Map<Object, Queue<M>> sendMessages = new ConcurrentHashMap<>();
+    private Map<Object, Queue<M>> receiveMessages = new ConcurrentHashMap<>();
+
+    public LocalMessageBoard(final MessageCombiner<M> combiner) {
+        this.combiner = combiner;
+    }
+
+    public void sendMessage(final Object vertexId, final M message) {
+        if (null == this.combiner)
+            this.sendMessages.computeIfAbsent(vertexId, id -> new ConcurrentLinkedQueue<>()).add(message);
+        else {
+            this.sendMessages.compute(vertexId, (id, queue) -> {
+                if (null == queue) {
+                    queue = new ConcurrentLinkedQueue<>();
+                    queue.add(message);
+                } else
+                    queue.add(this.combiner.combine(queue.remove(), message));
+                return queue;
+            });
+        }
+    }
+
+    public Iterator<M> receiveMessages(final Object vertexId) {
+        final Queue<M> queue = this.receiveMessages.get(vertexId);
+        return null == queue ? Collections.emptyIterator() : queue.iterator();
+    }
+
+    public void completeIteration() {
+        this.receiveMessages = this.sendMessages;
+        this.sendMessages = new ConcurrentHashMap<>();
+    }
+}
@@ -109,6 +109,61 @@ public final class HadoopConfiguration extends AbstractConfiguration implements
         this.setProperty(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION, outputLocation);
     }
 
+    ///////
+
+    public boolean getGiraphOutOfCoreGraph() {
+        return this.getBoolean(Constants.GIRAPH_USE_OUT_OF_CORE_GRAPH, false);
+    }
+
+    public void setGiraphOutOfCoreGraph(final boolean outOfCoreGraph) {
+        this.setProperty(Constants.GIRAPH_USE_OUT_OF_CORE_GRAPH, outOfCoreGraph);
+    }
+
+    public int getGiraphMaxPartitionsInMemory() {
+        return this.getInt(Constants.GIRAPH_MAX_PARTITIONS_IN_MEMORY, 10);
+    }
+
+    public void setGiraphMaxPartitionsInMemory(final int maxPartitionsInMemory) {
+        this.setProperty(Constants.GIRAPH_MAX_PARTITIONS_IN_MEMORY, maxPartitionsInMemory);
+    }
+
+    public boolean getGiraphOutOfCoreMessages() {
+        return this.getBoolean(Constants.GIRAPH_USE_OUT_OF_CORE_MESSAGES, false);
+    }
+
+    public void setGiraphOutOfCoreMessages(final boolean outOfCoreMessages) {
+        this.setProperty(Constants.GIRAPH_USE_OUT_OF_CORE_MESSAGES, outOfCoreMessages);
+    }
+
+    public int getGiraphMaxMessagesInMemory() {
+        return this.getInt(Constants.GIRAPH_MAX_MESSAGES_IN_MEMORY, 1000000);
+    }
+
+    public void setGiraphMaxMessagesInMemory(final int maxMessagesInMemory) {
+        this.setProperty(Constants.GIRAPH_MAX_MESSAGES_IN_MEMORY, maxMessagesInMemory);
+    }
+
+    public int getGiraphMinWorkers() {
+        return this.getInt(Constants.GIRAPH_MIN_WORKERS, 1);
+    }
+
+    public int getGiraphMaxWorkers() {
+        return this.getInt(Constants.GIRAPH_MAX_WORKERS, 1);
+    }
+
+    public void setGiraphWorkers(final int minWorkers, final int maxWorkers) {
+        this.setProperty(Constants.GIRAPH_MIN_WORKERS, minWorkers);
+        this.setProperty(Constants.GIRAPH_MAX_WORKERS, maxWorkers);
+    }
+
+    public int getGiraphNumComputeThreads() {
+        return this.getInt(Constants.GIRAPH_NUM_COMPUTE_THREADS, 1);
+    }
+
+    public void setGiraphNumComputeThreads(final int numComputeThreads) {
+        this.setProperty(Constants.GIRAPH_NUM_COMPUTE_THREADS, numComputeThreads);
+    }
+
     @Override
     public Iterator iterator() {
         return IteratorUtils.map(this.getKeys(), k -> new Pair<>(k, this.getProperty(k)));
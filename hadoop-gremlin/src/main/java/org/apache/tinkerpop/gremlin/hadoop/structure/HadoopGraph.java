@@ -24,6 +24,7 @@ import org.apache.hadoop.mapred.OutputFormat;
 import org.apache.hadoop.mapreduce.InputFormat;
 import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.giraph.GiraphGraphComputer;
+import org.apache.tinkerpop.gremlin.hadoop.process.computer.local.LocalGraphComputer;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.spark.SparkGraphComputer;
 import org.apache.tinkerpop.gremlin.hadoop.structure.hdfs.HadoopEdgeIterator;
 import org.apache.tinkerpop.gremlin.hadoop.structure.hdfs.HadoopVertexIterator;
@@ -177,6 +178,8 @@ public final class HadoopGraph implements Graph {
             return (C) new GiraphGraphComputer(this);
         else if (graphComputerClass.equals(SparkGraphComputer.class))
             return (C) new SparkGraphComputer(this);
+        else if (graphComputerClass.equals(LocalGraphComputer.class))
+            return (C) new LocalGraphComputer(this);
         else
             throw Graph.Exceptions.graphDoesNotSupportProvidedGraphComputer(graphComputerClass);
     }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A {@link Writable} for the messages passed between vertices by a {@link org.apache.tinkerpop.gremlin.process.computer.VertexProgram}.
+ * Unlike {@link ObjectWritable}, the Gryo bytes are written length-prefixed and uncompressed as messages are small,
+ * numerous and (when the message store is out-of-core) re-serialized every time they are spilled to disk.
+ */
+public final class MessageWritable<M> implements Writable {
+
+    private static final int EMPTY = -1;
+
+    private M message;
+
+    public MessageWritable() {
+    }
+
+    public MessageWritable(final M message) {
+        this.message = message;
+    }
+
+    public M get() {
+        return this.message;
+    }
+
+    public void set(final M message) {
+        this.message = message;
+    }
+
+    public boolean isEmpty() {
+        return null == this.message;
+    }
+
+    public static <M> MessageWritable<M> empty() {
+        return new MessageWritable<>();
+    }
+
+    @Override
+    public void readFields(final DataInput input) throws IOException {
+        final int length = WritableUtils.readVInt(input);
+        if (EMPTY == length) {
+            this.message = null;
+            return;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        this.message = HadoopPools.getGryoPool().doWithReader(gryoReader -> {
+            try {
+                return (M) gryoReader.readObject(new ByteArrayInputStream(bytes), Object.class);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public void write(final DataOutput output) throws IOException {
+        if (null == this.message) {
+            WritableUtils.writeVInt(output, EMPTY);
+            return;
+        }
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        HadoopPools.getGryoPool().doWithWriter(gryoWriter -> gryoWriter.writeObject(outputStream, this.message));
+        WritableUtils.writeVInt(output, outputStream.size());
+        output.write(outputStream.toByteArray());
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(this.message);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (!(other instanceof MessageWritable))
+            return false;
+        else if (this.isEmpty())
+            return ((MessageWritable) other).isEmpty();
+        else
+            return this.message.equals(((MessageWritable) other).get());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.isEmpty() ? 0 : this.message.hashCode();
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.columnar;
+
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The encoding of a block of vertices in the columnar format.  A block stores {@code n} star vertices as a set of
+ * independently compressed columns: one for the vertex ids, one for the vertex labels, one per vertex property key
+ * and one per edge direction and label.  Each column holds exactly {@code n} entries (an entry is {@code null} when the
+ * vertex has nothing in that column) and every column is Gryo serialized.
+ * <p/>
+ * The block header lists the columns along with their compressed length and, where the values are mutually
+ * comparable, their minimum and maximum value.  Readers use the header to skip the columns they were not asked for
+ * without decompressing or deserializing them.
+ */
+final class ColumnarBlock {
+
+    static final byte[] MAGIC = "gcol".getBytes();
+    static final byte VERSION_1 = Byte.MIN_VALUE;
+    static final int SYNC_LENGTH = 16;
+    static final int FILE_HEADER_LENGTH = MAGIC.length + 1 + SYNC_LENGTH;
+
+    static final byte ID = 0;
+    static final byte LABEL = 1;
+    static final byte PROPERTY = 2;
+    static final byte OUT_EDGES = 3;
+    static final byte IN_EDGES = 4;
+
+    private ColumnarBlock() {
+    }
+
+    /**
+     * The description of a single column as found in the block header.
+     */
+    static final class Column {
+        final byte type;
+        final String name;
+        final int length;
+        final Object min;
+        final Object max;
+
+        Column(final byte type, final String name, final int length, final Object min, final Object max) {
+            this.type = type;
+            this.name = name;
+            this.length = length;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /**
+     * The block header which holds the number of vertices in the block and its columns in the order they appear.
+     */
+    static final class Header {
+        final int vertexCount;
+        final List<Column> columns;
+
+        Header(final int vertexCount, final List<Column> columns) {
+            this.vertexCount = vertexCount;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * Write the block of vertices (header and columns) to the output.  Edges are only written if {@code hasEdges}.
+     */
+    static void write(final List<? extends Vertex> vertices, final boolean hasEdges, final CompressionCodec codec, final DataOutputStream output) throws IOException {
+        final List<Column> columns = new ArrayList<>();
+        final List<byte[]> data = new ArrayList<>();
+
+        final List<Object> ids = new ArrayList<>(vertices.size());
+        final List<Object> labels = new ArrayList<>(vertices.size());
+        final Set<String> propertyKeys = new TreeSet<>();
+        final Set<String> outLabels = new TreeSet<>();
+        final Set<String> inLabels = new TreeSet<>();
+        for (final Vertex vertex : vertices) {
+            ids.add(vertex.id());
+            labels.add(vertex.label());
+            vertex.properties().forEachRemaining(property -> propertyKeys.add(property.key()));
+            if (hasEdges) {
+                vertex.edges(Direction.OUT).forEachRemaining(edge -> outLabels.add(edge.label()));
+                vertex.edges(Direction.IN).forEachRemaining(edge -> inLabels.add(edge.label()));
+            }
+        }
+        addColumn(ID, "", ids, codec, columns, data);
+        addColumn(LABEL, "", labels, codec, columns, data);
+
+        for (final String key : propertyKeys) {
+            final List<Object> values = new ArrayList<>(vertices.size());
+            for (final Vertex vertex : vertices) {
+                final ArrayList<Object> entry = new ArrayList<>();
+                vertex.properties(key).forEachRemaining(property -> {
+                    entry.add(property.id());
+                    entry.add(property.value());
+                    entry.add(toMap(property.properties()));
+                });
+                values.add(entry.isEmpty() ? null : entry);
+            }
+            addColumn(PROPERTY, key, values, codec, columns, data);
+        }
+        for (final String label : outLabels) {
+            addColumn(OUT_EDGES, label, edgeEntries(vertices, Direction.OUT, label), codec, columns, data);
+        }
+        for (final String label : inLabels) {
+            addColumn(IN_EDGES, label, edgeEntries(vertices, Direction.IN, label), codec, columns, data);
+        }
+
+        final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        final DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(vertices.size());
+        header.writeInt(columns.size());
+        for (final Column column : columns) {
+            header.writeByte(column.type);
+            header.writeUTF(column.name);
+            header.writeInt(column.length);
+            final boolean hasStatistics = null != column.min;
+            header.writeBoolean(hasStatistics);
+            if (hasStatistics) {
+                final byte[] statistics = serialize(new ArrayList<>(Arrays.asList(column.min, column.max)));
+                header.writeInt(statistics.length);
+                header.write(statistics);
+            }
+        }
+        header.flush();
+        output.writeInt(headerBytes.size());
+        headerBytes.writeTo(output);
+        for (final byte[] bytes : data) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Read the block header from the input which must be positioned right after the sync marker.
+     */
+    static Header readHeader(final DataInputStream input) throws IOException {
+        final byte[] headerBytes = new byte[input.readInt()];
+        input.readFully(headerBytes);
+        final DataInputStream header = new DataInputStream(new ByteArrayInputStream(headerBytes));
+        final int vertexCount = header.readInt();
+        final int columnCount = header.readInt();
+        final List<Column> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            final byte type = header.readByte();
+            final String name = header.readUTF();
+            final int length = header.readInt();
+            Object min = null;
+            Object max = null;
+            if (header.readBoolean()) {
+                final byte[] statistics = new byte[header.readInt()];
+                header.readFully(statistics);
+                final List<Object> minMax = deserialize(statistics);
+                min = minMax.get(0);
+                max = minMax.get(1);
+            }
+            columns.add(new Column(type, name, length, min, max));
+        }
+        return new Header(vertexCount, columns);
+    }
+
+    /**
+     * Decompress and deserialize a column previously written by {@link #write}.
+     */
+    static List<Object> readColumn(final byte[] bytes, final CompressionCodec codec) throws IOException {
+        final Decompressor decompressor = CodecPool.getDecompressor(codec);
+        try (final InputStream in = codec.createInputStream(new ByteArrayInputStream(bytes), decompressor)) {
+            return HadoopPools.getGryoPool().doWithReader(gryoReader -> {
+                try {
+                    return (List<Object>) gryoReader.readObject(in, ArrayList.class);
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+        } finally {
+            CodecPool.returnDecompressor(decompressor);
+        }
+    }
+
+    /**
+     * Create the star vertices for the block from the ids and labels columns.
+     */
+    static List<StarGraph.StarVertex> createVertices(final List<Object> ids, final List<Object> labels) {
+        final List<StarGraph.StarVertex> vertices = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            vertices.add((StarGraph.StarVertex) StarGraph.open().addVertex(T.id, ids.get(i), T.label, labels.get(i)));
+        }
+        return vertices;
+    }
+
+    /**
+     * Attach the entries of a property or edge column to the block's vertices.
+     */
+    static void attach(final Column column, final List<Object> entries, final List<StarGraph.StarVertex> vertices) {
+        for (int i = 0; i < vertices.size(); i++) {
+            final List<Object> entry = (List<Object>) entries.get(i);
+            if (null == entry) continue;
+            final StarGraph.StarVertex vertex = vertices.get(i);
+            for (int j = 0; j < entry.size(); j = j + 3) {
+                final Map<String, Object> properties = (Map<String, Object>) entry.get(j + 2);
+                if (PROPERTY == column.type) {
+                    final VertexProperty<Object> vertexProperty = vertex.property(VertexProperty.Cardinality.list, column.name, entry.get(j + 1), T.id, entry.get(j));
+                    if (null != properties) properties.forEach(vertexProperty::property);
+                } else {
+                    final Vertex adjacent = vertex.graph().addVertex(T.id, entry.get(j + 1));
+                    final Edge edge = OUT_EDGES == column.type ?
+                            vertex.addEdge(column.name, adjacent, T.id, entry.get(j)) :
+                            adjacent.addEdge(column.name, vertex, T.id, entry.get(j));
+                    if (null != properties) properties.forEach(edge::property);
+                }
+            }
+        }
+    }
+
+    private static List<Object> edgeEntries(final List<? extends Vertex> vertices, final Direction direction, final String label) {
+        final List<Object> values = new ArrayList<>(vertices.size());
+        for (final Vertex vertex : vertices) {
+            final ArrayList<Object> entry = new ArrayList<>();
+            vertex.edges(direction, label).forEachRemaining(edge -> {
+                entry.add(edge.id());
+                entry.add(Direction.OUT == direction ? edge.inVertex().id() : edge.outVertex().id());
+                entry.add(toMap(edge.properties()));
+            });
+            values.add(entry.isEmpty() ? null : entry);
+        }
+        return values;
+    }
+
+    private static HashMap<String, Object> toMap(final Iterator<? extends Property<Object>> properties) {
+        if (!properties.hasNext()) return null;
+        final HashMap<String, Object> map = new HashMap<>();
+        properties.forEachRemaining(property -> map.put(property.key(), property.value()));
+        return map;
+    }
+
+    private static void addColumn(final byte type, final String name, final List<Object> values, final CompressionCodec codec,
+                                  final List<Column> columns, final List<byte[]> data) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Compressor compressor = CodecPool.getCompressor(codec);
+        try (final CompressionOutputStream out = codec.createOutputStream(bytes, compressor)) {
+            out.write(serialize(values));
+            out.finish();
+        } finally {
+            CodecPool.returnCompressor(compressor);
+        }
+        data.add(bytes.toByteArray());
+
+        // statistics are only kept if all the values of the column are comparable with each other
+        Comparable min = null;
+        Comparable max = null;
+        if (ID == type || PROPERTY == type) {
+            for (final Object entry : values) {
+                if (null == entry) continue;
+                final List<Object> candidates = ID == type ? Collections.singletonList(entry) : valuesOf((List<Object>) entry);
+                for (final Object value : candidates) {
+                    if (!(value instanceof Comparable) || (null != min && !min.getClass().equals(value.getClass()))) {
+                        min = null;
+                        max = null;
+                        break;
+                    }
+                    if (null == min || min.compareTo(value) > 0) min = (Comparable) value;
+                    if (null == max || max.compareTo(value) < 0) max = (Comparable) value;
+                }
+                if (null == min) break;
+            }
+        }
+        columns.add(new Column(type, name, bytes.size(), min, max));
+    }
+
+    private static List<Object> valuesOf(final List<Object> entry) {
+        final List<Object> values = new ArrayList<>(entry.size() / 3);
+        for (int i = 1; i < entry.size(); i = i + 3) {
+            values.add(entry.get(i));
+        }
+        return values;
+    }
+
+    private static byte[] serialize(final Object object) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        HadoopPools.getGryoPool().doWithWriter(gryoWriter -> gryoWriter.writeObject(outputStream, object));
+        return outputStream.toByteArray();
+    }
+
+    private static List<Object> deserialize(final byte[] bytes) {
+        return HadoopPools.getGryoPool().doWithReader(gryoReader -> {
+            try {
+                return (List<Object>) gryoReader.readObject(new ByteArrayInputStream(bytes), ArrayList.class);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+    }
+}
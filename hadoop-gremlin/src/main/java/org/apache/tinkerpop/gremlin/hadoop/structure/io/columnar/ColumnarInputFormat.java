@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.columnar;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPoolsConfigurable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Reads the block based columnar format written by {@link ColumnarOutputFormat}.  Only the property keys and edge
+ * labels listed in {@link #GREMLIN_HADOOP_COLUMNAR_PROPERTY_KEYS} and {@link #GREMLIN_HADOOP_COLUMNAR_EDGE_LABELS}
+ * are decompressed and deserialized, all other columns are skipped over.  Blocks whose min/max statistics show that
+ * none of their vertices fall within the ranges set with {@link #setIdRange} and {@link #setPropertyRange} are skipped
+ * altogether.
+ */
+public final class ColumnarInputFormat extends FileInputFormat<NullWritable, VertexWritable> implements HadoopPoolsConfigurable {
+
+    /**
+     * A comma separated list of the vertex property keys to read.  If not set, all vertex properties are read.
+     */
+    public static final String GREMLIN_HADOOP_COLUMNAR_PROPERTY_KEYS = "gremlin.hadoop.columnar.propertyKeys";
+
+    /**
+     * A comma separated list of the edge labels to read (in both directions).  If not set, all edges are read.
+     */
+    public static final String GREMLIN_HADOOP_COLUMNAR_EDGE_LABELS = "gremlin.hadoop.columnar.edgeLabels";
+
+    /**
+     * The serialized value ranges set with {@link #setIdRange} and {@link #setPropertyRange}.
+     */
+    public static final String GREMLIN_HADOOP_COLUMNAR_RANGES = "gremlin.hadoop.columnar.ranges";
+
+    /**
+     * Only read the blocks that may hold a vertex whose id is within {@code min} and {@code max} (both inclusive and
+     * {@code null} for an open bound).  This prunes whole blocks, the vertices of the blocks that are read are not
+     * filtered.
+     */
+    public static void setIdRange(final Configuration configuration, final Comparable min, final Comparable max) {
+        setRange(configuration, "", min, max);
+    }
+
+    /**
+     * Only read the blocks that may hold a vertex with a {@code key} property value within {@code min} and
+     * {@code max} (both inclusive and {@code null} for an open bound).  This prunes whole blocks, the vertices of the
+     * blocks that are read are not filtered.
+     */
+    public static void setPropertyRange(final Configuration configuration, final String key, final Comparable min, final Comparable max) {
+        setRange(configuration, key, min, max);
+    }
+
+    /**
+     * Get the ranges stored in the configuration keyed by property key (the empty string for the vertex id).
+     */
+    static HashMap<String, ArrayList<Object>> getRanges(final org.apache.commons.configuration.Configuration configuration) {
+        return configuration.containsKey(GREMLIN_HADOOP_COLUMNAR_RANGES) ?
+                VertexProgramHelper.deserialize(configuration, GREMLIN_HADOOP_COLUMNAR_RANGES) :
+                new HashMap<>();
+    }
+
+    private static void setRange(final Configuration configuration, final String key, final Comparable min, final Comparable max) {
+        final org.apache.commons.configuration.Configuration ranges = new BaseConfiguration();
+        final HashMap<String, ArrayList<Object>> map = getRanges(ConfUtil.makeApacheConfiguration(configuration));
+        map.put(key, new ArrayList<>(Arrays.asList(min, max)));
+        VertexProgramHelper.serialize(map, ranges, GREMLIN_HADOOP_COLUMNAR_RANGES);
+        configuration.set(GREMLIN_HADOOP_COLUMNAR_RANGES, ranges.getString(GREMLIN_HADOOP_COLUMNAR_RANGES));
+    }
+
+    @Override
+    public RecordReader<NullWritable, VertexWritable> createRecordReader(final InputSplit split, final TaskAttemptContext context) throws IOException, InterruptedException {
+        final RecordReader<NullWritable, VertexWritable> reader = new ColumnarRecordReader();
+        reader.initialize(split, context);
+        return reader;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.columnar;
+
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.CommonFileOutputFormat;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPoolsConfigurable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+
+import java.io.IOException;
+
+/**
+ * Writes vertices in blocks where every property key and edge label is stored (and compressed) as its own column.
+ * The columns are compressed internally, so file level output compression should be left off as it would make the
+ * files unsplittable.
+ */
+public final class ColumnarOutputFormat extends CommonFileOutputFormat implements HadoopPoolsConfigurable {
+
+    /**
+     * The number of vertices per block (default 1000).
+     */
+    public static final String GREMLIN_HADOOP_COLUMNAR_BLOCK_SIZE = "gremlin.hadoop.columnar.blockSize";
+
+    /**
+     * The {@code CompressionCodec} class used to compress each column (default {@code DefaultCodec}).
+     */
+    public static final String GREMLIN_HADOOP_COLUMNAR_CODEC = "gremlin.hadoop.columnar.codec";
+
+    @Override
+    public RecordWriter<NullWritable, VertexWritable> getRecordWriter(final TaskAttemptContext job) throws IOException, InterruptedException {
+        return new ColumnarRecordWriter(getDataOuputStream(job), job.getConfiguration());
+    }
+}
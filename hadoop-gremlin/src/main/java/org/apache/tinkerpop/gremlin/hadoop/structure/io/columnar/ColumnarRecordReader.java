@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.columnar;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the blocks whose sync marker starts within the split.  A block is decoded column by column and the columns
+ * that are not part of the requested projection (or are not allowed by the vertex program's {@link GraphFilter}) are
+ * skipped without being decompressed.  Blocks whose statistics do not overlap the ranges set on the
+ * {@link ColumnarInputFormat} are skipped entirely.
+ */
+public final class ColumnarRecordReader extends RecordReader<NullWritable, VertexWritable> {
+
+    private static final int SYNC_SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final VertexWritable vertexWritable = new VertexWritable();
+    private Path file;
+    private FSDataInputStream inputStream;
+    private CompressionCodec codec;
+    private final byte[] sync = new byte[ColumnarBlock.SYNC_LENGTH];
+    private Set<String> propertyKeys;
+    private Set<String> edgeLabels;
+    private boolean hasEdges;
+    private GraphFilter graphFilter;
+    private Map<String, ArrayList<Object>> ranges;
+
+    private long start;
+    private long end;
+    private long fileLength;
+    private Iterator<StarGraph.StarVertex> block = Collections.emptyIterator();
+
+    public ColumnarRecordReader() {
+    }
+
+    @Override
+    public void initialize(final InputSplit genericSplit, final TaskAttemptContext context) throws IOException {
+        final FileSplit split = (FileSplit) genericSplit;
+        final Configuration configuration = context.getConfiguration();
+        HadoopPools.initialize(configuration);
+        this.file = split.getPath();
+        if (null != new CompressionCodecFactory(configuration).getCodec(this.file)) {
+            throw new IllegalStateException("File compression is not supported for the columnar format as its columns are already compressed");
+        }
+        this.codec = ReflectionUtils.newInstance(configuration.getClass(ColumnarOutputFormat.GREMLIN_HADOOP_COLUMNAR_CODEC, DefaultCodec.class, CompressionCodec.class), configuration);
+        this.hasEdges = configuration.getBoolean(Constants.GREMLIN_HADOOP_GRAPH_INPUT_FORMAT_HAS_EDGES, true);
+        this.propertyKeys = toSet(configuration.getStrings(ColumnarInputFormat.GREMLIN_HADOOP_COLUMNAR_PROPERTY_KEYS));
+        this.edgeLabels = toSet(configuration.getStrings(ColumnarInputFormat.GREMLIN_HADOOP_COLUMNAR_EDGE_LABELS));
+        final org.apache.commons.configuration.Configuration apacheConfiguration = ConfUtil.makeApacheConfiguration(configuration);
+        this.graphFilter = GraphFilter.loadState(apacheConfiguration);
+        this.ranges = ColumnarInputFormat.getRanges(apacheConfiguration);
+
+        final FileSystem fs = this.file.getFileSystem(configuration);
+        this.fileLength = fs.getFileStatus(this.file).getLen();
+        this.inputStream = fs.open(this.file);
+        final byte[] magic = new byte[ColumnarBlock.MAGIC.length];
+        this.inputStream.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarBlock.MAGIC) || ColumnarBlock.VERSION_1 != this.inputStream.readByte())
+            throw new IOException(this.file + " is not a columnar graph file");
+        this.inputStream.readFully(this.sync);
+
+        this.start = Math.max(split.getStart(), ColumnarBlock.FILE_HEADER_LENGTH);
+        this.end = split.getStart() + split.getLength();
+        seekToSync(this.start);
+    }
+
+    @Override
+    public boolean nextKeyValue() throws IOException {
+        while (!this.block.hasNext()) {
+            final long position = this.inputStream.getPos();
+            if (position >= this.end || position >= this.fileLength)
+                return false;
+            this.inputStream.skipBytes(ColumnarBlock.SYNC_LENGTH);
+            this.block = readBlock().iterator();
+        }
+        this.vertexWritable.set(this.block.next());
+        return true;
+    }
+
+    @Override
+    public NullWritable getCurrentKey() {
+        return NullWritable.get();
+    }
+
+    @Override
+    public VertexWritable getCurrentValue() {
+        return this.vertexWritable;
+    }
+
+    @Override
+    public float getProgress() throws IOException {
+        if (this.end <= this.start) return 1.0f;
+        return Math.min(1.0f, (float) (this.inputStream.getPos() - this.start) / (float) (this.end - this.start));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.inputStream.close();
+    }
+
+    private List<StarGraph.StarVertex> readBlock() throws IOException {
+        final long position = this.inputStream.getPos();
+        final ColumnarBlock.Header header = ColumnarBlock.readHeader(this.inputStream);
+        this.checkHeader(header, position);
+        if (!this.mayMatchRanges(header)) {
+            long length = 0;
+            for (final ColumnarBlock.Column column : header.columns) {
+                length = length + column.length;
+            }
+            this.inputStream.seek(this.inputStream.getPos() + length);
+            return Collections.emptyList();
+        }
+        List<Object> ids = null;
+        List<StarGraph.StarVertex> vertices = null;
+        for (final ColumnarBlock.Column column : header.columns) {
+            if (!this.isProjected(column)) {
+                this.inputStream.seek(this.inputStream.getPos() + column.length);
+                continue;
+            }
+            final byte[] bytes = new byte[column.length];
+            this.inputStream.readFully(bytes);
+            final List<Object> entries = ColumnarBlock.readColumn(bytes, this.codec);
+            if (entries.size() != header.vertexCount)
+                throw new IOException(String.format("Column of type %s named '%s' of the block at %s in %s holds %s entries but the block has %s vertices",
+                        column.type, column.name, position, this.file, entries.size(), header.vertexCount));
+            if (ColumnarBlock.ID == column.type)
+                ids = entries;
+            else if (ColumnarBlock.LABEL == column.type)
+                vertices = ColumnarBlock.createVertices(ids, entries);
+            else
+                ColumnarBlock.attach(column, entries, vertices);
+        }
+        return vertices;
+    }
+
+    /**
+     * The columns are decoded in order so the id column has to come first, followed by the label column and then
+     * only property and edge columns.
+     */
+    private void checkHeader(final ColumnarBlock.Header header, final long position) throws IOException {
+        for (int i = 0; i < header.columns.size(); i++) {
+            final byte type = header.columns.get(i).type;
+            final boolean valid = 0 == i ? ColumnarBlock.ID == type :
+                    1 == i ? ColumnarBlock.LABEL == type :
+                            ColumnarBlock.PROPERTY <= type && ColumnarBlock.IN_EDGES >= type;
+            if (!valid)
+                throw new IOException(String.format("Unexpected column of type %s at index %s of the block at %s in %s", type, i, position, this.file));
+        }
+        if (header.columns.size() < 2)
+            throw new IOException(String.format("The block at %s in %s is missing its %s column", position, this.file,
+                    header.columns.isEmpty() ? "id" : "label"));
+    }
+
+    /**
+     * Determine from the column statistics whether any vertex of the block can fall within the configured ranges.  A
+     * block without the column of a range can not match it, a column without statistics always may.
+     */
+    private boolean mayMatchRanges(final ColumnarBlock.Header header) {
+        if (this.ranges.isEmpty()) return true;
+        final Map<String, ColumnarBlock.Column> columns = new HashMap<>();
+        for (final ColumnarBlock.Column column : header.columns) {
+            if (ColumnarBlock.ID == column.type || ColumnarBlock.PROPERTY == column.type)
+                columns.put(column.name, column);
+        }
+        for (final Map.Entry<String, ArrayList<Object>> range : this.ranges.entrySet()) {
+            final ColumnarBlock.Column column = columns.get(range.getKey());
+            if (null == column) return false;
+            if (null == column.min) continue;
+            final Object min = range.getValue().get(0);
+            final Object max = range.getValue().get(1);
+            if ((null != min && min.getClass().equals(column.max.getClass()) && ((Comparable) column.max).compareTo(min) < 0) ||
+                    (null != max && max.getClass().equals(column.min.getClass()) && ((Comparable) column.min).compareTo(max) > 0))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean isProjected(final ColumnarBlock.Column column) {
+        switch (column.type) {
+            case ColumnarBlock.PROPERTY:
+                return (null == this.propertyKeys || this.propertyKeys.contains(column.name)) &&
+                        this.graphFilter.allowsPropertyKey(column.name);
+            case ColumnarBlock.OUT_EDGES:
+                return this.isProjected(column.name) && this.graphFilter.allowsEdgeLabel(Direction.OUT, column.name);
+            case ColumnarBlock.IN_EDGES:
+                return this.isProjected(column.name) && this.graphFilter.allowsEdgeLabel(Direction.IN, column.name);
+            default:
+                return true;
+        }
+    }
+
+    private boolean isProjected(final String edgeLabel) {
+        return this.hasEdges && (null == this.edgeLabels || this.edgeLabels.contains(edgeLabel));
+    }
+
+    /**
+     * Position the stream at the first sync marker found at or after {@code position} (or at the end of the file).
+     */
+    private void seekToSync(final long position) throws IOException {
+        final byte[] buffer = new byte[SYNC_SCAN_BUFFER_SIZE];
+        long bufferStart = position;
+        int carried = 0;
+        while (bufferStart + carried < this.fileLength) {
+            final int length = (int) Math.min(buffer.length - carried, this.fileLength - bufferStart - carried);
+            this.inputStream.readFully(bufferStart + carried, buffer, carried, length);
+            final int filled = carried + length;
+            for (int i = 0; i + this.sync.length <= filled; i++) {
+                if (this.isSyncAt(buffer, i)) {
+                    this.inputStream.seek(bufferStart + i);
+                    return;
+                }
+            }
+            // a sync marker may straddle two reads so the tail of this one is searched again with the next
+            carried = Math.min(filled, this.sync.length - 1);
+            System.arraycopy(buffer, filled - carried, buffer, 0, carried);
+            bufferStart = bufferStart + filled - carried;
+        }
+        this.inputStream.seek(this.fileLength);
+    }
+
+    private boolean isSyncAt(final byte[] buffer, final int offset) {
+        for (int i = 0; i < this.sync.length; i++) {
+            if (buffer[offset + i] != this.sync[i]) return false;
+        }
+        return true;
+    }
+
+    private static Set<String> toSet(final String[] values) {
+        return null == values ? null : new HashSet<>(Arrays.asList(values));
+    }
+}
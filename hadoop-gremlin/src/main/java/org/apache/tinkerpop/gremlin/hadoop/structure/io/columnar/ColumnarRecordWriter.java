@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.columnar;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class ColumnarRecordWriter extends RecordWriter<NullWritable, VertexWritable> {
+
+    private final DataOutputStream outputStream;
+    private final boolean hasEdges;
+    private final int blockSize;
+    private final CompressionCodec codec;
+    private final byte[] sync = new byte[ColumnarBlock.SYNC_LENGTH];
+    private final List<StarGraph.StarVertex> block = new ArrayList<>();
+
+    public ColumnarRecordWriter(final DataOutputStream outputStream, final Configuration configuration) throws IOException {
+        this.outputStream = outputStream;
+        this.hasEdges = configuration.getBoolean(Constants.GREMLIN_HADOOP_GRAPH_OUTPUT_FORMAT_HAS_EDGES, true);
+        this.blockSize = configuration.getInt(ColumnarOutputFormat.GREMLIN_HADOOP_COLUMNAR_BLOCK_SIZE, 1000);
+        this.codec = ReflectionUtils.newInstance(configuration.getClass(ColumnarOutputFormat.GREMLIN_HADOOP_COLUMNAR_CODEC, DefaultCodec.class, CompressionCodec.class), configuration);
+        HadoopPools.initialize(configuration);
+        // the sync marker must not collide with the markers of other files, so derive it from a random (secure) UUID
+        final UUID uuid = UUID.randomUUID();
+        ByteBuffer.wrap(this.sync).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        this.outputStream.write(ColumnarBlock.MAGIC);
+        this.outputStream.writeByte(ColumnarBlock.VERSION_1);
+        this.outputStream.write(this.sync);
+    }
+
+    @Override
+    public void write(final NullWritable key, final VertexWritable vertex) throws IOException {
+        if (null != vertex) {
+            this.block.add(vertex.get());
+            if (this.block.size() >= this.blockSize)
+                this.flushBlock();
+        }
+    }
+
+    @Override
+    public synchronized void close(final TaskAttemptContext context) throws IOException {
+        this.flushBlock();
+        this.outputStream.close();
+    }
+
+    private void flushBlock() throws IOException {
+        if (this.block.isEmpty()) return;
+        this.outputStream.write(this.sync);
+        ColumnarBlock.write(this.block, this.hasEdges, this.codec, this.outputStream);
+        this.block.clear();
+    }
+}
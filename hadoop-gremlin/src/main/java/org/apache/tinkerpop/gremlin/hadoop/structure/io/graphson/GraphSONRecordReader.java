@@ -25,9 +25,12 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.LineRecordReader;
 import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
 import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -41,7 +44,8 @@ public final class GraphSONRecordReader extends RecordReader<NullWritable, Verte
     private final GraphSONReader graphsonReader = GraphSONReader.build().create();
     private final VertexWritable vertexWritable = new VertexWritable();
     private final LineRecordReader lineRecordReader;
-    private boolean hasEdges;
+    private Direction edgeDirection;
+    private GraphFilter graphFilter;
 
     public GraphSONRecordReader() {
         this.lineRecordReader = new LineRecordReader();
@@ -50,7 +54,16 @@ public final class GraphSONRecordReader extends RecordReader<NullWritable, Verte
     @Override
     public void initialize(final InputSplit genericSplit, final TaskAttemptContext context) throws IOException {
         this.lineRecordReader.initialize(genericSplit, context);
-        this.hasEdges = context.getConfiguration().getBoolean(Constants.GREMLIN_HADOOP_GRAPH_INPUT_FORMAT_HAS_EDGES, true);
+        this.graphFilter = GraphFilter.loadState(ConfUtil.makeApacheConfiguration(context.getConfiguration()));
+        // only decode the edges of the directions that the graph filter allows
+        if (!context.getConfiguration().getBoolean(Constants.GREMLIN_HADOOP_GRAPH_INPUT_FORMAT_HAS_EDGES, true) || !this.graphFilter.allowsEdges(Direction.BOTH))
+            this.edgeDirection = null;
+        else if (!this.graphFilter.allowsEdges(Direction.IN))
+            this.edgeDirection = Direction.OUT;
+        else if (!this.graphFilter.allowsEdges(Direction.OUT))
+            this.edgeDirection = Direction.IN;
+        else
+            this.edgeDirection = Direction.BOTH;
     }
 
     @Override
@@ -59,9 +72,12 @@ public final class GraphSONRecordReader extends RecordReader<NullWritable, Verte
             return false;
 
         try (InputStream in = new ByteArrayInputStream(this.lineRecordReader.getCurrentValue().getBytes())) {
-            this.vertexWritable.set(this.hasEdges ?
-                    this.graphsonReader.readVertex(in, Attachable::get, Attachable::get, Direction.BOTH) :
+            final StarGraph.StarVertex vertex = (StarGraph.StarVertex) (null != this.edgeDirection ?
+                    this.graphsonReader.readVertex(in, Attachable::get, Attachable::get, this.edgeDirection) :
                     this.graphsonReader.readVertex(in, Attachable::get));
+            if (!this.graphFilter.allowsAll())
+                vertex.applyGraphFilter(this.graphFilter);
+            this.vertexWritable.set(vertex);
             return true;
         }
     }
@@ -29,10 +29,13 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.FileSplit;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.VertexTerminator;
 import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -50,6 +53,7 @@ public final class GryoRecordReader extends RecordReader<NullWritable, VertexWri
     private static final byte[] TERMINATOR = VertexTerminator.instance().terminal;
 
     private GryoReader gryoReader;
+    private GraphFilter graphFilter;
     private final VertexWritable vertexWritable = new VertexWritable();
 
     private long currentLength = 0;
@@ -64,6 +68,7 @@ public final class GryoRecordReader extends RecordReader<NullWritable, VertexWri
         final Configuration configuration = context.getConfiguration();
         HadoopPools.initialize(configuration);
         this.gryoReader = HadoopPools.getGryoPool().takeReader();
+        this.graphFilter = GraphFilter.loadState(ConfUtil.makeApacheConfiguration(configuration));
         long start = split.getStart();
         final Path file = split.getPath();
         if (null != new CompressionCodecFactory(configuration).getCodec(file)) {
@@ -123,7 +128,10 @@ public final class GryoRecordReader extends RecordReader<NullWritable, VertexWri
             terminatorLocation = ((byte) currentByte) == TERMINATOR[terminatorLocation] ? terminatorLocation + 1 : 0;
             if (terminatorLocation >= TERMINATOR.length) {
                 try (InputStream in = new ByteArrayInputStream(output.toByteArray())) {
-                    this.vertexWritable.set(this.gryoReader.readVertex(in, Attachable::get)); // I know how GryoReader works, so I'm cheating here
+                    final StarGraph.StarVertex vertex = (StarGraph.StarVertex) this.gryoReader.readVertex(in, Attachable::get); // I know how GryoReader works, so I'm cheating here
+                    if (!this.graphFilter.allowsAll())
+                        vertex.applyGraphFilter(this.graphFilter);
+                    this.vertexWritable.set(vertex);
                     return true;
                 }
             }
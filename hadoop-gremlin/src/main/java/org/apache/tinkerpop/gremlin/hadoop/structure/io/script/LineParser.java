@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.script;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.io.IOException;
+
+/**
+ * Converts a single line of text into a star {@link Vertex}.  {@link ScriptRecordReader} uses an implementation of
+ * this interface for every line of its input split.  It can either be a plain Java class configured with
+ * {@code gremlin.hadoop.scriptInputFormat.parser} (no script engine is created in that case) or the {@code parse()}
+ * function of the script configured with {@code gremlin.hadoop.scriptInputFormat.script}.
+ * <p/>
+ * Java implementations must have a public no-arg constructor.
+ */
+public interface LineParser {
+
+    /**
+     * Parse the line into a vertex.
+     *
+     * @param line    the line of text to parse
+     * @param factory the factory used to create the vertex and its incident edges
+     * @return the parsed vertex or {@code null} if the line should be skipped
+     */
+    public Vertex parse(final String line, final ScriptElementFactory factory) throws IOException;
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.script;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.util.Iterator;
+
+/**
+ * A factory handed to a {@link LineParser} (or the {@code parse()} function of an input script) for each line being
+ * read.  All elements created by a single factory belong to the same {@link StarGraph}.
+ */
+public final class ScriptElementFactory {
+
+    private final StarGraph graph;
+
+    public ScriptElementFactory() {
+        this.graph = StarGraph.open();
+    }
+
+    public Vertex vertex(final Object id) {
+        return vertex(id, Vertex.DEFAULT_LABEL);
+    }
+
+    public Vertex vertex(final Object id, final String label) {
+        final Iterator<Vertex> vertices = graph.vertices(id);
+        return vertices.hasNext() ? vertices.next() : graph.addVertex(T.id, id, T.label, label);
+    }
+
+    public Edge edge(final Vertex out, final Vertex in) {
+        return edge(out, in, Edge.DEFAULT_LABEL);
+    }
+
+    public Edge edge(final Vertex out, final Vertex in, final String label) {
+        return out.addEdge(label, in);
+    }
+}
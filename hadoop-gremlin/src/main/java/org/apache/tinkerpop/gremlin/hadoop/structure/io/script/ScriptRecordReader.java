@@ -26,35 +26,38 @@ import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.LineRecordReader;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
-import org.apache.tinkerpop.gremlin.structure.Edge;
-import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
-import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
 
-import javax.script.Bindings;
-import javax.script.ScriptEngine;
+import javax.script.Invocable;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.Iterator;
 
 /**
+ * Reads a {@link VertexWritable} for every line of the input split.  Lines are converted with a {@link LineParser}
+ * which is either a Java class configured with {@link #PARSER_CLASS} or the {@code parse()} function of the script
+ * configured with {@link #SCRIPT_FILE}.  The script is evaluated once per split and its {@code parse()} function is
+ * then invoked directly for each line, so there is no per-line script compilation or bindings overhead.
+ *
  * @author Daniel Kuppitz (http://gremlin.guru)
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class ScriptRecordReader extends RecordReader<NullWritable, VertexWritable> {
 
     protected final static String SCRIPT_FILE = "gremlin.hadoop.scriptInputFormat.script";
+    protected final static String PARSER_CLASS = "gremlin.hadoop.scriptInputFormat.parser";
     //protected final static String SCRIPT_ENGINE = "gremlin.hadoop.scriptInputFormat.scriptEngine";
-    private final static String LINE = "line";
-    private final static String FACTORY = "factory";
-    private final static String READ_CALL = "parse(" + LINE + "," + FACTORY + ")";
+    private final static String PARSE = "parse";
     private final VertexWritable vertexWritable = new VertexWritable();
     private final LineRecordReader lineRecordReader;
-    private ScriptEngine engine;
+    private LineParser parser;
+    private GraphFilter graphFilter;
 
     public ScriptRecordReader() {
         this.lineRecordReader = new LineRecordReader();
@@ -64,31 +67,23 @@ public final class ScriptRecordReader extends RecordReader<NullWritable, VertexW
     public void initialize(final InputSplit genericSplit, final TaskAttemptContext context) throws IOException {
         this.lineRecordReader.initialize(genericSplit, context);
         final Configuration configuration = context.getConfiguration();
-        this.engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(), null, Integer.MAX_VALUE);
-        //this.engine = ScriptEngineCache.get(configuration.get(SCRIPT_ENGINE, ScriptEngineCache.DEFAULT_SCRIPT_ENGINE));
-        final FileSystem fs = FileSystem.get(configuration);
-        try {
-            this.engine.eval(new InputStreamReader(fs.open(new Path(configuration.get(SCRIPT_FILE)))));
-        } catch (final ScriptException e) {
-            throw new IOException(e.getMessage(), e);
-        }
+        final Class<? extends LineParser> parserClass = configuration.getClass(PARSER_CLASS, null, LineParser.class);
+        this.parser = null == parserClass ?
+                createScriptParser(configuration) :
+                ReflectionUtils.newInstance(parserClass, configuration);
+        this.graphFilter = GraphFilter.loadState(ConfUtil.makeApacheConfiguration(configuration));
     }
 
     @Override
     public boolean nextKeyValue() throws IOException {
         while (true) {
             if (!this.lineRecordReader.nextKeyValue()) return false;
-            try {
-                final Bindings bindings = this.engine.createBindings();
-                bindings.put(LINE, this.lineRecordReader.getCurrentValue().toString());
-                bindings.put(FACTORY, new ScriptElementFactory());
-                final Vertex vertex = (Vertex) engine.eval(READ_CALL, bindings);
-                if (vertex != null) {
-                    this.vertexWritable.set(vertex);
-                    return true;
-                }
-            } catch (final ScriptException e) {
-                throw new IOException(e.getMessage(), e);
+            final Vertex vertex = this.parser.parse(this.lineRecordReader.getCurrentValue().toString(), new ScriptElementFactory());
+            if (vertex != null) {
+                this.vertexWritable.set(vertex);
+                if (!this.graphFilter.allowsAll())
+                    this.vertexWritable.get().applyGraphFilter(this.graphFilter);
+                return true;
             }
         }
     }
@@ -113,29 +108,21 @@ public final class ScriptRecordReader extends RecordReader<NullWritable, VertexW
         this.lineRecordReader.close();
     }
 
-    protected class ScriptElementFactory {
-
-        private final StarGraph graph;
-
-        public ScriptElementFactory() {
-            this.graph = StarGraph.open();
-        }
-
-        public Vertex vertex(final Object id) {
-            return vertex(id, Vertex.DEFAULT_LABEL);
-        }
-
-        public Vertex vertex(final Object id, final String label) {
-            final Iterator<Vertex> vertices = graph.vertices(id);
-            return vertices.hasNext() ? vertices.next() : graph.addVertex(T.id, id, T.label, label);
-        }
-
-        public Edge edge(final Vertex out, final Vertex in) {
-            return edge(out, in, Edge.DEFAULT_LABEL);
-        }
-
-        public Edge edge(final Vertex out, final Vertex in, final String label) {
-            return out.addEdge(label, in);
+    private static LineParser createScriptParser(final Configuration configuration) throws IOException {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(), null, Integer.MAX_VALUE);
+        final FileSystem fs = FileSystem.get(configuration);
+        try {
+            engine.eval(new InputStreamReader(fs.open(new Path(configuration.get(SCRIPT_FILE)))));
+        } catch (final ScriptException e) {
+            throw new IOException(e.getMessage(), e);
         }
+        final Invocable invocable = engine;
+        return (line, factory) -> {
+            try {
+                return (Vertex) invocable.invokeFunction(PARSE, line, factory);
+            } catch (final Exception e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        };
     }
 }
@@ -24,12 +24,12 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
 
-import javax.script.Bindings;
-import javax.script.ScriptEngine;
+import javax.script.Invocable;
 import javax.script.ScriptException;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -37,18 +37,23 @@ import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 
 /**
+ * Writes each {@link VertexWritable} as a line of text.  Vertices are converted with a {@link VertexStringifier}
+ * which is either a Java class configured with {@link #STRINGIFIER_CLASS} or the {@code stringify()} function of the
+ * script configured with {@link #SCRIPT_FILE}.  The script is evaluated once and its {@code stringify()} function is
+ * then invoked directly for each vertex.
+ *
  * @author Daniel Kuppitz (http://gremlin.guru)
  */
 public final class ScriptRecordWriter extends RecordWriter<NullWritable, VertexWritable> {
 
     protected final static String SCRIPT_FILE = "gremlin.hadoop.scriptOutputFormat.script";
     protected final static String SCRIPT_ENGINE = "gremlin.hadoop.scriptOutputFormat.scriptEngine";
-    private final static String VERTEX = "vertex";
-    private final static String WRITE_CALL = "stringify(" + VERTEX + ")";
+    protected final static String STRINGIFIER_CLASS = "gremlin.hadoop.scriptOutputFormat.stringifier";
+    private final static String STRINGIFY = "stringify";
     private final static String UTF8 = "UTF-8";
     private final static byte[] NEWLINE;
     private final DataOutputStream out;
-    private final ScriptEngine engine;
+    private final VertexStringifier stringifier;
 
     static {
         try {
@@ -61,29 +66,19 @@ public final class ScriptRecordWriter extends RecordWriter<NullWritable, VertexW
     public ScriptRecordWriter(final DataOutputStream out, final TaskAttemptContext context) throws IOException {
         this.out = out;
         final Configuration configuration = context.getConfiguration();
-        this.engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(), null, Integer.MAX_VALUE);
-        //this.engine = ScriptEngineCache.get(configuration.get(SCRIPT_ENGINE, ScriptEngineCache.DEFAULT_SCRIPT_ENGINE));
-        final FileSystem fs = FileSystem.get(configuration);
-        try {
-            this.engine.eval(new InputStreamReader(fs.open(new Path(configuration.get(SCRIPT_FILE)))));
-        } catch (final ScriptException e) {
-            throw new IOException(e.getMessage(),e);
-        }
+        final Class<? extends VertexStringifier> stringifierClass = configuration.getClass(STRINGIFIER_CLASS, null, VertexStringifier.class);
+        this.stringifier = null == stringifierClass ?
+                createScriptStringifier(configuration) :
+                ReflectionUtils.newInstance(stringifierClass, configuration);
     }
 
     @Override
     public void write(final NullWritable key, final VertexWritable vertex) throws IOException {
         if (null != vertex) {
-            try {
-                final Bindings bindings = this.engine.createBindings();
-                bindings.put(VERTEX, vertex.get());
-                final String line = (String) engine.eval(WRITE_CALL, bindings);
-                if (line != null) {
-                    this.out.write(line.getBytes(UTF8));
-                    this.out.write(NEWLINE);
-                }
-            } catch (final ScriptException e) {
-                throw new IOException(e.getMessage(), e);
+            final String line = this.stringifier.stringify(vertex.get());
+            if (line != null) {
+                this.out.write(line.getBytes(UTF8));
+                this.out.write(NEWLINE);
             }
         }
     }
@@ -92,4 +87,22 @@ public final class ScriptRecordWriter extends RecordWriter<NullWritable, VertexW
     public synchronized void close(TaskAttemptContext context) throws IOException {
         this.out.close();
     }
+
+    private static VertexStringifier createScriptStringifier(final Configuration configuration) throws IOException {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(new DefaultImportCustomizerProvider(), null, Integer.MAX_VALUE);
+        final FileSystem fs = FileSystem.get(configuration);
+        try {
+            engine.eval(new InputStreamReader(fs.open(new Path(configuration.get(SCRIPT_FILE)))));
+        } catch (final ScriptException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        final Invocable invocable = engine;
+        return vertex -> {
+            try {
+                return (String) invocable.invokeFunction(STRINGIFY, vertex);
+            } catch (final Exception e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        };
+    }
 }
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.script;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.io.IOException;
+
+/**
+ * Converts a star {@link Vertex} into a single line of text.  {@link ScriptRecordWriter} uses an implementation of
+ * this interface for every vertex it writes.  It can either be a plain Java class configured with
+ * {@code gremlin.hadoop.scriptOutputFormat.stringifier} (no script engine is created in that case) or the
+ * {@code stringify()} function of the script configured with {@code gremlin.hadoop.scriptOutputFormat.script}.
+ * <p/>
+ * Java implementations must have a public no-arg constructor.
+ */
+public interface VertexStringifier {
+
+    /**
+     * Convert the vertex to a line of text (without the trailing line separator).
+     *
+     * @param vertex the vertex to write
+     * @return the line to write or {@code null} if the vertex should be skipped
+     */
+    public String stringify(final Vertex vertex) throws IOException;
+}
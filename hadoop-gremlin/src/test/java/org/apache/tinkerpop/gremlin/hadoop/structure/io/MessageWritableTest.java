@@ -0,0 +1,76 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one
+ *  * or more contributor license agreements.  See the NOTICE file
+ *  * distributed with this work for additional information
+ *  * regarding copyright ownership.  The ASF licenses this file
+ *  * to you under the Apache License, Version 2.0 (the
+ *  * "License"); you may not use this file except in compliance
+ *  * with the License.  You may obtain a copy of the License at
+ *  *
+ *  * http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing,
+ *  * software distributed under the License is distributed on an
+ *  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  * KIND, either express or implied.  See the License for the
+ *  * specific language governing permissions and limitations
+ *  * under the License.
+ *
+ */
+
+package org.apache.tinkerpop.gremlin.hadoop.structure.io;
+
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MessageWritableTest {
+
+    @Test
+    public void shouldReadAndWriteMessagesBackToBack() throws Exception {
+        final TraverserSet<String> traverserSet = new TraverserSet<>();
+        traverserSet.add(new B_O_Traverser<>("marko", 3l));
+        traverserSet.add(new B_O_Traverser<>("josh", 1l));
+        final List<MessageWritable> messages = Arrays.asList(new MessageWritable<>(traverserSet), MessageWritable.empty(), new MessageWritable<>(1.0d), new MessageWritable<>("stephen"));
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(outputStream);
+        for (final MessageWritable message : messages) {
+            message.write(output);
+        }
+        output.flush();
+
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        for (final MessageWritable message : messages) {
+            final MessageWritable clone = new MessageWritable();
+            clone.readFields(input);
+            assertEquals(message, clone);
+        }
+        assertEquals(0, input.available());
+    }
+
+    @Test
+    public void shouldPreserveTraverserBulks() throws Exception {
+        final TraverserSet<String> traverserSet = new TraverserSet<>();
+        traverserSet.add(new B_O_Traverser<>("marko", 3l));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new MessageWritable<>(traverserSet).write(new DataOutputStream(outputStream));
+        final MessageWritable<TraverserSet<String>> clone = new MessageWritable<>();
+        clone.readFields(new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+        assertEquals(1, clone.get().size());
+        assertEquals("marko", clone.get().peek().get());
+        assertEquals(3l, clone.get().peek().bulk());
+        assertTrue(MessageWritable.empty().isEmpty());
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.tinkerpop.gremlin.hadoop.structure.io;
 
+import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.LocalFileSystem;
 import org.apache.hadoop.fs.Path;
@@ -27,6 +28,8 @@ import org.apache.hadoop.mapreduce.lib.input.FileSplit;
 import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.hadoop.HadoopGraphProvider;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -35,6 +38,7 @@ import org.junit.Test;
 import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -67,6 +71,37 @@ public abstract class RecordReaderWriterTest {
         }
     }
 
+    @Test
+    public void shouldOnlyReadWhatTheGraphFilterAllows() throws Exception {
+        final File testFile = new File(HadoopGraphProvider.PATHS.get(getInputFilename()));
+        final Configuration configuration = configure(TestHelper.makeTestDataPath(getInputFormat(), "hadoop-record-reader-graph-filter-test"));
+        final BaseConfiguration apacheConfiguration = new BaseConfiguration();
+        GraphFilter.none().addPropertyKeys("name").addEdgeLabels(Direction.OUT, "followedBy").storeState(apacheConfiguration);
+        ConfUtil.mergeApacheIntoHadoopConfiguration(apacheConfiguration, configuration);
+
+        final InputFormat inputFormat = ReflectionUtils.newInstance(getInputFormat(), configuration);
+        final TaskAttemptContext job = new TaskAttemptContext(configuration, new TaskAttemptID(UUID.randomUUID().toString(), 0, true, 0, 0));
+        int vertexCount = 0;
+        boolean foundKeyValue = false;
+        for (final FileSplit split : generateFileSplits(testFile, 3)) {
+            final RecordReader reader = inputFormat.createRecordReader(split, job);
+            while (reader.nextKeyValue()) {
+                final Vertex vertex = ((VertexWritable) reader.getCurrentValue()).get();
+                vertexCount++;
+                assertEquals(Collections.singleton("name"), vertex.keys());
+                assertEquals(0, IteratorUtils.count(vertex.edges(Direction.IN)));
+                vertex.edges(Direction.OUT).forEachRemaining(edge -> assertEquals("followedBy", edge.label()));
+                if (vertex.value("name").equals("SUGAR MAGNOLIA")) {
+                    foundKeyValue = true;
+                    assertEquals(IteratorUtils.count(vertex.edges(Direction.OUT, "followedBy")), IteratorUtils.count(vertex.edges(Direction.OUT)));
+                    assertTrue(IteratorUtils.count(vertex.edges(Direction.OUT)) > 0);
+                }
+            }
+        }
+        assertEquals(808, vertexCount);
+        assertTrue(foundKeyValue);
+    }
+
     protected Configuration configure(final File outputDirectory) {
         final Configuration configuration = new Configuration(false);
         configuration.set("fs.file.impl", LocalFileSystem.class.getName());
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.columnar;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.hadoop.HadoopGraphProvider;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo.GryoInputFormat;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ColumnarRecordReaderWriterTest {
+
+    @Test
+    public void shouldReadAllSplitsOfColumnarFile() throws Exception {
+        final File file = writeGratefulDead();
+        for (int numberOfSplits = 1; numberOfSplits < 10; numberOfSplits++) {
+            final Configuration configuration = configure();
+            int vertexCount = 0;
+            int outEdgeCount = 0;
+            int inEdgeCount = 0;
+            boolean foundKeyValue = false;
+            for (final Vertex vertex : readSplits(file, numberOfSplits, configuration)) {
+                vertexCount++;
+                outEdgeCount = outEdgeCount + (int) IteratorUtils.count(vertex.edges(Direction.OUT));
+                inEdgeCount = inEdgeCount + (int) IteratorUtils.count(vertex.edges(Direction.IN));
+                assertEquals(Integer.class, vertex.id().getClass());
+                if (vertex.value("name").equals("SUGAR MAGNOLIA")) {
+                    foundKeyValue = true;
+                    assertEquals(92, IteratorUtils.count(vertex.edges(Direction.OUT)));
+                    assertEquals(77, IteratorUtils.count(vertex.edges(Direction.IN)));
+                    assertTrue(vertex.property("songType").isPresent());
+                }
+            }
+            assertEquals(808, vertexCount);
+            assertEquals(8049, outEdgeCount);
+            assertEquals(8049, inEdgeCount);
+            assertTrue(foundKeyValue);
+        }
+    }
+
+    @Test
+    public void shouldOnlyReadProjectedPropertyKeysAndEdgeLabels() throws Exception {
+        final File file = writeGratefulDead();
+        final Configuration configuration = configure();
+        configuration.set(ColumnarInputFormat.GREMLIN_HADOOP_COLUMNAR_PROPERTY_KEYS, "name");
+        configuration.set(ColumnarInputFormat.GREMLIN_HADOOP_COLUMNAR_EDGE_LABELS, "sungBy");
+        int vertexCount = 0;
+        for (final Vertex vertex : readSplits(file, 3, configuration)) {
+            vertexCount++;
+            assertTrue(vertex.property("name").isPresent());
+            assertFalse(vertex.property("songType").isPresent());
+            assertFalse(vertex.property("performances").isPresent());
+            vertex.edges(Direction.BOTH).forEachRemaining(edge -> assertEquals("sungBy", edge.label()));
+        }
+        assertEquals(808, vertexCount);
+    }
+
+    @Test
+    public void shouldSkipBlocksOutsideOfIdRange() throws Exception {
+        final File file = writeGratefulDead();
+        final Configuration configuration = configure();
+        ColumnarInputFormat.setIdRange(configuration, 1, 10);
+        final Set<Object> ids = new HashSet<>();
+        int vertexCount = 0;
+        for (final Vertex vertex : readSplits(file, 1, configuration)) {
+            vertexCount++;
+            ids.add(vertex.id());
+        }
+        for (int id = 1; id <= 10; id++) {
+            assertTrue(ids.contains(id));
+        }
+        assertTrue(vertexCount < 808);
+    }
+
+    @Test
+    public void shouldSkipAllBlocksWithoutPropertyInRange() throws Exception {
+        final File file = writeGratefulDead();
+        final Configuration configuration = configure();
+        ColumnarInputFormat.setPropertyRange(configuration, "performances", Integer.MAX_VALUE, null);
+        assertTrue(readSplits(file, 2, configuration).isEmpty());
+    }
+
+    @Test
+    public void shouldFailOnBlockWithoutLabelColumn() throws Exception {
+        final File file = TestHelper.generateTempFile(ColumnarRecordReaderWriterTest.class, "no-label", ".gcol");
+        final byte[] sync = new byte[ColumnarBlock.SYNC_LENGTH];
+        try (final DataOutputStream output = new DataOutputStream(new FileOutputStream(file))) {
+            output.write(ColumnarBlock.MAGIC);
+            output.writeByte(ColumnarBlock.VERSION_1);
+            output.write(sync);
+            output.write(sync);
+            // a header of a single vertex with only an (empty) id column
+            output.writeInt(16);
+            output.writeInt(1);
+            output.writeInt(1);
+            output.writeByte(ColumnarBlock.ID);
+            output.writeUTF("");
+            output.writeInt(0);
+            output.writeBoolean(false);
+        }
+        try {
+            readSplits(file, 1, configure());
+            fail("The block is missing its label column");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains("label"));
+        }
+    }
+
+    private static Configuration configure() {
+        final Configuration configuration = new Configuration(false);
+        configuration.set("fs.file.impl", LocalFileSystem.class.getName());
+        configuration.set("fs.default.name", "file:///");
+        configuration.setInt(ColumnarOutputFormat.GREMLIN_HADOOP_COLUMNAR_BLOCK_SIZE, 50);
+        return configuration;
+    }
+
+    private static File writeGratefulDead() throws Exception {
+        final Configuration configuration = configure();
+        final TaskAttemptContext job = new TaskAttemptContext(configuration, new TaskAttemptID(UUID.randomUUID().toString(), 0, true, 0, 0));
+        final File input = new File(HadoopGraphProvider.PATHS.get("grateful-dead.kryo"));
+        final File output = TestHelper.generateTempFile(ColumnarRecordReaderWriterTest.class, "grateful-dead", ".gcol");
+        final RecordWriter<NullWritable, VertexWritable> writer = new ColumnarRecordWriter(new DataOutputStream(new FileOutputStream(output)), configuration);
+        final RecordReader<NullWritable, VertexWritable> reader = new GryoInputFormat().createRecordReader(
+                new FileSplit(new Path(input.getAbsoluteFile().toURI().toString()), 0, input.length(), null), job);
+        while (reader.nextKeyValue()) {
+            writer.write(NullWritable.get(), reader.getCurrentValue());
+        }
+        reader.close();
+        writer.close(job);
+        return output;
+    }
+
+    private static List<Vertex> readSplits(final File file, final int numberOfSplits, final Configuration configuration) throws Exception {
+        final TaskAttemptContext job = new TaskAttemptContext(configuration, new TaskAttemptID(UUID.randomUUID().toString(), 0, true, 0, 0));
+        final long splitLength = file.length() / numberOfSplits + 1;
+        final List<Vertex> vertices = new ArrayList<>();
+        for (long start = 0; start < file.length(); start = start + splitLength) {
+            final RecordReader<NullWritable, VertexWritable> reader = new ColumnarInputFormat().createRecordReader(
+                    new FileSplit(new Path(file.getAbsoluteFile().toURI().toString()), start, splitLength, null), job);
+            float lastProgress = -1f;
+            while (reader.nextKeyValue()) {
+                assertTrue(reader.getProgress() >= lastProgress);
+                lastProgress = reader.getProgress();
+                vertices.add(reader.getCurrentValue().get());
+            }
+            reader.close();
+        }
+        return vertices;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.script;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Same as {@link ScriptRecordReaderWriterTest} but reads with a Java {@link LineParser} instead of a script.
+ */
+public class LineParserRecordReaderWriterTest extends ScriptRecordReaderWriterTest {
+
+    @Override
+    protected Configuration configure(final File outputDirectory) {
+        final Configuration configuration = super.configure(outputDirectory);
+        configuration.setClass(ScriptRecordReader.PARSER_CLASS, GratefulDeadLineParser.class, LineParser.class);
+        return configuration;
+    }
+
+    public static final class GratefulDeadLineParser implements LineParser {
+
+        @Override
+        public Vertex parse(final String line, final ScriptElementFactory factory) throws IOException {
+            final String[] parts = line.split("\t", 3);
+            final String[] vertex = parts[0].split(",", 3);
+            final Vertex v1 = factory.vertex(Integer.valueOf(vertex[0]), vertex[1]);
+            switch (vertex[1]) {
+                case "song":
+                    final String[] properties = vertex[2].split(",");
+                    v1.property("name", properties[0]);
+                    v1.property("songType", properties[1]);
+                    v1.property("performances", Integer.valueOf(properties[2]));
+                    break;
+                case "artist":
+                    v1.property("name", vertex[2]);
+                    break;
+                default:
+                    throw new IOException("Unexpected vertex label: " + vertex[1]);
+            }
+            for (int i = 1; i < parts.length; i++) {
+                final boolean out = i == 1;
+                for (final String edge : parts[i].split("\\|")) {
+                    if (edge.isEmpty()) continue;
+                    final String[] edgeParts = edge.split(",");
+                    final Vertex v2 = factory.vertex(Integer.valueOf(edgeParts[1]));
+                    final Edge e = factory.edge(out ? v1 : v2, out ? v2 : v1, edgeParts[0]);
+                    if (edgeParts.length == 3) e.property("weight", Integer.valueOf(edgeParts[2]));
+                }
+            }
+            return v1;
+        }
+    }
+}